@@ -2,23 +2,29 @@ package org.ovirt.engine.core.bll;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.bll.interfaces.BackendInternal;
 import org.ovirt.engine.core.bll.job.ExecutionHandler;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.BackendService;
 import org.ovirt.engine.core.common.action.ActionType;
 import org.ovirt.engine.core.common.action.RunVmParams;
 import org.ovirt.engine.core.common.businessentities.Snapshot;
+import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.errors.EngineMessage;
@@ -30,6 +36,7 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.dao.SnapshotDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
+import org.ovirt.engine.core.utils.CorrelationIdTracker;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManager;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
@@ -73,6 +80,9 @@ public abstract class AutoStartVmsRunner implements BackendService {
     @Inject
     private SnapshotDao snapshotDao;
 
+    @Inject
+    private SchedulingManager schedulingManager;
+
     /** Records of VMs that need to be started */
     private CopyOnWriteArraySet<AutoStartVmToRestart> autoStartVmsToRestart;
 
@@ -114,6 +124,7 @@ public abstract class AutoStartVmsRunner implements BackendService {
         final DateTime iterationStartTime = DateTime.getNow();
         final Date nextTimeOfRetryToRun = iterationStartTime.addSeconds(RETRY_TO_RUN_AUTO_START_VM_INTERVAL);
         final Date delayedTimeOfRetryToRun = iterationStartTime.addSeconds(DELAY_TO_RUN_AUTO_START_VM_INTERVAL);
+        Map<AutoStartVmToRestart, EngineLock> vmsToStart = new LinkedHashMap<>();
 
         for (AutoStartVmToRestart autoStartVmToRestart : autoStartVmsToRestart) {
             // if it is not the time to try to run the VM yet, skip it for now
@@ -153,12 +164,25 @@ public abstract class AutoStartVmsRunner implements BackendService {
                 continue;
             }
 
-            if (runVm(vmId, runVmLock)) {
+            vmsToStart.put(autoStartVmToRestart, runVmLock);
+        }
+
+        Map<Guid, Guid> placements = planPlacements(vmsToStart.keySet());
+        for (Map.Entry<AutoStartVmToRestart, EngineLock> entry : vmsToStart.entrySet()) {
+            AutoStartVmToRestart autoStartVmToRestart = entry.getKey();
+            Guid vmId = autoStartVmToRestart.getVmId();
+
+            Guid plannedVdsId = placements.get(vmId);
+            if (runVm(vmId, plannedVdsId, entry.getValue())) {
                 // the VM reached WaitForLunch, so from now on this job is not responsible
                 // to auto start it, future failures will be detected by the monitoring
                 vmsToRemove.add(autoStartVmToRestart);
             }
             else {
+                if (plannedVdsId != null) {
+                    // release the resources reserved for the VM on the planned host
+                    schedulingManager.clearPendingVm(vmId);
+                }
                 logFailedAttemptToRestartVm(vmId);
 
                 if (!autoStartVmToRestart.scheduleNextTimeToRun(nextTimeOfRetryToRun)) {
@@ -232,10 +256,34 @@ public abstract class AutoStartVmsRunner implements BackendService {
         return vmDao;
     }
 
-    private boolean runVm(Guid vmId, EngineLock lock) {
+    /**
+     * Plans the hosts of all the VMs that are started together in one scheduling pass, so the hosts picked
+     * for the first VMs are already taken into account when the following VMs are placed. The run locks of
+     * the VMs are already taken, so a failure to plan only leaves the VMs to be scheduled one by one.
+     */
+    private Map<Guid, Guid> planPlacements(Collection<AutoStartVmToRestart> vmsToStart) {
+        if (vmsToStart.size() < 2) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            List<VM> vms = vmDao.getVmsByIds(vmsToStart.stream()
+                    .map(AutoStartVmToRestart::getVmId)
+                    .collect(Collectors.toList()));
+            return schedulingManager.scheduleBatch(vms, CorrelationIdTracker.getCorrelationId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to plan the hosts of the VMs to auto start: {}", e.getMessage());
+            log.debug("Exception", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private boolean runVm(Guid vmId, Guid preferredVdsId, EngineLock lock) {
+        RunVmParams runVmParams = new RunVmParams(vmId);
+        runVmParams.setPreferredVdsId(preferredVdsId);
         return backend.runInternalAction(
                 ActionType.RunVm,
-                new RunVmParams(vmId),
+                runVmParams,
                 ExecutionHandler.createInternalJobContext(lock)).getSucceeded();
     }
 
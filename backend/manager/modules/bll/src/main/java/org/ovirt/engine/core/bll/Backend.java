@@ -71,6 +71,7 @@ import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbConnectionUtil;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogWriter;
 import org.ovirt.engine.core.dal.dbbroker.generic.DBConfigUtils;
 import org.ovirt.engine.core.dal.job.ExecutionMessageDirector;
 import org.ovirt.engine.core.dal.utils.CacheManager;
@@ -271,6 +272,7 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
 
         serviceLoader.load(CpuFlagsManagerHandler.class);
         serviceLoader.load(AuditLogCleanupManager.class);
+        serviceLoader.load(AuditLogWriter.class);
         serviceLoader.load(CommandEntityCleanupManager.class);
 
         serviceLoader.load(TagsDirector.class);
@@ -12,12 +12,15 @@ import org.ovirt.engine.core.common.VdcObjectType;
 import org.ovirt.engine.core.common.action.ActionParametersBase;
 import org.ovirt.engine.core.common.businessentities.ActionGroup;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dao.AuditLogDao;
 
 public class ClearAllAuditLogAlertsCommand<T extends ActionParametersBase> extends CommandBase<T> {
 
     @Inject
     private AuditLogDao auditLogDao;
+    @Inject
+    private AuditLogDirector auditLogDirector;
 
     public ClearAllAuditLogAlertsCommand(T parameters, CommandContext cmdContext) {
         super(parameters, cmdContext);
@@ -30,6 +33,7 @@ public class ClearAllAuditLogAlertsCommand<T extends ActionParametersBase> exten
 
     @Override
     protected void executeCommand() {
+        auditLogDirector.flush();
         auditLogDao.clearAllAlerts();
         setSucceeded(true);
     }
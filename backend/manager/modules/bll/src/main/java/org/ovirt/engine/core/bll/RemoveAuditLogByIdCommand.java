@@ -17,6 +17,7 @@ import org.ovirt.engine.core.common.errors.EngineMessage;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.EventFloodControl;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.EventFloodRegulator;
 import org.ovirt.engine.core.dao.AuditLogDao;
 
@@ -26,6 +27,8 @@ public class RemoveAuditLogByIdCommand<T extends RemoveAuditLogByIdParameters> e
     private AuditLogDirector auditLogDirector;
     @Inject
     private AuditLogDao auditLogDao;
+    @Inject
+    private EventFloodControl eventFloodControl;
     private AuditLog auditLog;
 
     public RemoveAuditLogByIdCommand(T parameters, CommandContext cmdContext) {
@@ -51,8 +54,10 @@ public class RemoveAuditLogByIdCommand<T extends RemoveAuditLogByIdParameters> e
         auditLog.setUserId(Guid.Empty);
         AuditLogableBase logableToClear = new AuditLogableBase(auditLog);
 
-        // clean cache manager entry (if exists)
-        EventFloodRegulator eventFloodRegulator = new EventFloodRegulator(logableToClear, auditLog.getLogType());
+        // stop suppressing the event (if suppressed)
+        EventFloodRegulator eventFloodRegulator = new EventFloodRegulator(logableToClear,
+                auditLog.getLogType(),
+                eventFloodControl);
         eventFloodRegulator.evict();
         setSucceeded(true);
     }
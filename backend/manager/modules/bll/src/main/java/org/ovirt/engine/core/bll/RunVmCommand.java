@@ -175,6 +175,10 @@ public class RunVmCommand<T extends RunVmParams> extends RunVmCommandBase<T>
         // This API needs to be preserved to allow RunOnce overrides,
         // but the Preferred host filtering needs to be done in a Policy Unit
         // only to allow the user to disable it.
+        // The host planned by a batch scheduling pass is preferred, as long as it still passes the filters.
+        if (getParameters().getPreferredVdsId() != null) {
+            return Collections.singletonList(getParameters().getPreferredVdsId());
+        }
         return Collections.emptyList();
     }
 
@@ -83,9 +83,11 @@ import org.ovirt.engine.core.searchbackend.SyntaxContainer;
 import org.ovirt.engine.core.searchbackend.SyntaxError;
 
 public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<P> {
-    private static final HashMap<String, QueryData> queriesCache = new HashMap<>();
     public static final String LDAP = "LDAP";
 
+    @Inject
+    private SearchQueryCache queriesCache;
+
     @Inject
     private QuotaManager quotaManager;
 
@@ -452,9 +454,11 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
             useCache = useCache && !searchText.contains(ASTR);
             if (useCache) {
                 // first lets check the cache of queries.
-                searchKey = String.format("%1$s,%2$s,%3$s", searchText, getParameters().getMaxCount(), getParameters().getCaseSensitive());
+                searchKey = String.format("%1$s,%2$s,%3$s,%4$s,%5$s", searchText, getParameters().getMaxCount(),
+                        getParameters().getCaseSensitive(), getParameters().getSearchFrom(), getParameters().getSearchTo());
                 data = queriesCache.get(searchKey);
                 isExistsValue = data != null;
+                log.debug("Search queries cache: {}", queriesCache);
 
                 if (isExistsValue) {
                     TimeSpan span = DateTime.getNow().subtract(new Date(data.getDate()));
@@ -521,6 +525,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 searchObj.setMaxCount(Math.min(Integer.MAX_VALUE, getParameters().getMaxCount()));
                 // setting FromSearch value
                 searchObj.setSearchFrom(getParameters().getSearchFrom());
+                searchObj.setSearchTo(getParameters().getSearchTo());
                 if (searchObj.getError() != SyntaxError.NO_ERROR) {
                     log.info("ResourceManager::searchBusinessObjects - erroneous search text - ''{}''",
                             searchText);
@@ -0,0 +1,95 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+
+/**
+ * Caches the SQL queries generated from the search strings by {@link SearchQuery}.
+ * <p>
+ * The cache holds at most {@link ConfigValues#SearchQueryCacheSize} queries and evicts the least recently used one
+ * when it is full. It counts its hits, misses and evictions, which are logged by {@link SearchQuery} in debug level.
+ */
+@Singleton
+public class SearchQueryCache {
+
+    private final int maxSize;
+
+    private final Map<String, QueryData> queries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SearchQueryCache() {
+        this(Config.<Integer> getValue(ConfigValues.SearchQueryCacheSize));
+    }
+
+    SearchQueryCache(int maxSize) {
+        this.maxSize = maxSize;
+        queries = new LinkedHashMap<String, QueryData>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueryData> eldest) {
+                boolean evict = size() > SearchQueryCache.this.maxSize;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public QueryData get(String searchKey) {
+        QueryData data;
+        synchronized (queries) {
+            data = queries.get(searchKey);
+        }
+
+        if (data != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return data;
+    }
+
+    public void put(String searchKey, QueryData data) {
+        synchronized (queries) {
+            queries.put(searchKey, data);
+        }
+    }
+
+    public int size() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d, hits=%d, misses=%d, evictions=%d",
+                size(),
+                maxSize,
+                getHits(),
+                getMisses(),
+                getEvictions());
+    }
+}
@@ -1,5 +1,9 @@
 package org.ovirt.engine.core.bll;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -14,6 +18,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.bll.job.ExecutionHandler;
+import org.ovirt.engine.core.bll.scheduling.SchedulingManager;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.BackendService;
 import org.ovirt.engine.core.common.VdcObjectType;
@@ -33,8 +38,8 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmPoolDao;
-import org.ovirt.engine.core.dao.VmStaticDao;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.utils.CorrelationIdTracker;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.slf4j.Logger;
@@ -56,7 +61,7 @@ public class VmPoolMonitor implements BackendService {
     @Inject
     private VmDao vmDao;
     @Inject
-    private VmStaticDao vmStaticDao;
+    private SchedulingManager schedulingManager;
 
     @PostConstruct
     private void init() {
@@ -133,17 +138,48 @@ public class VmPoolMonitor implements BackendService {
                         .selectNonPrestartedVms(vmPool.getVmPoolId(),
                                 (vmId, messages) -> collectVmPrestartFailureReasons(vmId, failureReasons, messages))
                         .iterator();
-        while (failedAttempts < maxFailedAttempts && prestartedVms < numOfVmsToPrestart
-                && iterator.hasNext()) {
-            Guid vmId = iterator.next();
-            if (prestartVm(vmId, !vmPool.isStateful(), vmPool.getName())) {
+        Deque<VmStatic> vmsToPrestart = new ArrayDeque<>();
+        Map<Guid, Guid> placements = Collections.emptyMap();
+        while (failedAttempts < maxFailedAttempts && prestartedVms < numOfVmsToPrestart) {
+            if (vmsToPrestart.isEmpty()) {
+                // Plan the hosts of all the VMs that are still missing in one scheduling pass
+                List<Guid> vmIds = new ArrayList<>();
+                while (vmIds.size() < numOfVmsToPrestart - prestartedVms && iterator.hasNext()) {
+                    vmIds.add(iterator.next());
+                }
+                List<VM> vms = vmIds.isEmpty() ? Collections.emptyList() : vmDao.getVmsByIds(vmIds);
+                vms.forEach(vm -> vmsToPrestart.add(vm.getStaticData()));
+                if (vmsToPrestart.isEmpty()) {
+                    break;
+                }
+                placements = vms.size() > 1
+                        ? schedulingManager.scheduleBatch(vms, CorrelationIdTracker.getCorrelationId())
+                        : Collections.emptyMap();
+            }
+
+            VmStatic vmToPrestart = vmsToPrestart.poll();
+            Guid plannedVdsId = placements.get(vmToPrestart.getId());
+            if (runVmFromPool(vmToPrestart,
+                    !vmPool.isStateful(),
+                    vmPool.getName(),
+                    plannedVdsId)) {
                 prestartedVms++;
                 failedAttempts = 0;
             } else {
+                if (plannedVdsId != null) {
+                    schedulingManager.clearPendingVm(vmToPrestart);
+                }
                 failedAttempts++;
             }
         }
 
+        // release the resources reserved on the planned hosts of the VMs that were not run
+        for (VmStatic vm : vmsToPrestart) {
+            if (placements.containsKey(vm.getId())) {
+                schedulingManager.clearPendingVm(vm);
+            }
+        }
+
         logResultOfPrestartVms(prestartedVms,
                 numOfVmsToPrestart,
                 vmPool.getVmPoolId(),
@@ -188,23 +224,16 @@ public class VmPoolMonitor implements BackendService {
     }
 
     /**
-     * Prestarts the given VM.
+     * Run the given VM as stateless, preferably on the host planned for it.
      * @return whether or not succeeded to prestart the VM
      */
-    private boolean prestartVm(Guid vmGuid, boolean runAsStateless, String poolName) {
-        VmStatic vmToPrestart = vmStaticDao.get(vmGuid);
-        return runVmFromPool(vmToPrestart, runAsStateless, poolName);
-    }
-
-    /**
-     * Run the given VM as stateless.
-     */
-    private boolean runVmFromPool(VmStatic vmToRun, boolean runAsStateless, String poolName) {
+    private boolean runVmFromPool(VmStatic vmToRun, boolean runAsStateless, String poolName, Guid preferredVdsId) {
         log.info("Running VM '{}' as {}", vmToRun.getName(), runAsStateless ? "stateless" : "stateful");
 
         RunVmParams runVmParams = new RunVmParams(vmToRun.getId());
         runVmParams.setEntityInfo(new EntityInfo(VdcObjectType.VM, vmToRun.getId()));
         runVmParams.setRunAsStateless(runAsStateless);
+        runVmParams.setPreferredVdsId(preferredVdsId);
         ActionReturnValue actionReturnValueurnValue = Backend.getInstance().runInternalAction(ActionType.RunVm,
                 runVmParams,
                 ExecutionHandler.createInternalJobContext().withLock(vmPoolHandler.createLock(vmToRun.getId())));
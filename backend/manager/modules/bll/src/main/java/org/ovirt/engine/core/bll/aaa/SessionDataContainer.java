@@ -5,14 +5,14 @@ import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -45,12 +45,50 @@ public class SessionDataContainer {
     private static class SessionInfo {
         private ConcurrentMap<String, Object> contentOfSession = new ConcurrentHashMap<>();
 
+        /**
+         * The earliest time the session is scheduled to be checked for expiration, see {@link #sessionsByExpiry}.
+         */
+        private long scheduledExpiry = Long.MAX_VALUE;
+    }
+
+    /**
+     * A time a session may expire at, the sessions are checked for expiration in the order of these.
+     */
+    private static class SessionExpiry implements Comparable<SessionExpiry> {
+        private final long time;
+        private final String sessionId;
+
+        private SessionExpiry(long time, String sessionId) {
+            this.time = time;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public int compareTo(SessionExpiry other) {
+            int result = Long.compare(time, other.time);
+            return result != 0 ? result : sessionId.compareTo(other.sessionId);
+        }
     }
 
     protected Logger log = LoggerFactory.getLogger(getClass());
 
     private ConcurrentMap<String, SessionInfo> sessionInfoMap = new ConcurrentHashMap<>();
 
+    /*
+     * Indexes of the sessions in sessionInfoMap, updated whenever the indexed session data is set or the session is
+     * removed, so the sessions are found without scanning all of them.
+     */
+    private final ConcurrentMap<Long, String> sessionIdsBySeqId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> sessionIdsBySsoToken = new ConcurrentHashMap<>();
+    private final Set<String> invalidSessionIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The times the sessions are checked for expiration at. The soft limit of a session is extended on every request,
+     * so instead of moving the session here each time, a session whose time has come is checked and scheduled again
+     * by its current limits.
+     */
+    private final ConcurrentSkipListSet<SessionExpiry> sessionsByExpiry = new ConcurrentSkipListSet<>();
+
     private static final String USER_PARAMETER_NAME = "user";
     private static final String SOURCE_IP = "source_ip";
     private static final String PROFILE_PARAMETER_NAME = "profile";
@@ -123,7 +161,101 @@ public class SessionDataContainer {
                 sessionInfo = oldSessionInfo;
             }
         }
-        sessionInfo.contentOfSession.put(key, value);
+        Object oldValue = sessionInfo.contentOfSession.put(key, value);
+        updateIndexes(sessionId, sessionInfo, key, oldValue, value);
+    }
+
+    private void updateIndexes(String sessionId, SessionInfo sessionInfo, String key, Object oldValue, Object value) {
+        switch (key) {
+        case ENGINE_SESSION_SEQ_ID:
+            if (oldValue != null) {
+                sessionIdsBySeqId.remove(oldValue, sessionId);
+            }
+            if (value != null) {
+                sessionIdsBySeqId.put((Long) value, sessionId);
+            }
+            break;
+        case SSO_ACCESS_TOKEN_PARAMETER_NAME:
+            unindexSsoToken(sessionId, (String) oldValue);
+            if (StringUtils.isNotEmpty((String) value)) {
+                sessionIdsBySsoToken.computeIfAbsent((String) value, token -> ConcurrentHashMap.newKeySet())
+                        .add(sessionId);
+            }
+            break;
+        case SESSION_VALID_PARAMETER_NAME:
+            if (Boolean.FALSE.equals(value)) {
+                invalidSessionIds.add(sessionId);
+            } else {
+                invalidSessionIds.remove(sessionId);
+            }
+            break;
+        case HARD_LIMIT_PARAMETER_NAME:
+        case SOFT_LIMIT_PARAMETER_NAME:
+            scheduleExpiry(sessionId, sessionInfo, (Date) value);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void unindexSsoToken(String sessionId, String ssoToken) {
+        if (StringUtils.isNotEmpty(ssoToken)) {
+            sessionIdsBySsoToken.computeIfPresent(ssoToken, (token, sessionIds) -> {
+                sessionIds.remove(sessionId);
+                return sessionIds.isEmpty() ? null : sessionIds;
+            });
+        }
+    }
+
+    private void unindexSession(String sessionId, SessionInfo sessionInfo) {
+        Object seqId = sessionInfo.contentOfSession.get(ENGINE_SESSION_SEQ_ID);
+        if (seqId != null) {
+            sessionIdsBySeqId.remove(seqId, sessionId);
+        }
+        unindexSsoToken(sessionId, (String) sessionInfo.contentOfSession.get(SSO_ACCESS_TOKEN_PARAMETER_NAME));
+        invalidSessionIds.remove(sessionId);
+    }
+
+    /**
+     * Makes sure the session is checked for expiration no later than the given limit.
+     */
+    private void scheduleExpiry(String sessionId, SessionInfo sessionInfo, Date limit) {
+        if (limit == null) {
+            return;
+        }
+        synchronized (sessionInfo) {
+            if (limit.getTime() < sessionInfo.scheduledExpiry) {
+                sessionInfo.scheduledExpiry = limit.getTime();
+                sessionsByExpiry.add(new SessionExpiry(limit.getTime(), sessionId));
+            }
+        }
+    }
+
+    /**
+     * Schedules the session to be checked for expiration by its current limits.
+     */
+    private void rescheduleExpiry(String sessionId, SessionInfo sessionInfo) {
+        synchronized (sessionInfo) {
+            sessionInfo.scheduledExpiry = Long.MAX_VALUE;
+        }
+        scheduleExpiry(sessionId, sessionInfo, (Date) sessionInfo.contentOfSession.get(HARD_LIMIT_PARAMETER_NAME));
+        scheduleExpiry(sessionId, sessionInfo, (Date) sessionInfo.contentOfSession.get(SOFT_LIMIT_PARAMETER_NAME));
+    }
+
+    /**
+     * @return the ids of the sessions which were scheduled to be checked for expiration before the given time
+     */
+    private Set<String> pollSessionsToExpire(Date now) {
+        Set<String> sessionIds = new HashSet<>();
+        Iterator<SessionExpiry> iter = sessionsByExpiry.headSet(new SessionExpiry(now.getTime(), "")).iterator();
+        while (iter.hasNext()) {
+            sessionIds.add(iter.next().sessionId);
+            iter.remove();
+        }
+        // the sessions which don't expire yet or aren't removed by the caller are checked again by their limits
+        sessionIds.removeIf(sessionId -> getSessionInfo(sessionId) == null);
+        sessionIds.forEach(sessionId -> rescheduleExpiry(sessionId, getSessionInfo(sessionId)));
+        return sessionIds;
     }
 
     private SessionInfo getSessionInfo(String sessionId) {
@@ -133,7 +265,8 @@ public class SessionDataContainer {
     private void persistEngineSession(String sessionId) {
         SessionInfo sessionInfo = getSessionInfo(sessionId);
         if (sessionInfo != null) {
-            sessionInfo.contentOfSession.put(ENGINE_SESSION_SEQ_ID,
+            setData(sessionId,
+                    ENGINE_SESSION_SEQ_ID,
                     engineSessionDao.save(new EngineSession(getUser(sessionId, false), sessionId, getSourceIp(sessionId))));
             setSessionStartTime(sessionId);
         }
@@ -147,44 +280,37 @@ public class SessionDataContainer {
     }
 
     public String getSessionIdBySeqId(long sessionSequenceId) {
-        String sessionId = null;
-        for (SessionInfo sessionInfo : sessionInfoMap.values()) {
-            if (Long.valueOf(sessionSequenceId).equals(sessionInfo.contentOfSession.get(ENGINE_SESSION_SEQ_ID))) {
-                sessionId = (String) sessionInfo.contentOfSession.get(ENGINE_SESSION_ID);
-                break;
-            }
-        }
-        return sessionId;
+        return sessionIdsBySeqId.get(sessionSequenceId);
     }
 
     public String getSessionIdBySsoAccessToken(String ssoToken) {
         String sessionId = null;
         if (StringUtils.isNotEmpty(ssoToken)) {
-            for (SessionInfo sessionInfo : sessionInfoMap.values()) {
-                if (ssoToken.equals(sessionInfo.contentOfSession.get(SSO_ACCESS_TOKEN_PARAMETER_NAME))) {
-                    sessionId = (String) sessionInfo.contentOfSession.get(ENGINE_SESSION_ID);
-                    break;
-                }
+            Set<String> sessionIds = sessionIdsBySsoToken.get(ssoToken);
+            if (sessionIds != null) {
+                sessionId = sessionIds.stream().findFirst().orElse(null);
             }
         }
         return sessionId;
     }
 
+    private Set<String> getSessionIdsBySsoAccessToken(String ssoToken) {
+        Set<String> sessionIds = sessionIdsBySsoToken.get(ssoToken);
+        return sessionIds == null ? Collections.emptySet() : new HashSet<>(sessionIds);
+    }
+
     public void cleanupEngineSessionsOnStartup() {
         engineSessionDao.removeAll();
     }
 
     public void cleanupEngineSessionsForSsoAccessToken(String ssoAccessToken) {
         if (StringUtils.isNotEmpty(ssoAccessToken)) {
-            Iterator<Entry<String, SessionInfo>> iter = sessionInfoMap.entrySet().iterator();
-            while (iter.hasNext()) {
-                Entry<String, SessionInfo> entry = iter.next();
-                ConcurrentMap<String, Object> sessionMap = entry.getValue().contentOfSession;
-                if (ssoAccessToken.equals(sessionMap.get(SSO_ACCESS_TOKEN_PARAMETER_NAME))) {
-                    removeSessionImpl(entry.getKey(),
+            for (String sessionId : getSessionIdsBySsoAccessToken(ssoAccessToken)) {
+                if (isSessionExists(sessionId)) {
+                    removeSessionImpl(sessionId,
                             Acct.ReportReason.PRINCIPAL_SESSION_EXPIRED,
                             "Session has expired for principal %1$s",
-                            getUserName(entry.getKey()));
+                            getUserName(sessionId));
                 }
             }
         }
@@ -205,20 +331,31 @@ public class SessionDataContainer {
 
     /**
      * Will run the process of cleaning expired sessions.
+     * <p>
+     * Only the sessions which may have expired are checked: the ones whose time to be checked for expiration has
+     * come, the ones marked as invalid and the ones whose SSO token isn't valid anymore.
      */
     @OnTimerMethodAnnotation("cleanExpiredUsersSessions")
     public final void cleanExpiredUsersSessions() {
         Date now = new Date();
-        Iterator<Entry<String, SessionInfo>>  iter = sessionInfoMap.entrySet().iterator();
-        Set<String> tokens = sessionInfoMap.values().stream()
-                .map(sessionInfo -> (String) sessionInfo.contentOfSession.get(SSO_ACCESS_TOKEN_PARAMETER_NAME))
-                .collect(Collectors.toSet());
+        Set<String> tokens = new HashSet<>(sessionIdsBySsoToken.keySet());
         // retrieve session statues from SSO
         Map<String, Boolean> sessionStatuses = ssoSessionValidator.getSessionStatuses(tokens);
 
-        while (iter.hasNext()) {
-            Entry<String, SessionInfo> entry = iter.next();
-            ConcurrentMap<String, Object> sessionMap = entry.getValue().contentOfSession;
+        Set<String> sessionIds = pollSessionsToExpire(now);
+        sessionIds.addAll(invalidSessionIds);
+        sessionStatuses.forEach((token, valid) -> {
+            if (!Boolean.TRUE.equals(valid)) {
+                sessionIds.addAll(getSessionIdsBySsoAccessToken(token));
+            }
+        });
+
+        for (String sessionId : sessionIds) {
+            SessionInfo sessionInfo = getSessionInfo(sessionId);
+            if (sessionInfo == null) {
+                continue;
+            }
+            ConcurrentMap<String, Object> sessionMap = sessionInfo.contentOfSession;
             Date hardLimit = (Date) sessionMap.get(HARD_LIMIT_PARAMETER_NAME);
             Date softLimit = (Date) sessionMap.get(SOFT_LIMIT_PARAMETER_NAME);
             String token = (String) sessionMap.get(SSO_ACCESS_TOKEN_PARAMETER_NAME);
@@ -232,10 +369,10 @@ public class SessionDataContainer {
             if (((hardLimit != null && hardLimit.before(now)) || (softLimit != null && softLimit.before(now))) ||
                     !(boolean) sessionMap.get(SESSION_VALID_PARAMETER_NAME) ||
                     !sessionValid) {
-                removeSessionImpl(entry.getKey(),
+                removeSessionImpl(sessionId,
                         Acct.ReportReason.PRINCIPAL_SESSION_EXPIRED,
                         "Session has expired for principal %1$s",
-                        getUserName(entry.getKey()));
+                        getUserName(sessionId));
                 if (sessionValid) {
                    SsoOAuthServiceUtils.revoke((String) sessionMap.get(SSO_ACCESS_TOKEN_PARAMETER_NAME), "");
                 }
@@ -382,8 +519,9 @@ public class SessionDataContainer {
     private void refresh(SessionInfo sessionInfo) {
         int softLimitValue = (Integer) sessionInfo.contentOfSession.get(SOFT_LIMIT_INTERVAL_PARAMETER_NAME);
         if (softLimitValue > 0) {
-            sessionInfo.contentOfSession.put(SOFT_LIMIT_PARAMETER_NAME,
-                    DateUtils.addMinutes(new Date(), softLimitValue));
+            Date softLimit = DateUtils.addMinutes(new Date(), softLimitValue);
+            sessionInfo.contentOfSession.put(SOFT_LIMIT_PARAMETER_NAME, softLimit);
+            scheduleExpiry((String) sessionInfo.contentOfSession.get(ENGINE_SESSION_ID), sessionInfo, softLimit);
         }
     }
 
@@ -417,7 +555,10 @@ public class SessionDataContainer {
                 msgArgs
                 );
         engineSessionDao.remove(getEngineSessionSeqId(sessionId));
-        sessionInfoMap.remove(sessionId);
+        SessionInfo sessionInfo = sessionInfoMap.remove(sessionId);
+        if (sessionInfo != null) {
+            unindexSession(sessionId, sessionInfo);
+        }
     }
 
     class SsoSessionValidator {
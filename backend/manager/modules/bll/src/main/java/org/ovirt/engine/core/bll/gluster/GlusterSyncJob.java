@@ -10,6 +10,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -62,6 +66,7 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dao.gluster.GlusterDBUtils;
 import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.slf4j.Logger;
@@ -109,19 +114,42 @@ public class GlusterSyncJob extends GlusterJob {
     @OnTimerMethodAnnotation("refreshLightWeightData")
     public void refreshLightWeightData() {
         log.debug("Refreshing Gluster Data [lightweight]");
-        List<Cluster> clusters = clusterDao.getAll();
+        refreshClusters(clusterDao.getAll(), this::refreshClusterData, "lightweight");
+    }
 
-        for (Cluster cluster : clusters) {
-            if (cluster.supportsGlusterService()) {
-                try {
-                    refreshClusterData(cluster);
-                } catch (Exception e) {
-                    log.error("Error while refreshing Gluster lightweight data of cluster '{}': {}",
-                            cluster.getName(),
-                            e.getMessage());
-                    log.debug("Exception", e);
-                }
+    /**
+     * Refreshes the data of the clusters that support the gluster service. Each cluster is refreshed by the commands
+     * run on its own servers and under its own lock, hence the clusters are refreshed in parallel by the engine thread
+     * pool, so that a cluster with slow or unresponsive servers doesn't delay the refresh of the other clusters.
+     */
+    private void refreshClusters(List<Cluster> clusters, Consumer<Cluster> refresh, String dataType) {
+        List<Cluster> glusterClusters = clusters.stream()
+                .filter(Cluster::supportsGlusterService)
+                .collect(Collectors.toList());
+
+        if (glusterClusters.size() == 1) {
+            refreshCluster(glusterClusters.get(0), refresh, dataType);
+        } else if (!glusterClusters.isEmpty()) {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (Cluster cluster : glusterClusters) {
+                tasks.add(() -> {
+                    refreshCluster(cluster, refresh, dataType);
+                    return null;
+                });
             }
+            ThreadPoolUtil.invokeAll(tasks);
+        }
+    }
+
+    private void refreshCluster(Cluster cluster, Consumer<Cluster> refresh, String dataType) {
+        try {
+            refresh.accept(cluster);
+        } catch (Exception e) {
+            log.error("Error while refreshing Gluster {} data of cluster '{}': {}",
+                    dataType,
+                    cluster.getName(),
+                    e.getMessage());
+            log.debug("Exception", e);
         }
     }
 
@@ -455,11 +483,15 @@ public class GlusterSyncJob extends GlusterJob {
                 return;
             }
 
+            // the volumes of the cluster are read at once, instead of one by one while comparing them
+            Map<Guid, GlusterVolumeEntity> existingVolumesMap = volumeDao.getByClusterId(cluster.getId()).stream()
+                    .collect(Collectors.toMap(GlusterVolumeEntity::getId, Function.identity()));
+
             // remove deleted volumes must happen before adding new ones,
             // to handle cases where user deleted a volume and created a
             // new one with same name in a very short time
-            removeDeletedVolumes(cluster.getId(), volumesMap);
-            updateExistingAndNewVolumes(cluster.getId(), volumesMap);
+            removeDeletedVolumes(cluster.getId(), existingVolumesMap.values(), volumesMap);
+            updateExistingAndNewVolumes(cluster.getId(), existingVolumesMap, volumesMap);
         } finally {
             releaseLock(cluster.getId());
         }
@@ -494,9 +526,11 @@ public class GlusterSyncJob extends GlusterJob {
         return result.getSucceeded() ? (Map<Guid, GlusterVolumeEntity>) result.getReturnValue() : null;
     }
 
-    private void removeDeletedVolumes(Guid clusterId, Map<Guid, GlusterVolumeEntity> volumesMap) {
+    private void removeDeletedVolumes(Guid clusterId,
+            Collection<GlusterVolumeEntity> existingVolumes,
+            Map<Guid, GlusterVolumeEntity> volumesMap) {
         List<Guid> idsToRemove = new ArrayList<>();
-        for (GlusterVolumeEntity volume : volumeDao.getByClusterId(clusterId)) {
+        for (GlusterVolumeEntity volume : existingVolumes) {
             if (!volumesMap.containsKey(volume.getId())) {
                 idsToRemove.add(volume.getId());
                 log.debug("Volume '{}' has been removed directly using the gluster CLI. Removing it from engine as well.",
@@ -521,14 +555,16 @@ public class GlusterSyncJob extends GlusterJob {
         }
     }
 
-    private void updateExistingAndNewVolumes(Guid clusterId, Map<Guid, GlusterVolumeEntity> volumesMap) {
+    private void updateExistingAndNewVolumes(Guid clusterId,
+            Map<Guid, GlusterVolumeEntity> existingVolumesMap,
+            Map<Guid, GlusterVolumeEntity> volumesMap) {
         Cluster cluster = clusterDao.get(clusterId);
 
         for (Entry<Guid, GlusterVolumeEntity> entry : volumesMap.entrySet()) {
             GlusterVolumeEntity volume = entry.getValue();
             log.debug("Analyzing volume '{}'", volume.getName());
 
-            GlusterVolumeEntity existingVolume = volumeDao.getById(entry.getKey());
+            GlusterVolumeEntity existingVolume = existingVolumesMap.get(entry.getKey());
             if (existingVolume == null) {
                 try {
                     createVolume(volume);
@@ -912,19 +948,7 @@ public class GlusterSyncJob extends GlusterJob {
     @OnTimerMethodAnnotation("refreshHeavyWeightData")
     public void refreshHeavyWeightData() {
         log.debug("Refreshing Gluster Data [heavyweight]");
-
-        for (Cluster cluster : clusterDao.getAll()) {
-            if (cluster.supportsGlusterService()) {
-                try {
-                    refreshClusterHeavyWeightData(cluster);
-                } catch (Exception e) {
-                    log.error("Error while refreshing Gluster heavyweight data of cluster '{}': {}",
-                            cluster.getName(),
-                            e.getMessage());
-                    log.debug("Exception", e);
-                }
-            }
-        }
+        refreshClusters(clusterDao.getAll(), this::refreshClusterHeavyWeightData, "heavyweight");
     }
 
     private void refreshClusterHeavyWeightData(Cluster cluster) {
@@ -1,10 +1,7 @@
 package org.ovirt.engine.core.bll.lock;
 
-import java.lang.management.ManagementFactory;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -14,17 +11,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
-import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
-import javax.ejb.ConcurrencyManagement;
-import javax.ejb.ConcurrencyManagementType;
-import javax.ejb.Local;
-import javax.ejb.Singleton;
-import javax.ejb.Startup;
-import javax.ejb.TransactionAttribute;
-import javax.ejb.TransactionAttributeType;
-import javax.management.MBeanServer;
-import javax.management.ObjectName;
+import javax.enterprise.inject.Alternative;
 
 import org.ovirt.engine.core.common.errors.EngineMessage;
 import org.ovirt.engine.core.common.locks.LockInfo;
@@ -35,13 +22,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The following class an implementation of internal locking mechanism
+ * The following class an implementation of internal locking mechanism which guards all the locks with one global
+ * lock. The engine uses {@link StripedLockManager}, this implementation is kept as its reference.
  */
-@Startup
-@Singleton(name = "LockManager")
-@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
-@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
-@Local(LockManager.class)
+@Alternative
 public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBean {
 
     private static final Pair<Boolean, Set<String>> LOCK_INSERT_SUCCESS_RESULT = new Pair<>(Boolean.TRUE, Collections.<String>emptySet());
@@ -52,30 +36,8 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     /** A condition which is used in order to notify for waiting threads that some lock was released**/
     private final Condition releasedLock = globalLock.newCondition();
 
-    private MBeanServer platformMBeanServer;
-    private ObjectName objectName = null;
     private static final Logger log = LoggerFactory.getLogger(InMemoryLockManager.class);
 
-    @PostConstruct
-    public void registerInJMX() {
-        try {
-            objectName = new ObjectName("InMemoryLockManager:type=" + this.getClass().getName());
-            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
-            platformMBeanServer.registerMBean(this, objectName);
-        } catch (Exception e) {
-            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
-        }
-    }
-
-    @PreDestroy
-    public void unregisterFromJMX() {
-        try {
-            platformMBeanServer.unregisterMBean(this.objectName);
-        } catch (Exception e) {
-            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
-        }
-    }
-
     @Override
     public Pair<Boolean, Set<String>> acquireLock(EngineLock lock) {
         log.debug("Before acquiring lock '{}'", lock);
@@ -320,62 +282,4 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
         return new LockInfo(internalLockView.getExclusive(), messages);
     }
-
-    /**
-     * The following class represents different locks which are kept inside InMemoryLockManager
-     */
-    private static class InternalLockView {
-
-        /** Number for shared locks **/
-        private int count;
-        /** Indicate if the lock is exclusive and not allowing any other exclusive/shared locks with the same key **/
-        private final boolean exclusive;
-        /** Contains error messages for that key **/
-        private List<String> messages;
-
-        public InternalLockView(int count, String message, boolean exclusive) {
-            this.count = count;
-            this.exclusive = exclusive;
-            messages = new ArrayList<>();
-            messages.add(message);
-        }
-
-        public boolean getExclusive() {
-            return exclusive;
-        }
-
-        public int getCount() {
-            return count;
-        }
-
-        public void increaseCount() {
-            count++;
-        }
-
-        public void decreaseCount() {
-            count--;
-        }
-
-        public Set<String> getMessages() {
-            return new HashSet<>(messages);
-        }
-
-        public void addMessage(String message) {
-            messages.add(message);
-        }
-
-        public void removeMessage(String message) {
-            if (message != null) {
-                messages.remove(message);
-            }
-        }
-
-        @Override
-        public String toString() {
-            if(exclusive) {
-                return "The lock is exclusive";
-            }
-            return "The lock is shared and a number of shared locks is " + count;
-        }
-    }
 }
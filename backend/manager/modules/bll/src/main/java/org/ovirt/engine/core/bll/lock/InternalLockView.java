@@ -0,0 +1,64 @@
+package org.ovirt.engine.core.bll.lock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The following class represents different locks which are kept inside InMemoryLockManager and StripedLockManager
+ */
+class InternalLockView {
+
+    /** Number for shared locks **/
+    private int count;
+    /** Indicate if the lock is exclusive and not allowing any other exclusive/shared locks with the same key **/
+    private final boolean exclusive;
+    /** Contains error messages for that key **/
+    private List<String> messages;
+
+    public InternalLockView(int count, String message, boolean exclusive) {
+        this.count = count;
+        this.exclusive = exclusive;
+        messages = new ArrayList<>();
+        messages.add(message);
+    }
+
+    public boolean getExclusive() {
+        return exclusive;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void increaseCount() {
+        count++;
+    }
+
+    public void decreaseCount() {
+        count--;
+    }
+
+    public Set<String> getMessages() {
+        return new HashSet<>(messages);
+    }
+
+    public void addMessage(String message) {
+        messages.add(message);
+    }
+
+    public void removeMessage(String message) {
+        if (message != null) {
+            messages.remove(message);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if(exclusive) {
+            return "The lock is exclusive";
+        }
+        return "The lock is shared and a number of shared locks is " + count;
+    }
+}
@@ -0,0 +1,504 @@
+package org.ovirt.engine.core.bll.lock;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Local;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.locks.LockInfo;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.lock.LockManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The following class is an implementation of the internal locking mechanism which keeps the same semantics as
+ * {@link InMemoryLockManager}, but spreads the lock keys over a fixed number of stripes instead of guarding all of
+ * them with one global lock. Every stripe has its own mutex, its own part of the key space and a condition per key
+ * that is being waited on, so releasing a lock wakes only the threads which are waiting for that specific key.
+ * <p>
+ * Operations which touch several keys lock all the involved stripes in ascending order, which keeps the
+ * all-or-nothing acquisition of an {@link EngineLock} and prevents dead locks between concurrent callers.
+ */
+@Startup
+@Singleton(name = "LockManager")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+@Local(LockManager.class)
+public class StripedLockManager implements LockManager, LockManagerMonitorMXBean {
+
+    private static final Pair<Boolean, Set<String>> LOCK_INSERT_SUCCESS_RESULT = new Pair<>(Boolean.TRUE, Collections.<String>emptySet());
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+    private static final Logger log = LoggerFactory.getLogger(StripedLockManager.class);
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName = null;
+
+    public StripedLockManager() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param concurrencyLevel
+     *            - the expected number of concurrently used stripes, rounded up to the nearest power of two
+     */
+    public StripedLockManager(int concurrencyLevel) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive");
+        }
+        int size = Integer.highestOneBit(concurrencyLevel);
+        if (size < concurrencyLevel) {
+            size <<= 1;
+        }
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = size - 1;
+    }
+
+    @PostConstruct
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("InMemoryLockManager:type=" + this.getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during registration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            platformMBeanServer.unregisterMBean(this.objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Problem during unregistration of Monitoring into JMX:" + e);
+        }
+    }
+
+    @Override
+    public Pair<Boolean, Set<String>> acquireLock(EngineLock lock) {
+        log.debug("Before acquiring lock '{}'", lock);
+        return acquireLockInternal(lock).toPair();
+    }
+
+    @Override
+    public void acquireLockWait(EngineLock lock) {
+        log.debug("Before acquiring and wait lock '{}'", lock);
+        validateLockForAcquireAndWait(lock);
+        try {
+            AcquireResult result = acquireLockInternal(lock);
+            while (!result.isSucceeded()) {
+                log.info("Failed to acquire lock and wait lock '{}'", lock);
+                awaitRelease(result.getBlockingKey());
+                result = acquireLockInternal(lock);
+            }
+        } catch (InterruptedException ignore) {
+
+        }
+    }
+
+    private void validateLockForAcquireAndWait(EngineLock lock) {
+        if (lock.getSharedLocks() != null && lock.getExclusiveLocks().size() > 1) {
+            log.error("Trying to acquire or wait on shared or more than one exclussive locks '{}'", lock);
+            throw new IllegalArgumentException("Trying to acquire or wait on shared or more than one exclussive locks");
+        }
+    }
+
+    @Override
+    public void releaseLock(EngineLock lock) {
+        log.debug("Before releasing a lock '{}'", lock);
+        int[] indexes = stripeIndexes(lock);
+        lockStripes(indexes);
+        try {
+            if (lock.getSharedLocks() != null) {
+                for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
+                    String key = buildHashMapKey(entry);
+                    Stripe stripe = stripeFor(key);
+                    stripe.releaseSharedLock(key, entry.getValue().getSecond());
+                    stripe.signalWaiters(key);
+                }
+            }
+            if (lock.getExclusiveLocks() != null) {
+                for (Entry<String, Pair<String, String>> entry : lock.getExclusiveLocks().entrySet()) {
+                    String key = buildHashMapKey(entry);
+                    Stripe stripe = stripeFor(key);
+                    stripe.releaseExclusiveLock(key);
+                    stripe.signalWaiters(key);
+                }
+            }
+        } finally {
+            unlockStripes(indexes);
+        }
+    }
+
+    @Override
+    public void clear() {
+        log.warn("Cleaning all in memory locks");
+        int[] indexes = IntStream.range(0, stripes.length).toArray();
+        lockStripes(indexes);
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.locks.clear();
+                stripe.signalAllWaiters();
+            }
+        } finally {
+            unlockStripes(indexes);
+        }
+    }
+
+    @Override
+    public boolean releaseLock(String lockId) {
+        log.warn("The following lock is going to be released via external call, lockId '{}', error message can be"
+                + " left for shared lock",
+                lockId);
+        Stripe stripe = stripeFor(lockId);
+        stripe.mutex.lock();
+        try {
+            InternalLockView lock = stripe.locks.get(lockId);
+            if (lock == null) {
+                log.warn("Lock with id '{}' does not exist and can not be released via external call", lockId);
+                return false;
+            }
+            if (lock.getExclusive()) {
+                stripe.releaseExclusiveLock(lockId);
+            } else {
+                stripe.releaseSharedLock(lockId, null);
+            }
+            stripe.signalWaiters(lockId);
+        } finally {
+            stripe.mutex.unlock();
+        }
+        log.warn("Lock '{}' was released via external call", lockId);
+        return true;
+    }
+
+    @Override
+    public List<String> showAllLocks() {
+        log.debug("All in memory locks will be shown");
+        List<String> descriptions = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.mutex.lock();
+            try {
+                for (Entry<String, InternalLockView> entry : stripe.locks.entrySet()) {
+                    descriptions.add(createLockDescription(entry));
+                }
+            } finally {
+                stripe.mutex.unlock();
+            }
+        }
+        log.debug("All in memory locks were shown");
+        return descriptions;
+    }
+
+    @Override
+    public LockInfo getLockInfo(String key) {
+        Stripe stripe = stripeFor(key);
+        boolean exclusive;
+        Set<String> messages;
+        stripe.mutex.lock();
+        try {
+            InternalLockView internalLockView = stripe.locks.get(key);
+            if (internalLockView == null) {
+                return null;
+            }
+            exclusive = internalLockView.getExclusive();
+            messages = internalLockView.getMessages();
+        } finally {
+            stripe.mutex.unlock();
+        }
+
+        messages.remove(EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED.name());
+        if (messages.isEmpty()) {
+            // EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED should only be used for
+            // short locks (locks for the execute phase) so we filter it and if no
+            // other lock exists, the entity should be displayed as unlocked
+            return null;
+        }
+
+        return new LockInfo(exclusive, messages);
+    }
+
+    private String createLockDescription(Entry<String, InternalLockView> e) {
+        return new StringBuilder("The object id is : ")
+                .append(e.getKey())
+                .append(' ')
+                .append(e.getValue()).toString();
+    }
+
+    /**
+     * Internal method should build a key for lock
+     */
+    private String buildHashMapKey(Entry<String, Pair<String, String>> entry) {
+        return entry.getKey() + entry.getValue().getFirst();
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private int stripeIndex(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    /**
+     * Returns the sorted and distinct indexes of the stripes which hold the keys of the given lock
+     */
+    private int[] stripeIndexes(EngineLock lock) {
+        IntStream.Builder builder = IntStream.builder();
+        if (lock.getSharedLocks() != null) {
+            for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
+                builder.add(stripeIndex(buildHashMapKey(entry)));
+            }
+        }
+        if (lock.getExclusiveLocks() != null) {
+            for (Entry<String, Pair<String, String>> entry : lock.getExclusiveLocks().entrySet()) {
+                builder.add(stripeIndex(buildHashMapKey(entry)));
+            }
+        }
+        return builder.build().distinct().sorted().toArray();
+    }
+
+    private void lockStripes(int[] indexes) {
+        for (int index : indexes) {
+            stripes[index].mutex.lock();
+        }
+    }
+
+    private void unlockStripes(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            stripes[indexes[i]].mutex.unlock();
+        }
+    }
+
+    /**
+     * The following method contains a logic for acquiring a lock The method is contains two steps:
+     * 1. The lock can be acquired
+     * 2. If the first step successes acquire a lock
+     * All the stripes involved in the lock are held during both steps.
+     */
+    private AcquireResult acquireLockInternal(EngineLock lock) {
+        int[] indexes = stripeIndexes(lock);
+        lockStripes(indexes);
+        try {
+            boolean checkOnly = true;
+            for (int i = 0; i < 2; i++) {
+                if (lock.getSharedLocks() != null) {
+                    for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
+                        String key = buildHashMapKey(entry);
+                        Set<String> messages =
+                                stripeFor(key).insertSharedLock(key, entry.getValue().getSecond(), checkOnly);
+                        if (messages != null) {
+                            log.debug("Failed to acquire lock. Shared lock is taken for key '{}', value '{}'",
+                                    entry.getKey(),
+                                    entry.getValue().getFirst());
+                            return AcquireResult.failure(key, messages);
+                        }
+                    }
+                }
+                if (lock.getExclusiveLocks() != null) {
+                    for (Entry<String, Pair<String, String>> entry : lock.getExclusiveLocks().entrySet()) {
+                        String key = buildHashMapKey(entry);
+                        Set<String> messages =
+                                stripeFor(key).insertExclusiveLock(key, entry.getValue().getSecond(), checkOnly);
+                        if (messages != null) {
+                            log.debug("Failed to acquire lock. Exclusive lock is taken for key '{}', value '{}'",
+                                    entry.getKey(),
+                                    entry.getValue().getFirst());
+                            return AcquireResult.failure(key, messages);
+                        }
+                    }
+                }
+                checkOnly = false;
+            }
+        } finally {
+            unlockStripes(indexes);
+        }
+        log.debug("Success acquiring lock '{}' succeeded ", lock);
+        return AcquireResult.SUCCESS;
+    }
+
+    /**
+     * Blocks the calling thread until the given key is released. Returns immediately if the key was already released
+     * after the failed acquire attempt, so no wake up can be missed between the attempt and the wait.
+     */
+    private void awaitRelease(String key) throws InterruptedException {
+        Stripe stripe = stripeFor(key);
+        stripe.mutex.lock();
+        try {
+            if (!stripe.locks.containsKey(key)) {
+                return;
+            }
+            KeyWaiters keyWaiters = stripe.waiters.computeIfAbsent(key, k -> new KeyWaiters(stripe.mutex.newCondition()));
+            keyWaiters.count++;
+            try {
+                keyWaiters.released.await();
+            } finally {
+                if (--keyWaiters.count == 0) {
+                    stripe.waiters.remove(key, keyWaiters);
+                }
+            }
+        } finally {
+            stripe.mutex.unlock();
+        }
+    }
+
+    /**
+     * A part of the key space with its own mutex, locks and waiters. All the fields must be accessed while holding the
+     * mutex of the stripe.
+     */
+    private static class Stripe {
+
+        private final ReentrantLock mutex = new ReentrantLock();
+        private final Map<String, InternalLockView> locks = new HashMap<>();
+        private final Map<String, KeyWaiters> waiters = new HashMap<>();
+
+        /**
+         * Inserts or checks a "shared" internal lock
+         * @return null on success, otherwise the error messages of the lock which blocks the insert
+         */
+        private Set<String> insertSharedLock(String key, String message, boolean isCheckOnly) {
+            InternalLockView lock = locks.get(key);
+            if (lock != null) {
+                if (!isCheckOnly) {
+                    lock.increaseCount();
+                    lock.addMessage(message);
+                } else if (lock.getExclusive()) {
+                    return lock.getMessages();
+                }
+            } else if (!isCheckOnly) {
+                locks.put(key, new InternalLockView(1, message, false));
+            }
+            return null;
+        }
+
+        /**
+         * Inserts or checks an exclusive lock, the exclusive key can be added only if there is not exist any shared
+         * or exclusive lock for given key
+         * @return null on success, otherwise the error messages of the lock which blocks the insert
+         */
+        private Set<String> insertExclusiveLock(String key, String message, boolean isCheckOnly) {
+            InternalLockView lock = locks.get(key);
+            if (lock != null) {
+                return lock.getMessages();
+            }
+            if (!isCheckOnly) {
+                locks.put(key, new InternalLockView(0, message, true));
+            }
+            return null;
+        }
+
+        private void releaseExclusiveLock(String key) {
+            InternalLockView lock = locks.get(key);
+            if (lock != null && lock.getExclusive()) {
+                locks.remove(key);
+                log.debug("The exclusive lock for key '{}' is released and lock is removed from map", key);
+            } else if (lock == null) {
+                log.warn("Trying to release exclusive lock which does not exist, lock key: '{}'", key);
+            } else {
+                log.warn("Trying to release exclusive lock but lock is not exclusive. lock key: '{}'", key);
+            }
+        }
+
+        private void releaseSharedLock(String key, String message) {
+            InternalLockView lock = locks.get(key);
+            if (lock != null) {
+                if (lock.getCount() > 0) {
+                    lock.decreaseCount();
+                    log.debug("The shared lock for key '{}' is released.", key);
+                    if (lock.getCount() == 0) {
+                        locks.remove(key);
+                        log.debug("The shared lock for key '{}' is removed from map", key);
+                    } else {
+                        lock.removeMessage(message);
+                    }
+                } else {
+                    log.warn("Trying to decrease a shared lock for key: '{}' , but shared index is 0", key);
+                }
+            } else {
+                log.warn("Trying to release a shared lock for key: '{}' , but lock does not exist", key);
+            }
+        }
+
+        private void signalWaiters(String key) {
+            KeyWaiters keyWaiters = waiters.get(key);
+            if (keyWaiters != null) {
+                keyWaiters.released.signalAll();
+            }
+        }
+
+        private void signalAllWaiters() {
+            for (KeyWaiters keyWaiters : waiters.values()) {
+                keyWaiters.released.signalAll();
+            }
+        }
+    }
+
+    /**
+     * The threads which wait in acquireLockWait() for the release of a single key
+     */
+    private static class KeyWaiters {
+
+        private final Condition released;
+        private int count;
+
+        private KeyWaiters(Condition released) {
+            this.released = released;
+        }
+    }
+
+    private static class AcquireResult {
+
+        private static final AcquireResult SUCCESS = new AcquireResult(null, null);
+
+        private final String blockingKey;
+        private final Set<String> messages;
+
+        private AcquireResult(String blockingKey, Set<String> messages) {
+            this.blockingKey = blockingKey;
+            this.messages = messages;
+        }
+
+        private static AcquireResult failure(String blockingKey, Set<String> messages) {
+            return new AcquireResult(blockingKey, messages);
+        }
+
+        private boolean isSucceeded() {
+            return blockingKey == null;
+        }
+
+        private String getBlockingKey() {
+            return blockingKey;
+        }
+
+        private Pair<Boolean, Set<String>> toPair() {
+            return isSucceeded() ? LOCK_INSERT_SUCCESS_RESULT : new Pair<>(Boolean.FALSE, messages);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.ovirt.engine.core.bll.network.macpool;
+
+/**
+ * Associative array counting occurrences of {@code long} values.
+ * <p>
+ * The values and their counts are kept in primitive arrays using open addressing with linear probing, so counting
+ * neither boxes the values nor allocates an entry per value. A slot whose count is zero is empty.
+ */
+class LongCounter {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean allowDuplicate;
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    LongCounter(boolean allowDuplicate) {
+        this.allowDuplicate = allowDuplicate;
+        keys = new long[INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * add instance if possible, incrementing number of its occurrences.
+     * @param key instance to add.
+     * @return true if instance was added  && count incremented.
+     */
+    public boolean increase(long key) {
+        return increase(key, allowDuplicate);
+    }
+
+    public boolean increase(long key, boolean allowDuplicate) {
+        int slot = slotOf(key);
+        if (counts[slot] == 0) {
+            keys[slot] = key;
+            counts[slot] = 1;
+            if (++size * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            return true;
+        } else if (allowDuplicate) {
+            counts[slot]++;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * decrements number of its occurrences, removing instance if possible(count reaches zero).
+     *
+     * @param key instance to remove.
+     */
+    public void decrease(long key) {
+        int slot = slotOf(key);
+        if (counts[slot] == 0) {
+            return;
+        }
+
+        if (--counts[slot] == 0) {
+            size--;
+            closeGap(slot);
+        }
+    }
+
+    /**
+     * @param key instance to look for
+     * @return true if there's at least one occurrence of given instance.
+     */
+    public boolean contains(long key) {
+        return counts[slotOf(key)] != 0;
+    }
+
+    /**
+     * @param key instance to look for
+     * @return number of occurrences of given instance, zero when instance was not added
+     */
+    public int count(long key) {
+        return counts[slotOf(key)];
+    }
+
+    /**
+     * @return number of distinct instances
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the slot holding the key, or the empty slot where it would be added
+     */
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (counts[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Moves back the keys following the emptied slot which wouldn't be found by {@link #slotOf(long)} anymore.
+     */
+    private void closeGap(int emptySlot) {
+        int mask = keys.length - 1;
+        int gap = emptySlot;
+        int slot = (gap + 1) & mask;
+        while (counts[slot] != 0) {
+            int home = hash(keys[slot]) & mask;
+            // the key may fill the gap if its home slot isn't cyclically within (gap, slot]
+            boolean movable = gap <= slot ? home <= gap || home > slot : home <= gap && home > slot;
+            if (movable) {
+                keys[gap] = keys[slot];
+                counts[gap] = counts[slot];
+                counts[slot] = 0;
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -1,7 +1,8 @@
 package org.ovirt.engine.core.bll.network.macpool;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import org.apache.commons.lang.Validate;
@@ -10,13 +11,23 @@ import org.ovirt.engine.core.common.errors.EngineException;
 
 class MacsStorage {
     private final boolean allowDuplicates;
-    private List<Range> ranges = new LinkedList<>();
-    private ObjectCounter<Long> customMacs;
+    private List<Range> ranges = new ArrayList<>();
+    private LongCounter customMacs;
     private int startIndexForEmptyRangeSearch = 0;
 
+    /**
+     * The ranges sorted by their start, used to find the range including a MAC by a binary search. Since the ranges
+     * may overlap, each position also holds the greatest end of the ranges up to it and the position of the range in
+     * {@link #ranges}, as the range added first is the one including the MAC.
+     */
+    private Range[] rangesByStart = new Range[0];
+    private long[] rangeStarts = new long[0];
+    private long[] greatestRangeEnds = new long[0];
+    private int[] rangeIndices = new int[0];
+
     public MacsStorage(boolean allowDuplicates) {
         this.allowDuplicates = allowDuplicates;
-        customMacs = new ObjectCounter<>(this.allowDuplicates);
+        customMacs = new LongCounter(this.allowDuplicates);
     }
 
     public Range addRange(long rangeStart, long rangeEnd) {
@@ -25,9 +36,33 @@ class MacsStorage {
 
     Range addRange(Range range) {
         ranges.add(range);
+        indexRanges();
         return range;
     }
 
+    private void indexRanges() {
+        int numberOfRanges = ranges.size();
+        Integer[] order = new Integer[numberOfRanges];
+        for (int i = 0; i < numberOfRanges; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> ranges.get(i).getRangeStart()));
+
+        rangesByStart = new Range[numberOfRanges];
+        rangeStarts = new long[numberOfRanges];
+        greatestRangeEnds = new long[numberOfRanges];
+        rangeIndices = new int[numberOfRanges];
+        for (int i = 0; i < numberOfRanges; i++) {
+            Range range = ranges.get(order[i]);
+            rangesByStart[i] = range;
+            rangeStarts[i] = range.getRangeStart();
+            greatestRangeEnds[i] = i == 0
+                    ? range.getRangeEnd()
+                    : Math.max(greatestRangeEnds[i - 1], range.getRangeEnd());
+            rangeIndices[i] = order[i];
+        }
+    }
+
     public boolean useMac(long mac) {
         return useMac(mac, allowDuplicates);
     }
@@ -121,12 +156,26 @@ class MacsStorage {
     }
 
     private Range findIncludingRange(long mac) {
-        for (Range range : ranges) {
-            if (range.contains(mac)) {
-                return range;
+        int position = Arrays.binarySearch(rangeStarts, mac);
+        if (position < 0) {
+            // the position of the last range starting before the mac
+            position = -position - 2;
+        } else {
+            // the last of the ranges starting at the mac
+            while (position + 1 < rangeStarts.length && rangeStarts[position + 1] == mac) {
+                position++;
             }
         }
-        return null;
+
+        Range includingRange = null;
+        int includingRangeIndex = Integer.MAX_VALUE;
+        for (int i = position; i >= 0 && greatestRangeEnds[i] >= mac; i--) {
+            if (rangeIndices[i] < includingRangeIndex && rangesByStart[i].contains(mac)) {
+                includingRange = rangesByStart[i];
+                includingRangeIndex = rangeIndices[i];
+            }
+        }
+        return includingRange;
     }
 
     boolean isMacInRange(Long mac) {
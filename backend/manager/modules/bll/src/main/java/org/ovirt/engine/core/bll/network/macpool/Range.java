@@ -14,10 +14,15 @@ class Range {
     /**
      * object counter, which holds number of MACs duplicates.
      */
-    private final ObjectCounter<Integer> macDuplicityCount = new ObjectCounter<>(true);
+    private final LongCounter macDuplicityCount = new LongCounter(true);
     private int availableMacsCount;
 
     private BitSet usedMacs;
+
+    /**
+     * Where the search for an unused MAC starts, the index following the last allocated one, so the subsequent
+     * allocations don't scan the MACs allocated before again.
+     */
     private int startingLocationWhenSearchingForUnusedMac = 0;
 
     public Range(long rangeStart, long rangeEnd) {
@@ -35,6 +40,14 @@ class Range {
         this.usedMacs = new BitSet(numberOfMacsInRange);
     }
 
+    public long getRangeStart() {
+        return rangeStart;
+    }
+
+    public long getRangeEnd() {
+        return rangeEnd;
+    }
+
     public boolean contains(long mac) {
         return rangeStart <= mac && rangeEnd >= mac;
     }
@@ -105,26 +118,23 @@ class Range {
 
         List<Long> result = new ArrayList<>(numberOfMacs);
 
-        for (int count = 0; count < numberOfMacs; count++) {
-            final long mac = findUnusedMac();
+        // a single pass over the range, starting where the previous allocation ended
+        int index = startingLocationWhenSearchingForUnusedMac;
+        while (result.size() < numberOfMacs) {
+            index = usedMacs.nextClearBit(index);
+            if (index >= numberOfMacsInRange) {
+                index = usedMacs.nextClearBit(0);
+            }
 
             // Well duplicates may be allowed, but we're using unallocated mac.
-            use(mac, false);
-            result.add(mac);
+            usedMacs.set(index);
+            availableMacsCount--;
+            result.add(rangeStart + index);
+            index++;
         }
+        startingLocationWhenSearchingForUnusedMac = index % numberOfMacsInRange;
 
         return result;
     }
 
-    private long findUnusedMac() {
-        int index = usedMacs.nextClearBit(startingLocationWhenSearchingForUnusedMac);
-        boolean notFound = index == numberOfMacsInRange;
-        if (notFound) {
-            index = usedMacs.nextClearBit(0);
-        }
-        startingLocationWhenSearchingForUnusedMac = (index + 1) % numberOfMacsInRange;
-
-        return rangeStart + index;
-    }
-
 }
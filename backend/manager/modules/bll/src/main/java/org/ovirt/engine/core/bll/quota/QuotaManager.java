@@ -5,8 +5,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -35,15 +35,21 @@ import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Caches the quotas and their consumption per storage pool.
+ * <p>
+ * The quotas of each storage pool are kept in their own map, which is never replaced while the storage pool is
+ * cached, and the consumption from the quotas of a storage pool is serialized by synchronizing on that map. Requests
+ * for different storage pools don't block each other, and the cache refresh updates the quotas of one storage pool at
+ * a time.
+ */
 @Singleton
 public class QuotaManager implements BackendService {
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final Logger log = LoggerFactory.getLogger(QuotaManager.class);
-    private HashMap<Guid, Map<Guid, Quota>> storagePoolQuotaMap = new HashMap<>();
-    private HashMap<Guid, Guid> storagePoolDefaultQuotaIdMap = new HashMap<>();
+    private final Map<Guid, Map<Guid, Quota>> storagePoolQuotaMap = new ConcurrentHashMap<>();
+    private final Map<Guid, Guid> storagePoolDefaultQuotaIdMap = new ConcurrentHashMap<>();
 
     private final QuotaManagerAuditLogger quotaManagerAuditLogger = new QuotaManagerAuditLogger();
-    private final List<QuotaConsumptionParameter> corruptedParameters = new ArrayList<>();
     private final List<Integer> nonCountableQutoaVmStatusesList = new ArrayList<>();
     @Inject
     private SchedulerUtilQuartzImpl schedulerUtil;
@@ -84,19 +90,15 @@ public class QuotaManager implements BackendService {
     }
 
     public void removeQuotaFromCache(Guid storagePoolId, List<Guid> quotaList) {
-        lock.writeLock().lock();
-        try {
-            if (!storagePoolQuotaMap.containsKey(storagePoolId)) {
-                return;
-            }
-            synchronized (storagePoolQuotaMap.get(storagePoolId)) {
-                Map<Guid, Quota> map = storagePoolQuotaMap.get(storagePoolId);
-                for (Guid quotaId : quotaList) {
-                    map.remove(quotaId);
-                }
+        Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(storagePoolId);
+        if (quotaMap == null) {
+            return;
+        }
+
+        synchronized (quotaMap) {
+            for (Guid quotaId : quotaList) {
+                quotaMap.remove(quotaId);
             }
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 
@@ -105,13 +107,8 @@ public class QuotaManager implements BackendService {
     }
 
     public void removeStoragePoolFromCache(Guid storagePoolId) {
-        lock.writeLock().lock();
-        try {
-            storagePoolQuotaMap.remove(storagePoolId);
-            storagePoolDefaultQuotaIdMap.remove(storagePoolId);
-        } finally {
-            lock.writeLock().unlock();
-        }
+        storagePoolQuotaMap.remove(storagePoolId);
+        storagePoolDefaultQuotaIdMap.remove(storagePoolId);
     }
 
     private boolean validateAndSetStorageQuotaHelper(QuotaConsumptionParametersWrapper parameters,
@@ -527,27 +524,19 @@ public class QuotaManager implements BackendService {
         }
     }
 
-    private void addStoragePoolToCache(Guid storagePoolId) {
-        if (storagePoolQuotaMap.containsKey(storagePoolId)) {
-            return;
+    /**
+     * Returns the quota map of the storage pool, adding the storage pool to the cache if it isn't cached yet.
+     */
+    private Map<Guid, Quota> addStoragePoolToCache(Guid storagePoolId) {
+        Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(storagePoolId);
+        if (quotaMap != null) {
+            return quotaMap;
         }
 
-        storagePoolQuotaMap.put(storagePoolId, new HashMap<>());
+        // the default quota is cached first, as it's looked up once the storage pool is found in the cache
         Quota defaultQuota = getQuotaDao().getDefaultQuotaForStoragePool(storagePoolId);
-        storagePoolDefaultQuotaIdMap.put(storagePoolId, defaultQuota.getId());
-    }
-
-    private void addStoragePoolToCacheWithLock(Guid storagePoolId) {
-        if (storagePoolQuotaMap.containsKey(storagePoolId)) {
-            return;
-        }
-
-        lock.writeLock().lock();
-        try {
-            addStoragePoolToCache(storagePoolId);
-        } finally {
-            lock.writeLock().unlock();
-        }
+        storagePoolDefaultQuotaIdMap.putIfAbsent(storagePoolId, defaultQuota.getId());
+        return storagePoolQuotaMap.computeIfAbsent(storagePoolId, id -> new ConcurrentHashMap<>());
     }
 
     /**
@@ -616,18 +605,16 @@ public class QuotaManager implements BackendService {
             throw new InvalidQuotaParametersException("Null storage pool passed to QuotaManager");
         }
 
-        addStoragePoolToCacheWithLock(storagePool.getId());
+        Map<Guid, Quota> quotaMap = addStoragePoolToCache(storagePool.getId());
 
-        lock.readLock().lock();
         try {
             if (parameters.getStoragePool().getQuotaEnforcementType() != QuotaEnforcementTypeEnum.DISABLED) {
-                synchronized (storagePoolQuotaMap.get(storagePool.getId())) {
+                synchronized (quotaMap) {
                     return validateAndCompleteParameters(parameters, auditLogPair)
                             && internalConsumeAndReleaseHandler(parameters, auditLogPair);
                 }
             }
         } finally {
-            lock.readLock().unlock();
             getQuotaManagerAuditLogger().auditLog(auditLogPair.getFirst(), auditLogPair.getSecond());
         }
 
@@ -693,11 +680,12 @@ public class QuotaManager implements BackendService {
 
         boolean hardEnforcement =
                 QuotaEnforcementTypeEnum.HARD_ENFORCEMENT == parameters.getAuditLogable().getStoragePool().getQuotaEnforcementType();
+        List<QuotaConsumptionParameter> corruptedParameters = new ArrayList<>();
 
         // for each parameter - check and complete
         for (QuotaConsumptionParameter param : parameters.getParameters()) {
             // check that quota id is valid and fetch the quota from db (or cache). add the quota to the param
-            boolean validQuotaId = checkAndFetchQuota(parameters, param, auditLogPair);
+            boolean validQuotaId = checkAndFetchQuota(parameters, param, auditLogPair, corruptedParameters);
             boolean validCluster = true;
             boolean  validStorageDomain = true;
 
@@ -728,14 +716,13 @@ public class QuotaManager implements BackendService {
             }
         }
         parameters.getParameters().removeAll(corruptedParameters);
-        corruptedParameters.clear();
 
         return true;
     }
 
     // check that quota id is valid and fetch the quota from db (or cache). add the quota to the param
     private boolean checkAndFetchQuota(QuotaConsumptionParametersWrapper parameters, QuotaConsumptionParameter param,
-            Pair<AuditLogType, AuditLogableBase> auditLogPair)
+            Pair<AuditLogType, AuditLogableBase> auditLogPair, List<QuotaConsumptionParameter> corruptedParameters)
             throws InvalidQuotaParametersException {
 
         if(param.getQuotaGuid() == null || Guid.Empty.equals(param.getQuotaGuid())) {
@@ -841,7 +828,11 @@ public class QuotaManager implements BackendService {
             if (quota != null) {
                 // cache in quota map
                 if (storagePoolId.equals(quota.getStoragePoolId())) {
-                    quotaMap.put(quotaId, quota);
+                    // another thread may have cached the quota meanwhile
+                    Quota cachedQuota = quotaMap.putIfAbsent(quotaId, quota);
+                    if (cachedQuota != null) {
+                        quota = cachedQuota;
+                    }
                 } else {
                     throw new InvalidQuotaParametersException(
                             String.format("Quota %s does not match storage pool %s", quotaId.toString()
@@ -859,47 +850,16 @@ public class QuotaManager implements BackendService {
      *            quota list
      */
     public void updateUsage(List<Quota> quotaList) {
-        List<Quota> needToCache = new ArrayList<>();
-
         if (quotaList == null) {
             return;
         }
 
-        lock.readLock().lock();
-        try {
-            for (Quota quotaExternal : quotaList) {
-                // look for the quota in the cache
-                Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(quotaExternal.getStoragePoolId());
-                Quota quota = null;
-                if (quotaMap != null) {
-                    quota = quotaMap.get(quotaExternal.getId());
-                }
-
-                // if quota not in cache look for it in DB and add it to cache
-                if (quota == null) {
-                    needToCache.add(quotaExternal);
-                } else {
-                    copyUsageData(quota, quotaExternal);
-                }
-            }
-        } finally {
-            lock.readLock().unlock();
-        }
-
-        // if some of the quota are not in cache and need to be cached
-        if (!needToCache.isEmpty()) {
-            lock.writeLock().lock();
-            try {
-                for (Quota quotaExternal : needToCache) {
-                    addStoragePoolToCache(quotaExternal.getStoragePoolId());
-
-                    Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
-                    if (quota != null) {
-                        copyUsageData(quota, quotaExternal);
-                    }
-                }
-            } finally {
-                lock.writeLock().unlock();
+        for (Quota quotaExternal : quotaList) {
+            // look for the quota in the cache, if not in cache look for it in DB and add it to cache
+            addStoragePoolToCache(quotaExternal.getStoragePoolId());
+            Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
+            if (quota != null) {
+                copyUsageData(quota, quotaExternal);
             }
         }
     }
@@ -951,49 +911,16 @@ public class QuotaManager implements BackendService {
      */
     public Map<Guid, QuotaUsagePerUser> generatePerUserUsageReport(List<Quota> quotaIdsList) {
         Map<Guid, QuotaUsagePerUser> quotaPerUserUsageEntityMap = new HashMap<>();
-        List<Quota> needToCache = new ArrayList<>();
 
         if (quotaIdsList != null) {
-            lock.readLock().lock();
-            try {
-                for (Quota quotaExternal : quotaIdsList) {
-                    // look for the quota in the cache
-                    Map<Guid, Quota> quotaMap = storagePoolQuotaMap.get(quotaExternal.getStoragePoolId());
-                    Quota quota = null;
-                    if (quotaMap != null) {
-                        quota = quotaMap.get(quotaExternal.getId());
-                    }
-
-                    // if quota not in cache look for it in DB and add it to cache
-                    if (quota == null) {
-                        needToCache.add(quotaExternal);
-                    } else {
-                        QuotaUsagePerUser usagePerUser = addQuotaEntry(quota);
-                        if (usagePerUser != null) {
-                            quotaPerUserUsageEntityMap.put(quota.getId(), usagePerUser);
-                        }
-                    }
-                }
-            } finally {
-                lock.readLock().unlock();
-            }
-
-            if (!needToCache.isEmpty()) {
-                lock.writeLock().lock();
-                try {
-                    for (Quota quotaExternal : needToCache) {
-                        // look for the quota in the cache again (it may have been added by now)
-                        addStoragePoolToCache(quotaExternal.getStoragePoolId());
-
-                        Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
-
-                        QuotaUsagePerUser usagePerUser = addQuotaEntry(quota);
-                        if (usagePerUser != null) {
-                            quotaPerUserUsageEntityMap.put(quota.getId(), usagePerUser);
-                        }
-                    }
-                } finally {
-                    lock.writeLock().unlock();
+            for (Quota quotaExternal : quotaIdsList) {
+                // look for the quota in the cache, if not in cache look for it in DB and add it to cache
+                addStoragePoolToCache(quotaExternal.getStoragePoolId());
+                Quota quota = fetchQuotaFromCache(quotaExternal.getId(), quotaExternal.getStoragePoolId());
+
+                QuotaUsagePerUser usagePerUser = addQuotaEntry(quota);
+                if (usagePerUser != null) {
+                    quotaPerUserUsageEntityMap.put(quota.getId(), usagePerUser);
                 }
             }
         }
@@ -1087,26 +1014,35 @@ public class QuotaManager implements BackendService {
             return;
         }
 
-        HashMap<Guid, Map<Guid, Quota>> newStoragePoolQuotaMap = new HashMap<>();
-        HashMap<Guid, Guid> newDefaultQuotaIdMap = new HashMap<>();
+        Map<Guid, Map<Guid, Quota>> newStoragePoolQuotaMap = new HashMap<>();
+        Map<Guid, Guid> newDefaultQuotaIdMap = new HashMap<>();
 
         for (Quota quota : allQuotaIncludingConsumption) {
-            if (!newStoragePoolQuotaMap.containsKey(quota.getStoragePoolId())) {
-                newStoragePoolQuotaMap.put(quota.getStoragePoolId(), new HashMap<>());
-            }
-            newStoragePoolQuotaMap.get(quota.getStoragePoolId()).put(quota.getId(), quota);
+            newStoragePoolQuotaMap.computeIfAbsent(quota.getStoragePoolId(), id -> new HashMap<>())
+                    .put(quota.getId(), quota);
 
             if (quota.isDefault()) {
                 newDefaultQuotaIdMap.put(quota.getStoragePoolId(), quota.getId());
             }
         }
 
-        lock.writeLock().lock();
-        try {
-            storagePoolQuotaMap = newStoragePoolQuotaMap;
-            storagePoolDefaultQuotaIdMap = newDefaultQuotaIdMap;
-        } finally {
-            lock.writeLock().unlock();
+        // the storage pools that no longer have quotas were removed
+        storagePoolQuotaMap.keySet().retainAll(newStoragePoolQuotaMap.keySet());
+        storagePoolDefaultQuotaIdMap.keySet().retainAll(newStoragePoolQuotaMap.keySet());
+
+        // the quotas of each storage pool are replaced in place, blocking only the consumption from that storage pool
+        for (Map.Entry<Guid, Map<Guid, Quota>> entry : newStoragePoolQuotaMap.entrySet()) {
+            Guid defaultQuotaId = newDefaultQuotaIdMap.get(entry.getKey());
+            if (defaultQuotaId != null) {
+                storagePoolDefaultQuotaIdMap.put(entry.getKey(), defaultQuotaId);
+            }
+
+            Map<Guid, Quota> quotaMap = storagePoolQuotaMap.computeIfAbsent(entry.getKey(),
+                    id -> new ConcurrentHashMap<>());
+            synchronized (quotaMap) {
+                quotaMap.keySet().retainAll(entry.getValue().keySet());
+                quotaMap.putAll(entry.getValue());
+            }
         }
         long timeEnd = System.currentTimeMillis();
         log.info("Quota Cache updated. ({} msec)", timeEnd-timeStart);
@@ -1116,13 +1052,8 @@ public class QuotaManager implements BackendService {
         int quotaCount = getQuotaDao().getQuotaCount();
         int cacheCount = 0;
 
-        lock.readLock().lock();
-        try {
-            for(Map<Guid, Quota> quotaMap : storagePoolQuotaMap.values()) {
-                cacheCount += quotaMap.size();
-            }
-        } finally {
-            lock.readLock().unlock();
+        for(Map<Guid, Quota> quotaMap : storagePoolQuotaMap.values()) {
+            cacheCount += quotaMap.size();
         }
 
         return cacheCount < quotaCount * Config.<Integer> getValue(ConfigValues.MinimumPercentageToUpdateQuotaCache)/100;
@@ -1140,7 +1071,7 @@ public class QuotaManager implements BackendService {
 
     public Guid getDefaultQuotaId(Guid storagePoolId) {
         if (!storagePoolDefaultQuotaIdMap.containsKey(storagePoolId)) {
-            addStoragePoolToCacheWithLock(storagePoolId);
+            addStoragePoolToCache(storagePoolId);
         }
 
         return storagePoolDefaultQuotaIdMap.get(storagePoolId);
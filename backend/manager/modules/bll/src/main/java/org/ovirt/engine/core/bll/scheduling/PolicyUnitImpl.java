@@ -71,6 +71,15 @@ public abstract class PolicyUnitImpl {
         return hosts;
     }
 
+    /**
+     * A filter is host independent when it decides about every host only by the host itself, the VM and
+     * the pending resources, never by the other hosts in the list. Such filters can run concurrently over
+     * the same host list, see {@link PolicyUnitsEvaluator}.
+     */
+    public boolean isHostIndependentFilter() {
+        return false;
+    }
+
     public List<Pair<Guid, Integer>> score( Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
         log.error("Policy unit '{}' function is not implemented", getPolicyUnit().getName());
 
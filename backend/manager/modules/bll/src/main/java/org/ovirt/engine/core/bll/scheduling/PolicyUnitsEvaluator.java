@@ -0,0 +1,187 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Runs the internal filter and weight policy units of a scheduling cycle over a list of candidate hosts.
+ * <p>
+ * Without an executor the units run one after another, the way the scheduler always did. With an executor
+ * the weight units are evaluated concurrently and so are the runs of consecutive filters that report
+ * {@link PolicyUnitImpl#isHostIndependentFilter()}. Such filters decide about every host on its own, so
+ * running them over the same host list and intersecting the results in the configured filter order gives
+ * exactly the same hosts, messages and filter log entries as chaining them.
+ * <p>
+ * The policy units only read the host list they get, the VM and the pending resources, which the
+ * {@link org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager} keeps in concurrent maps, so
+ * all the units of one cycle work on the same snapshot of the cluster.
+ */
+public class PolicyUnitsEvaluator {
+
+    /**
+     * Notified about every filter step in the configured filter order, after the step's messages were
+     * added to the shared {@link PerHostMessages}.
+     */
+    @FunctionalInterface
+    public interface FilterStepListener {
+        void filtered(PolicyUnitImpl filter, List<VDS> hostsBefore, List<VDS> hostsAfter);
+    }
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates an evaluator running all the policy units sequentially in the calling thread.
+     */
+    public PolicyUnitsEvaluator() {
+        this(null);
+    }
+
+    /**
+     * Creates an evaluator running the independent policy units on the given executor. The calling thread
+     * blocks until all the submitted units are done.
+     */
+    public PolicyUnitsEvaluator(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public boolean isParallel() {
+        return executor != null;
+    }
+
+    public List<VDS> filter(List<PolicyUnitImpl> filters,
+            Cluster cluster,
+            List<VDS> hostList,
+            VM vm,
+            Map<String, String> parameters,
+            PerHostMessages messages,
+            FilterStepListener listener) {
+        int i = 0;
+        while (i < filters.size() && !hostList.isEmpty()) {
+            int end = i;
+            if (isParallel()) {
+                while (end < filters.size() && filters.get(end).isHostIndependentFilter()) {
+                    end++;
+                }
+            }
+
+            if (end - i > 1) {
+                hostList = runFiltersConcurrently(filters.subList(i, end),
+                        cluster, hostList, vm, parameters, messages, listener);
+                i = end;
+            } else {
+                PolicyUnitImpl filterPolicyUnit = filters.get(i);
+                List<VDS> currentHostList = new ArrayList<>(hostList);
+                hostList = filterPolicyUnit.filter(cluster, hostList, vm, parameters, messages);
+                listener.filtered(filterPolicyUnit, currentHostList, hostList);
+                i++;
+            }
+        }
+        return hostList;
+    }
+
+    /**
+     * Computes the scores of all the weight units over the given hosts.
+     *
+     * @return the score lists in the order of the given weight units
+     */
+    public List<List<Pair<Guid, Integer>>> score(List<PolicyUnitImpl> functions,
+            Cluster cluster,
+            List<VDS> hostList,
+            VM vm,
+            Map<String, String> parameters) {
+        if (!isParallel() || functions.size() < 2) {
+            return functions.stream()
+                    .map(function -> function.score(cluster, hostList, vm, parameters))
+                    .collect(Collectors.toList());
+        }
+
+        List<VDS> hosts = Collections.unmodifiableList(new ArrayList<>(hostList));
+        List<Future<List<Pair<Guid, Integer>>>> futures = functions.stream()
+                .map(function -> executor.submit(() -> function.score(cluster, hosts, vm, parameters)))
+                .collect(Collectors.toList());
+
+        List<List<Pair<Guid, Integer>>> scores = new ArrayList<>(futures.size());
+        for (Future<List<Pair<Guid, Integer>>> future : futures) {
+            scores.add(await(future));
+        }
+        return scores;
+    }
+
+    private List<VDS> runFiltersConcurrently(List<PolicyUnitImpl> filters,
+            Cluster cluster,
+            List<VDS> hostList,
+            VM vm,
+            Map<String, String> parameters,
+            PerHostMessages messages,
+            FilterStepListener listener) {
+        List<VDS> hosts = Collections.unmodifiableList(new ArrayList<>(hostList));
+        List<Future<FilterOutcome>> futures = filters.stream()
+                .map(filter -> executor.submit(() -> {
+                    PerHostMessages filterMessages = new PerHostMessages();
+                    List<VDS> accepted = filter.filter(cluster, hosts, vm, parameters, filterMessages);
+                    return new FilterOutcome(accepted, filterMessages);
+                }))
+                .collect(Collectors.toList());
+
+        // Replay the outcomes in the filter order, every filter only "sees" the hosts its predecessors kept
+        List<VDS> currentHostList = hosts;
+        for (int i = 0; i < filters.size(); i++) {
+            FilterOutcome outcome = await(futures.get(i));
+            for (VDS host : currentHostList) {
+                List<String> hostMessages = outcome.messages.getMessages(host.getId());
+                if (!hostMessages.isEmpty()) {
+                    messages.addMessages(host.getId(), hostMessages);
+                }
+            }
+
+            List<VDS> newHostList = currentHostList.stream()
+                    .filter(host -> outcome.acceptedHosts.contains(host.getId()))
+                    .collect(Collectors.toList());
+            listener.filtered(filters.get(i), currentHostList, newHostList);
+            currentHostList = newHostList;
+
+            if (currentHostList.isEmpty()) {
+                break;
+            }
+        }
+        return new ArrayList<>(currentHostList);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating scheduling policy units", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Scheduling policy unit failed", e.getCause());
+        }
+    }
+
+    private static class FilterOutcome {
+        private final Set<Guid> acceptedHosts;
+        private final PerHostMessages messages;
+
+        FilterOutcome(List<VDS> acceptedHosts, PerHostMessages messages) {
+            this.acceptedHosts = acceptedHosts.stream().map(VDS::getId).collect(Collectors.toSet());
+            this.messages = messages;
+        }
+    }
+}
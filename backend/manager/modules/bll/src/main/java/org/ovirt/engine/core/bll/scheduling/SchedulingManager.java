@@ -16,11 +16,13 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -70,6 +72,7 @@ import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -127,6 +130,12 @@ public class SchedulingManager implements BackendService {
 
     private final Guid defaultSelectorGuid = InternalPolicyUnits.getGuid(RankSelectorPolicyUnit.class);
 
+    private final PolicyUnitsEvaluator sequentialEvaluator = new PolicyUnitsEvaluator();
+
+    private ForkJoinPool evaluationPool;
+
+    private PolicyUnitsEvaluator parallelEvaluator;
+
     private PendingResourceManager getPendingResourceManager() {
         return pendingResourceManager;
     }
@@ -141,6 +150,7 @@ public class SchedulingManager implements BackendService {
     public void init() {
         log.info("Initializing Scheduling manager");
         initializePendingResourceManager();
+        initializeParallelEvaluation();
         loadPolicyUnits();
         loadClusterPolicies();
         loadExternalScheduler();
@@ -153,6 +163,22 @@ public class SchedulingManager implements BackendService {
         pendingResourceManager = new PendingResourceManager(resourceManager);
     }
 
+    private void initializeParallelEvaluation() {
+        if (Config.<Boolean>getValue(ConfigValues.SchedulerParallelHostEvaluation)) {
+            int threads = Config.<Integer>getValue(ConfigValues.SchedulerParallelHostEvaluationThreads);
+            log.info("Enabling parallel host evaluation with {} threads", threads);
+            evaluationPool = new ForkJoinPool(threads);
+            parallelEvaluator = new PolicyUnitsEvaluator(evaluationPool);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evaluationPool != null) {
+            evaluationPool.shutdownNow();
+        }
+    }
+
     private void loadExternalScheduler() {
         if (Config.<Boolean>getValue(ConfigValues.ExternalSchedulerEnabled)) {
             log.info("Starting external scheduler discovery thread");
@@ -315,7 +341,9 @@ public class SchedulingManager implements BackendService {
                     .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
             vdsList = removeBlacklistedHosts(vdsList, hostBlackList);
             vdsList = keepOnlyWhitelistedHosts(vdsList, hostWhiteList);
+            releasePlannedResources(vm);
             refreshCachedPendingValues(vdsList);
+
             ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
             Map<String, String> parameters = createClusterPolicyParameters(cluster);
 
@@ -338,21 +366,7 @@ public class SchedulingManager implements BackendService {
             Optional<Guid> bestHost = selectBestHost(cluster, vm, destHostIdList, vdsList, policy, parameters);
             if (bestHost.isPresent() && !bestHost.get().equals(vm.getRunOnVds())) {
                 Guid bestHostId = bestHost.get();
-                getPendingResourceManager().addPending(new PendingCpuCores(bestHostId, vm, vm.getNumOfCpus()));
-
-                VDS bestHostEntity = vdsList.stream().filter(vds -> vds.getId().equals(bestHostId)).findFirst().get();
-
-                getPendingResourceManager().addPending(new PendingMemory(bestHostId, vm, bestHostEntity.getGuestOverhead()));
-                getPendingResourceManager().addPending(new PendingOvercommitMemory(bestHostId, vm,
-                        HugePageUtils.getRequiredMemoryWithoutHugePages(vm.getStaticData())));
-                getPendingResourceManager().addPending(new PendingVM(bestHostId, vm));
-
-                // Add pending records for all specified hugepage sizes
-                for (Map.Entry<Integer, Integer> hugepage: HugePageUtils.getHugePages(vm.getStaticData()).entrySet()) {
-                    getPendingResourceManager().addPending(new PendingHugePages(bestHostId, vm,
-                            hugepage.getKey(), hugepage.getValue()));
-                }
-
+                addPendingResources(vm, vdsList, bestHostId);
                 getPendingResourceManager().notifyHostManagers(bestHostId);
 
                 markVfsAsUsedByVm(vm, bestHostId);
@@ -370,6 +384,131 @@ public class SchedulingManager implements BackendService {
         }
     }
 
+    /**
+     * Finds a host for each of the given VMs in one scheduling pass per cluster. The VMs are placed greedily,
+     * the ones with the biggest memory and CPU demand first, and every placement is recorded in the pending
+     * resources, so the filters and weights of the following VMs take it into account.
+     * <p>
+     * The pending resources of the placed VMs are kept, so the planned hosts stay reserved until the VMs are
+     * started. Every VM is still started by its own run command, which passes the planned host as its destination.
+     * The VM is then validated and scheduled without its own reservation, so the planned host is taken as long as
+     * it still passes the filters. The caller has to release the pending resources of the placed VMs it does not
+     * manage to start, see {@link #clearPendingVm(Guid)}.
+     *
+     * @return the ids of the planned hosts by the ids of the VMs, VMs that could not be placed are missing
+     */
+    public Map<Guid, Guid> scheduleBatch(List<VM> vms, String correlationId) {
+        Map<Guid, Guid> placements = new HashMap<>();
+        Map<Guid, List<VM>> vmsByCluster = vms.stream().collect(Collectors.groupingBy(VM::getClusterId));
+        for (Entry<Guid, List<VM>> entry : vmsByCluster.entrySet()) {
+            try {
+                Cluster cluster = clusterDao.get(entry.getKey());
+                if (cluster != null) {
+                    placements.putAll(scheduleBatch(cluster, entry.getValue(), correlationId));
+                }
+            } catch (RuntimeException e) {
+                // Without a plan the VMs are just scheduled one by one
+                log.warn("Batch scheduling failed in cluster '{}', correlation Id: {}: {}",
+                        entry.getKey(), correlationId, e.getMessage());
+                log.debug("Exception: ", e);
+            }
+        }
+        return placements;
+    }
+
+    private Map<Guid, Guid> scheduleBatch(Cluster cluster, List<VM> vms, String correlationId) {
+        Map<Guid, Guid> placements = new HashMap<>();
+        List<VM> placedVms = new ArrayList<>();
+        boolean completed = false;
+        prepareClusterLock(cluster.getId());
+        try {
+            log.debug("Batch scheduling of {} VMs started, correlation Id: {}", vms.size(), correlationId);
+            List<VDS> vdsList = vdsDao.getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
+            ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
+            Map<String, String> parameters = createClusterPolicyParameters(cluster);
+
+            List<VM> orderedVms = new ArrayList<>(vms);
+            orderedVms.sort(Comparator.comparingInt(VM::getMemSizeMb).thenComparingInt(VM::getNumOfCpus).reversed());
+
+            // The cluster is locked per VM, so single VM requests don't wait for the whole batch
+            for (VM vm : orderedVms) {
+                checkAllowOverbooking(cluster);
+                lockCluster(cluster.getId());
+                try {
+                    refreshCachedPendingValues(vdsList);
+                    List<VDS> candidates = runFilters(policy.getFilters(),
+                            cluster,
+                            vdsList,
+                            vm,
+                            parameters,
+                            policy.getFilterPositionMap(),
+                            new ArrayList<>(),
+                            noWaitingVmDelayer,
+                            true,
+                            correlationId);
+
+                    Optional<Guid> bestHost =
+                            selectBestHost(cluster, vm, Collections.emptyList(), candidates, policy, parameters);
+                    if (bestHost.isPresent()) {
+                        placements.put(vm.getId(), bestHost.get());
+                        addPendingResources(vm, candidates, bestHost.get());
+                        getPendingResourceManager().notifyHostManagers(bestHost.get());
+                        placedVms.add(vm);
+                    }
+                } finally {
+                    releaseCluster(cluster.getId());
+                }
+            }
+            completed = true;
+
+            log.info("Batch scheduling placed {} of {} VMs in cluster '{}' (correlation id: {})",
+                    placements.size(),
+                    vms.size(),
+                    cluster.getName(),
+                    correlationId);
+            return placements;
+        } catch (InterruptedException e) {
+            log.error("batch scheduling interrupted, correlation Id: {}: {}", correlationId, e.getMessage());
+            log.debug("Exception: ", e);
+            completed = true;
+            return placements;
+        } finally {
+            if (!completed) {
+                // The placements are dropped, so nobody would release their pending resources
+                placedVms.forEach(vm -> getPendingResourceManager().clearVm(vm));
+            }
+
+            log.debug("Batch scheduling ended, correlation Id: {}", correlationId);
+        }
+    }
+
+    /**
+     * Releases the resources reserved for a VM that is not running yet by a batch scheduling pass, so the filters
+     * don't count them on top of the VM itself. The host of the VM is reserved again when it is scheduled.
+     */
+    private void releasePlannedResources(VM vm) {
+        if (vm.getRunOnVds() == null) {
+            getPendingResourceManager().clearVm(vm);
+        }
+    }
+
+    private void addPendingResources(VM vm, List<VDS> vdsList, Guid bestHostId) {
+        getPendingResourceManager().addPending(new PendingCpuCores(bestHostId, vm, vm.getNumOfCpus()));
+
+        VDS bestHostEntity = vdsList.stream().filter(vds -> vds.getId().equals(bestHostId)).findFirst().get();
+
+        getPendingResourceManager().addPending(new PendingMemory(bestHostId, vm, bestHostEntity.getGuestOverhead()));
+        getPendingResourceManager().addPending(new PendingOvercommitMemory(bestHostId, vm,
+                HugePageUtils.getRequiredMemoryWithoutHugePages(vm.getStaticData())));
+        getPendingResourceManager().addPending(new PendingVM(bestHostId, vm));
+
+        // Add pending records for all specified hugepage sizes
+        for (Map.Entry<Integer, Integer> hugepage: HugePageUtils.getHugePages(vm.getStaticData()).entrySet()) {
+            getPendingResourceManager().addPending(new PendingHugePages(bestHostId, vm,
+                    hugepage.getKey(), hugepage.getValue()));
+        }
+    }
+
     private void releaseCluster(Guid cluster) {
         // ensuring setting the semaphore permits to 1
         synchronized (clusterLockMap.get(cluster)) {
@@ -534,6 +673,7 @@ public class SchedulingManager implements BackendService {
                 .getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up);
         vdsList = removeBlacklistedHosts(vdsList, vdsBlackList);
         vdsList = keepOnlyWhitelistedHosts(vdsList, vdsWhiteList);
+        releasePlannedResources(vm);
         refreshCachedPendingValues(vdsList);
         ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
         Map<String, String> parameters = createClusterPolicyParameters(cluster);
@@ -663,20 +803,33 @@ public class SchedulingManager implements BackendService {
             String correlationId,
             SchedulingResult result) {
         for (PolicyUnitImpl filterPolicyUnit : filters) {
-            if (hostList.isEmpty()) {
-                break;
-            }
             filterPolicyUnit.setRunVmDelayer(runVmDelayer);
-            List<VDS> currentHostList = new ArrayList<>(hostList);
-            hostList = filterPolicyUnit.filter(cluster, hostList, vm, parameters, result.getDetails());
-            logFilterActions(currentHostList,
-                    toIdSet(hostList),
-                    EngineMessage.VAR__FILTERTYPE__INTERNAL,
-                    filterPolicyUnit.getPolicyUnit().getName(),
-                    result,
-                    correlationId);
         }
-        return hostList;
+        return getPolicyUnitsEvaluator(hostList).filter(filters,
+                cluster,
+                hostList,
+                vm,
+                parameters,
+                result.getDetails(),
+                (filterPolicyUnit, currentHostList, newHostList) -> logFilterActions(currentHostList,
+                        toIdSet(newHostList),
+                        EngineMessage.VAR__FILTERTYPE__INTERNAL,
+                        filterPolicyUnit.getPolicyUnit().getName(),
+                        result,
+                        correlationId));
+    }
+
+    /**
+     * The concurrent evaluation is used only outside of transactions, the policy units running in the pool
+     * threads read the database through their own connections and would not see the uncommitted data.
+     */
+    private PolicyUnitsEvaluator getPolicyUnitsEvaluator(List<VDS> hostList) {
+        if (parallelEvaluator != null
+                && hostList.size() >= Config.<Integer>getValue(ConfigValues.SchedulerParallelHostEvaluationMinHosts)
+                && TransactionSupport.current() == null) {
+            return parallelEvaluator;
+        }
+        return sequentialEvaluator;
     }
 
     private Set<Guid> toIdSet(List<VDS> hostList) {
@@ -775,10 +928,14 @@ public class SchedulingManager implements BackendService {
             VM vm,
             Map<String, String> parameters) {
 
-        for (Pair<PolicyUnitImpl, Integer> pair : functions) {
-            List<Pair<Guid, Integer>> scoreResult = pair.getFirst().score(cluster, hostList, vm, parameters);
-            for (Pair<Guid, Integer> result : scoreResult) {
-                selector.record(pair.getFirst().getGuid(), result.getFirst(), result.getSecond());
+        List<PolicyUnitImpl> functionPolicyUnits = functions.stream().map(Pair::getFirst).collect(Collectors.toList());
+        List<List<Pair<Guid, Integer>>> scoreResults =
+                getPolicyUnitsEvaluator(hostList).score(functionPolicyUnits, cluster, hostList, vm, parameters);
+
+        // Record the scores in the policy order, so the selector sees the same sequence as in a sequential run
+        for (int i = 0; i < functionPolicyUnits.size(); i++) {
+            for (Pair<Guid, Integer> result : scoreResults.get(i)) {
+                selector.record(functionPolicyUnits.get(i).getGuid(), result.getFirst(), result.getSecond());
             }
         }
     }
@@ -1075,4 +1232,12 @@ public class SchedulingManager implements BackendService {
     public void clearPendingVm(VmStatic vm) {
         getPendingResourceManager().clearVm(vm);
     }
+
+    /**
+     * Clear pending records for a VM, e.g. the host planned for it by {@link #scheduleBatch(List, String)} when
+     * the VM is not started after all.
+     */
+    public void clearPendingVm(Guid vmId) {
+        getPendingResourceManager().clearVm(vmId);
+    }
 }
@@ -59,12 +59,18 @@ public class AffinityRulesEnforcer {
      */
     public VM chooseNextVmToMigrate(Cluster cluster) {
         List<AffinityGroup> allAffinityGroups = affinityGroupDao.getAllAffinityGroupsByClusterId(cluster.getId());
+        if (allAffinityGroups.isEmpty()) {
+            return null;
+        }
 
-        Optional<VM> vm = chooseNextVmToMigrateFromVMsToHostsAffinity(cluster, allAffinityGroups);
+        // The VMs of all the affinity groups are fetched at once and shared by both rule types
+        Map<Guid, VM> vmsMap = getVMsMap(allAffinityGroups);
+
+        Optional<VM> vm = chooseNextVmToMigrateFromVMsToHostsAffinity(cluster, allAffinityGroups, vmsMap);
         if (vm.isPresent()) {
             return vm.get();
         }
-        return chooseNextVmToMigrateFromVMsAffinity(cluster, allAffinityGroups);
+        return chooseNextVmToMigrateFromVMsAffinity(cluster, allAffinityGroups, vmsMap);
     }
 
     /**
@@ -76,17 +82,17 @@ public class AffinityRulesEnforcer {
      *
      * @param cluster           Current cluster
      * @param allAffinityGroups All affinity groups for the current cluster.
+     * @param vmsMap            VMs map with key: vm id , value: associated vm object.
      * @return Valid VM for migration by VM to host affinity, empty result otherwise
      */
     private Optional<VM> chooseNextVmToMigrateFromVMsToHostsAffinity(Cluster cluster, List<AffinityGroup>
-            allAffinityGroups) {
+            allAffinityGroups, Map<Guid, VM> vmsMap) {
 
         List<AffinityGroup> allVmToHostsAffinityGroups = getAllAffinityGroupsForVMsToHostsAffinity(allAffinityGroups);
 
         if (allVmToHostsAffinityGroups.isEmpty()) {
             return Optional.empty();
         }
-        Map<Guid, VM> vmsMap = getVMsMap(allVmToHostsAffinityGroups);
 
         List<Guid> candidateVMs =
                 getVmToHostsAffinityGroupCandidates(allVmToHostsAffinityGroups, vmsMap, true);
@@ -151,11 +157,11 @@ public class AffinityRulesEnforcer {
      * Example: Given affinity group 1 containing VM ids {1,2,3} and affinity group 2 containing VM ids {3,4}
      * the resultant map would be {(1,Vm1),(2,Vm2),(3,Vm3),(4,Vm4)}.
      *
-     * @param allVMtoHostsAffinityGroups All VM to hosts affinity groups for the current cluster
+     * @param allAffinityGroups All affinity groups for the current cluster
      * @return VMs map with key: id, value: associated vm object
      */
-    private Map<Guid, VM> getVMsMap(List<AffinityGroup> allVMtoHostsAffinityGroups) {
-        Map<Guid, VM> vmsMap = vmDao.getVmsByIds(allVMtoHostsAffinityGroups.stream()
+    private Map<Guid, VM> getVMsMap(List<AffinityGroup> allAffinityGroups) {
+        Map<Guid, VM> vmsMap = vmDao.getVmsByIds(allAffinityGroups.stream()
                 .map(AffinityGroup::getVmIds)
                 .flatMap(List::stream)
                 .distinct()
@@ -214,7 +220,8 @@ public class AffinityRulesEnforcer {
                 .collect(Collectors.toList());
     }
 
-    private VM chooseNextVmToMigrateFromVMsAffinity(Cluster cluster, List<AffinityGroup> allAffinityGroups) {
+    private VM chooseNextVmToMigrateFromVMsAffinity(Cluster cluster, List<AffinityGroup> allAffinityGroups,
+            Map<Guid, VM> vmsMap) {
 
         List<AffinityGroup> allHardAffinityGroups = getAllHardAffinityGroupsForVMsAffinity(allAffinityGroups);
         Set<Set<Guid>> unifiedPositiveAffinityGroups = AffinityRulesUtils.getUnifiedPositiveAffinityGroups(
@@ -229,15 +236,6 @@ public class AffinityRulesEnforcer {
             }
         }
 
-        // Create a set of all VMs in affinity groups
-        Set<Guid> allVms = new HashSet<>();
-        for (AffinityGroup group : unifiedAffinityGroups) {
-            allVms.addAll(group.getVmIds());
-        }
-
-        Map<Guid, VM> vmsMap = vmDao.getVmsByIds(new ArrayList<>(allVms)).stream()
-                .collect(Collectors.toMap(VM::getId, vm -> vm));
-
         Map<Guid, Guid> vmToHost = vmsMap.values().stream()
                 .filter(vm -> vm.getRunOnVds() != null)
                 .collect(Collectors.toMap(VM::getId, VM::getRunOnVds));
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -53,56 +52,56 @@ public class AffinityRulesUtils {
      *     A+B+C+D+E and F+G
      *
      * The algorithm starts by creating single element groups from all VMs
-     * It then goes through all affinity groups and merges all VM groups that contain
-     * VMs from the currently processed AffinityGroup.
+     * referenced from any affinity group. It then goes through all positive affinity
+     * groups and unites the groups of their VMs, using a union-find structure where
+     * each VM points to another VM of its group, so that the merging doesn't depend
+     * on the size of the merged groups.
      */
     public static Set<Set<Guid>> getUnifiedPositiveAffinityGroups(List<AffinityGroup> affinityGroups) {
-        Set<Set<Guid>> uag = new HashSet<>();
-        Map<Guid, Set<Guid>> vmIndex = new HashMap<>();
-
-        /**
-         * Initialize the single element groups by taking all VMs that are referenced
-         * from any affinity group
-         */
-        for(Iterator<AffinityGroup> it = affinityGroups.iterator(); it.hasNext();) {
-            AffinityGroup ag = it.next();
-
-            for(Guid id : ag.getVmIds()) {
-                Set<Guid> temp = new HashSet<>();
-                temp.add(id);
-                uag.add(temp);
-                vmIndex.put(id, temp);
+        Map<Guid, Guid> parents = new HashMap<>();
+
+        for (AffinityGroup ag : affinityGroups) {
+            for (Guid id : ag.getVmIds()) {
+                parents.putIfAbsent(id, id);
             }
         }
 
-        // Go through each positive affinity group and merge all existing groups
+        // Go through each positive affinity group and unite the groups
         // that contain the referenced VMs into one.
-        for(AffinityGroup ag : affinityGroups) {
-            if(ag.isVmPositive()) {
-                Set<Guid> mergedGroup = new HashSet<>();
-
-                for(Guid id : ag.getVmIds()) {
-                    // Get the current groups VM(id) belongs to
-                    Set<Guid> existingGroup = vmIndex.get(id);
+        for (AffinityGroup ag : affinityGroups) {
+            if (ag.isVmPositive() && !ag.getVmIds().isEmpty()) {
+                Guid root = findRoot(parents, ag.getVmIds().get(0));
+                for (Guid id : ag.getVmIds()) {
+                    parents.put(findRoot(parents, id), root);
+                }
+            }
+        }
 
-                    // Merge it with the currently computed mergeGroup
-                    mergedGroup.addAll(existingGroup);
+        Map<Guid, Set<Guid>> groups = new HashMap<>();
+        for (Guid id : parents.keySet()) {
+            groups.computeIfAbsent(findRoot(parents, id), root -> new HashSet<>()).add(id);
+        }
 
-                    // And remove it from the valid groups
-                    // (it will be re-added as part of a bigger group)
-                    uag.remove(existingGroup);
+        return new HashSet<>(groups.values());
+    }
 
-                    // Update the per-VM index
-                    for (Guid vm: existingGroup) {
-                        vmIndex.put(vm, mergedGroup);
-                    }
-                }
+    /**
+     * Find the VM representing the group of the given VM, and point all the VMs
+     * on the way directly to it to speed up the next lookups.
+     */
+    private static Guid findRoot(Map<Guid, Guid> parents, Guid id) {
+        Guid root = id;
+        while (!root.equals(parents.get(root))) {
+            root = parents.get(root);
+        }
 
-                uag.add(mergedGroup);
-            }
+        while (!id.equals(root)) {
+            Guid parent = parents.get(id);
+            parents.put(id, root);
+            id = parent;
         }
 
-        return uag;
+        return root;
     }
 
     /**
@@ -46,20 +46,28 @@ public class PendingResourceManager {
      * @param vm VmStatic with valid getId()
      */
     public void clearVm(VmStatic vm) {
+        clearVm(vm.getId());
+    }
+
+    /**
+     * Remove all pending resources associated with the VM.
+     * @param vmId the id of the VM
+     */
+    public void clearVm(Guid vmId) {
         Set<Guid> modifiedHosts;
 
         synchronized (this) {
-            if (!resourcesByVm.containsKey(vm.getId())) {
+            if (!resourcesByVm.containsKey(vmId)) {
                 return;
             }
 
-            log.debug("Clearing pending resources for VM {}", vm.getId());
+            log.debug("Clearing pending resources for VM {}", vmId);
             modifiedHosts = new HashSet<>();
 
             /* Remove all resources associated with the VM from the global set
              * and from the byHost index
              */
-            resourcesByVm.compute(vm.getId(), (vmId, resources) -> {
+            resourcesByVm.compute(vmId, (id, resources) -> {
                 resources.stream()
                         .peek(pendingResources::remove)
                         .filter(r -> removeFromSetMap(resourcesByHost, r.getHost(), r))
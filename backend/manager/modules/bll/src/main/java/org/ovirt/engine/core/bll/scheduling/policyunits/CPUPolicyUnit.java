@@ -32,6 +32,11 @@ public class CPUPolicyUnit extends PolicyUnitImpl {
         super(policyUnit, pendingResourceManager);
     }
 
+    @Override
+    public boolean isHostIndependentFilter() {
+        return true;
+    }
+
     @Override
     public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
         List<VDS> list = new ArrayList<>();
@@ -27,6 +27,11 @@ public class ClusterInMaintenanceFilterPolicyUnit extends PolicyUnitImpl {
         super(policyUnit, pendingResourceManager);
     }
 
+    @Override
+    public boolean isHostIndependentFilter() {
+        return true;
+    }
+
     @Override
     public List<VDS> filter(Cluster cluster,
             List<VDS> hosts,
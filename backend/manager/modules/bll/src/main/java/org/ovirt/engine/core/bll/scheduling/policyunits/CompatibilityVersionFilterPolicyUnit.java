@@ -32,6 +32,11 @@ public class CompatibilityVersionFilterPolicyUnit extends PolicyUnitImpl {
         super(policyUnit, pendingResourceManager);
     }
 
+    @Override
+    public boolean isHostIndependentFilter() {
+        return true;
+    }
+
     @Override
     public List<VDS> filter(Cluster cluster,
             List<VDS> hosts,
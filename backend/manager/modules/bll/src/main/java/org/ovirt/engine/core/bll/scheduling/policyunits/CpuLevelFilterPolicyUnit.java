@@ -40,6 +40,11 @@ public class CpuLevelFilterPolicyUnit extends PolicyUnitImpl {
         super(policyUnit, pendingResourceManager);
     }
 
+    @Override
+    public boolean isHostIndependentFilter() {
+        return true;
+    }
+
     @Override
     public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
         List<VDS> hostsToRunOn = new ArrayList<>();
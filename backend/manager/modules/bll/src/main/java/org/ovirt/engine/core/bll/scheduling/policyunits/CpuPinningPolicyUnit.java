@@ -41,6 +41,11 @@ public class CpuPinningPolicyUnit extends PolicyUnitImpl {
         super(policyUnit, pendingResourceManager);
     }
 
+    @Override
+    public boolean isHostIndependentFilter() {
+        return true;
+    }
+
     @Override
     public List<VDS> filter(Cluster cluster, final List<VDS> hosts,
             final VM vm,
@@ -39,6 +39,11 @@ public class LabelFilterPolicyUnit extends PolicyUnitImpl {
     @Inject
     LabelDao labelDao;
 
+    @Override
+    public boolean isHostIndependentFilter() {
+        return true;
+    }
+
     @Override
     public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
         Map<Guid, Set<Guid>> objectToTags = new HashMap<>();
@@ -74,6 +74,11 @@ public class MigrationPolicyUnit extends PolicyUnitImpl {
         return true;
     }
 
+    @Override
+    public boolean isHostIndependentFilter() {
+        return true;
+    }
+
     @Override
     public List<VDS> filter(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters, PerHostMessages messages) {
 
@@ -73,6 +73,7 @@ import org.ovirt.engine.core.utils.collections.MultiValueMapUtils;
 import org.ovirt.engine.core.utils.ovf.OvfManager;
 import org.ovirt.engine.core.utils.ovf.OvfReaderException;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStatisticsSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -127,6 +128,9 @@ public class ImagesHandler {
     @Inject
     private VdsCommandsHelper vdsCommandsHelper;
 
+    @Inject
+    private MonitoringStatisticsSink statisticsSink;
+
     /**
      * The following method will find all images and storages where they located for provide template and will fill an
      * diskInfoDestinationMap by imageId mapping on active storage id where image is located. The second map is
@@ -632,6 +636,7 @@ public class ImagesHandler {
     }
 
     public void removeDiskFromVm(Guid vmGuid, Guid diskId) {
+        statisticsSink.discardDiskImageDynamics(diskId);
         vmDeviceDao.remove(new VmDeviceId(diskId, vmGuid));
         baseDiskDao.remove(diskId);
     }
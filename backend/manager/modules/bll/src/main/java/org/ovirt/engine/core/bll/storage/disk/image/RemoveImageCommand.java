@@ -39,6 +39,7 @@ import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.utils.ovf.OvfManager;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStatisticsSink;
 
 /**
  * This command responsible to removing image, contains all created snapshots.
@@ -68,6 +69,8 @@ public class RemoveImageCommand<T extends RemoveImageParameters> extends BaseIma
     private DiskImageDao diskImageDao;
     @Inject
     private VmDao vmDao;
+    @Inject
+    private MonitoringStatisticsSink statisticsSink;
 
     public RemoveImageCommand(T parameters, CommandContext cmdContext) {
         super(parameters, cmdContext);
@@ -186,6 +189,7 @@ public class RemoveImageCommand<T extends RemoveImageParameters> extends BaseIma
 
             TransactionSupport.executeInScope(TransactionScopeOption.Required,
                     () -> {
+                        statisticsSink.discardDiskImageDynamics(diskImage.getId());
                         diskImageDynamicDao.remove(diskImage.getImageId());
                         Guid imageTemplate = diskImage.getImageTemplateId();
                         Guid currentGuid = diskImage.getImageId();
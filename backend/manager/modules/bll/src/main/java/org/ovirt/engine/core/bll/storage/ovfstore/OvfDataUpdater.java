@@ -2,7 +2,9 @@ package org.ovirt.engine.core.bll.storage.ovfstore;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -20,6 +22,7 @@ import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.StoragePoolDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.slf4j.Logger;
@@ -78,15 +81,32 @@ public class OvfDataUpdater implements BackendService {
 
             Set<Guid> domainsToUpdate = returnValueBase.getActionReturnValue();
             if (domainsToUpdate != null) {
-                for (Guid id : domainsToUpdate) {
-                    performOvfUpdateForDomain(pool.getId(), id);
-                }
+                updateOvfStores(pool.getId(), domainsToUpdate);
             } else {
-                log.error("Data Center '{}' domains list for OVF update returned as NULL");
+                log.error("Data Center '{}' domains list for OVF update returned as NULL", pool.getName());
             }
         }
     }
 
+    /**
+     * Updates the OVF stores of the given domains in parallel, each domain is locked by its own command and the
+     * content of its stores doesn't depend on the other domains.
+     */
+    private void updateOvfStores(Guid storagePoolId, Set<Guid> domainIds) {
+        if (domainIds.size() == 1) {
+            performOvfUpdateForDomain(storagePoolId, domainIds.iterator().next());
+            return;
+        }
+
+        List<Callable<Void>> tasks = domainIds.stream()
+                .map(domainId -> (Callable<Void>) () -> {
+                    performOvfUpdateForDomain(storagePoolId, domainId);
+                    return null;
+                })
+                .collect(Collectors.toList());
+        ThreadPoolUtil.invokeAll(tasks);
+    }
+
     public void triggerNow() {
         if (updateTimerJobId != null) {
             scheduler.triggerJob(updateTimerJobId);
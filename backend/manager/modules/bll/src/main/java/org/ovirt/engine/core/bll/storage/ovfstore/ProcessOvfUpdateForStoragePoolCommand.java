@@ -8,6 +8,8 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -79,6 +81,7 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends StoragePoolParamet
     private List<Long> proccessedOvfGenerationsInfo;
     private List<String> proccessedOvfConfigurationsInfo;
     private HashSet<Guid> proccessedDomains;
+    private Set<Guid> outdatedDomains;
     private List<Guid> activeDataDomainsIds;
 
     public ProcessOvfUpdateForStoragePoolCommand(T parameters, CommandContext commandContext) {
@@ -91,6 +94,7 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends StoragePoolParamet
     protected void executeCommand() {
         itemsCountPerUpdate = Config.getValue(ConfigValues.OvfItemsCountPerUpdate);
         proccessedDomains = new HashSet<>();
+        outdatedDomains = new HashSet<>();
         StoragePool pool = getStoragePool();
         proccessDomainsForOvfUpdate(pool);
 
@@ -181,10 +185,20 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends StoragePoolParamet
         vmAndTemplatesGenerationsDao.deleteOvfGenerations(removedOvfIdsInfo);
     }
 
+    /**
+     * Marks the OVF stores of the processed domains as outdated. A domain is marked once per run, the following
+     * batches only mark the domains that weren't processed before.
+     */
     protected void markDomainsWithOvfsForOvfUpdate(Collection<Guid> ovfIds) {
         List<Guid> relevantDomains = storageDomainOvfInfoDao.loadStorageDomainIdsForOvfIds(ovfIds);
         proccessedDomains.addAll(relevantDomains);
-        storageDomainOvfInfoDao.updateOvfUpdatedInfo(proccessedDomains, StorageDomainOvfInfoStatus.OUTDATED, StorageDomainOvfInfoStatus.DISABLED);
+        Set<Guid> domainsToMark = proccessedDomains.stream()
+                .filter(domainId -> !outdatedDomains.contains(domainId))
+                .collect(Collectors.toSet());
+        if (!domainsToMark.isEmpty()) {
+            storageDomainOvfInfoDao.updateOvfUpdatedInfo(domainsToMark, StorageDomainOvfInfoStatus.OUTDATED, StorageDomainOvfInfoStatus.DISABLED);
+            outdatedDomains.addAll(domainsToMark);
+        }
     }
 
     /**
@@ -1,13 +1,21 @@
 package org.ovirt.engine.core.bll.tasks;
 
+import java.util.concurrent.TimeUnit;
+
 import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
 
 class CallbackTiming {
+    static final long NOT_SCHEDULED = Long.MAX_VALUE;
+
     // Total delay between callback executions
     private int initialDelay;
 
-    // Remaining delay to next callback execution
-    private int remainingDelay;
+    // The time of the next callback execution, NOT_SCHEDULED while the callback is executed
+    private long nextExecutionTime;
+    private boolean executing;
+
+    // a wake-up which arrived while the callback was executed, the callback should be executed again right away
+    private boolean wakeUpRequested;
     private CommandCallback callback;
 
     // the end-time, where the callback shouldn't wait for the event any longer and change to polling mode
@@ -16,7 +24,7 @@ class CallbackTiming {
     public CallbackTiming(CommandCallback callback, int executionDelay) {
         this.callback = callback;
         this.initialDelay = executionDelay;
-        this.remainingDelay = executionDelay;
+        this.nextExecutionTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(executionDelay);
     }
 
     public int getInitialDelay() {
@@ -27,8 +35,54 @@ class CallbackTiming {
         this.initialDelay = initialDelay;
     }
 
-    public int getRemainingDelay() {
-        return remainingDelay;
+    public synchronized long getNextExecutionTime() {
+        return nextExecutionTime;
+    }
+
+    /**
+     * Marks the callback as executed if it is due at the given time, so an outdated schedule entry or another entry
+     * for the same time doesn't execute it again.
+     *
+     * @return {@code true} if the callback should be executed, else {@code false}
+     */
+    public synchronized boolean startExecution(long executionTime) {
+        if (executing || nextExecutionTime != executionTime) {
+            return false;
+        }
+        executing = true;
+        wakeUpRequested = false;
+        nextExecutionTime = NOT_SCHEDULED;
+        return true;
+    }
+
+    public synchronized boolean isExecuting() {
+        return executing;
+    }
+
+    /**
+     * Schedules the next execution of the callback, or executes it right away if it was woken up meanwhile.
+     *
+     * @return the time of the next execution
+     */
+    public synchronized long scheduleAt(long executionTime) {
+        executing = false;
+        nextExecutionTime = wakeUpRequested ? Math.min(executionTime, System.currentTimeMillis()) : executionTime;
+        wakeUpRequested = false;
+        return nextExecutionTime;
+    }
+
+    /**
+     * Makes the callback due now, if it is being executed the next execution will be scheduled right after.
+     *
+     * @return the time of the next execution or {@link #NOT_SCHEDULED} if it is being executed
+     */
+    public synchronized long wakeUp() {
+        if (executing) {
+            wakeUpRequested = true;
+            return NOT_SCHEDULED;
+        }
+        nextExecutionTime = Math.min(nextExecutionTime, System.currentTimeMillis());
+        return nextExecutionTime;
     }
 
     public void setWaitOnEventEndTime(long waitOnEventEndTime) {
@@ -39,10 +93,6 @@ class CallbackTiming {
         return waitOnEventEndTime;
     }
 
-    public void setRemainingDelay(int remainingDelay) {
-        this.remainingDelay = remainingDelay;
-    }
-
     public CommandCallback getCallback() {
         return callback;
     }
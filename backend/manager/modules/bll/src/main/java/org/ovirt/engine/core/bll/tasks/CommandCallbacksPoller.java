@@ -1,9 +1,9 @@
 package org.ovirt.engine.core.bll.tasks;
 
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -16,6 +16,7 @@ import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.CommandStatus;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.CorrelationIdTracker;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.slf4j.Logger;
@@ -25,6 +26,7 @@ public class CommandCallbacksPoller implements BackendService {
 
     private static final Logger log = LoggerFactory.getLogger(CommandCallbacksPoller.class);
     private int pollingRate;
+    private final Lock invocationLock = new ReentrantLock();
 
     @Inject
     private CommandsRepository commandsRepository;
@@ -40,6 +42,7 @@ public class CommandCallbacksPoller implements BackendService {
         log.info("Start initializing {}", getClass().getSimpleName());
         pollingRate = Config.<Integer>getValue(ConfigValues.AsyncCommandPollingLoopInSeconds);
         initCommandExecutor();
+        commandsRepository.setCallbacksWakeUpListener(this::wakeUp);
         schedulerUtil.scheduleAFixedDelayJob(this,
                 "invokeCallbackMethods",
                 new Class[]{},
@@ -78,80 +81,134 @@ public class CommandCallbacksPoller implements BackendService {
         return commandsRepository.getChildCommandIds(cmdId);
     }
 
+    /**
+     * Invokes the callbacks which are due, the regular invocation on every polling loop also takes care of expired
+     * commands.
+     */
     @OnTimerMethodAnnotation("invokeCallbackMethods")
     public void invokeCallbackMethods() {
-        Iterator<Entry<Guid, CallbackTiming>> iterator = commandsRepository.getCallbacksTiming().entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<Guid, CallbackTiming> entry = iterator.next();
-
-            Guid cmdId = entry.getKey();
-            CallbackTiming callbackTiming = entry.getValue();
-            CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
-            CorrelationIdTracker.setCorrelationId(commandEntity != null
-                    ? commandEntity.getCommandParameters().getCorrelationId() : null);
-            if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
-                continue;
-            }
+        try {
+            invokeDueCallbackMethods();
+        } finally {
+            commandsRepository.markExpiredCommandsAsFailure();
+        }
+    }
 
-            // Decrement counter; execute if it reaches 0
-            callbackTiming.setRemainingDelay(callbackTiming.getRemainingDelay() - pollingRate);
-            if (callbackTiming.getRemainingDelay() > 0) {
-                continue;
-            }
+    /**
+     * Invokes the callbacks which were woken up, without waiting for the next polling loop.
+     */
+    private void wakeUp() {
+        ThreadPoolUtil.execute(this::invokeDueCallbackMethods);
+    }
 
-            CommandCallback callback = callbackTiming.getCallback();
-            CommandStatus status = commandsRepository.getCommandStatus(cmdId);
-            boolean runCallbackAgain = false;
-            boolean errorInCallback = false;
+    private void invokeDueCallbackMethods() {
+        // a single thread invokes the callbacks, a wake-up arriving meanwhile is handled by it once it is done
+        do {
+            if (!invocationLock.tryLock()) {
+                return;
+            }
             try {
-                switch (status) {
-                    case FAILED:
-                    case SUCCEEDED:
-                        runCallbackAgain = endCallback(cmdId, callback, status);
-                        break;
-                    case ACTIVE:
-                        if (commandEntity != null && commandEntity.isExecuted()) {
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    case EXECUTION_FAILED:
-                        if (callback.pollOnExecutionFailed()) {
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    default:
-                        break;
+                Guid cmdId;
+                while ((cmdId = commandsRepository.pollDueCallback()) != null) {
+                    try {
+                        invokeCallbackMethod(cmdId);
+                    } catch (Exception ex) {
+                        log.error("Error invoking the callback of command '{}': {}", cmdId, ex.getMessage());
+                        log.debug("Exception", ex);
+                        rescheduleFailedCallback(cmdId);
+                    }
                 }
-            } catch (Exception ex) {
-                errorInCallback = true;
-                handleError(ex, status, cmdId);
             } finally {
-                if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
-                        && !runCallbackAgain) {
-                    commandsRepository.updateCallbackNotified(cmdId);
-                    iterator.remove();
-                    CommandEntity cmdEntity = commandsRepository.getCommandEntity(entry.getKey());
-                    if (cmdEntity != null) {
-                        // When a child finishes, its parent's callback should execute shortly thereafter
-                        CallbackTiming rootCmdContainer =
-                                commandsRepository.getCallbackTiming(cmdEntity.getRootCommandId());
-                        if (rootCmdContainer != null) {
-                            rootCmdContainer.setInitialDelay(pollingRate);
-                            rootCmdContainer.setRemainingDelay(pollingRate);
-                        }
+                CorrelationIdTracker.setCorrelationId(null);
+                invocationLock.unlock();
+            }
+        } while (commandsRepository.hasDueCallbacks());
+    }
+
+    /**
+     * Schedules the callback whose invocation failed to the next polling loop, unless it was already scheduled or
+     * removed, so the command isn't left without a callback.
+     */
+    private void rescheduleFailedCallback(Guid cmdId) {
+        CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+        if (callbackTiming != null && callbackTiming.isExecuting()) {
+            callbackTiming.setInitialDelay(pollingRate);
+            commandsRepository.scheduleCallback(cmdId, callbackTiming, delayedBy(pollingRate));
+        }
+    }
+
+    private void invokeCallbackMethod(Guid cmdId) {
+        CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+        if (callbackTiming == null) {
+            // the callback was removed after it was polled
+            return;
+        }
+
+        CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+        CorrelationIdTracker.setCorrelationId(commandEntity != null
+                ? commandEntity.getCommandParameters().getCorrelationId() : null);
+        if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
+            // the event subscriber wakes the callback up once the event arrives
+            commandsRepository.scheduleCallback(cmdId, callbackTiming, callbackTiming.getWaitOnEventEndTime());
+            return;
+        }
+
+        CommandCallback callback = callbackTiming.getCallback();
+        CommandStatus status = commandsRepository.getCommandStatus(cmdId);
+        boolean runCallbackAgain = false;
+        boolean errorInCallback = false;
+        try {
+            switch (status) {
+                case FAILED:
+                case SUCCEEDED:
+                    if (commandEntity != null && !commandEntity.isExecuted()) {
+                        // the command is still executing, its callback is woken up once the execution is over
+                        runCallbackAgain = true;
+                    } else {
+                        runCallbackAgain = endCallback(cmdId, callback, status);
+                    }
+                    break;
+                case ACTIVE:
+                    if (commandEntity != null && commandEntity.isExecuted()) {
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
                     }
-                } else if (status != commandsRepository.getCommandStatus(cmdId)) {
-                    callbackTiming.setInitialDelay(pollingRate);
-                    callbackTiming.setRemainingDelay(pollingRate);
-                } else {
-                    int maxDelay = Config.<Integer>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
-                    callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
-                    callbackTiming.setRemainingDelay(callbackTiming.getInitialDelay());
+                    break;
+                case EXECUTION_FAILED:
+                    if (callback.pollOnExecutionFailed()) {
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception ex) {
+            errorInCallback = true;
+            handleError(ex, status, cmdId);
+        } finally {
+            if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
+                    && !runCallbackAgain) {
+                commandsRepository.updateCallbackNotified(cmdId);
+                commandsRepository.removeFromCallbackMap(cmdId);
+                CommandEntity cmdEntity = commandsRepository.getCommandEntity(cmdId);
+                if (cmdEntity != null) {
+                    // When a child finishes, its parent's callback should execute right away
+                    commandsRepository.wakeUpCallback(cmdEntity.getRootCommandId());
                 }
+            } else if (status != commandsRepository.getCommandStatus(cmdId)) {
+                callbackTiming.setInitialDelay(pollingRate);
+                commandsRepository.scheduleCallback(cmdId, callbackTiming, delayedBy(pollingRate));
+            } else {
+                int maxDelay = Config.<Integer>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
+                callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
+                commandsRepository.scheduleCallback(cmdId,
+                        callbackTiming,
+                        delayedBy(callbackTiming.getInitialDelay()));
             }
         }
-        CorrelationIdTracker.setCorrelationId(null);
-        commandsRepository.markExpiredCommandsAsFailure();
+    }
+
+    private static long delayedBy(int delayInSeconds) {
+        return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delayInSeconds);
     }
 
     private void handleError(Exception ex, CommandStatus status, Guid cmdId) {
@@ -187,6 +244,9 @@ public class CommandCallbacksPoller implements BackendService {
                     cmdEntity.getCommandStatus() != CommandStatus.ENDED_WITH_FAILURE
                     ) {
                 commandsRepository.updateCommandStatus(cmdEntity.getId(), CommandStatus.EXECUTION_FAILED);
+            } else if (!cmdEntity.isExecuted() && cmdEntity.getCommandStatus() == CommandStatus.FAILED) {
+                // the execution was cut by the restart, so the callback should not wait for it to end
+                commandsRepository.updateCommandExecuted(cmdEntity.getId());
             }
 
             if (!cmdEntity.isCallbackNotified()) {
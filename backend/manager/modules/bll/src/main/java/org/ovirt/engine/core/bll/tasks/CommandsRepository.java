@@ -11,6 +11,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -42,6 +43,8 @@ public class CommandsRepository {
 
     private static final Logger log = LoggerFactory.getLogger(CommandsRepository.class);
     private final ConcurrentMap<Guid, CallbackTiming> callbacksTiming;
+    private final DelayQueue<ScheduledCallback> scheduledCallbacks;
+    private volatile Runnable callbacksWakeUpListener;
     private final CommandsCache commandsCache;
     private final CommandContextsCache contextsCache;
     private final ConcurrentHashMap<Guid, List<Guid>> childHierarchy;
@@ -58,6 +61,7 @@ public class CommandsRepository {
         this.contextsCache = contextsCache;
 
         callbacksTiming = new ConcurrentHashMap<>();
+        scheduledCallbacks = new DelayQueue<>();
         childHierarchy = new ConcurrentHashMap<>();
         subscriptions = new ConcurrentHashMap<>();
         LOCK = new Object();
@@ -112,6 +116,70 @@ public class CommandsRepository {
 
     public void addToCallbackMap(Guid commandId, CallbackTiming callbackTiming) {
         callbacksTiming.put(commandId, callbackTiming);
+        scheduledCallbacks.add(new ScheduledCallback(commandId, callbackTiming.getNextExecutionTime()));
+    }
+
+    public void removeFromCallbackMap(Guid commandId) {
+        callbacksTiming.remove(commandId);
+    }
+
+    /**
+     * Schedules the next execution of the callback of the command, which has just been executed.
+     */
+    public void scheduleCallback(Guid commandId, CallbackTiming callbackTiming, long executionTime) {
+        long nextExecutionTime = callbackTiming.scheduleAt(executionTime);
+        scheduledCallbacks.add(new ScheduledCallback(commandId, nextExecutionTime));
+        if (nextExecutionTime < executionTime) {
+            notifyCallbacksWakeUpListener();
+        }
+    }
+
+    /**
+     * Makes the callback of the command due now, so it doesn't wait for its scheduled execution. Used when something
+     * the callback is waiting for has happened, like an event or the end of a child command.
+     */
+    public void wakeUpCallback(Guid commandId) {
+        CallbackTiming callbackTiming = getCallbackTiming(commandId);
+        if (callbackTiming == null) {
+            return;
+        }
+
+        callbackTiming.setInitialDelay(pollingRate);
+        long nextExecutionTime = callbackTiming.wakeUp();
+        if (nextExecutionTime != CallbackTiming.NOT_SCHEDULED) {
+            scheduledCallbacks.add(new ScheduledCallback(commandId, nextExecutionTime));
+            notifyCallbacksWakeUpListener();
+        }
+    }
+
+    /**
+     * @return the id of a command whose callback is due, marked as executed, or {@code null} if there is none
+     */
+    public Guid pollDueCallback() {
+        ScheduledCallback scheduledCallback;
+        while ((scheduledCallback = scheduledCallbacks.poll()) != null) {
+            CallbackTiming callbackTiming = callbacksTiming.get(scheduledCallback.getCommandId());
+            if (callbackTiming != null && callbackTiming.startExecution(scheduledCallback.getExecutionTime())) {
+                return scheduledCallback.getCommandId();
+            }
+        }
+        return null;
+    }
+
+    public boolean hasDueCallbacks() {
+        ScheduledCallback next = scheduledCallbacks.peek();
+        return next != null && next.getDelay(TimeUnit.MILLISECONDS) <= 0;
+    }
+
+    public void setCallbacksWakeUpListener(Runnable callbacksWakeUpListener) {
+        this.callbacksWakeUpListener = callbacksWakeUpListener;
+    }
+
+    private void notifyCallbacksWakeUpListener() {
+        Runnable listener = callbacksWakeUpListener;
+        if (listener != null) {
+            listener.run();
+        }
     }
 
     public void persistCommand(CommandEntity cmdEntity, CommandContext cmdContext) {
@@ -158,6 +226,20 @@ public class CommandsRepository {
 
     public void updateCommandStatus(final Guid commandId, final CommandStatus status) {
         commandsCache.updateCommandStatus(commandId, status);
+        wakeUpEndedCallback(commandId);
+    }
+
+    /**
+     * Wakes up the callback of a command that ended, once the command is executed. The callback of a command that
+     * ends while it is still executing is woken up when its execution is over, see {@link #updateCommandExecuted}.
+     */
+    private void wakeUpEndedCallback(Guid commandId) {
+        CommandEntity cmdEntity = commandsCache.get(commandId);
+        if (cmdEntity != null && cmdEntity.isExecuted()
+                && (cmdEntity.getCommandStatus() == CommandStatus.SUCCEEDED
+                || cmdEntity.getCommandStatus() == CommandStatus.FAILED)) {
+            wakeUpCallback(commandId);
+        }
     }
 
     private CommandBase<?> retrieveCommand(CommandEntity cmdEntity, CommandContext cmdContext) {
@@ -270,10 +352,6 @@ public class CommandsRepository {
         return Collections.emptyList();
     }
 
-    public ConcurrentMap<Guid, CallbackTiming> getCallbacksTiming() {
-        return callbacksTiming;
-    }
-
     public void persistCommandAssociatedEntities(Collection<CommandAssociatedEntity> cmdAssociatedEntities) {
         commandsCache.persistCommandAssociatedEntities(cmdAssociatedEntities);
     }
@@ -310,6 +388,7 @@ public class CommandsRepository {
 
     public void updateCommandExecuted(Guid commandId) {
         commandsCache.updateCommandExecuted(commandId);
+        wakeUpEndedCallback(commandId);
     }
 
     public boolean hasCommandEntitiesWithRootCommandId(Guid rootCommandId) {
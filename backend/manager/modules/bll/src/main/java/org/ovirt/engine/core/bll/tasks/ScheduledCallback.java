@@ -0,0 +1,42 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * An entry of the callbacks schedule, ordered by the time the callback of the command is due. A callback which is
+ * rescheduled gets a new entry, the previous one is recognized as stale by its execution time, see
+ * {@link CallbackTiming#startExecution(long)}.
+ */
+class ScheduledCallback implements Delayed {
+    private final Guid commandId;
+    private final long executionTime;
+
+    public ScheduledCallback(Guid commandId, long executionTime) {
+        this.commandId = commandId;
+        this.executionTime = executionTime;
+    }
+
+    public Guid getCommandId() {
+        return commandId;
+    }
+
+    public long getExecutionTime() {
+        return executionTime;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(executionTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof ScheduledCallback) {
+            return Long.compare(executionTime, ((ScheduledCallback) other).executionTime);
+        }
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+}
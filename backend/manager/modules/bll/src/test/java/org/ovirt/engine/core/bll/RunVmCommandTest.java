@@ -519,4 +519,16 @@ public class RunVmCommandTest extends BaseCommandTest {
         assertEquals(AuditLogType.USER_INITIATED_RUN_VM, command.getAuditLogTypeValue());
     }
 
+    @Test
+    public void noPredefinedHostWithoutPreferredHost() {
+        assertEquals(Collections.emptyList(), command.getPredefinedVdsIdListToRunOn());
+    }
+
+    @Test
+    public void preferredHostIsPredefined() {
+        Guid preferredVdsId = Guid.newGuid();
+        command.getParameters().setPreferredVdsId(preferredVdsId);
+        assertEquals(Collections.singletonList(preferredVdsId), command.getPredefinedVdsIdListToRunOn());
+    }
+
 }
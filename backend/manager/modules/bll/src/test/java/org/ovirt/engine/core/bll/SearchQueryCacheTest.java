@@ -0,0 +1,33 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.ovirt.engine.core.aaa.QueryData;
+
+public class SearchQueryCacheTest {
+
+    @Test
+    public void leastRecentlyUsedQueryIsEvicted() {
+        SearchQueryCache cache = new SearchQueryCache(2);
+        cache.put("a", queryData("a"));
+        cache.put("b", queryData("b"));
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", queryData("c"));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    private static QueryData queryData(String query) {
+        return new QueryData(query, System.currentTimeMillis(), null, null);
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.ovirt.engine.core.bll.quota.QuotaManager;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.Quota;
@@ -75,6 +76,8 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
     private GlusterVolumeDao glusterVolumeDao;
     @Mock
     private NetworkViewDao networkViewDao;
+    @Spy
+    private SearchQueryCache searchQueryCache = new SearchQueryCache(100);
 
     List<Disk> diskImageResultList = new ArrayList<>();
     List<Quota> quotaResultList = new ArrayList<>();
@@ -3,6 +3,7 @@ package org.ovirt.engine.core.bll.aaa;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.mock;
@@ -33,6 +34,7 @@ public class SessionDataContainerTest {
     private static final String TEST_VALUE = "someValue";
     private static final String TEST_SESSION_ID = "someSession";
     private static final String TEST_SSO_TOKEN = "someToken";
+    private static final long TEST_SEQ_ID = 42L;
     private static final String USER = "user";
     private static final String SOFT_LIMIT = "soft_limit";
 
@@ -53,6 +55,7 @@ public class SessionDataContainerTest {
 
     @Before
     public void setUpContainer() {
+        when(engineSessionDao.save(any())).thenReturn(TEST_SEQ_ID);
         when(engineSessionDao.remove(anyLong())).thenReturn(1);
         when(ssoSessionValidator.getSessionStatuses(anySet())).thenReturn(Collections.singletonMap(TEST_SSO_TOKEN, true));
         when(ssoSessionUtils.isSessionInUse(anyLong())).thenReturn(false);
@@ -101,6 +104,32 @@ public class SessionDataContainerTest {
         assertNull("Get should return null since the session was removed",
                 container.getData(TEST_SESSION_ID, TEST_KEY, false));
     }
+
+    @Test
+    public void testGetSessionIdBySeqId() {
+        assertEquals(TEST_SESSION_ID, container.getSessionIdBySeqId(TEST_SEQ_ID));
+        clearSession();
+        assertNull("The removed session shouldn't be found", container.getSessionIdBySeqId(TEST_SEQ_ID));
+    }
+
+    @Test
+    public void testGetSessionIdBySsoAccessToken() {
+        assertEquals(TEST_SESSION_ID, container.getSessionIdBySsoAccessToken(TEST_SSO_TOKEN));
+        container.setSsoAccessToken(TEST_SESSION_ID, "otherToken");
+        assertNull("The session shouldn't be found by its former token",
+                container.getSessionIdBySsoAccessToken(TEST_SSO_TOKEN));
+        assertEquals(TEST_SESSION_ID, container.getSessionIdBySsoAccessToken("otherToken"));
+        clearSession();
+        assertNull("The removed session shouldn't be found", container.getSessionIdBySsoAccessToken("otherToken"));
+    }
+
+    @Test
+    public void testCleanupEngineSessionsForSsoAccessToken() {
+        container.cleanupEngineSessionsForSsoAccessToken(TEST_SSO_TOKEN);
+        assertNull("Get should return null since the session was removed",
+                container.getUser(TEST_SESSION_ID, false));
+    }
+
     /* Tests for clearedExpiredSessions */
 
     @Test
@@ -125,6 +154,35 @@ public class SessionDataContainerTest {
                 container.getData(TEST_SESSION_ID, TEST_KEY, false));
     }
 
+    @Test
+    public void testCleanInvalidSessions() {
+        container.setSessionValid(TEST_SESSION_ID, false);
+        container.cleanExpiredUsersSessions();
+        assertNull("Get should return null since the session was invalid",
+                container.getUser(TEST_SESSION_ID, false));
+    }
+
+    @Test
+    public void testCleanSessionsOfInvalidSsoToken() {
+        when(ssoSessionValidator.getSessionStatuses(anySet()))
+                .thenReturn(Collections.singletonMap(TEST_SSO_TOKEN, false));
+        container.cleanExpiredUsersSessions();
+        assertNull("Get should return null since the SSO token was invalid",
+                container.getUser(TEST_SESSION_ID, false));
+    }
+
+    @Test
+    public void testCleanSessionsInUseAgainAfterExpiration() {
+        when(ssoSessionUtils.isSessionInUse(anyLong())).thenReturn(true);
+        initDataForClearTest(TEST_KEY);
+        container.cleanExpiredUsersSessions();
+
+        when(ssoSessionUtils.isSessionInUse(anyLong())).thenReturn(false);
+        container.cleanExpiredUsersSessions();
+        assertNull("Get should return null since the session is not in use anymore",
+                container.getData(TEST_SESSION_ID, TEST_KEY, false));
+    }
+
     /** Initializes the {@link #key} data */
     private void initDataForClearTest(String key) {
         container.setData(TEST_SESSION_ID, key, mock(DbUser.class));
@@ -345,8 +345,6 @@ public class GlusterSyncJobTest {
         doReturn(Collections.singletonList(existingCluster)).when(clusterDao).getAll();
         doReturn(existingCluster).when(clusterDao).get(any());
         doReturn(existingServers).when(vdsDao).getAllForCluster(CLUSTER_ID);
-        doReturn(existingDistVol).when(volumeDao).getById(EXISTING_VOL_DIST_ID);
-        doReturn(existingReplVol).when(volumeDao).getById(EXISTING_VOL_REPL_ID);
         doReturn(existingVolumes).when(volumeDao).getByClusterId(CLUSTER_ID);
     }
 
@@ -13,6 +13,7 @@ import org.junit.Test;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.lock.LockManager;
 
 public class InMemoryLockManagerTest {
 
@@ -28,10 +29,17 @@ public class InMemoryLockManagerTest {
     private EngineLock failLockLock;
     private String updateGuid;
     private String lockGuid;
-    private InMemoryLockManager lockManager = new InMemoryLockManager();
+    private LockManager lockManager;
+    private LockManagerMonitorMXBean lockMonitor;
+
+    protected LockManager createLockManager() {
+        return new InMemoryLockManager();
+    }
 
     @Before
     public void setup() {
+        lockManager = createLockManager();
+        lockMonitor = (LockManagerMonitorMXBean) lockManager;
         updateGuid = Guid.newGuid().toString();
         lockGuid = Guid.newGuid().toString();
         Map<String, Pair<String, String>> updateRegionsMap = new HashMap<>();
@@ -68,8 +76,8 @@ public class InMemoryLockManagerTest {
         assertTrue(lockManager.acquireLock(updateAndLockLock).getFirst());
         lockManager.releaseLock(updateAndLockLock);
         assertTrue(lockManager.acquireLock(updateLock1).getFirst());
-        assertTrue(lockManager.releaseLock(updateGuid + "1"));
-        assertTrue(lockManager.showAllLocks().isEmpty());
+        assertTrue(lockMonitor.releaseLock(updateGuid + "1"));
+        assertTrue(lockMonitor.showAllLocks().isEmpty());
     }
 
     @Test
@@ -118,8 +126,8 @@ public class InMemoryLockManagerTest {
     public void checkShowLocks() {
         assertTrue(lockManager.acquireLock(lockLock1).getFirst());
         assertTrue(lockManager.acquireLock(lockLock2).getFirst());
-        assertEquals(2, lockManager.showAllLocks().size());
+        assertEquals(2, lockMonitor.showAllLocks().size());
         lockManager.clear();
-        assertTrue(lockManager.showAllLocks().isEmpty());
+        assertTrue(lockMonitor.showAllLocks().isEmpty());
     }
 }
@@ -0,0 +1,79 @@
+package org.ovirt.engine.core.bll.lock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.lock.LockManager;
+
+/**
+ * Runs the tests of {@link InMemoryLockManagerTest} against {@link StripedLockManager}, with the tests of the keys
+ * which are spread over several stripes.
+ */
+public class StripedLockManagerTest extends InMemoryLockManagerTest {
+
+    private StripedLockManager stripedLockManager = new StripedLockManager(4);
+
+    @Override
+    protected LockManager createLockManager() {
+        return stripedLockManager;
+    }
+
+    private static EngineLock exclusiveLock(String... keys) {
+        Map<String, Pair<String, String>> exclusiveLocks = new HashMap<>();
+        for (String key : keys) {
+            exclusiveLocks.put(key, new Pair<>("1", key));
+        }
+        EngineLock lock = new EngineLock();
+        lock.setExclusiveLocks(exclusiveLocks);
+        return lock;
+    }
+
+    @Test
+    public void checkAcquireLockOverStripesIsAllOrNothing() {
+        String[] keys = new String[16];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Guid.newGuid().toString();
+        }
+        EngineLock blockingLock = exclusiveLock(keys[keys.length - 1]);
+        assertTrue(stripedLockManager.acquireLock(blockingLock).getFirst());
+        assertFalse(stripedLockManager.acquireLock(exclusiveLock(keys)).getFirst());
+        assertEquals(1, stripedLockManager.showAllLocks().size());
+        stripedLockManager.releaseLock(blockingLock);
+        assertTrue(stripedLockManager.acquireLock(exclusiveLock(keys)).getFirst());
+        assertEquals(keys.length, stripedLockManager.showAllLocks().size());
+        stripedLockManager.clear();
+    }
+
+    @Test(timeout = 10000)
+    public void checkAcquireLockWaitIsWokenUpByRelease() throws Exception {
+        String heldKey = Guid.newGuid().toString();
+        EngineLock heldLock = exclusiveLock(heldKey);
+        EngineLock otherLock = exclusiveLock(Guid.newGuid().toString());
+        assertTrue(stripedLockManager.acquireLock(heldLock).getFirst());
+        assertTrue(stripedLockManager.acquireLock(otherLock).getFirst());
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            stripedLockManager.acquireLockWait(exclusiveLock(heldKey));
+            acquired.countDown();
+        });
+        waiter.start();
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        stripedLockManager.releaseLock(otherLock);
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        stripedLockManager.releaseLock(heldLock);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, stripedLockManager.showAllLocks().size());
+        stripedLockManager.clear();
+    }
+}
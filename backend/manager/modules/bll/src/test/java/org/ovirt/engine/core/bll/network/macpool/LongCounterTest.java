@@ -0,0 +1,104 @@
+package org.ovirt.engine.core.bll.network.macpool;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class LongCounterTest {
+
+    @Test
+    public void testIncreaseNoDuplicates() throws Exception {
+        final LongCounter counter = new LongCounter(false);
+
+
+        assertThat(counter.increase(1), is(true));
+        assertThat(counter.increase(1), is(false));
+        assertThat(counter.increase(2), is(true));
+        assertThat(counter.increase(-3), is(true));
+
+        assertThat(counter.contains(0), is(false));
+        assertThat(counter.contains(1), is(true));
+        assertThat(counter.contains(2), is(true));
+        assertThat(counter.contains(-3), is(true));
+    }
+
+    @Test
+    public void testIncreaseWithDuplicates() throws Exception {
+        final LongCounter counter = new LongCounter(true);
+
+
+        assertThat(counter.increase(1), is(true));
+        assertThat(counter.increase(1), is(true));
+        assertThat(counter.increase(2), is(true));
+        assertThat(counter.increase(-3), is(true));
+
+        assertThat(counter.contains(0), is(false));
+        assertThat(counter.contains(1), is(true));
+        assertThat(counter.contains(2), is(true));
+        assertThat(counter.contains(-3), is(true));
+    }
+
+    @Test
+    public void testDecreaseNoDuplicates() throws Exception {
+        final LongCounter counter = new LongCounter(false);
+
+        counter.increase(1);
+        counter.increase(2);
+
+        assertThat(counter.contains(0), is(false));
+        counter.decrease(0);
+        assertThat(counter.contains(0), is(false));
+
+        assertThat(counter.contains(1), is(true));
+        counter.decrease(1);
+        assertThat(counter.contains(1), is(false));
+    }
+
+    @Test
+    public void testDecreaseWithDuplicates() throws Exception {
+        final LongCounter counter = new LongCounter(true);
+
+        counter.increase(1);
+        counter.increase(1);
+        counter.increase(2);
+
+        assertThat(counter.contains(0), is(false));
+        counter.decrease(0);
+        assertThat(counter.contains(0), is(false));
+
+        assertThat(counter.contains(1), is(true));
+        counter.decrease(1);
+        assertThat(counter.contains(1), is(true));
+        counter.decrease(1);
+        assertThat(counter.contains(1), is(false));
+
+        assertThat(counter.contains(2), is(true));
+        counter.decrease(2);
+        assertThat(counter.contains(2), is(false));
+
+    }
+
+    @Test
+    public void testCountsManyValues() throws Exception {
+        final LongCounter counter = new LongCounter(true);
+        final int numberOfValues = 10000;
+
+        for (long value = 0; value < numberOfValues; value++) {
+            counter.increase(value << 16);
+            counter.increase(value << 16);
+        }
+        assertThat(counter.size(), is(numberOfValues));
+
+        // removing every other value has to keep the rest of them reachable
+        for (long value = 0; value < numberOfValues; value += 2) {
+            counter.decrease(value << 16);
+            counter.decrease(value << 16);
+        }
+        assertThat(counter.size(), is(numberOfValues / 2));
+
+        for (long value = 0; value < numberOfValues; value++) {
+            assertThat(counter.count(value << 16), is(value % 2 == 0 ? 0 : 2));
+        }
+    }
+}
@@ -437,6 +437,28 @@ public class QuotaManagerTest {
         assertDbWasCalled(4);
     }
 
+    @Test
+    public void testUpdateQuotaCache() throws Exception {
+        // add the quota to the cache
+        assertTrue(consumeForStorageQuota(STORAGE_QUOTA_GLOBAL_NOT_EXCEEDED));
+
+        // the quota was removed, and another quota was added to the storage pool
+        doReturn(true).when(quotaManager).isCacheUpdateNeeded();
+        List<Quota> allQuotas = new ArrayList<>();
+        allQuotas.add(mockStorageQuotaGlobalInGrace());
+        when(quotaDao.getAllQuotaIncludingConsumption()).thenReturn(allQuotas);
+        quotaManager.updateQuotaCache();
+        dbCalls = 0;
+
+        // the added quota is taken from the cache
+        assertTrue(consumeForStorageQuota(STORAGE_QUOTA_GLOBAL_IN_GRACE));
+        assertDbWasCalled(0);
+
+        // the removed quota is looked up in the db again
+        assertTrue(consumeForStorageQuota(STORAGE_QUOTA_GLOBAL_NOT_EXCEEDED));
+        assertDbWasCalled(1);
+    }
+
     @Test
     public void testUseDefaultQuotaStorage() throws CloneNotSupportedException {
         assertTrue(consumeForStorageQuota(null));
@@ -0,0 +1,194 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.scheduling.PolicyUnit;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+public class PolicyUnitsEvaluatorTest {
+
+    @ClassRule
+    public static MockConfigRule configRule = new MockConfigRule();
+
+    private ExecutorService executor;
+
+    private List<VDS> hosts;
+
+    private Cluster cluster;
+
+    private VM vm;
+
+    @Before
+    public void setUp() {
+        executor = new ForkJoinPool(4);
+
+        hosts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            VDS host = new VDS();
+            host.setId(Guid.newGuid());
+            host.setVdsName("host" + i);
+            host.setCpuCores(i);
+            hosts.add(host);
+        }
+
+        cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+
+        vm = new VM();
+        vm.setId(Guid.newGuid());
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void parallelFiltersGiveSequentialResults() {
+        List<PolicyUnitImpl> filters = Arrays.asList(
+                new TestFilter("odd", true, host -> host.getCpuCores() % 2 == 1),
+                new TestFilter("notThree", true, host -> host.getCpuCores() % 3 != 0),
+                new TestFilter("firstHalf", false, host -> true) {
+                    @Override
+                    public List<VDS> filter(Cluster cluster,
+                            List<VDS> hosts,
+                            VM vm,
+                            Map<String, String> parameters,
+                            PerHostMessages messages) {
+                        // Depends on the other hosts in the list
+                        return new ArrayList<>(hosts.subList(0, hosts.size() / 2 + 1));
+                    }
+                },
+                new TestFilter("big", true, host -> host.getCpuCores() > 4),
+                new TestFilter("notSeventeen", true, host -> host.getCpuCores() != 17));
+
+        PerHostMessages sequentialMessages = new PerHostMessages();
+        List<String> sequentialSteps = new ArrayList<>();
+        List<VDS> sequential = new PolicyUnitsEvaluator().filter(filters, cluster, hosts, vm, null,
+                sequentialMessages, (filter, before, after) -> sequentialSteps.add(describe(filter, before, after)));
+
+        PerHostMessages parallelMessages = new PerHostMessages();
+        List<String> parallelSteps = new ArrayList<>();
+        List<VDS> parallel = new PolicyUnitsEvaluator(executor).filter(filters, cluster, hosts, vm, null,
+                parallelMessages, (filter, before, after) -> parallelSteps.add(describe(filter, before, after)));
+
+        assertThat(parallel).isNotEmpty().isEqualTo(sequential);
+        assertThat(parallelSteps).isEqualTo(sequentialSteps);
+        assertThat(parallelMessages.getMessages()).isEqualTo(sequentialMessages.getMessages());
+    }
+
+    @Test
+    public void parallelFiltersStopWhenNoHostIsLeft() {
+        List<PolicyUnitImpl> filters = Arrays.asList(
+                new TestFilter("none", true, host -> false),
+                new TestFilter("all", true, host -> true));
+
+        List<String> steps = new ArrayList<>();
+        PerHostMessages messages = new PerHostMessages();
+        List<VDS> result = new PolicyUnitsEvaluator(executor).filter(filters, cluster, hosts, vm, null,
+                messages, (filter, before, after) -> steps.add(describe(filter, before, after)));
+
+        assertThat(result).isEmpty();
+        assertThat(steps).containsExactly(describe(filters.get(0), hosts, result));
+        assertThat(messages.getMessages(hosts.get(0).getId())).containsExactly("none");
+    }
+
+    @Test
+    public void parallelScoresKeepPolicyOrder() {
+        List<PolicyUnitImpl> functions = Arrays.asList(
+                new TestFunction(1),
+                new TestFunction(2),
+                new TestFunction(3));
+
+        List<List<Pair<Guid, Integer>>> sequential =
+                new PolicyUnitsEvaluator().score(functions, cluster, hosts, vm, null);
+        List<List<Pair<Guid, Integer>>> parallel =
+                new PolicyUnitsEvaluator(executor).score(functions, cluster, hosts, vm, null);
+
+        assertThat(parallel).hasSize(3).isEqualTo(sequential);
+        assertThat(parallel.get(2).get(1).getSecond()).isEqualTo(3);
+    }
+
+    private static String describe(PolicyUnitImpl filter, List<VDS> before, List<VDS> after) {
+        return filter.getPolicyUnit().getName() + ": " + names(before) + " -> " + names(after);
+    }
+
+    private static String names(List<VDS> hosts) {
+        return hosts.stream().map(VDS::getName).collect(Collectors.joining(","));
+    }
+
+    private static PolicyUnit policyUnit(String name) {
+        PolicyUnit policyUnit = new PolicyUnit();
+        policyUnit.setId(Guid.newGuid());
+        policyUnit.setName(name);
+        return policyUnit;
+    }
+
+    private static class TestFilter extends PolicyUnitImpl {
+        private final boolean hostIndependent;
+        private final Predicate<VDS> predicate;
+
+        TestFilter(String name, boolean hostIndependent, Predicate<VDS> predicate) {
+            super(policyUnit(name), null);
+            this.hostIndependent = hostIndependent;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean isHostIndependentFilter() {
+            return hostIndependent;
+        }
+
+        @Override
+        public List<VDS> filter(Cluster cluster,
+                List<VDS> hosts,
+                VM vm,
+                Map<String, String> parameters,
+                PerHostMessages messages) {
+            List<VDS> result = new ArrayList<>();
+            for (VDS host : hosts) {
+                if (predicate.test(host)) {
+                    result.add(host);
+                } else {
+                    messages.addMessage(host.getId(), getPolicyUnit().getName());
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class TestFunction extends PolicyUnitImpl {
+        private final int factor;
+
+        TestFunction(int factor) {
+            super(policyUnit("function" + factor), null);
+            this.factor = factor;
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(Cluster cluster, List<VDS> hosts, VM vm, Map<String, String> parameters) {
+            return hosts.stream()
+                    .map(host -> new Pair<>(host.getId(), host.getCpuCores() * factor))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.network.host.VfScheduler;
+import org.ovirt.engine.core.bll.scheduling.external.ExternalSchedulerDiscovery;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.scheduling.ClusterPolicy;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.ClusterDao;
+import org.ovirt.engine.core.dao.VdsDao;
+import org.ovirt.engine.core.dao.scheduling.ClusterPolicyDao;
+import org.ovirt.engine.core.dao.scheduling.PolicyUnitDao;
+import org.ovirt.engine.core.di.InjectorRule;
+import org.ovirt.engine.core.utils.MockConfigRule;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SchedulingManagerBatchTest {
+
+    @ClassRule
+    public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.ExternalSchedulerEnabled, false),
+            mockConfig(ConfigValues.EnableVdsLoadBalancing, false),
+            mockConfig(ConfigValues.SchedulerParallelHostEvaluation, false),
+            mockConfig(ConfigValues.SchedulerAllowOverBooking, false)
+    );
+
+    @Rule
+    public InjectorRule injectorRule = new InjectorRule();
+
+    @Mock
+    private ResourceManager resourceManager;
+    @Mock
+    private VdsManager vdsManager;
+    @Mock
+    private VdsDao vdsDao;
+    @Mock
+    private ClusterDao clusterDao;
+    @Mock
+    private ClusterPolicyDao clusterPolicyDao;
+    @Mock
+    private PolicyUnitDao policyUnitDao;
+    @Mock
+    private ExternalSchedulerDiscovery exSchedulerDiscovery;
+    @Mock
+    private VfScheduler vfScheduler;
+
+    @InjectMocks
+    private SchedulingManager schedulingManager;
+
+    private Cluster cluster;
+    private VDS host;
+    private VM bigVm;
+    private VM smallVm;
+
+    @Before
+    public void setUp() {
+        ClusterPolicy policy = new ClusterPolicy();
+        policy.setId(Guid.newGuid());
+        when(clusterPolicyDao.getAll(any())).thenReturn(Collections.singletonList(policy));
+
+        cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+        cluster.setName("cluster");
+        cluster.setClusterPolicyId(policy.getId());
+
+        host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setClusterId(cluster.getId());
+        host.setGuestOverhead(64);
+        when(resourceManager.getVdsManager(host.getId())).thenReturn(vdsManager);
+
+        bigVm = createVm(2, 2048);
+        smallVm = createVm(1, 1024);
+
+        schedulingManager.init();
+    }
+
+    private VM createVm(int cpus, int memSizeMb) {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setName("vm-" + cpus);
+        vm.setClusterId(cluster.getId());
+        vm.setNumOfSockets(cpus);
+        vm.setCpuPerSocket(1);
+        vm.setThreadsPerCpu(1);
+        vm.setVmMemSizeMb(memSizeMb);
+        return vm;
+    }
+
+    private void mockClusterWithHost() {
+        when(clusterDao.get(cluster.getId())).thenReturn(cluster);
+        when(vdsDao.getAllForClusterWithStatus(cluster.getId(), VDSStatus.Up))
+                .thenReturn(new ArrayList<>(Collections.singletonList(host)));
+    }
+
+    @Test
+    public void batchPlacementsStayReservedUntilCleared() {
+        mockClusterWithHost();
+
+        Map<Guid, Guid> placements = schedulingManager.scheduleBatch(Arrays.asList(smallVm, bigVm), null);
+
+        assertEquals(host.getId(), placements.get(bigVm.getId()));
+        assertEquals(host.getId(), placements.get(smallVm.getId()));
+        // the bigger VM is placed first, the CPUs of both VMs stay pending after the batch
+        verify(vdsManager).updatePendingData(anyInt(), eq(2));
+        verify(vdsManager).updatePendingData(anyInt(), eq(3));
+
+        schedulingManager.clearPendingVm(bigVm.getId());
+        verify(vdsManager).updatePendingData(anyInt(), eq(1));
+    }
+
+    @Test
+    public void plannedHostIsScheduledWithoutOwnReservation() {
+        mockClusterWithHost();
+        schedulingManager.scheduleBatch(Arrays.asList(smallVm, bigVm), null);
+
+        Optional<Guid> hostId = schedulingManager.schedule(cluster,
+                bigVm,
+                new ArrayList<>(),
+                new ArrayList<>(),
+                Collections.singletonList(host.getId()),
+                new ArrayList<>(),
+                mock(RunVmDelayer.class),
+                null);
+
+        assertEquals(Optional.of(host.getId()), hostId);
+        // the reservation of the VM is released before filtering and taken again for the scheduled host
+        verify(vdsManager).updatePendingData(anyInt(), eq(1));
+        verify(vdsManager, times(2)).updatePendingData(anyInt(), eq(3));
+    }
+
+    @Test
+    public void plannedVmIsValidatedWithoutOwnReservation() {
+        mockClusterWithHost();
+        schedulingManager.scheduleBatch(Arrays.asList(smallVm, bigVm), null);
+
+        assertTrue(schedulingManager.canSchedule(cluster,
+                bigVm,
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new ArrayList<>()));
+        verify(vdsManager).updatePendingData(anyInt(), eq(1));
+    }
+
+    @Test
+    public void vmsOfFailedClusterAreNotPlaced() {
+        mockClusterWithHost();
+        VM otherVm = createVm(1, 1024);
+        otherVm.setClusterId(Guid.newGuid());
+        when(clusterDao.get(otherVm.getClusterId())).thenThrow(new RuntimeException("failed"));
+
+        Map<Guid, Guid> placements = schedulingManager.scheduleBatch(Arrays.asList(bigVm, otherVm), null);
+
+        assertEquals(host.getId(), placements.get(bigVm.getId()));
+        assertFalse(placements.containsKey(otherVm.getId()));
+    }
+}
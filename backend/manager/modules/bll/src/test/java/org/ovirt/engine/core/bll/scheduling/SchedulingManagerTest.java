@@ -41,7 +41,8 @@ public class SchedulingManagerTest extends TransactionalTestBase {
             mockConfig(ConfigValues.SupportedClusterLevels, new HashSet<Version>()),
             mockConfig(ConfigValues.SpmVmGraceForEvenGuestDistribute, 5),
             mockConfig(ConfigValues.MigrationThresholdForEvenGuestDistribute, 5),
-            mockConfig(ConfigValues.HighVmCountForEvenGuestDistribute, 5)
+            mockConfig(ConfigValues.HighVmCountForEvenGuestDistribute, 5),
+            mockConfig(ConfigValues.SchedulerParallelHostEvaluation, false)
     );
 
     @Inject
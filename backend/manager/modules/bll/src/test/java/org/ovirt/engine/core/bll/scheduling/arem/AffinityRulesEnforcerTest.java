@@ -291,6 +291,21 @@ public class AffinityRulesEnforcerTest {
         assertThat(enforcer.chooseNextVmToMigrate(cluster)).isIn(vm1, vm2, vm3);
     }
 
+    @Test
+    public void shouldMergeOverlappingPositiveGroups() {
+        // vm1, vm4 and vm5 run on different hosts and have to run together through vm4
+        affinityGroups.add(createAffinityGroup(cluster, EntityAffinityRule.POSITIVE, vm1, vm4));
+        affinityGroups.add(createAffinityGroup(cluster, EntityAffinityRule.POSITIVE, vm4, vm5));
+        // vm2 already runs on the host it has affinity to
+        affinityGroups.add(createAffinityGroup(cluster, EntityAffinityRule.DISABLED, EntityAffinityRule.POSITIVE,
+                true, Arrays.asList(host1), vm2));
+
+        assertThat(enforcer.chooseNextVmToMigrate(cluster)).isIn(vm1, vm4, vm5);
+
+        // The VMs of all the affinity groups are fetched at once
+        verify(vmDao).getVmsByIds(anyList());
+    }
+
     @Test
     /**
      * Test conflicts for vm to host affinity including combinations
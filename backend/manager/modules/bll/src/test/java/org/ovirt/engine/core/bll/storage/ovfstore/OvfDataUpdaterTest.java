@@ -10,7 +10,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -23,6 +26,7 @@ import org.ovirt.engine.core.common.businessentities.StoragePool;
 import org.ovirt.engine.core.common.businessentities.StoragePoolStatus;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.StoragePoolDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 
 @RunWith(MockitoJUnitRunner.class)
 public class OvfDataUpdaterTest {
@@ -34,8 +38,14 @@ public class OvfDataUpdaterTest {
     @Mock
     private StoragePoolDao storagePoolDao;
 
+    private ExecutorService previousExecutor;
+    private ExecutorService executor;
+
     @Before
     public void setUp() {
+        previousExecutor = ThreadPoolUtil.getExecutorService();
+        executor = Executors.newFixedThreadPool(2);
+        ThreadPoolUtil.setExecutorService(executor);
         map = new HashMap<>();
         mockAnswers();
 
@@ -48,6 +58,12 @@ public class OvfDataUpdaterTest {
         doReturn(Arrays.asList(pool1, pool2)).when(storagePoolDao).getAllByStatus(StoragePoolStatus.Up);
     }
 
+    @After
+    public void tearDown() {
+        ThreadPoolUtil.setExecutorService(previousExecutor);
+        executor.shutdownNow();
+    }
+
     @Test
     public void poolUpdateOvfStoreOnAnyDomainSupported() throws Exception {
         ovfDataUpdater.ovfUpdateTimer();
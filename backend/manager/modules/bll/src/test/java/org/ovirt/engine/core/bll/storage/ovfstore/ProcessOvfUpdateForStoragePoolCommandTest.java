@@ -4,8 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -541,6 +543,25 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         verifyOvfUpdatedForSupportedPools(Collections.emptyList(), Collections.emptyMap());
     }
 
+    @Test
+    public void testDomainsMarkedAsOutdatedOnce() {
+        int size = 3 * ITEMS_COUNT_PER_UPDATE + 10;
+        List<Guid> vmGuids = generateGuidList(size);
+        List<Guid> templatesGuids = generateGuidList(size);
+        List<Guid> removedGuids = generateGuidList(size);
+        addVms(vmGuids, 2, VMStatus.Down, ImageStatus.OK);
+        addTemplates(templatesGuids, 2, VmTemplateStatus.OK, ImageStatus.OK);
+
+        initTestForPool(pool1, vmGuids, templatesGuids, removedGuids);
+
+        executeCommand();
+
+        verify(command, times(numberOfTimesToBeCalled(size, true))).performOvfUpdate(anyMap());
+        verify(storageDomainOvfInfoDao, times(1)).updateOvfUpdatedInfo(anyCollection(),
+                eq(StorageDomainOvfInfoStatus.OUTDATED),
+                eq(StorageDomainOvfInfoStatus.DISABLED));
+    }
+
     @Test
     public void testUpdateCalledForUnupdatedDomain() {
         Guid poolId = pool1.getId();
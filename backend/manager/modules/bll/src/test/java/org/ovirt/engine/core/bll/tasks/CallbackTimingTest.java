@@ -0,0 +1,52 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CallbackTimingTest {
+
+    private CallbackTiming callbackTiming;
+
+    @Before
+    public void setUp() {
+        callbackTiming = new CallbackTiming(null, 10);
+    }
+
+    @Test
+    public void executesOnlyOncePerSchedule() {
+        long executionTime = callbackTiming.getNextExecutionTime();
+
+        assertTrue(callbackTiming.startExecution(executionTime));
+        assertFalse(callbackTiming.startExecution(executionTime));
+    }
+
+    @Test
+    public void outdatedScheduleIsNotExecuted() {
+        long executionTime = callbackTiming.getNextExecutionTime();
+        callbackTiming.wakeUp();
+
+        assertFalse(callbackTiming.startExecution(executionTime));
+        assertTrue(callbackTiming.startExecution(callbackTiming.getNextExecutionTime()));
+    }
+
+    @Test
+    public void wakeUpDuringExecutionIsNotLost() {
+        long now = System.currentTimeMillis();
+        callbackTiming.startExecution(callbackTiming.getNextExecutionTime());
+
+        assertEquals(CallbackTiming.NOT_SCHEDULED, callbackTiming.wakeUp());
+        assertTrue(callbackTiming.scheduleAt(now + 60000) < now + 60000);
+    }
+
+    @Test
+    public void scheduledAtTheRequestedTime() {
+        long executionTime = System.currentTimeMillis() + 60000;
+        callbackTiming.startExecution(callbackTiming.getNextExecutionTime());
+
+        assertEquals(executionTime, callbackTiming.scheduleAt(executionTime));
+    }
+}
@@ -0,0 +1,111 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
+import org.ovirt.engine.core.common.action.ActionParametersBase;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommandCallbacksPollerTest {
+
+    private static final Guid CMD_ID = new Guid("00000000-0000-0000-0000-000000000001");
+    private static final Guid FAILING_CMD_ID = new Guid("00000000-0000-0000-0000-000000000002");
+
+    @ClassRule
+    public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.AsyncCommandPollingRateInSeconds, 10));
+
+    @Mock
+    private CommandsRepository commandsRepository;
+
+    @Mock
+    private CommandCallback callback;
+
+    @InjectMocks
+    private CommandCallbacksPoller poller;
+
+    private CallbackTiming executedCallbackTiming() {
+        CallbackTiming callbackTiming = new CallbackTiming(callback, 0);
+        callbackTiming.startExecution(callbackTiming.getNextExecutionTime());
+        return callbackTiming;
+    }
+
+    @Test
+    public void failedCallbackIsRescheduled() {
+        CallbackTiming failingCallbackTiming = executedCallbackTiming();
+        CallbackTiming callbackTiming = executedCallbackTiming();
+        when(commandsRepository.pollDueCallback()).thenReturn(FAILING_CMD_ID, CMD_ID, null);
+        when(commandsRepository.getCallbackTiming(FAILING_CMD_ID)).thenReturn(failingCallbackTiming);
+        when(commandsRepository.getCallbackTiming(CMD_ID)).thenReturn(callbackTiming);
+        when(commandsRepository.getCommandEntity(FAILING_CMD_ID)).thenThrow(new RuntimeException());
+        when(commandsRepository.getCommandStatus(CMD_ID)).thenReturn(CommandStatus.ACTIVE);
+
+        poller.invokeCallbackMethods();
+
+        verify(commandsRepository).scheduleCallback(eq(FAILING_CMD_ID), eq(failingCallbackTiming), anyLong());
+        // the callbacks after the failed one are still invoked, and the expired commands are still handled
+        verify(commandsRepository).scheduleCallback(eq(CMD_ID), eq(callbackTiming), anyLong());
+        verify(commandsRepository).markExpiredCommandsAsFailure();
+    }
+
+    @Test
+    public void callbackIsRescheduledWhenNotificationFails() {
+        CallbackTiming callbackTiming = executedCallbackTiming();
+        when(commandsRepository.pollDueCallback()).thenReturn(CMD_ID, null);
+        when(commandsRepository.getCallbackTiming(CMD_ID)).thenReturn(callbackTiming);
+        when(commandsRepository.getCommandStatus(CMD_ID)).thenReturn(CommandStatus.SUCCEEDED);
+        doThrow(new RuntimeException()).when(commandsRepository).updateCallbackNotified(CMD_ID);
+
+        poller.invokeCallbackMethods();
+
+        verify(commandsRepository, never()).removeFromCallbackMap(CMD_ID);
+        verify(commandsRepository).scheduleCallback(eq(CMD_ID), eq(callbackTiming), anyLong());
+    }
+
+    @Test
+    public void commandIsNotEndedBeforeItIsExecuted() {
+        CallbackTiming callbackTiming = executedCallbackTiming();
+        CommandEntity cmdEntity = new CommandEntity();
+        cmdEntity.setId(CMD_ID);
+        cmdEntity.setCommandParameters(new ActionParametersBase());
+        when(commandsRepository.pollDueCallback()).thenReturn(CMD_ID, null);
+        when(commandsRepository.getCallbackTiming(CMD_ID)).thenReturn(callbackTiming);
+        when(commandsRepository.getCommandEntity(CMD_ID)).thenReturn(cmdEntity);
+        when(commandsRepository.getCommandStatus(CMD_ID)).thenReturn(CommandStatus.SUCCEEDED);
+
+        poller.invokeCallbackMethods();
+
+        verify(callback, never()).onSucceeded(eq(CMD_ID), anyList());
+        verify(commandsRepository, never()).removeFromCallbackMap(CMD_ID);
+        verify(commandsRepository).scheduleCallback(eq(CMD_ID), eq(callbackTiming), anyLong());
+    }
+
+    @Test
+    public void removedCallbackIsNotInvoked() {
+        when(commandsRepository.pollDueCallback()).thenReturn(CMD_ID, null);
+
+        poller.invokeCallbackMethods();
+
+        verify(commandsRepository, never()).getCommandStatus(CMD_ID);
+        verify(commandsRepository, never()).scheduleCallback(any(), any(), anyLong());
+    }
+}
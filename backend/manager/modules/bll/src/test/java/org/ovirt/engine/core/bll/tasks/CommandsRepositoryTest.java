@@ -0,0 +1,122 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
+import org.ovirt.engine.core.bll.tasks.interfaces.CommandContextsCache;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigRule;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommandsRepositoryTest {
+
+    private static final Guid CMD_ID = new Guid("00000000-0000-0000-0000-000000000001");
+
+    @ClassRule
+    public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.AsyncCommandPollingLoopInSeconds, 10));
+
+    @Mock
+    private CommandsCache commandsCache;
+
+    @Mock
+    private CommandContextsCache contextsCache;
+
+    @Mock
+    private CommandCallback callback;
+
+    @Mock
+    private Runnable wakeUpListener;
+
+    private CommandsRepository commandsRepository;
+
+    @Before
+    public void setUp() {
+        commandsRepository = new CommandsRepository(commandsCache, contextsCache);
+        commandsRepository.setCallbacksWakeUpListener(wakeUpListener);
+    }
+
+    @Test
+    public void dueCallbackIsPolledOnce() {
+        commandsRepository.addToCallbackMap(CMD_ID, new CallbackTiming(callback, 0));
+
+        assertTrue(commandsRepository.hasDueCallbacks());
+        assertEquals(CMD_ID, commandsRepository.pollDueCallback());
+        assertNull(commandsRepository.pollDueCallback());
+    }
+
+    @Test
+    public void callbackIsNotPolledBeforeItIsDue() {
+        commandsRepository.addToCallbackMap(CMD_ID, new CallbackTiming(callback, 60));
+
+        assertFalse(commandsRepository.hasDueCallbacks());
+        assertNull(commandsRepository.pollDueCallback());
+    }
+
+    @Test
+    public void wokenUpCallbackIsDue() {
+        commandsRepository.addToCallbackMap(CMD_ID, new CallbackTiming(callback, 60));
+
+        commandsRepository.wakeUpCallback(CMD_ID);
+
+        verify(wakeUpListener).run();
+        assertEquals(CMD_ID, commandsRepository.pollDueCallback());
+    }
+
+    @Test
+    public void endedCommandIsWokenUpOnceExecuted() {
+        CommandEntity cmdEntity = new CommandEntity();
+        cmdEntity.setId(CMD_ID);
+        cmdEntity.setCommandStatus(CommandStatus.SUCCEEDED);
+        when(commandsCache.get(CMD_ID)).thenReturn(cmdEntity);
+        commandsRepository.addToCallbackMap(CMD_ID, new CallbackTiming(callback, 60));
+
+        commandsRepository.updateCommandStatus(CMD_ID, CommandStatus.SUCCEEDED);
+        verify(wakeUpListener, never()).run();
+
+        cmdEntity.setExecuted(true);
+        commandsRepository.updateCommandExecuted(CMD_ID);
+        verify(wakeUpListener).run();
+        assertEquals(CMD_ID, commandsRepository.pollDueCallback());
+    }
+
+    @Test
+    public void wakeUpDuringExecutionIsDeferred() {
+        CallbackTiming callbackTiming = new CallbackTiming(callback, 0);
+        commandsRepository.addToCallbackMap(CMD_ID, callbackTiming);
+        commandsRepository.pollDueCallback();
+
+        commandsRepository.wakeUpCallback(CMD_ID);
+        verify(wakeUpListener, never()).run();
+
+        // the callback is due right after its execution, rather than when it was scheduled
+        commandsRepository.scheduleCallback(CMD_ID, callbackTiming, System.currentTimeMillis() + 60000);
+        verify(wakeUpListener).run();
+        assertEquals(CMD_ID, commandsRepository.pollDueCallback());
+    }
+
+    @Test
+    public void removedCallbackIsNotPolled() {
+        commandsRepository.addToCallbackMap(CMD_ID, new CallbackTiming(callback, 0));
+
+        commandsRepository.removeFromCallbackMap(CMD_ID);
+
+        assertNull(commandsRepository.pollDueCallback());
+    }
+}
@@ -35,6 +35,7 @@ public class RunVmParams extends VmOperationParameterBase {
     private Boolean runAsStateless;
     private boolean balloonEnabled;
     private boolean runInUnknownStatus;
+    private Guid preferredVdsId;
 
     private RunVmFlow cachedFlow;
 
@@ -142,4 +143,16 @@ public class RunVmParams extends VmOperationParameterBase {
         this.runInUnknownStatus = runInUnknownStatus;
     }
 
+    /**
+     * The host planned for the VM by a batch scheduling pass, the scheduler selects it as long as it passes
+     * the filters.
+     */
+    public Guid getPreferredVdsId() {
+        return preferredVdsId;
+    }
+
+    public void setPreferredVdsId(Guid preferredVdsId) {
+        this.preferredVdsId = preferredVdsId;
+    }
+
 }
@@ -131,7 +131,9 @@ public class VmDynamic implements BusinessEntityWithStatus<Guid, VMStatus>, Comp
                 guestOsKernelVersion,
                 guestOsVersion,
                 guestOsType,
-                guestContainers
+                guestContainers,
+                guestCpuCount,
+                guestAgentNicsHash
         );
     }
 
@@ -188,7 +190,9 @@ public class VmDynamic implements BusinessEntityWithStatus<Guid, VMStatus>, Comp
                 && Objects.equals(guestOsKernelVersion, other.guestOsKernelVersion)
                 && Objects.equals(guestOsArch, other.guestOsArch)
                 && Objects.equals(guestOsType, other.guestOsType)
-                && Objects.equals(guestContainers, other.guestContainers);
+                && Objects.equals(guestContainers, other.guestContainers)
+                && guestCpuCount == other.guestCpuCount
+                && guestAgentNicsHash == other.guestAgentNicsHash;
     }
 
     public Date getBootTime() {
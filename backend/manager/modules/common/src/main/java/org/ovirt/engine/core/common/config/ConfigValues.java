@@ -2019,6 +2019,85 @@ public enum ConfigValues {
     @DefaultValueAttribute("true")
     DestroyOnRebootSupported(ClientAccessLevel.User),
 
+    /**
+     * Skip the analysis of VMs that were reported by VDSM with the same data as in the previous monitoring cycle
+     */
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    VmMonitoringDeltaMode,
+
+    /**
+     * The maximal number of subsequent monitoring cycles a VM can be skipped by the delta monitoring mode
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10")
+    VmMonitoringDeltaMaxSkippedCycles,
+
+    /**
+     * Evaluate the scheduling filter and weight policy units of a cluster concurrently
+     */
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    SchedulerParallelHostEvaluation,
+
+    /**
+     * The number of threads used by the parallel scheduling host evaluation
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("4")
+    SchedulerParallelHostEvaluationThreads,
+
+    /**
+     * The minimal number of candidate hosts for which the policy units are evaluated concurrently
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("50")
+    SchedulerParallelHostEvaluationMinHosts,
+
+    /**
+     * Coalesce the host and VM statistics collected by the monitoring in memory and write them to the
+     * database periodically instead of on every monitoring cycle
+     */
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    MonitoringStatisticsWriteBehind,
+
+    /**
+     * The interval in seconds between two writes of the coalesced monitoring statistics
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("15")
+    MonitoringStatisticsFlushIntervalInSeconds,
+
+    /**
+     * The maximal number of SQL queries generated from search strings which are cached
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1000")
+    SearchQueryCacheSize,
+
+    /**
+     * Write the audit log entries in the background, in batches, instead of in the thread that logs them
+     */
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    AuditLogAsyncWrite,
+
+    /**
+     * The maximal number of audit log entries waiting to be written in the background, the threads logging more
+     * entries wait until there is room for them
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10000")
+    AuditLogAsyncWriteQueueSize,
+
+    /**
+     * The maximal number of audit log entries written to the database in a single batch
+     */
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("500")
+    AuditLogAsyncWriteBatchSize,
+
     Invalid;
 
     private ClientAccessLevel accessLevel;
@@ -12,6 +12,7 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
     private SearchType _searchType;
     private int _maxCount;
     private long searchFrom;
+    private long searchTo;
     private boolean caseSensitive;
 
     public SearchParameters() {
@@ -53,6 +54,14 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
         return searchFrom;
     }
 
+    public void setSearchTo(long value) {
+        searchTo = value;
+    }
+
+    public long getSearchTo() {
+        return searchTo;
+    }
+
     public boolean getCaseSensitive() {
         return caseSensitive;
     }
@@ -68,6 +77,7 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
                 .append("searchPattern", getSearchPattern())
                 .append("caseSensitive", getCaseSensitive())
                 .append("from", getSearchFrom())
+                .append("to", getSearchTo())
                 .append("max", getMaxCount());
     }
 }
@@ -1,5 +1,7 @@
 package org.ovirt.engine.core.dal.dbbroker;
 
+import java.util.List;
+
 import javax.sql.DataSource;
 
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -50,4 +52,10 @@ public interface DbEngineDialect {
      */
     public String createSqlCallCommand(String procSchemaFromDB,
             String procNameFromDB, String params);
+
+    /**
+     * This function creates a query command for a specific function which returns a set of rows. The parameters are
+     * passed by name, so parameters which are not given keep their default values.
+     */
+    public String createSqlQueryCommand(String procNameFromDB, List<String> paramNames);
 }
@@ -7,6 +7,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -199,4 +200,15 @@ public class PostgresDbEngineDialect implements DbEngineDialect {
                 .append(procNameFromDB).append("(").append(params).append(")}");
         return sqlCommand.toString();
     }
+
+    /**
+     * Creates the query used for calling a function which returns a set of rows, see {@link PostgresSimpleJdbcCall}.
+     * The parameters are bound using the named notation, e.g. <code>select * from f(v_id := ?)</code>.
+     */
+    @Override
+    public String createSqlQueryCommand(String procNameFromDB, List<String> paramNames) {
+        return paramNames.stream()
+                .map(paramName -> paramName + " := ?")
+                .collect(Collectors.joining(", ", "select * from " + procNameFromDB + "(", ")"));
+    }
 }
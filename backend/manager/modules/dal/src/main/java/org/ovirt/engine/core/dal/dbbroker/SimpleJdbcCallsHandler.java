@@ -1,6 +1,13 @@
 package org.ovirt.engine.core.dal.dbbroker;
 
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -11,20 +18,41 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 
 @Singleton
 public class SimpleJdbcCallsHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(SimpleJdbcCallsHandler.class);
+
     private static final String RETURN_VALUE_PARAMETER = "RETURN_VALUE";
 
+    /**
+     * Marks functions whose metadata could not be resolved unambiguously, those are executed using
+     * {@link SimpleJdbcCall}
+     */
+    private static final StoredProcedureMetaData UNRESOLVED_METADATA = new StoredProcedureMetaData();
+
     private final ConcurrentMap<String, SimpleJdbcCall> callsMap = new ConcurrentHashMap<>();
 
+    /** The metadata of the functions which return a set of rows, by function name **/
+    private final ConcurrentMap<String, StoredProcedureMetaData> queriesMetaData = new ConcurrentHashMap<>();
+
+    /** The statements used for the read calls, by function name and the names of the given parameters **/
+    private final ConcurrentMap<String, QueryStatement> queryStatements = new ConcurrentHashMap<>();
+
     private final DbEngineDialect dialect;
     private final JdbcTemplate jdbcTemplate;
 
@@ -94,18 +122,148 @@ public class SimpleJdbcCallsHandler {
     public <T> T executeRead(final String procedureName,
             final RowMapper<T> mapper,
             final MapSqlParameterSource parameterSource) {
-        List<T> results = executeReadList(procedureName, mapper, parameterSource);
-        return results.isEmpty() ? null : results.get(0);
+        QueryStatement statement = getQueryStatement(procedureName, parameterSource);
+        if (statement == null) {
+            List<T> results = executeReadListImpl(procedureName, mapper, parameterSource);
+            return results.isEmpty() ? null : results.get(0);
+        }
+        return executeQuery(statement, parameterSource, rs -> rs.next() ? mapper.mapRow(rs, 0) : null);
+    }
+
+    public <T> List<T> executeReadList(final String procedureName,
+            final RowMapper<T> mapper,
+            final MapSqlParameterSource parameterSource) {
+        QueryStatement statement = getQueryStatement(procedureName, parameterSource);
+        if (statement == null) {
+            return executeReadListImpl(procedureName, mapper, parameterSource);
+        }
+        return executeQuery(statement, parameterSource, new RowMapperResultSetExtractor<>(mapper));
     }
 
     @SuppressWarnings("unchecked")
-    public <T> List<T> executeReadList(final String procedureName,
+    private <T> List<T> executeReadListImpl(final String procedureName,
             final RowMapper<T> mapper,
             final MapSqlParameterSource parameterSource) {
         Map<String, Object> resultsMap = executeImpl(procedureName, parameterSource, createCallForRead(procedureName, mapper, parameterSource), mapper);
         return (List<T>) resultsMap.get(RETURN_VALUE_PARAMETER);
     }
 
+    /**
+     * Executes the statement of a read call, binding the parameters by position and passing the rows directly to the
+     * given extractor.
+     */
+    private <T> T executeQuery(QueryStatement statement,
+            SqlParameterSource parameterSource,
+            ResultSetExtractor<T> extractor) {
+        return jdbcTemplate.query(statement.getSql(), ps -> bindParameters(ps, statement, parameterSource), extractor);
+    }
+
+    private void bindParameters(PreparedStatement ps, QueryStatement statement, SqlParameterSource parameterSource)
+            throws SQLException {
+        List<SqlCallParameter> parameters = statement.getParameters();
+        List<String> sourceNames = statement.getSourceNames();
+        for (int i = 0; i < parameters.size(); i++) {
+            String sourceName = sourceNames.get(i);
+            int sqlType = parameterSource.getSqlType(sourceName);
+            StatementCreatorUtils.setParameterValue(ps,
+                    i + 1,
+                    sqlType != SqlParameterSource.TYPE_UNKNOWN ? sqlType : parameters.get(i).getDataType(),
+                    parameterSource.getValue(sourceName));
+        }
+    }
+
+    /**
+     * Returns the statement for a read call of the given function with the given parameters, or null if the call
+     * should be executed using {@link SimpleJdbcCall}. The statement text depends on the names of the given parameters
+     * only, so it is built once per call site and then taken from the cache.
+     */
+    private QueryStatement getQueryStatement(String procedureName, MapSqlParameterSource parameterSource) {
+        String[] sourceNames = parameterSource.getParameterNames();
+        String key = procedureName + '(' + String.join(",", sourceNames) + ')';
+        QueryStatement statement = queryStatements.get(key);
+        if (statement != null) {
+            return statement;
+        }
+
+        StoredProcedureMetaData metaData = queriesMetaData.computeIfAbsent(procedureName, this::resolveQueryMetaData);
+        if (metaData == UNRESOLVED_METADATA) {
+            return null;
+        }
+        statement = createQueryStatement(metaData, sourceNames);
+        queryStatements.putIfAbsent(key, statement);
+        return statement;
+    }
+
+    private QueryStatement createQueryStatement(StoredProcedureMetaData metaData, String[] sourceNames) {
+        Map<String, String> sourceNamesByLowerCase = new HashMap<>();
+        for (String sourceName : sourceNames) {
+            sourceNamesByLowerCase.put(sourceName.toLowerCase(), sourceName);
+        }
+
+        List<SqlCallParameter> parameters = new ArrayList<>();
+        List<String> parametersSourceNames = new ArrayList<>();
+        metaData.getParamatersMetaData().values().stream()
+                .sorted(Comparator.comparingInt(SqlCallParameter::getOrdinal))
+                .forEach(parameter -> {
+                    String sourceName = sourceNamesByLowerCase.get(parameter.getName().toLowerCase());
+                    // parameters which are not given keep their default value in the function
+                    if (sourceName != null) {
+                        parameters.add(parameter);
+                        parametersSourceNames.add(sourceName);
+                    }
+                });
+
+        String sql = dialect.createSqlQueryCommand(metaData.getDbName(),
+                parameters.stream().map(SqlCallParameter::getName).collect(Collectors.toList()));
+        return new QueryStatement(sql, parameters, parametersSourceNames);
+    }
+
+    /**
+     * Resolves the input parameters of a function which returns a set of rows. Functions which are overloaded or exist
+     * in more than one schema can't be resolved by name, so those are marked to be called using {@link SimpleJdbcCall}.
+     */
+    private StoredProcedureMetaData resolveQueryMetaData(String procedureName) {
+        try {
+            return jdbcTemplate.execute((ConnectionCallback<StoredProcedureMetaData>) con -> {
+                StoredProcedureMetaData metaData = new StoredProcedureMetaData();
+                Map<String, SqlCallParameter> parameters = new HashMap<>();
+                String specificName = null;
+                try (ResultSet rs = con.getMetaData().getProcedureColumns(null,
+                        null, procedureName.toLowerCase(), "%")) {
+                    while (rs.next()) {
+                        String currentSpecificName = rs.getString("SPECIFIC_NAME");
+                        if (specificName != null && !specificName.equals(currentSpecificName)) {
+                            log.debug("Function '{}' can't be resolved by name, it will be called using metadata"
+                                    + " of the JDBC driver on each call", procedureName);
+                            return UNRESOLVED_METADATA;
+                        }
+                        specificName = currentSpecificName;
+                        metaData.setDbName(rs.getString("PROCEDURE_NAME"));
+                        metaData.setSchemaName(rs.getString("PROCEDURE_SCHEM"));
+
+                        int columnType = rs.getInt("COLUMN_TYPE");
+                        if (columnType == DatabaseMetaData.procedureColumnIn
+                                || columnType == DatabaseMetaData.procedureColumnInOut) {
+                            String name = rs.getString("COLUMN_NAME");
+                            parameters.put(name, new SqlCallParameter(rs.getInt("ORDINAL_POSITION"),
+                                    name,
+                                    rs.getInt("DATA_TYPE")));
+                        }
+                    }
+                }
+                if (metaData.getDbName() == null) {
+                    metaData.setDbName(procedureName.toLowerCase());
+                }
+                metaData.setParamatersMetaData(parameters);
+                return metaData;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Can't get function '{}' meta data: {}", procedureName, e.getMessage());
+            log.debug("Exception", e);
+            return UNRESOLVED_METADATA;
+        }
+    }
+
     private CallCreator createCallForRead(final String procedureName,
             final RowMapper<?> mapper,
             final MapSqlParameterSource parameterSource) {
@@ -165,4 +323,31 @@ public class SimpleJdbcCallsHandler {
     public DbEngineDialect getDialect() {
         return dialect;
     }
+
+    /**
+     * The SQL text of a read call together with the parameters it binds, in the order of their placeholders
+     */
+    private static class QueryStatement {
+        private final String sql;
+        private final List<SqlCallParameter> parameters;
+        private final List<String> sourceNames;
+
+        private QueryStatement(String sql, List<SqlCallParameter> parameters, List<String> sourceNames) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.sourceNames = sourceNames;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<SqlCallParameter> getParameters() {
+            return parameters;
+        }
+
+        public List<String> getSourceNames() {
+            return sourceNames;
+        }
+    }
 }
@@ -15,6 +15,8 @@ public class AlertDirector {
 
     @Inject
     private AuditLogDao auditLogDao;
+    @Inject
+    private AuditLogDirector auditLogDirector;
 
     /**
      * Removes the alert.
@@ -25,6 +27,7 @@ public class AlertDirector {
      *            The type.
      */
     public void removeVdsAlert(Guid vdsId, AuditLogType type) {
+        auditLogDirector.flush();
         auditLogDao.removeAllOfTypeForVds(vdsId, type.getValue());
     }
 
@@ -36,6 +39,7 @@ public class AlertDirector {
      *            The alert type
      */
     public void removeVolumeAlert(Guid volumeId, AuditLogType type) {
+        auditLogDirector.flush();
         auditLogDao.removeAllOfTypeForVolume(volumeId, type.getValue());
     }
 
@@ -48,6 +52,7 @@ public class AlertDirector {
      *            if set to <c>true</c> [remove config alerts].
      */
     public void removeAllVdsAlerts(Guid vdsId, boolean removeConfigAlerts) {
+        auditLogDirector.flush();
         auditLogDao.removeAllForVds(vdsId, removeConfigAlerts);
     }
 
@@ -60,6 +65,7 @@ public class AlertDirector {
      *            The type.
      */
     public void removeAlertsByBrickIdLogType(Guid brickId, AuditLogType logtype) {
+        auditLogDirector.flush();
         auditLogDao.removeAllofTypeForBrick(brickId, logtype.getValue());
     }
 }
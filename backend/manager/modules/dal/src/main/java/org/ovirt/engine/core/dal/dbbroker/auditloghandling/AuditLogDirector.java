@@ -20,6 +20,13 @@ public class AuditLogDirector {
 
     @Inject
     private AuditLogDao auditLogDao;
+    @Inject
+    private EventFloodControl eventFloodControl;
+
+    /**
+     * Set when the audit log is written in the background, see {@link AuditLogWriter}.
+     */
+    private volatile AuditLogWriter auditLogWriter;
 
     public void log(AuditLogable auditLogable, AuditLogType logType) {
         log(auditLogable, logType, "");
@@ -43,7 +50,7 @@ public class AuditLogDirector {
             return;
         }
 
-        EventFloodRegulator eventFloodRegulator = new EventFloodRegulator(auditLogable, logType);
+        EventFloodRegulator eventFloodRegulator = new EventFloodRegulator(auditLogable, logType, eventFloodControl);
         if (eventFloodRegulator.isLegal()) {
             AuditLog savedAuditLog = saveToDb(auditLogable, logType, message);
             if (savedAuditLog == null) {
@@ -65,13 +72,43 @@ public class AuditLogDirector {
         // truncate user name
         auditLog.setUserName(StringUtils.abbreviate(auditLog.getUserName(), USERNAME_LENGTH));
 
-        TransactionSupport.executeInNewTransaction(() -> {
-            auditLogDao.save(auditLog);
-            return null;
-        });
+        AuditLogWriter writer = auditLogWriter;
+        if (writer == null) {
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.save(auditLog);
+                return null;
+            });
+        } else if (mustBeSavedNow(auditLogable)) {
+            writer.writeNow(auditLog);
+        } else {
+            writer.write(auditLog);
+        }
         return auditLog;
     }
 
+    /**
+     * The external events are returned to their callers with their ids, and the events logged within a transaction
+     * are expected to be in the database along with its changes, so these are written synchronously.
+     */
+    private boolean mustBeSavedNow(AuditLogable auditLogable) {
+        return auditLogable.isExternal() || TransactionSupport.current() != null;
+    }
+
+    /**
+     * Writes the entries which are queued to be written in the background, so entries that are removed right after
+     * they were logged aren't written after their removal.
+     */
+    public void flush() {
+        AuditLogWriter writer = auditLogWriter;
+        if (writer != null) {
+            writer.writeQueued();
+        }
+    }
+
+    void setAuditLogWriter(AuditLogWriter auditLogWriter) {
+        this.auditLogWriter = auditLogWriter;
+    }
+
     private void logMessage(AuditLog auditLog) {
         String logMessage = getMessageToLog(auditLog);
         switch (auditLog.getSeverity()) {
@@ -0,0 +1,173 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.BackendService;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the audit log entries to the database in the background.
+ * <p>
+ * When {@link ConfigValues#AuditLogAsyncWrite} is set, the writer registers itself in the {@link AuditLogDirector}
+ * which then queues the entries here instead of inserting them in the thread that logs them. The queued entries are
+ * written by a single task at a time, in the order they were queued and in batches of up to
+ * {@link ConfigValues#AuditLogAsyncWriteBatchSize} entries, so the entries of an entity are never reordered. When
+ * the queue is full, the thread that logs an entry writes the queued entries itself before queuing it, which slows
+ * down the threads that flood the audit log rather than dropping their entries.
+ * <p>
+ * Entries which have to be in the database when {@code log} returns are written with {@link #writeNow(AuditLog)},
+ * after the queued ones.
+ */
+@Singleton
+public class AuditLogWriter implements BackendService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    @Inject
+    private AuditLogDao auditLogDao;
+    @Inject
+    private AuditLogDirector auditLogDirector;
+
+    private BlockingQueue<AuditLog> queue;
+    private int batchSize;
+
+    /**
+     * Taken while entries are written, so the queued entries are written by one thread at a time and in order.
+     */
+    private final Lock writeLock = new ReentrantLock();
+
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        if (!Config.<Boolean> getValue(ConfigValues.AuditLogAsyncWrite)) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(Config.<Integer> getValue(ConfigValues.AuditLogAsyncWriteQueueSize));
+        batchSize = Config.<Integer> getValue(ConfigValues.AuditLogAsyncWriteBatchSize);
+        auditLogDirector.setAuditLogWriter(this);
+        log.info("Audit log entries are written to the database in the background");
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (queue != null) {
+            auditLogDirector.setAuditLogWriter(null);
+            writeQueued();
+        }
+    }
+
+    /**
+     * Queues the entry to be written in the background.
+     */
+    public void write(AuditLog auditLog) {
+        while (!queue.offer(auditLog)) {
+            writeQueued();
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * Writes the queued entries and then the given entry, which has its id set when this method returns.
+     */
+    public void writeNow(AuditLog auditLog) {
+        writeLock.lock();
+        try {
+            writeBatches();
+            save(auditLog);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void scheduleWrite() {
+        if (!writeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            ThreadPoolUtil.execute(() -> {
+                // cleared first, so entries queued from now on schedule another write
+                writeScheduled.set(false);
+                writeQueued();
+            });
+        } catch (RuntimeException e) {
+            writeScheduled.set(false);
+            log.warn("Failed to schedule the write of the audit log, writing it synchronously: {}", e.getMessage());
+            log.debug("Exception", e);
+            writeQueued();
+        }
+    }
+
+    void writeQueued() {
+        writeLock.lock();
+        try {
+            writeBatches();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeBatches() {
+        if (queue == null) {
+            return;
+        }
+
+        List<AuditLog> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        while (queue.drainTo(batch, batchSize) > 0) {
+            saveAll(batch);
+            batch.clear();
+        }
+    }
+
+    private void saveAll(List<AuditLog> batch) {
+        try {
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.saveAll(batch);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // the batch is rolled back as a whole, so a single invalid entry would lose the rest of them
+            log.warn("Failed to write {} audit log entries in a batch, writing them one by one: {}",
+                    batch.size(),
+                    e.getMessage());
+            log.debug("Exception", e);
+            batch.forEach(this::saveQuietly);
+        }
+    }
+
+    private void saveQuietly(AuditLog auditLog) {
+        try {
+            save(auditLog);
+        } catch (RuntimeException e) {
+            log.error("Failed to write the audit log entry '{}': {}", auditLog.getMessage(), e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    private void save(AuditLog auditLog) {
+        TransactionSupport.executeInNewTransaction(() -> {
+            auditLogDao.save(auditLog);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,196 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ovirt.engine.core.common.AuditLogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the instances of the events which are suppressed by the flood control in memory.
+ * <p>
+ * An event instance, identified by an {@link EventKey}, is suppressed for the flood rate of its type once it is
+ * logged. The instances are spread over shards by the hash of their key, each shard guarded by its own lock, and
+ * each shard keeps its instances in buckets by the second their suppression ends, so the idle instances are evicted
+ * bucket by bucket as the time passes without scanning the other ones.
+ * <p>
+ * The number of emitted and suppressed events per {@link AuditLogType} is exposed through JMX.
+ */
+@Singleton
+public class EventFloodControl implements EventFloodControlMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EventFloodControl.class);
+
+    private static final int SHARDS = 16;
+    private static final AuditLogType[] LOG_TYPES = AuditLogType.values();
+
+    private final Shard[] shards = new Shard[SHARDS];
+    private final AtomicLongArray emitted = new AtomicLongArray(LOG_TYPES.length);
+    private final AtomicLongArray suppressed = new AtomicLongArray(LOG_TYPES.length);
+    private final LongSupplier clock;
+
+    private MBeanServer platformMBeanServer;
+    private ObjectName objectName;
+
+    public EventFloodControl() {
+        this(System::currentTimeMillis);
+    }
+
+    EventFloodControl(LongSupplier clock) {
+        this.clock = clock;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @PostConstruct
+    public void registerInJMX() {
+        try {
+            objectName = new ObjectName("EventFloodControl:type=" + getClass().getName());
+            platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
+            platformMBeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to register the event flood control in JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        try {
+            if (platformMBeanServer != null) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to unregister the event flood control from JMX: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    /**
+     * Counts an event whose type isn't flood controlled.
+     */
+    void emitted(AuditLogType logType) {
+        emitted.incrementAndGet(logType.ordinal());
+    }
+
+    /**
+     * Checks whether the event instance may be logged and if it may, suppresses it for the given time.
+     *
+     * @return {@code true} if the event instance isn't suppressed
+     */
+    boolean tryEmit(EventKey key, AuditLogType logType, long suppressionMillis) {
+        boolean legal = shardOf(key).tryEmit(key, clock.getAsLong(), suppressionMillis);
+        (legal ? emitted : suppressed).incrementAndGet(logType.ordinal());
+        return legal;
+    }
+
+    /**
+     * Stops suppressing the event instance.
+     */
+    void evict(EventKey key) {
+        shardOf(key).evict(key);
+    }
+
+    @Override
+    public Map<String, Long> getEmittedEvents() {
+        return countsPerType(emitted);
+    }
+
+    @Override
+    public Map<String, Long> getSuppressedEvents() {
+        return countsPerType(suppressed);
+    }
+
+    @Override
+    public int getSuppressedInstances() {
+        long now = clock.getAsLong();
+        int instances = 0;
+        for (Shard shard : shards) {
+            instances += shard.size(now);
+        }
+        return instances;
+    }
+
+    private Shard shardOf(EventKey key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+
+    private static Map<String, Long> countsPerType(AtomicLongArray counts) {
+        Map<String, Long> countsPerType = new HashMap<>();
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                countsPerType.put(LOG_TYPES[i].name(), count);
+            }
+        }
+        return countsPerType;
+    }
+
+    private static class Shard {
+
+        /**
+         * The time in milliseconds the suppression of each instance ends.
+         */
+        private final Map<EventKey, Long> suppressedUntil = new HashMap<>();
+
+        /**
+         * The suppressed instances by the second their suppression ends. An instance may be found in an earlier
+         * bucket than its current one after it was evicted and suppressed again, the bucket is checked against
+         * {@link #suppressedUntil} when it is evicted.
+         */
+        private final TreeMap<Long, List<EventKey>> buckets = new TreeMap<>();
+
+        synchronized boolean tryEmit(EventKey key, long now, long suppressionMillis) {
+            evictExpired(now);
+            Long until = suppressedUntil.get(key);
+            if (until != null && until > now) {
+                return false;
+            }
+
+            long end = now + suppressionMillis;
+            suppressedUntil.put(key, end);
+            buckets.computeIfAbsent(bucketOf(end), bucket -> new ArrayList<>()).add(key);
+            return true;
+        }
+
+        synchronized void evict(EventKey key) {
+            suppressedUntil.remove(key);
+        }
+
+        synchronized int size(long now) {
+            evictExpired(now);
+            return suppressedUntil.size();
+        }
+
+        private void evictExpired(long now) {
+            while (!buckets.isEmpty() && buckets.firstKey() <= bucketOf(now) - 1) {
+                for (EventKey key : buckets.pollFirstEntry().getValue()) {
+                    Long until = suppressedUntil.get(key);
+                    if (until != null && until <= now) {
+                        suppressedUntil.remove(key);
+                    }
+                }
+            }
+        }
+
+        private static long bucketOf(long time) {
+            return TimeUnit.MILLISECONDS.toSeconds(time);
+        }
+    }
+}
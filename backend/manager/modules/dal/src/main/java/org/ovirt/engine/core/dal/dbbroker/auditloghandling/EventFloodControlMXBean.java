@@ -0,0 +1,24 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.Map;
+
+/**
+ * The following interface is used as interface for JMX bean
+ */
+public interface EventFloodControlMXBean {
+
+    /**
+     * The following method will return the number of events logged per audit log type
+     */
+    Map<String, Long> getEmittedEvents();
+
+    /**
+     * The following method will return the number of events suppressed by the flood control per audit log type
+     */
+    Map<String, Long> getSuppressedEvents();
+
+    /**
+     * The following method will return the number of event instances currently suppressed
+     */
+    int getSuppressedInstances();
+}
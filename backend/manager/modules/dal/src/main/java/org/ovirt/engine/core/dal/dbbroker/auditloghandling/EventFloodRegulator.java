@@ -3,19 +3,19 @@ package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
 import java.util.concurrent.TimeUnit;
 
 import org.ovirt.engine.core.common.AuditLogType;
-import org.ovirt.engine.core.dal.utils.CacheManager;
 
 public class EventFloodRegulator {
 
     private final AuditLogable event;
     private final AuditLogType logType;
+    private final EventFloodControl eventFloodControl;
     private boolean useTimeout;
     private long endTime;
-    private String timeoutObjectId;
 
-    public EventFloodRegulator(AuditLogable event, AuditLogType logType) {
+    public EventFloodRegulator(AuditLogable event, AuditLogType logType, EventFloodControl eventFloodControl) {
         this.event = event;
         this.logType = logType;
+        this.eventFloodControl = eventFloodControl;
         updateTimeoutLogableObject();
     }
 
@@ -27,14 +27,9 @@ public class EventFloodRegulator {
      */
     public boolean isLegal() {
         if (useTimeout) {
-            String key = "".equals(timeoutObjectId) ? logType.toString() : timeoutObjectId;
-            String oldValue = CacheManager.getTimeoutBaseCache().putIfAbsent(
-                    key,
-                    key,
-                    endTime,
-                    TimeUnit.MILLISECONDS);
-            return oldValue == null;
+            return eventFloodControl.tryEmit(new EventKey(event, logType), logType, endTime);
         }
+        eventFloodControl.emitted(logType);
         return true;
     }
 
@@ -47,18 +42,11 @@ public class EventFloodRegulator {
                 : logType.getEventFloodRate();
         if (eventFloodRate > 0) {
             setEndTime(TimeUnit.SECONDS.toMillis(eventFloodRate));
-            timeoutObjectId = composeObjectId();
-        } else {
-            timeoutObjectId = "";
         }
     }
 
-    private String composeObjectId() {
-        return EventKeyComposer.composeObjectId(event, logType);
-    }
-
     public void evict() {
-        CacheManager.getTimeoutBaseCache().computeIfPresent(composeObjectId(), (k, v) -> null);
+        eventFloodControl.evict(new EventKey(event, logType));
     }
 
     private void setEndTime(long value) {
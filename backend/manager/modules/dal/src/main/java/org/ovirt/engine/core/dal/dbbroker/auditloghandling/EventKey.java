@@ -0,0 +1,75 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.Objects;
+
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Identifies the instances of an event by its log type, the ids of the entities it refers to and its custom id. Empty
+ * ids are treated as missing ones.
+ */
+final class EventKey {
+
+    private final AuditLogType logType;
+    private final Guid storageDomainId;
+    private final Guid storagePoolId;
+    private final Guid userId;
+    private final Guid clusterId;
+    private final Guid vdsId;
+    private final Guid vmId;
+    private final Guid vmTemplateId;
+    private final String customId;
+    private final int hash;
+
+    EventKey(AuditLogable event, AuditLogType logType) {
+        this.logType = logType;
+        storageDomainId = emptyGuidToNull(event.getStorageDomainId());
+        storagePoolId = emptyGuidToNull(event.getStoragePoolId());
+        userId = emptyGuidToNull(event.getUserId());
+        clusterId = emptyGuidToNull(event.getClusterId());
+        vdsId = emptyGuidToNull(event.getVdsId());
+        vmId = emptyGuidToNull(event.getVmId());
+        vmTemplateId = emptyGuidToNull(event.getVmTemplateId());
+        customId = event.getCustomId() == null ? "" : event.getCustomId();
+        hash = Objects.hash(logType,
+                storageDomainId,
+                storagePoolId,
+                userId,
+                clusterId,
+                vdsId,
+                vmId,
+                vmTemplateId,
+                customId);
+    }
+
+    private static Guid emptyGuidToNull(Guid guid) {
+        return Guid.Empty.equals(guid) ? null : guid;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EventKey)) {
+            return false;
+        }
+        EventKey other = (EventKey) obj;
+        return hash == other.hash
+                && logType == other.logType
+                && Objects.equals(storageDomainId, other.storageDomainId)
+                && Objects.equals(storagePoolId, other.storagePoolId)
+                && Objects.equals(userId, other.userId)
+                && Objects.equals(clusterId, other.clusterId)
+                && Objects.equals(vdsId, other.vdsId)
+                && Objects.equals(vmId, other.vmId)
+                && Objects.equals(vmTemplateId, other.vmTemplateId)
+                && Objects.equals(customId, other.customId);
+    }
+}
@@ -0,0 +1,111 @@
+package org.ovirt.engine.core.dal.dbbroker.generic;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+
+/**
+ * An immutable snapshot of the configuration values.
+ * <p>
+ * The values are kept in an array indexed by the ordinal of the {@link ConfigValues}, each entry holding a slot per
+ * configuration version. The versions are few and the default one comes first, so reading a value doesn't hash any
+ * string and, being immutable, a snapshot can be read by any thread without locking once it is published.
+ */
+public final class ConfigValuesSnapshot {
+
+    /**
+     * Returned by {@link #get(ConfigValues, String)} when the snapshot has no value for the option and version.
+     */
+    public static final Object MISSING = new Object();
+
+    /**
+     * Stored in the slots whose value is {@code null}, as empty slots are {@code null}.
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    public static final ConfigValuesSnapshot EMPTY =
+            new ConfigValuesSnapshot(new String[] { ConfigCommon.defaultConfigurationVersion },
+                    new Object[ConfigValues.values().length][]);
+
+    private final String[] versions;
+    private final Object[][] values;
+
+    private ConfigValuesSnapshot(String[] versions, Object[][] values) {
+        this.versions = versions;
+        this.values = values;
+    }
+
+    /**
+     * @return the value of the option for the version, which may be {@code null}, or {@link #MISSING} if the
+     *         snapshot has no value for them
+     */
+    public Object get(ConfigValues name, String version) {
+        Object[] slots = values[name.ordinal()];
+        if (slots != null) {
+            int index = indexOf(version);
+            if (index >= 0 && index < slots.length && slots[index] != null) {
+                return slots[index] == NULL_VALUE ? null : slots[index];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return a copy of this snapshot which also has the given value of the option for the version
+     */
+    public ConfigValuesSnapshot with(ConfigValues name, String version, Object value) {
+        Builder builder = new Builder(versions, values.clone());
+        builder.put(name, version, value);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder(EMPTY.versions, new Object[ConfigValues.values().length][]);
+    }
+
+    private int indexOf(String version) {
+        for (int i = 0; i < versions.length; i++) {
+            String current = versions[i];
+            if (current == version || current != null && current.equals(version)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static final class Builder {
+        private String[] versions;
+        private final Object[][] values;
+
+        private Builder(String[] versions, Object[][] values) {
+            this.versions = versions;
+            this.values = values;
+        }
+
+        public Builder put(ConfigValues name, String version, Object value) {
+            int index = versionIndex(version);
+            Object[] slots = values[name.ordinal()];
+            slots = slots == null ? new Object[versions.length] : Arrays.copyOf(slots, versions.length);
+            slots[index] = value == null ? NULL_VALUE : value;
+            values[name.ordinal()] = slots;
+            return this;
+        }
+
+        public ConfigValuesSnapshot build() {
+            return new ConfigValuesSnapshot(versions, values);
+        }
+
+        private int versionIndex(String version) {
+            for (int i = 0; i < versions.length; i++) {
+                if (Objects.equals(versions[i], version)) {
+                    return i;
+                }
+            }
+            versions = Arrays.copyOf(versions, versions.length + 1);
+            versions[versions.length - 1] = version;
+            return versions.length - 1;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package org.ovirt.engine.core.dal.dbbroker.generic;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.ovirt.engine.core.common.businessentities.VdcOption;
 import org.ovirt.engine.core.common.config.ConfigValues;
@@ -16,25 +14,33 @@ import org.slf4j.LoggerFactory;
 public class DBConfigUtils extends ConfigUtilsBase {
     private static final Logger log = LoggerFactory.getLogger(DBConfigUtils.class);
 
-    private static final Map<String, Map<String, Object>> _vdcOptionCache = new HashMap<>();
+    private static final Object LOCK = new Object();
 
     /**
-     * Refreshes the VDC option cache.
+     * The current configuration values, replaced as a whole on refresh so readers never see a partial one.
+     */
+    private static volatile ConfigValuesSnapshot snapshot = ConfigValuesSnapshot.EMPTY;
+
+    /**
+     * Refreshes the VDC option cache. Only the options marked {@link Reloadable} take the values changed in the
+     * database since they were loaded, the others keep their previous values.
      */
     public void refresh() {
-        _vdcOptionCache.clear();
-        List<VdcOption> list = getVdcOptionDao().getAll();
-        for (VdcOption option : list) {
-            try {
-                if (!_vdcOptionCache.containsKey(option.getOptionName()) ||
-                        !_vdcOptionCache.get(option.getOptionName()).containsKey(option.getVersion()) ||
-                        isReloadable(option.getOptionName())) {
-                    updateOption(option);
+        synchronized (LOCK) {
+            ConfigValuesSnapshot previous = snapshot;
+            ConfigValuesSnapshot.Builder builder = ConfigValuesSnapshot.builder();
+            List<VdcOption> list = getVdcOptionDao().getAll();
+            for (VdcOption option : list) {
+                ConfigValues name = toConfigValue(option.getOptionName());
+                if (name != null) {
+                    Object value = previous.get(name, option.getVersion());
+                    if (value == ConfigValuesSnapshot.MISSING || isReloadable(name)) {
+                        value = getValue(option);
+                    }
+                    builder.put(name, option.getVersion(), value);
                 }
-            } catch (NoSuchFieldException e) {
-                log.error("Not refreshing field '{}': does not exist in class {}.", option.getOptionName(),
-                        ConfigValues.class.getSimpleName());
             }
+            snapshot = builder.build();
         }
     }
 
@@ -48,48 +54,53 @@ public class DBConfigUtils extends ConfigUtilsBase {
     @SuppressWarnings("unchecked")
     @Override
     public <T> T getValue(ConfigValues name, String version) {
-        T returnValue;
-        Map<String, Object> values = _vdcOptionCache.get(name.toString());
-        if (values != null && values.containsKey(version)) {
-            returnValue = (T) values.get(version);
-        } else {
+        Object value = snapshot.get(name, version);
+        if (value == ConfigValuesSnapshot.MISSING) {
+            value = addDefaultValue(name, version);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Adds the default value of the option, version independent, for the requested version.
+     */
+    private Object addDefaultValue(ConfigValues name, String version) {
+        synchronized (LOCK) {
+            Object returnValue = snapshot.get(name, version);
+            if (returnValue != ConfigValuesSnapshot.MISSING) {
+                return returnValue;
+            }
+
             VdcOption option = new VdcOption();
             option.setOptionName(name.toString());
             option.setOptionValue(null);
-            // returns default value - version independent
-            returnValue = (T) getValue(option);
-
-            // If just requested version is missing, add the default value with the requested version.
-            if (values != null) {
-                values.put(version, returnValue);
-            } else {
-                // Couldn't find this value at all, adding to cache.
-                Map<String, Object> defaultValues = new HashMap<>();
-                defaultValues.put(version, returnValue);
-                _vdcOptionCache.put(option.getOptionName(), defaultValues);
-                log.debug("Adding new value to configuration cache.");
-            }
+            returnValue = getValue(option);
+            snapshot = snapshot.with(name, version, returnValue);
             log.debug("Didn't find the value of '{}' in DB for version '{}' - using default: '{}'",
                     name, version, returnValue);
+            return returnValue;
         }
-
-        return returnValue;
     }
 
-    private static VdcOptionDao getVdcOptionDao() {
-        return DbFacade.getInstance().getVdcOptionDao();
+    private static ConfigValues toConfigValue(String optionName) {
+        try {
+            return ConfigValues.valueOf(optionName);
+        } catch (IllegalArgumentException e) {
+            log.error("Not refreshing field '{}': does not exist in class {}.", optionName,
+                    ConfigValues.class.getSimpleName());
+            return null;
+        }
     }
 
-    private void updateOption(VdcOption option) {
-        Map<String, Object> values = _vdcOptionCache.get(option.getOptionName());
-        if (values == null) {
-            values = new HashMap<>();
-            _vdcOptionCache.put(option.getOptionName(), values);
+    private static boolean isReloadable(ConfigValues name) {
+        try {
+            return ConfigValues.class.getField(name.name()).isAnnotationPresent(Reloadable.class);
+        } catch (NoSuchFieldException e) {
+            return false;
         }
-        values.put(option.getVersion(), getValue(option));
     }
 
-    private static boolean isReloadable(String optionName) throws NoSuchFieldException {
-        return ConfigValues.class.getField(optionName).isAnnotationPresent(Reloadable.class);
+    private static VdcOptionDao getVdcOptionDao() {
+        return DbFacade.getInstance().getVdcOptionDao();
     }
 }
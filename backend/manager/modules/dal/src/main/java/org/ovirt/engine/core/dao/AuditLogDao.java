@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -114,6 +115,15 @@ public interface AuditLogDao extends Dao, SearchDao<AuditLog> {
      */
     void save(AuditLog entry);
 
+    /**
+     * Saves the provided audit log entries in a single batch. Unlike {@link #save(AuditLog)}, the ids assigned to
+     * the entries aren't set on them.
+     *
+     * @param entries
+     *            the entries
+     */
+    void saveAll(Collection<AuditLog> entries);
+
     /**
      * Updates the provided audit log entry.
      *
@@ -1,5 +1,7 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
+
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
 import org.ovirt.engine.core.compat.Guid;
 
@@ -7,4 +9,12 @@ import org.ovirt.engine.core.compat.Guid;
  * {@code VdsStatisticsDao} defines a type that performs CRUD operations on instances of {@link VdsStatistics}.
  */
 public interface VdsStatisticsDao extends GenericDao<VdsStatistics, Guid> {
+
+    /**
+     * Updates the given statistics in one batch.
+     *
+     * @param statistics
+     *            the statistics to update
+     */
+    void updateAllInBatch(Collection<VdsStatistics> statistics);
 }
@@ -3,6 +3,8 @@ package org.ovirt.engine.core.dao;
 import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import javax.inject.Named;
@@ -11,6 +13,7 @@ import javax.inject.Singleton;
 import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.common.businessentities.HugePage;
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.comparators.BusinessEntityComparator;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacadeUtils;
 import org.ovirt.engine.core.utils.JsonHelper;
@@ -93,33 +96,7 @@ public class VdsStatisticsDaoImpl extends BaseDao implements VdsStatisticsDao {
 
     @Override
     public void save(VdsStatistics stats) {
-        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
-                .addValue("cpu_idle", stats.getCpuIdle())
-                .addValue("cpu_load", stats.getCpuLoad())
-                .addValue("cpu_sys", stats.getCpuSys())
-                .addValue("cpu_user", stats.getCpuUser())
-                .addValue("usage_cpu_percent", stats.getUsageCpuPercent())
-                .addValue("usage_mem_percent", stats.getUsageMemPercent())
-                .addValue("usage_network_percent",
-                        stats.getUsageNetworkPercent())
-                .addValue("vds_id", stats.getId())
-                .addValue("mem_available", stats.getMemAvailable())
-                .addValue("mem_free" , stats.getMemFree())
-                .addValue("mem_shared", stats.getMemShared())
-                .addValue("swap_free", stats.getSwapFree())
-                .addValue("swap_total", stats.getSwapTotal())
-                .addValue("ksm_cpu_percent", stats.getKsmCpuPercent())
-                .addValue("ksm_pages", stats.getKsmPages())
-                .addValue("ksm_state", stats.getKsmState())
-                .addValue("anonymous_hugepages", stats.getAnonymousHugePages())
-                .addValue("boot_time", stats.getBootTime())
-                .addValue("ha_score", stats.getHighlyAvailableScore())
-                .addValue("ha_configured", stats.getHighlyAvailableIsConfigured())
-                .addValue("ha_active", stats.getHighlyAvailableIsActive())
-                .addValue("ha_global_maintenance", stats.getHighlyAvailableGlobalMaintenance())
-                .addValue("ha_local_maintenance", stats.getHighlyAvailableLocalMaintenance())
-                .addValue("cpu_over_commit_time_stamp", stats.getCpuOverCommitTimeStamp())
-                .addValue("hugepages", serializeHugePages(stats.getHugePages()));
+        MapSqlParameterSource parameterSource = createFullParametersMapper(stats);
 
         getCallsHandler().executeModification("InsertVdsStatistics", parameterSource);
     }
@@ -139,7 +116,27 @@ public class VdsStatisticsDaoImpl extends BaseDao implements VdsStatisticsDao {
 
     @Override
     public void update(VdsStatistics stats) {
-        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+        MapSqlParameterSource parameterSource = createFullParametersMapper(stats);
+
+        getCallsHandler().executeModification("UpdateVdsStatistics", parameterSource);
+    }
+
+    @Override
+    public void updateAllInBatch(Collection<VdsStatistics> statistics) {
+        if (statistics.isEmpty()) {
+            return;
+        }
+
+        // To overcome possible deadlocks, we need to sort the collection
+        List<VdsStatistics> sortedStatistics = new ArrayList<>(statistics);
+        sortedStatistics.sort(BusinessEntityComparator.newInstance());
+        getCallsHandler().executeStoredProcAsBatch("UpdateVdsStatistics",
+                sortedStatistics,
+                this::createFullParametersMapper);
+    }
+
+    private MapSqlParameterSource createFullParametersMapper(VdsStatistics stats) {
+        return getCustomMapSqlParameterSource()
                 .addValue("cpu_idle", stats.getCpuIdle())
                 .addValue("cpu_load", stats.getCpuLoad())
                 .addValue("cpu_sys", stats.getCpuSys())
@@ -166,8 +163,6 @@ public class VdsStatisticsDaoImpl extends BaseDao implements VdsStatisticsDao {
                 .addValue("ha_local_maintenance", stats.getHighlyAvailableLocalMaintenance())
                 .addValue("cpu_over_commit_time_stamp", stats.getCpuOverCommitTimeStamp())
                 .addValue("hugepages", serializeHugePages(stats.getHugePages()));
-
-        getCallsHandler().executeModification("UpdateVdsStatistics", parameterSource);
     }
 
     @Override
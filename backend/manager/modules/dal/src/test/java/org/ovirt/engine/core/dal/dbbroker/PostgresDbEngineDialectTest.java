@@ -0,0 +1,33 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/** A test case for the {@link PostgresDbEngineDialect} */
+public class PostgresDbEngineDialectTest {
+
+    private final PostgresDbEngineDialect dialect = new PostgresDbEngineDialect();
+
+    @Test
+    public void createSqlQueryCommandWithoutParameters() {
+        assertEquals("select * from getallfromvms()",
+                dialect.createSqlQueryCommand("getallfromvms", Collections.emptyList()));
+    }
+
+    @Test
+    public void createSqlQueryCommandBindsParametersByName() {
+        assertEquals("select * from getvmbyvmguid(v_vm_guid := ?, v_user_id := ?, v_is_filtered := ?)",
+                dialect.createSqlQueryCommand("getvmbyvmguid",
+                        Arrays.asList("v_vm_guid", "v_user_id", "v_is_filtered")));
+    }
+
+    @Test
+    public void createSqlCallCommand() {
+        assertEquals("{call public.updatevmdynamic(CAST (? AS uuid))}",
+                dialect.createSqlCallCommand("public", "updatevmdynamic", "CAST (? AS uuid)"));
+    }
+}
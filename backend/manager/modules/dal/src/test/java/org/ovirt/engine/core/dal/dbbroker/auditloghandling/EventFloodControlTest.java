@@ -0,0 +1,98 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.compat.Guid;
+
+public class EventFloodControlTest {
+
+    private static final AuditLogType FLOOD_CONTROLLED_TYPE = AuditLogType.USER_VDC_LOGIN;
+
+    private long now;
+    private EventFloodControl eventFloodControl;
+
+    @Before
+    public void setUp() {
+        now = TimeUnit.HOURS.toMillis(1);
+        eventFloodControl = new EventFloodControl(() -> now);
+    }
+
+    @Test
+    public void eventIsSuppressedForItsFloodRate() {
+        AuditLogable event = event(Guid.newGuid());
+
+        assertTrue(regulator(event).isLegal());
+        now += TimeUnit.SECONDS.toMillis(FLOOD_CONTROLLED_TYPE.getEventFloodRate()) - 1;
+        assertFalse(regulator(event).isLegal());
+        now += 1;
+        assertTrue(regulator(event).isLegal());
+    }
+
+    @Test
+    public void eventsOfOtherEntitiesAreNotSuppressed() {
+        assertTrue(regulator(event(Guid.newGuid())).isLegal());
+        assertTrue(regulator(event(Guid.newGuid())).isLegal());
+    }
+
+    @Test
+    public void emptyGuidIsTheSameAsNoGuid() {
+        AuditLogable event = event(null);
+        AuditLogable sameEvent = event(null);
+        sameEvent.setClusterId(Guid.Empty);
+
+        assertTrue(regulator(event).isLegal());
+        assertFalse(regulator(sameEvent).isLegal());
+    }
+
+    @Test
+    public void evictedEventIsNotSuppressed() {
+        AuditLogable event = event(Guid.newGuid());
+
+        assertTrue(regulator(event).isLegal());
+        regulator(event).evict();
+        assertTrue(regulator(event).isLegal());
+    }
+
+    @Test
+    public void expiredEventsAreEvicted() {
+        regulator(event(Guid.newGuid())).isLegal();
+        regulator(event(Guid.newGuid())).isLegal();
+        assertEquals(2, eventFloodControl.getSuppressedInstances());
+
+        now += TimeUnit.SECONDS.toMillis(FLOOD_CONTROLLED_TYPE.getEventFloodRate() + 1);
+        assertEquals(0, eventFloodControl.getSuppressedInstances());
+    }
+
+    @Test
+    public void eventsAreCountedPerType() {
+        AuditLogable event = event(Guid.newGuid());
+
+        regulator(event).isLegal();
+        regulator(event).isLegal();
+        regulator(event).isLegal();
+        new EventFloodRegulator(event, AuditLogType.UNASSIGNED, eventFloodControl).isLegal();
+
+        assertEquals(Collections.singletonMap(FLOOD_CONTROLLED_TYPE.name(), 2L),
+                eventFloodControl.getSuppressedEvents());
+        assertEquals(1L, (long) eventFloodControl.getEmittedEvents().get(FLOOD_CONTROLLED_TYPE.name()));
+        assertEquals(1L, (long) eventFloodControl.getEmittedEvents().get(AuditLogType.UNASSIGNED.name()));
+    }
+
+    private EventFloodRegulator regulator(AuditLogable event) {
+        return new EventFloodRegulator(event, FLOOD_CONTROLLED_TYPE, eventFloodControl);
+    }
+
+    private static AuditLogable event(Guid vdsId) {
+        AuditLogable event = new AuditLogableImpl();
+        event.setVdsId(vdsId);
+        return event;
+    }
+}
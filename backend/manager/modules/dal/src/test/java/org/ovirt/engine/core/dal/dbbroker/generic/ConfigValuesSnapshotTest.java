@@ -0,0 +1,48 @@
+package org.ovirt.engine.core.dal.dbbroker.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+
+public class ConfigValuesSnapshotTest {
+
+    @Test
+    public void valuesArePerVersion() {
+        ConfigValuesSnapshot snapshot = ConfigValuesSnapshot.builder()
+                .put(ConfigValues.SriovHotPlugSupported, "3.6", false)
+                .put(ConfigValues.SriovHotPlugSupported, "4.0", true)
+                .build();
+
+        assertEquals(false, snapshot.get(ConfigValues.SriovHotPlugSupported, "3.6"));
+        assertEquals(true, snapshot.get(ConfigValues.SriovHotPlugSupported, "4.0"));
+        assertSame(ConfigValuesSnapshot.MISSING, snapshot.get(ConfigValues.SriovHotPlugSupported, "4.1"));
+        assertSame(ConfigValuesSnapshot.MISSING,
+                snapshot.get(ConfigValues.SriovHotPlugSupported, ConfigCommon.defaultConfigurationVersion));
+    }
+
+    @Test
+    public void nullValueIsNotMissing() {
+        ConfigValuesSnapshot snapshot = ConfigValuesSnapshot.EMPTY
+                .with(ConfigValues.DataDir, ConfigCommon.defaultConfigurationVersion, null);
+
+        assertNull(snapshot.get(ConfigValues.DataDir, ConfigCommon.defaultConfigurationVersion));
+    }
+
+    @Test
+    public void withDoesNotChangeTheOriginalSnapshot() {
+        ConfigValuesSnapshot snapshot = ConfigValuesSnapshot.builder()
+                .put(ConfigValues.DataDir, ConfigCommon.defaultConfigurationVersion, "/var/lib/ovirt-engine")
+                .build();
+
+        ConfigValuesSnapshot updated = snapshot.with(ConfigValues.DataDir, "4.2", "/tmp");
+
+        assertSame(ConfigValuesSnapshot.MISSING, snapshot.get(ConfigValues.DataDir, "4.2"));
+        assertEquals("/tmp", updated.get(ConfigValues.DataDir, "4.2"));
+        assertEquals("/var/lib/ovirt-engine",
+                updated.get(ConfigValues.DataDir, ConfigCommon.defaultConfigurationVersion));
+    }
+}
@@ -10,6 +10,7 @@ import java.lang.reflect.Field;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.VdcOption;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigCommon;
 import org.ovirt.engine.core.common.config.ConfigValues;
@@ -17,6 +18,7 @@ import org.ovirt.engine.core.common.config.OptionBehaviour;
 import org.ovirt.engine.core.common.config.OptionBehaviourAttribute;
 import org.ovirt.engine.core.common.config.TypeConverterAttribute;
 import org.ovirt.engine.core.dao.BaseDaoTestCase;
+import org.ovirt.engine.core.dao.VdcOptionDao;
 
 public class DBConfigUtilsTest extends BaseDaoTestCase {
     private DBConfigUtils config;
@@ -73,6 +75,29 @@ public class DBConfigUtilsTest extends BaseDaoTestCase {
         assertTrue(Config.getValue(ConfigValues.SriovHotPlugSupported, "4.0"));
     }
 
+    @Test
+    public void testRefreshKeepsValuesOfNotReloadableOptions() {
+        VdcOptionDao dao = dbFacade.getVdcOptionDao();
+        VdcOption notReloadable = dao.getByNameAndVersion(ConfigValues.SriovHotPlugSupported.name(), "3.6");
+        notReloadable.setOptionValue("true");
+        dao.update(notReloadable);
+
+        VdcOption reloadable = new VdcOption();
+        reloadable.setOptionName(ConfigValues.AuditLogAgingThreshold.name());
+        reloadable.setOptionValue("42");
+        reloadable.setVersion(ConfigCommon.defaultConfigurationVersion);
+        dao.save(reloadable);
+        config.refresh();
+        reloadable = dao.getByNameAndVersion(ConfigValues.AuditLogAgingThreshold.name(),
+                ConfigCommon.defaultConfigurationVersion);
+        reloadable.setOptionValue("43");
+        dao.update(reloadable);
+        config.refresh();
+
+        assertFalse(Config.getValue(ConfigValues.SriovHotPlugSupported, "3.6"));
+        assertEquals(43, (int) Config.<Integer> getValue(ConfigValues.AuditLogAgingThreshold));
+    }
+
     @Test
     public void testValueDependent() {
         assertEquals
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -277,6 +278,26 @@ public class AuditLogDaoTest extends BaseDaoTestCase {
         assertEquals(newAuditLog, result);
     }
 
+    /**
+     * Ensures that saving AuditLogs in a batch works as expected.
+     */
+    @Test
+    public void testSaveAll() {
+        AuditLog other = new AuditLog();
+        other.setLogType(AuditLogType.VM_DOWN);
+        other.setSeverity(AuditLogSeverity.NORMAL);
+        other.setVmId(VM_ID);
+        other.setVmName(VM_NAME);
+        other.setMessage("VM is down");
+
+        dao.saveAll(Arrays.asList(newAuditLog, other));
+
+        List<AuditLog> result = dao.getAllByVMId(VM_ID);
+        assertTrue(result.stream().anyMatch(entry -> newAuditLog.getMessage().equals(entry.getMessage())));
+        assertTrue(result.stream().anyMatch(entry -> other.getMessage().equals(entry.getMessage())));
+        assertEquals(TOTAL_COUNT + 2, dao.getAll(null, false).size());
+    }
+
     @Test
     public void testSaveExternalEvent() {
         AuditLog newExternalEvent = new AuditLog();
@@ -1,6 +1,11 @@
 package org.ovirt.engine.core.dao;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
 import org.junit.Ignore;
+import org.junit.Test;
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
 import org.ovirt.engine.core.compat.Guid;
 
@@ -37,6 +42,18 @@ public class VdsStatisticsDaoTest extends BaseGenericDaoTestCase<Guid, VdsStatis
         return 5;
     }
 
+    @Test
+    public void testUpdateAllInBatch() {
+        VdsStatistics otherEntity = dao.get(FixturesTool.VDS_RHEL6_NFS_SPM);
+        existingEntity.setCpuIdle(42.0);
+        otherEntity.setMemFree(1024L);
+
+        dao.updateAllInBatch(Arrays.asList(existingEntity, otherEntity));
+
+        assertEquals(existingEntity, dao.get(getExistingEntityId()));
+        assertEquals(otherEntity, dao.get(FixturesTool.VDS_RHEL6_NFS_SPM));
+    }
+
     @Ignore
     @Override
     public void testGetAll() {
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -236,6 +237,13 @@ public class VmDeviceDaoTest extends BaseGenericDaoTestCase<VmDeviceId, VmDevice
         assertGetVMDeviceByIdResult(devices);
     }
 
+    @Test
+    public void testGetVmDevicesByVmIds() {
+        List<VmDevice> devices = dao.getVmDevicesByVmIds(Arrays.asList(EXISTING_VM_ID, NON_EXISTING_VM_ID));
+        assertGetVMDeviceByIdResult(devices);
+        assertTrue(devices.stream().allMatch(device -> EXISTING_VM_ID.equals(device.getVmId())));
+    }
+
     @Test
     public void testGetVmDeviceByVmIdFilteringWithPermissions() {
         List<VmDevice> devices =
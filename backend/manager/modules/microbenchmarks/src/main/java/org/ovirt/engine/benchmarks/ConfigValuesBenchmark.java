@@ -0,0 +1,92 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.config.ConfigCommon;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dal.dbbroker.generic.ConfigValuesSnapshot;
+
+/**
+ * <p> Benchmarks reading configuration values from a {@link ConfigValuesSnapshot} against reading them from maps
+ * keyed by the option name and the version, which is how the values used to be cached.</p>
+ * <p> Both hold a value of every option for the default version and for a few cluster versions, and each invocation
+ * reads options that are used by the monitoring and the scheduling.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigValuesBenchmark {
+
+    private static final String[] VERSIONS = { "3.6", "4.0", "4.1", "4.2" };
+
+    private static final ConfigValues[] HOT_OPTIONS = {
+            ConfigValues.VdsRefreshRate,
+            ConfigValues.NumberVmRefreshesBeforeSave,
+            ConfigValues.TimeToReduceFailedRunOnVdsInMinutes,
+            ConfigValues.MaxSchedulerWeight,
+            ConfigValues.AsyncCommandPollingLoopInSeconds,
+            ConfigValues.vdsTimeout,
+            ConfigValues.SearchResultsLimit,
+            ConfigValues.SriovHotPlugSupported
+    };
+
+    @Benchmark
+    public void maps(BenchmarkState state, Blackhole blackhole) {
+        for (ConfigValues option : HOT_OPTIONS) {
+            Map<String, Object> values = state.maps.get(option.toString());
+            if (values != null && values.containsKey(state.version)) {
+                blackhole.consume(values.get(state.version));
+            }
+        }
+    }
+
+    @Benchmark
+    public void snapshot(BenchmarkState state, Blackhole blackhole) {
+        for (ConfigValues option : HOT_OPTIONS) {
+            blackhole.consume(state.snapshot.get(option, state.version));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ ConfigCommon.defaultConfigurationVersion, "4.2" })
+        private String version;
+
+        private Map<String, Map<String, Object>> maps;
+        private ConfigValuesSnapshot snapshot;
+
+        @Setup
+        public void setup() {
+            maps = new HashMap<>();
+            ConfigValuesSnapshot.Builder builder = ConfigValuesSnapshot.builder();
+            for (ConfigValues option : ConfigValues.values()) {
+                put(builder, option, ConfigCommon.defaultConfigurationVersion);
+                for (String clusterVersion : VERSIONS) {
+                    put(builder, option, clusterVersion);
+                }
+            }
+            snapshot = builder.build();
+        }
+
+        private void put(ConfigValuesSnapshot.Builder builder, ConfigValues option, String version) {
+            Object value = option.name() + '-' + version;
+            maps.computeIfAbsent(option.toString(), name -> new HashMap<>()).put(version, value);
+            builder.put(option, version, value);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.ovirt.engine.benchmarks;
+
+import org.ovirt.engine.core.common.businessentities.VdcOption;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.utils.ConfigUtilsBase;
+
+/**
+ * Serves the default values of all the configuration values.
+ */
+class DefaultConfigUtils extends ConfigUtilsBase {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(ConfigValues configValue, String version) {
+        VdcOption option = new VdcOption();
+        option.setOptionName(configValue.name());
+        return (T) getValue(option);
+    }
+
+    @Override
+    public void refresh() {
+    }
+}
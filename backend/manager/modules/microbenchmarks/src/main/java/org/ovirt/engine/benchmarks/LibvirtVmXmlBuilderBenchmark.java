@@ -0,0 +1,283 @@
+package org.ovirt.engine.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.core.common.businessentities.ArchitectureType;
+import org.ovirt.engine.core.common.businessentities.StorageDomainStatic;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmDevice;
+import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
+import org.ovirt.engine.core.common.businessentities.VmDeviceId;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.common.businessentities.network.VmInterfaceType;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VnicProfile;
+import org.ovirt.engine.core.common.businessentities.storage.Disk;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.common.businessentities.storage.DiskInterface;
+import org.ovirt.engine.core.common.businessentities.storage.DiskVmElement;
+import org.ovirt.engine.core.common.businessentities.storage.PropagateErrors;
+import org.ovirt.engine.core.common.businessentities.storage.StorageType;
+import org.ovirt.engine.core.common.businessentities.storage.VolumeFormat;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.osinfo.OsRepository;
+import org.ovirt.engine.core.common.utils.SimpleDependencyInjector;
+import org.ovirt.engine.core.common.utils.customprop.VmPropertiesUtils;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.compat.Version;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
+import org.ovirt.engine.core.dao.ClusterFeatureDao;
+import org.ovirt.engine.core.dao.HostDeviceDao;
+import org.ovirt.engine.core.dao.StorageDomainStaticDao;
+import org.ovirt.engine.core.dao.VmDeviceDao;
+import org.ovirt.engine.core.dao.network.NetworkClusterDao;
+import org.ovirt.engine.core.dao.network.NetworkDao;
+import org.ovirt.engine.core.dao.network.NetworkFilterDao;
+import org.ovirt.engine.core.dao.network.NetworkQoSDao;
+import org.ovirt.engine.core.dao.network.VmNicFilterParameterDao;
+import org.ovirt.engine.core.dao.network.VnicProfileDao;
+import org.ovirt.engine.core.dao.qos.StorageQosDao;
+import org.ovirt.engine.core.vdsbroker.builder.vminfo.LibvirtVmXmlBuilder;
+import org.ovirt.engine.core.vdsbroker.builder.vminfo.VmInfoBuildUtils;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
+
+/**
+ * <p> Benchmarks the generation of the libvirt domain XML of a VM by {@link LibvirtVmXmlBuilder}, the way
+ * <code>CreateBrokerVDSCommand</code> does it for every run and migration of a VM.</p>
+ * <p> The <b>typical</b> VM has one disk and one network interface, the <b>large</b> VM has 16 disks and 16 network
+ * interfaces on 4 vNIC profiles. There is no database here, the DAOs are stubs that wait <code>daoLatency</code>
+ * microseconds on each call to account for the round trip to the database.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LibvirtVmXmlBuilderBenchmark {
+
+    @Benchmark
+    public String build(BenchmarkState state) throws ReflectiveOperationException {
+        LibvirtVmXmlBuilder builder = new LibvirtVmXmlBuilder(state.createInfo, state.vm, Guid.Empty, null, false);
+        state.inject(builder);
+        return builder.build();
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "typical", "large" })
+        private String vmType;
+
+        @Param({ "0", "200" })
+        private int daoLatency;
+
+        private Map<Class<?>, Object> dependencies;
+        private Map<String, Object> createInfo;
+        private VM vm;
+
+        @Setup
+        public void setUp() throws Exception {
+            Config.setConfigUtils(new DefaultConfigUtils());
+            VmPropertiesUtils.getInstance().init();
+            SimpleDependencyInjector.getInstance().bind(OsRepository.class, stub(OsRepository.class,
+                    Collections.singletonMap("getCdInterface", "ide"), 0));
+
+            int diskCount = "large".equals(vmType) ? 16 : 1;
+            int nicCount = "large".equals(vmType) ? 16 : 1;
+            int vnicProfileCount = "large".equals(vmType) ? 4 : 1;
+
+            vm = new VM();
+            vm.setId(Guid.newGuid());
+            vm.setName("benchmark-vm");
+            vm.setClusterId(Guid.newGuid());
+            vm.setClusterArch(ArchitectureType.x86_64);
+            vm.setClusterCompatibilityVersion(Version.getLast());
+            vm.setEmulatedMachine("pc-i440fx-rhel7.3.0");
+            vm.setNumOfSockets(2);
+            vm.setCpuPerSocket(2);
+            vm.setThreadsPerCpu(1);
+            vm.setVmMemSizeMb(4096);
+            vm.setMaxMemorySizeMb(16384);
+            vm.setMinAllocatedMem(4096);
+
+            createInfo = new HashMap<>();
+            createInfo.put(VdsProperties.cpuType, "SandyBridge");
+
+            List<VmDevice> devices = new ArrayList<>();
+            devices.add(device(Guid.newGuid(), VmDeviceGeneralType.VIDEO, "qxl"));
+            devices.add(device(Guid.newGuid(), VmDeviceGeneralType.CONTROLLER, "virtio-serial"));
+            VmDevice balloon = device(Guid.newGuid(), VmDeviceGeneralType.BALLOON, "memballoon");
+            balloon.getSpecParams().put(VdsProperties.Model, "virtio");
+            devices.add(balloon);
+
+            Guid storageDomainId = Guid.newGuid();
+            Map<Guid, Disk> disks = new HashMap<>();
+            for (int i = 0; i < diskCount; i++) {
+                DiskImage disk = new DiskImage();
+                disk.setId(Guid.newGuid());
+                disk.setImageId(Guid.newGuid());
+                disk.setDiskAlias("benchmark-vm_Disk" + i);
+                disk.setStoragePoolId(Guid.Empty);
+                disk.setStorageIds(new ArrayList<>(Collections.singletonList(storageDomainId)));
+                disk.setVolumeFormat(VolumeFormat.COW);
+                disk.setPropagateErrors(PropagateErrors.Off);
+                DiskVmElement diskVmElement = new DiskVmElement(disk.getId(), vm.getId());
+                diskVmElement.setDiskInterface(DiskInterface.VirtIO);
+                diskVmElement.setBoot(i == 0);
+                disk.setDiskVmElements(Collections.singletonList(diskVmElement));
+                disks.put(disk.getId(), disk);
+                devices.add(device(disk.getId(), VmDeviceGeneralType.DISK, "disk"));
+            }
+            vm.setDiskMap(disks);
+
+            Map<Guid, VnicProfile> vnicProfiles = new HashMap<>();
+            Map<Guid, Network> networks = new HashMap<>();
+            List<Guid> vnicProfileIds = new ArrayList<>();
+            for (int i = 0; i < vnicProfileCount; i++) {
+                Network network = new Network();
+                network.setId(Guid.newGuid());
+                network.setName("network" + i);
+                network.setVdsmName("network" + i);
+                networks.put(network.getId(), network);
+
+                VnicProfile vnicProfile = new VnicProfile();
+                vnicProfile.setId(Guid.newGuid());
+                vnicProfile.setName("network" + i);
+                vnicProfile.setNetworkId(network.getId());
+                vnicProfile.setCustomProperties(new HashMap<>());
+                vnicProfiles.put(vnicProfile.getId(), vnicProfile);
+                vnicProfileIds.add(vnicProfile.getId());
+            }
+
+            List<VmNetworkInterface> nics = new ArrayList<>();
+            for (int i = 0; i < nicCount; i++) {
+                VmNetworkInterface nic = new VmNetworkInterface();
+                nic.setId(Guid.newGuid());
+                nic.setVmId(vm.getId());
+                nic.setName("nic" + i);
+                nic.setMacAddress(String.format("00:1a:4a:16:01:%02x", i));
+                nic.setType(VmInterfaceType.pv.getValue());
+                nic.setLinked(true);
+                nic.setVnicProfileId(vnicProfileIds.get(i % vnicProfileIds.size()));
+                nic.setNetworkName(vnicProfiles.get(nic.getVnicProfileId()).getName());
+                nics.add(nic);
+                devices.add(device(nic.getId(), VmDeviceGeneralType.INTERFACE, "bridge"));
+            }
+            vm.setInterfaces(nics);
+
+            StorageDomainStatic storageDomain = new StorageDomainStatic();
+            storageDomain.setId(storageDomainId);
+            storageDomain.setStorageType(StorageType.NFS);
+
+            dependencies = new HashMap<>();
+            dependencies.put(VmDeviceDao.class, stub(VmDeviceDao.class,
+                    Collections.singletonMap("getVmDeviceByVmId", devices), daoLatency));
+            dependencies.put(VnicProfileDao.class, stub(VnicProfileDao.class,
+                    Collections.singletonMap("get", vnicProfiles), daoLatency));
+            dependencies.put(NetworkDao.class, stub(NetworkDao.class,
+                    Collections.singletonMap("get", networks), daoLatency));
+            dependencies.put(StorageDomainStaticDao.class, stub(StorageDomainStaticDao.class,
+                    Collections.singletonMap("get", Collections.singletonMap(storageDomainId, storageDomain)),
+                    daoLatency));
+            for (Class<?> type : Arrays.asList(HostDeviceDao.class,
+                    VmNicFilterParameterDao.class,
+                    NetworkFilterDao.class,
+                    NetworkQoSDao.class,
+                    StorageQosDao.class,
+                    NetworkClusterDao.class,
+                    ClusterFeatureDao.class)) {
+                dependencies.put(type, stub(type, Collections.emptyMap(), daoLatency));
+            }
+            Constructor<AuditLogDirector> auditLogDirector = AuditLogDirector.class.getDeclaredConstructor();
+            auditLogDirector.setAccessible(true);
+            dependencies.put(AuditLogDirector.class, auditLogDirector.newInstance());
+
+            Constructor<?> vmInfoBuildUtils = VmInfoBuildUtils.class.getDeclaredConstructors()[0];
+            vmInfoBuildUtils.setAccessible(true);
+            Object[] arguments = Arrays.stream(vmInfoBuildUtils.getParameterTypes())
+                    .map(dependencies::get)
+                    .toArray();
+            dependencies.put(VmInfoBuildUtils.class, vmInfoBuildUtils.newInstance(arguments));
+        }
+
+        /**
+         * Injects the dependencies of the builder and initializes it, the way the CDI container does.
+         */
+        private void inject(LibvirtVmXmlBuilder builder) throws ReflectiveOperationException {
+            for (Field field : LibvirtVmXmlBuilder.class.getDeclaredFields()) {
+                Object dependency = dependencies.get(field.getType());
+                if (dependency != null) {
+                    field.setAccessible(true);
+                    field.set(builder, dependency);
+                }
+            }
+            Method init = LibvirtVmXmlBuilder.class.getDeclaredMethod("init");
+            init.setAccessible(true);
+            init.invoke(builder);
+        }
+
+        private static VmDevice device(Guid deviceId, VmDeviceGeneralType type, String device) {
+            return new VmDevice(new VmDeviceId(deviceId, Guid.Empty),
+                    type,
+                    device,
+                    "",
+                    new HashMap<>(),
+                    true,
+                    true,
+                    false,
+                    "",
+                    Collections.emptyMap(),
+                    null,
+                    null);
+        }
+
+        /**
+         * Creates a stub answering the methods by their name. When the answer is a map, the value mapped to the first
+         * argument of the call is returned. The other methods return an empty list, false, zero or null.
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> T stub(Class<T> type, Map<String, ?> answers, int latency) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+                if (latency > 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latency));
+                }
+                Object answer = answers.get(method.getName());
+                if (answer instanceof Map && args != null && args.length > 0) {
+                    return ((Map<?, ?>) answer).get(args[0]);
+                }
+                if (answer != null) {
+                    return answer;
+                }
+                Class<?> returnType = method.getReturnType();
+                if (returnType == List.class) {
+                    return Collections.emptyList();
+                } else if (returnType == boolean.class) {
+                    return false;
+                } else if (returnType == int.class) {
+                    return 0;
+                }
+                return null;
+            });
+        }
+    }
+}
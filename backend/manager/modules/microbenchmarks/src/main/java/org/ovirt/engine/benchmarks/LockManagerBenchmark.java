@@ -0,0 +1,87 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.lock.InMemoryLockManager;
+import org.ovirt.engine.core.bll.lock.StripedLockManager;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.lock.LockManager;
+
+/**
+ * <p> Benchmarks ovirt engine's in memory lock managers under contention.</p>
+ * <p> Every thread acquires and releases an exclusive lock on a random key out of a fixed set of keys, the way
+ * commands and the host monitoring lock VMs and hosts. The <b>tryLock</b> benchmark uses
+ * {@link LockManager#acquireLock(EngineLock)} and the <b>waitLock</b> benchmark uses
+ * {@link LockManager#acquireLockWait(EngineLock)}, so it also measures the cost of waking up the waiting threads.</p>
+ *
+ * @see InMemoryLockManager
+ * @see StripedLockManager
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(16)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockManagerBenchmark {
+
+    @Benchmark
+    public void tryLock(BenchmarkState state, Blackhole blackhole) {
+        EngineLock lock = state.nextLock();
+        Pair<Boolean, Set<String>> result = state.lockManager.acquireLock(lock);
+        if (result.getFirst()) {
+            state.lockManager.releaseLock(lock);
+        }
+        blackhole.consume(result);
+    }
+
+    @Benchmark
+    public void waitLock(BenchmarkState state) {
+        EngineLock lock = state.nextLock();
+        state.lockManager.acquireLockWait(lock);
+        state.lockManager.releaseLock(lock);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({"inMemory", "striped"})
+        private String implementation;
+
+        @Param({"16", "4096"})
+        private int keys;
+
+        private LockManager lockManager;
+        private EngineLock[] locks;
+
+        @Setup
+        public void setup() {
+            lockManager = "striped".equals(implementation) ? new StripedLockManager() : new InMemoryLockManager();
+            locks = new EngineLock[keys];
+            for (int i = 0; i < keys; i++) {
+                locks[i] = new EngineLock(Collections.singletonMap(Guid.newGuid().toString(),
+                        new Pair<>("VM", "ACTION_TYPE_FAILED_VM_IS_LOCKED")));
+            }
+        }
+
+        private EngineLock nextLock() {
+            return locks[ThreadLocalRandom.current().nextInt(locks.length)];
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.math.LongRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.core.bll.network.macpool.MacPool;
+import org.ovirt.engine.core.bll.network.macpool.MacPoolUsingRanges;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MacAddressRangeUtils;
+
+/**
+ * <p> Benchmarks {@link MacPoolUsingRanges} with pools of millions of addresses.</p>
+ * <p> The <b>initialize</b> benchmark creates the pool and adds the MACs of the existing VM interfaces, part of them
+ * custom MACs outside of the ranges, the way <code>MacPoolPerCluster</code> does on engine startup. The
+ * <b>allocateAndFree</b> benchmark allocates the MACs of the interfaces of the VMs of a VM pool from an initialized
+ * pool and frees them back.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MacPoolBenchmark {
+
+    private static final long FIRST_MAC = 0x001A4A160000L;
+
+    @Benchmark
+    public MacPool initialize(BenchmarkState state) {
+        MacPool macPool = new MacPoolUsingRanges(Guid.Empty, state.ranges, false);
+        macPool.forceAddMacs(state.usedMacs);
+        return macPool;
+    }
+
+    @Benchmark
+    public List<String> allocateAndFree(BenchmarkState state) {
+        List<String> macs = state.macPool.allocateMacAddresses(state.allocatedMacs);
+        state.macPool.freeMacs(macs);
+        return macs;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "65536", "1048576", "16777216" })
+        private int poolSize;
+
+        @Param({ "1", "64" })
+        private int rangeCount;
+
+        @Param({ "100000" })
+        private int usedMacCount;
+
+        @Param({ "1000" })
+        private int allocatedMacs;
+
+        private Collection<LongRange> ranges;
+        private List<String> usedMacs;
+        private MacPool macPool;
+
+        @Setup
+        public void setUp() {
+            ranges = new ArrayList<>(rangeCount);
+            long rangeSize = poolSize / rangeCount;
+            for (int i = 0; i < rangeCount; i++) {
+                long rangeStart = FIRST_MAC + i * rangeSize;
+                ranges.add(new LongRange(rangeStart, rangeStart + rangeSize - 1));
+            }
+
+            // one of ten MACs is a custom MAC outside of the ranges
+            List<Long> macs = new ArrayList<>(usedMacCount);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < usedMacCount; i++) {
+                long offset = random.nextLong(poolSize);
+                macs.add(i % 10 == 0 ? FIRST_MAC + poolSize + offset : FIRST_MAC + offset);
+            }
+            usedMacs = MacAddressRangeUtils.macAddressesToStrings(macs);
+
+            macPool = new MacPoolUsingRanges(Guid.Empty, ranges, false);
+            macPool.forceAddMacs(usedMacs);
+        }
+    }
+}
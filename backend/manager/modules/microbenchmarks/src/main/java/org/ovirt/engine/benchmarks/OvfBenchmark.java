@@ -0,0 +1,206 @@
+package org.ovirt.engine.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.core.common.businessentities.ArchitectureType;
+import org.ovirt.engine.core.common.businessentities.DisplayType;
+import org.ovirt.engine.core.common.businessentities.GraphicsType;
+import org.ovirt.engine.core.common.businessentities.OriginType;
+import org.ovirt.engine.core.common.businessentities.Snapshot;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.common.businessentities.storage.DiskInterface;
+import org.ovirt.engine.core.common.businessentities.storage.DiskVmElement;
+import org.ovirt.engine.core.common.businessentities.storage.Image;
+import org.ovirt.engine.core.common.businessentities.storage.ImageStatus;
+import org.ovirt.engine.core.common.businessentities.storage.VolumeFormat;
+import org.ovirt.engine.core.common.businessentities.storage.VolumeType;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.osinfo.OsRepository;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.common.utils.customprop.VmPropertiesUtils;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.compat.Version;
+import org.ovirt.engine.core.utils.ovf.OvfVmReader;
+import org.ovirt.engine.core.utils.ovf.OvfVmWriter;
+import org.ovirt.engine.core.utils.ovf.xml.XmlDocument;
+
+/**
+ * <p> Benchmarks the generation and the parsing of the OVF of a VM by {@link OvfVmWriter} and {@link OvfVmReader},
+ * the way the OVF data updater writes the OVFs of the VMs that were modified and the way VMs are imported from export
+ * domains and registered from OVF_STORE disks.</p>
+ * <p> The VM has <code>disks</code> disks, as many network interfaces, and <code>snapshots</code> snapshots which
+ * keep the configuration of the VM.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OvfBenchmark {
+
+    @Benchmark
+    public String write(BenchmarkState state) {
+        return state.writeOvf();
+    }
+
+    @Benchmark
+    public VM read(BenchmarkState state) throws Exception {
+        VM vm = new VM();
+        new OvfVmReader(new XmlDocument(state.ovf), vm, new ArrayList<>(), new ArrayList<>(), state.osRepository)
+                .build();
+        return vm;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "1", "16", "64" })
+        private int disks;
+
+        @Param({ "0", "8" })
+        private int snapshots;
+
+        private OsRepository osRepository;
+        private VM vm;
+        private List<DiskImage> images;
+        private String ovf;
+
+        @Setup
+        public void setUp() {
+            Config.setConfigUtils(new DefaultConfigUtils());
+            VmPropertiesUtils.getInstance().init();
+            osRepository = createOsRepository();
+
+            vm = new VM();
+            vm.setId(Guid.newGuid());
+            vm.setName("benchmark-vm");
+            vm.setVmDescription("benchmark vm");
+            vm.setOrigin(OriginType.OVIRT);
+            vm.setTimeZone("Etc/GMT");
+            vm.setDbGeneration(1L);
+            vm.setClusterArch(ArchitectureType.x86_64);
+            vm.setVmOs(OsRepository.DEFAULT_X86_OS);
+            vm.setVmMemSizeMb(4096);
+            vm.setNumOfSockets(2);
+            vm.setCpuPerSocket(2);
+
+            images = new ArrayList<>();
+            List<VmNetworkInterface> interfaces = new ArrayList<>();
+            for (int i = 0; i < disks; i++) {
+                images.add(createDisk(i));
+                interfaces.add(createInterface(i));
+            }
+            vm.setInterfaces(interfaces);
+
+            // the snapshots keep the configuration the VM had when they were taken
+            String configuration = writeOvf();
+            List<Snapshot> vmSnapshots = new ArrayList<>();
+            for (int i = 0; i < snapshots; i++) {
+                Snapshot snapshot = new Snapshot();
+                snapshot.setId(Guid.newGuid());
+                snapshot.setVmId(vm.getId());
+                snapshot.setType(Snapshot.SnapshotType.REGULAR);
+                snapshot.setStatus(Snapshot.SnapshotStatus.OK);
+                snapshot.setDescription("snapshot" + i);
+                snapshot.setCreationDate(new Date());
+                snapshot.setVmConfiguration(configuration);
+                vmSnapshots.add(snapshot);
+            }
+            vm.setSnapshots(vmSnapshots);
+
+            ovf = writeOvf();
+        }
+
+        private String writeOvf() {
+            return new OvfVmWriter(vm, images, Version.getLast(), osRepository).build().getStringRepresentation();
+        }
+
+        private DiskImage createDisk(int index) {
+            DiskImage disk = new DiskImage();
+            disk.setId(Guid.newGuid());
+            disk.setImageId(Guid.newGuid());
+            disk.setVmSnapshotId(Guid.newGuid());
+            disk.setStoragePoolId(Guid.newGuid());
+            disk.setSize(10L * 1024 * 1024 * 1024);
+            disk.setActualSize(1024L * 1024 * 1024);
+            disk.setVolumeFormat(VolumeFormat.COW);
+            disk.setVolumeType(VolumeType.Sparse);
+            disk.setDiskAlias("benchmark-vm_Disk" + index);
+            disk.setDescription("disk " + index);
+            disk.setPlugged(true);
+
+            Image image = new Image();
+            image.setActive(true);
+            image.setVolumeFormat(VolumeFormat.COW);
+            image.setId(disk.getImageId());
+            image.setSnapshotId(disk.getSnapshotId());
+            image.setStatus(ImageStatus.OK);
+            disk.setImage(image);
+
+            DiskVmElement diskVmElement = new DiskVmElement(disk.getId(), vm.getId());
+            diskVmElement.setBoot(index == 0);
+            diskVmElement.setDiskInterface(DiskInterface.VirtIO);
+            disk.setDiskVmElements(Collections.singletonList(diskVmElement));
+            return disk;
+        }
+
+        private VmNetworkInterface createInterface(int index) {
+            VmNetworkInterface vmInterface = new VmNetworkInterface();
+            vmInterface.setStatistics(new VmNetworkStatistics());
+            vmInterface.setId(Guid.newGuid());
+            vmInterface.setVmId(vm.getId());
+            vmInterface.setName("nic" + index);
+            vmInterface.setVnicProfileName("ovirtmgmt");
+            vmInterface.setNetworkName("ovirtmgmt");
+            vmInterface.setLinked(true);
+            vmInterface.setSpeed(1000);
+            vmInterface.setType(3);
+            vmInterface.setMacAddress(String.format("00:1a:4a:16:01:%02x", index % 256));
+            return vmInterface;
+        }
+
+        private static OsRepository createOsRepository() {
+            List<Pair<GraphicsType, DisplayType>> graphicsAndDisplays =
+                    Collections.singletonList(new Pair<>(GraphicsType.SPICE, DisplayType.qxl));
+            return (OsRepository) Proxy.newProxyInstance(OsRepository.class.getClassLoader(),
+                    new Class<?>[] { OsRepository.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                        case "getUniqueOsNames":
+                            return Collections.singletonMap(OsRepository.DEFAULT_X86_OS, "other");
+                        case "getOsName":
+                            return "Other OS";
+                        case "getArchitectureFromOS":
+                            return ArchitectureType.x86_64;
+                        case "getGraphicsAndDisplays":
+                            return args != null ? graphicsAndDisplays : Collections.emptyMap();
+                        default:
+                            Class<?> returnType = method.getReturnType();
+                            if (returnType == boolean.class) {
+                                return false;
+                            } else if (returnType == int.class) {
+                                return 0;
+                            }
+                            return null;
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.scheduling.InternalClusterPolicies;
+import org.ovirt.engine.core.bll.scheduling.InternalPolicyUnits;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitsEvaluator;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.scheduling.ClusterPolicy;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * <p> Benchmarks the evaluation of the filter and weight policy units of the internal cluster policies over
+ * synthetic clusters of up to 2000 hosts.</p>
+ * <p> The <b>sequential</b> mode runs the policy units one after another like the scheduler does by default,
+ * the <b>parallel</b> mode runs them on a fork-join pool with one thread per available processor. There is no
+ * database and no CDI container here, so the policy units which need them are left out of the policies.</p>
+ *
+ * @see PolicyUnitsEvaluator
+ * @see InternalClusterPolicies
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchedulingBenchmark {
+
+    @Benchmark
+    public void evaluate(BenchmarkState state, Blackhole blackhole) {
+        List<VDS> hosts = state.evaluator.filter(state.filters,
+                state.cluster,
+                state.hosts,
+                state.vm,
+                state.parameters,
+                new PerHostMessages(),
+                (filter, hostsBefore, hostsAfter) -> blackhole.consume(hostsAfter));
+        blackhole.consume(state.evaluator.score(state.functions, state.cluster, hosts, state.vm, state.parameters));
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({"none", "evenly_distributed", "power_saving", "vm_evenly_distributed"})
+        private String policy;
+
+        @Param({"50", "200", "1000", "2000"})
+        private int hostCount;
+
+        @Param({"sequential", "parallel"})
+        private String mode;
+
+        private ForkJoinPool pool;
+        private PolicyUnitsEvaluator evaluator;
+        private Cluster cluster;
+        private VM vm;
+        private List<VDS> hosts;
+        private Map<String, String> parameters;
+        private List<PolicyUnitImpl> filters;
+        private List<PolicyUnitImpl> functions;
+
+        @Setup
+        public void setup() throws Exception {
+            Config.setConfigUtils(new DefaultConfigUtils());
+
+            ClusterPolicy clusterPolicy = InternalClusterPolicies.getClusterPolicies().values().stream()
+                    .filter(p -> p.getName().equals(policy))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown cluster policy " + policy));
+
+            cluster = new Cluster();
+            cluster.setId(Guid.newGuid());
+            cluster.setClusterPolicyId(clusterPolicy.getId());
+            cluster.setCountThreadsAsCores(false);
+
+            vm = new VM();
+            vm.setId(Guid.newGuid());
+            vm.setClusterId(cluster.getId());
+            vm.setNumOfSockets(1);
+            vm.setCpuPerSocket(4);
+            vm.setVmMemSizeMb(4096);
+
+            hosts = createHosts(cluster.getId(), hostCount);
+            parameters = new HashMap<>(clusterPolicy.getParameterMap());
+
+            Map<Guid, PolicyUnitImpl> policyUnits = new HashMap<>();
+            PendingResourceManager pendingResourceManager = new PendingResourceManager();
+            for (Class<? extends PolicyUnitImpl> unitType : InternalPolicyUnits.getList()) {
+                PolicyUnitImpl unit = InternalPolicyUnits.instantiate(unitType, pendingResourceManager);
+                policyUnits.put(unit.getPolicyUnit().getId(), unit);
+            }
+
+            Map<Guid, Integer> filterPositionMap = clusterPolicy.getFilterPositionMap();
+            filters = clusterPolicy.getFilters().stream()
+                    .sorted(Comparator.comparingInt(f -> filterPositionMap.getOrDefault(f, 0)))
+                    .map(policyUnits::get)
+                    .filter(this::canFilter)
+                    .collect(Collectors.toList());
+            functions = clusterPolicy.getFunctions().stream()
+                    .map(Pair::getFirst)
+                    .map(policyUnits::get)
+                    .filter(this::canScore)
+                    .collect(Collectors.toList());
+
+            if ("parallel".equals(mode)) {
+                pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                evaluator = new PolicyUnitsEvaluator(pool);
+            } else {
+                evaluator = new PolicyUnitsEvaluator();
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        private boolean canFilter(PolicyUnitImpl unit) {
+            try {
+                unit.filter(cluster, hosts, vm, parameters, new PerHostMessages());
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        private boolean canScore(PolicyUnitImpl unit) {
+            try {
+                unit.score(cluster, hosts, vm, parameters);
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        private static List<VDS> createHosts(Guid clusterId, int count) {
+            Random random = new Random(count);
+            List<VDS> hosts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int cores = 8 << random.nextInt(4);
+                VDS host = new VDS();
+                host.setId(Guid.newGuid());
+                host.setVdsName("host" + i);
+                host.setClusterId(clusterId);
+                host.setStatus(VDSStatus.Up);
+                host.setCpuSockets(2);
+                host.setCpuCores(cores);
+                host.setCpuThreads(cores * 2);
+                host.setOnlineCpus(IntStream.range(0, cores * 2)
+                        .mapToObj(Integer::toString)
+                        .collect(Collectors.joining(",")));
+                host.setUsageCpuPercent(random.nextInt(100));
+                host.setPhysicalMemMb(cores * 8192);
+                host.setMemCommited(random.nextInt(cores * 8192));
+                host.setMemAvailable((long) random.nextInt(cores * 8192));
+                host.setMemFree((long) random.nextInt(cores * 8192));
+                host.setMaxVdsMemoryOverCommit(100);
+                host.setGuestOverhead(65);
+                host.setSwapTotal(8192L);
+                host.setSwapFree((long) random.nextInt(8192));
+                host.setVmCount(random.nextInt(50));
+                host.setHighlyAvailableScore(random.nextInt(2) * 3400);
+                host.setSupportedEmulatedMachines("pc-i440fx-rhel7.3.0,pc-i440fx-2.6,pc-q35-rhel7.3.0");
+                hosts.add(host);
+            }
+            return hosts;
+        }
+    }
+}
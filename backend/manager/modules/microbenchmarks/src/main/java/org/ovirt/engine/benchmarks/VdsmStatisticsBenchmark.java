@@ -0,0 +1,137 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.StatisticsParser;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
+
+/**
+ * <p> Benchmarks the parsing of the statistics reported by VDSM with {@link StatisticsParser}.</p>
+ * <p> The VM statistics are parsed the way a <code>getAllVmStats</code> response of a host running
+ * <code>vmCount</code> VMs is, the host statistics the way a <code>getStats</code> response of a host with
+ * <code>nicCount</code> network interfaces is. The structures are built like the json-rpc client decodes them,
+ * with the numbers reported as strings.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VdsmStatisticsBenchmark {
+
+    @Benchmark
+    public void parseAllVmStatistics(BenchmarkState state, Blackhole blackhole) {
+        for (Map<String, Object> vmStats : state.allVmStats) {
+            blackhole.consume(StatisticsParser.parseVmStatistics(vmStats));
+            blackhole.consume(StatisticsParser.parseVmInterfaceStatistics(vmStats));
+            blackhole.consume(StatisticsParser.parseVmDiskStatistics(vmStats));
+        }
+    }
+
+    @Benchmark
+    public int updateHostInterfaceStatistics(BenchmarkState state) {
+        return state.statisticsParser.updateHostInterfaceStatistics(state.vds, state.hostInterfaces);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+
+        @Param({ "10", "100", "500" })
+        private int vmCount;
+
+        @Param({ "4" })
+        private int nicCount;
+
+        private final StatisticsParser statisticsParser = new StatisticsParser();
+        private List<Map<String, Object>> allVmStats;
+        private VDS vds;
+        private Map<String, Object> hostInterfaces;
+
+        @Setup
+        public void setUp() {
+            allVmStats = new ArrayList<>(vmCount);
+            for (int i = 0; i < vmCount; i++) {
+                allVmStats.add(vmStats(i));
+            }
+
+            vds = new VDS();
+            vds.setId(Guid.newGuid());
+            hostInterfaces = new HashMap<>();
+            for (int i = 0; i < nicCount; i++) {
+                VdsNetworkInterface nic = new VdsNetworkInterface();
+                nic.setName("eth" + i);
+                nic.setSpeed(1000);
+                vds.getInterfaces().add(nic);
+                hostInterfaces.put(nic.getName(), nicStats(nic.getName(), i));
+            }
+        }
+
+        private static Map<String, Object> vmStats(int index) {
+            Map<String, Object> struct = new HashMap<>();
+            struct.put(VdsProperties.vm_guid, Guid.newGuid().toString());
+            struct.put(VdsProperties.status, "Up");
+            struct.put(VdsProperties.elapsed_time, "86400.21");
+            struct.put(VdsProperties.cpu_sys, "0.53");
+            struct.put(VdsProperties.cpu_user, "2.47");
+            struct.put(VdsProperties.vm_usage_mem_percent, "37");
+            Map<String, Object> memoryStats = new HashMap<>();
+            memoryStats.put(VdsProperties.vm_guest_mem_buffered, "70528");
+            memoryStats.put(VdsProperties.vm_guest_mem_cached, "1223680");
+            memoryStats.put(VdsProperties.vm_guest_mem_free, "2347624");
+            struct.put(VdsProperties.vm_guest_mem_stats, memoryStats);
+
+            Map<String, Object> network = new HashMap<>();
+            network.put("vnet" + index, nicStats("vnet" + index, index));
+            struct.put(VdsProperties.VM_NETWORK, network);
+
+            Map<String, Object> disks = new HashMap<>();
+            disks.put("vda", diskStats());
+            disks.put("hdc", new HashMap<>());
+            struct.put(VdsProperties.vm_disks, disks);
+            return struct;
+        }
+
+        private static Map<String, Object> nicStats(String name, int index) {
+            Map<String, Object> nic = new HashMap<>();
+            nic.put(VdsProperties.VM_INTERFACE_NAME, name);
+            nic.put(VdsProperties.MAC_ADDR, String.format("00:1a:4a:16:01:%02x", index % 256));
+            nic.put(VdsProperties.INTERFACE_SPEED, "1000");
+            nic.put(VdsProperties.iface_status, "up");
+            nic.put(VdsProperties.rx_dropped, "0");
+            nic.put(VdsProperties.tx_dropped, "0");
+            nic.put(VdsProperties.rx_total, "483921604");
+            nic.put(VdsProperties.tx_total, "12893054");
+            nic.put(VdsProperties.sample_time, "4349153.52");
+            return nic;
+        }
+
+        private static Map<String, Object> diskStats() {
+            Map<String, Object> disk = new HashMap<>();
+            disk.put(VdsProperties.image_group_id, Guid.newGuid().toString());
+            disk.put(VdsProperties.vm_disk_read_rate, "2048.00");
+            disk.put(VdsProperties.vm_disk_write_rate, "10240.00");
+            disk.put(VdsProperties.disk_true_size, "1614807040");
+            disk.put(VdsProperties.vm_disk_read_latency, "0.000312");
+            disk.put(VdsProperties.vm_disk_write_latency, "0.001204");
+            disk.put(VdsProperties.vm_disk_flush_latency, "0.000118");
+            return disk;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.ovirt.engine.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.api.model.Cluster;
+import org.ovirt.engine.api.model.Host;
+import org.ovirt.engine.api.model.HostStatus;
+import org.ovirt.engine.api.model.Hosts;
+import org.ovirt.engine.api.model.Template;
+import org.ovirt.engine.api.model.Vm;
+import org.ovirt.engine.api.model.VmStatus;
+import org.ovirt.engine.api.model.Vms;
+import org.ovirt.engine.api.restapi.xml.JAXBProvider;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * <p> Benchmarks the XML serialization of large <code>/vms</code> and <code>/hosts</code> responses by the
+ * {@link JAXBProvider}, with and without indentation and <i>gzip</i> compression.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class XmlMarshallingBenchmark {
+
+    @Benchmark
+    public int writeVms(BenchmarkState state) throws IOException {
+        return state.write(state.vms, Vms.class);
+    }
+
+    @Benchmark
+    public int writeHosts(BenchmarkState state) throws IOException {
+        return state.write(state.hosts, Hosts.class);
+    }
+
+    /**
+     * The provider keeps a marshaller per thread, so each benchmark thread has its own state and buffer.
+     */
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+
+        @Param({ "100", "1000", "10000" })
+        private int size;
+
+        @Param({ "false", "true" })
+        private boolean formatted;
+
+        @Param({ "false", "true" })
+        private boolean compressed;
+
+        private JAXBProvider provider;
+        private Vms vms;
+        private Hosts hosts;
+        private ByteArrayOutputStream buffer;
+
+        @Setup
+        public void setUp() {
+            provider = new JAXBProvider();
+            buffer = new ByteArrayOutputStream();
+            Cluster cluster = new Cluster();
+            cluster.setId(Guid.newGuid().toString());
+            Template template = new Template();
+            template.setId(Guid.Empty.toString());
+
+            vms = new Vms();
+            hosts = new Hosts();
+            for (int i = 0; i < size; i++) {
+                Vm vm = new Vm();
+                vm.setId(Guid.newGuid().toString());
+                vm.setName("vm" + i);
+                vm.setDescription("benchmark vm " + i);
+                vm.setMemory(1024L * 1024 * 1024);
+                vm.setStatus(VmStatus.UP);
+                vm.setCluster(cluster);
+                vm.setTemplate(template);
+                vms.getVms().add(vm);
+
+                Host host = new Host();
+                host.setId(Guid.newGuid().toString());
+                host.setName("host" + i);
+                host.setDescription("benchmark host " + i);
+                host.setAddress("host" + i + ".example.com");
+                host.setPort(54321);
+                host.setMemory(256L * 1024 * 1024 * 1024);
+                host.setStatus(HostStatus.UP);
+                host.setCluster(cluster);
+                hosts.getHosts().add(host);
+            }
+        }
+
+        private int write(Object object, Class<?> type) throws IOException {
+            buffer.reset();
+            OutputStream out = compressed ? new GZIPOutputStream(buffer) : buffer;
+            provider.writeTo(object, type, formatted, out);
+            out.close();
+            return buffer.size();
+        }
+    }
+}
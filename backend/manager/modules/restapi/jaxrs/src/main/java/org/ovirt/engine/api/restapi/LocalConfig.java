@@ -38,6 +38,7 @@ public class LocalConfig {
     private static final String DEPRECATED_VERSIONS = "ENGINE_API_DEPRECATED_VERSIONS";
     private static final String DEFAULT_VERSION = "ENGINE_API_DEFAULT_VERSION";
     private static final String FILTER_BY_DEFAULT = "ENGINE_API_FILTER_BY_DEFAULT";
+    private static final String COMPRESS_RESPONSES = "ENGINE_API_COMPRESS_RESPONSES";
 
     // Reference to the engine local configuration, as that is what is used to actually read the configuration:
     private EngineLocalConfig config;
@@ -101,4 +102,11 @@ public class LocalConfig {
     public boolean getFilterByDefault() {
         return config.getBoolean(FILTER_BY_DEFAULT);
     }
+
+    /**
+     * Returns a boolean that indicates if responses should be compressed with <i>gzip</i> when the caller accepts it.
+     */
+    public boolean getCompressResponses() {
+        return config.getBoolean(COMPRESS_RESPONSES);
+    }
 }
@@ -0,0 +1,127 @@
+/*
+Copyright (c) 2017 Red Hat, Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package org.ovirt.engine.api.restapi.invocation;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import javax.xml.bind.annotation.XmlElementDecl;
+
+import org.ovirt.engine.api.model.ObjectFactory;
+
+/**
+ * This class represents a collection that is written to the response while its elements are produced, instead of
+ * being built completely in memory before marshalling it. The resource returns the empty collection object and
+ * registers the stream in the {@link Current} request, the providers then find the stream for that object and write
+ * the elements it produces, one page at a time.
+ *
+ * @param <E> the type of the elements of the collection
+ */
+public class CollectionStream<E> implements Iterable<E> {
+    /**
+     * The collection object returned by the resource, for example an empty {@code Vms} object.
+     */
+    private final Object collection;
+
+    /**
+     * The type of the elements of the collection, for example {@code Vm}.
+     */
+    private final Class<E> elementType;
+
+    /**
+     * The supplier of the pages of elements, an empty page indicates that there are no more elements.
+     */
+    private final Supplier<List<E>> pages;
+
+    public CollectionStream(Object collection, Class<E> elementType, Supplier<List<E>> pages) {
+        this.collection = collection;
+        this.elementType = elementType;
+        this.pages = pages;
+    }
+
+    /**
+     * Returns the stream registered for the given collection object in the current request, or {@code null} if the
+     * collection isn't streamed.
+     */
+    public static CollectionStream<?> forCollection(Object collection) {
+        Current current = CurrentManager.get();
+        if (current == null) {
+            return null;
+        }
+        CollectionStream<?> stream = current.getCollectionStream();
+        return stream != null && stream.collection == collection ? stream : null;
+    }
+
+    public Object getCollection() {
+        return collection;
+    }
+
+    /**
+     * Returns the name of the elements of the collection, for example {@code vm}, as declared in the object factory
+     * of the model.
+     */
+    public String getElementName() {
+        for (Method factoryMethod : ObjectFactory.class.getDeclaredMethods()) {
+            Class<?>[] parameterTypes = factoryMethod.getParameterTypes();
+            if (parameterTypes.length == 1 && parameterTypes[0] == elementType) {
+                XmlElementDecl declaration = factoryMethod.getAnnotation(XmlElementDecl.class);
+                if (declaration != null) {
+                    return declaration.name();
+                }
+            }
+        }
+        throw new IllegalStateException("Can't find element name for type \"" + elementType.getName() + "\".");
+    }
+
+    /**
+     * Returns an iterator that requests the pages of elements as they are consumed. The stream can be iterated only
+     * once.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private Iterator<E> page = Collections.emptyIterator();
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && !exhausted) {
+                    List<E> next = pages.get();
+                    if (next == null || next.isEmpty()) {
+                        exhausted = true;
+                    }
+                    else {
+                        page = next.iterator();
+                    }
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+}
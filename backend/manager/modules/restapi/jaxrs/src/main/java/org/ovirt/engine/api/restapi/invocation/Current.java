@@ -80,6 +80,22 @@ public class Current {
      */
     private BackendLocal backend;
 
+    /**
+     * The collection that is written to the response while it is produced, if the request asked for streaming.
+     */
+    private CollectionStream<?> collectionStream;
+
+    /**
+     * Indicates if the response document should be indented, so that it is easier to read for humans.
+     */
+    private boolean formattedOutput;
+
+    /**
+     * Indicates if the response document may be compressed with {@code gzip}, because the caller accepts it and it is
+     * enabled in the configuration.
+     */
+    private boolean compressedOutput;
+
     /**
      * Returns the request version of the API.
      */
@@ -238,4 +254,28 @@ public class Current {
     public BackendLocal getBackend() {
         return backend;
     }
+
+    public CollectionStream<?> getCollectionStream() {
+        return collectionStream;
+    }
+
+    public void setCollectionStream(CollectionStream<?> collectionStream) {
+        this.collectionStream = collectionStream;
+    }
+
+    public boolean isFormattedOutput() {
+        return formattedOutput;
+    }
+
+    public void setFormattedOutput(boolean formattedOutput) {
+        this.formattedOutput = formattedOutput;
+    }
+
+    public boolean isCompressedOutput() {
+        return compressedOutput;
+    }
+
+    public void setCompressedOutput(boolean compressedOutput) {
+        this.compressedOutput = compressedOutput;
+    }
 }
@@ -31,6 +31,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.api.restapi.LocalConfig;
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.config.ConfigCommon;
 import org.ovirt.engine.core.common.config.ConfigValues;
@@ -50,6 +51,12 @@ public class CurrentFilter implements Filter {
     private static final String CORRELATION_ID_HEADER = "Correlation-Id";
     private static final String CORRELATION_ID_PARAM = "correlation_id";
     private static final Pattern INVALID_CORRELATION_ID_CHARACTERS_RE = Pattern.compile("[^0-9a-zA-Z_-]+");
+    private static final String PRETTY_PARAM = "pretty";
+    private static final String USER_AGENT_HEADER = "User-Agent";
+    private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    private static final Pattern BROWSER_USER_AGENT_RE = Pattern.compile("^Mozilla/");
+    private static final String GZIP_ENCODING = "gzip";
+    private static final Pattern ZERO_QUALITY_RE = Pattern.compile("^q\\s*=\\s*0(\\.0*)?$");
 
     /**
      * The reference to the backend bean.
@@ -58,8 +65,14 @@ public class CurrentFilter implements Filter {
     @EJB(lookup = "java:global/engine/bll/Backend!org.ovirt.engine.core.common.interfaces.BackendLocal")
     private BackendLocal backend;
 
+    /**
+     * Indicates if responses may be compressed when the caller accepts it.
+     */
+    private boolean compressResponses;
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
+        compressResponses = LocalConfig.getInstance().getCompressResponses();
     }
 
     @Override
@@ -93,6 +106,34 @@ public class CurrentFilter implements Filter {
         return correlationId;
     }
 
+    /**
+     * Documents are indented only for browsers, unless the caller explicitly asks for it with the {@code pretty}
+     * parameter, as other clients don't need it and indenting large documents takes a considerable time.
+     */
+    private static boolean isFormattedOutput(HttpServletRequest request) {
+        String pretty = request.getParameter(PRETTY_PARAM);
+        if (StringUtils.isNotEmpty(pretty)) {
+            return Boolean.parseBoolean(pretty);
+        }
+        String userAgent = request.getHeader(USER_AGENT_HEADER);
+        return userAgent != null && BROWSER_USER_AGENT_RE.matcher(userAgent).find();
+    }
+
+    private boolean isCompressedOutput(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(ACCEPT_ENCODING_HEADER);
+        if (!compressResponses || acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] chunks = encoding.split(";");
+            if (GZIP_ENCODING.equalsIgnoreCase(chunks[0].trim())) {
+                // The caller may explicitly reject the encoding giving it a zero quality, for example "gzip;q=0":
+                return chunks.length == 1 || !ZERO_QUALITY_RE.matcher(chunks[1].trim()).matches();
+            }
+        }
+        return false;
+    }
+
     private void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         String sessionId = (String) request.getAttribute(SessionConstants.HTTP_SESSION_ENGINE_SESSION_ID_KEY);
@@ -108,6 +149,8 @@ public class CurrentFilter implements Filter {
         current.setPrefix(getPrefix(request));
         current.setPath(getPath(request));
         current.setBackend(backend);
+        current.setFormattedOutput(isFormattedOutput(request));
+        current.setCompressedOutput(isCompressedOutput(request));
         String correlationId = getCorrelationId(request);
         current.getParameters().put(CORRELATION_ID_PARAM, correlationId);
         response.setHeader(CORRELATION_ID_HEADER, correlationId);
@@ -16,15 +16,22 @@
 
 package org.ovirt.engine.api.restapi.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.Provider;
 
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.ovirt.engine.api.restapi.invocation.CollectionStream;
 import org.ovirt.engine.api.restapi.invocation.CurrentManager;
 
 @Provider
@@ -54,4 +61,27 @@ public class JSONProvider extends JacksonJsonProvider {
         }
         return super.isWriteable(type, genericType, annotations, mediaType);
     }
+
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        // Collections that are produced while they are written need to be serialized element by element:
+        CollectionStream<?> stream = CollectionStream.forCollection(value);
+        if (stream == null) {
+            super.writeTo(value, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+            return;
+        }
+
+        ObjectMapper mapper = locateMapper(type, mediaType);
+        JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(entityStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(stream.getElementName());
+        for (Object element : stream) {
+            mapper.writeValue(generator, element);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+    }
 }
@@ -4,14 +4,20 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
 
 import javax.ws.rs.core.Response;
 
 import org.ovirt.engine.api.model.ActionableResource;
 import org.ovirt.engine.api.model.BaseResource;
 import org.ovirt.engine.api.model.CreationStatus;
+import org.ovirt.engine.api.restapi.invocation.CollectionStream;
 import org.ovirt.engine.api.restapi.util.ExpectationHelper;
 import org.ovirt.engine.api.restapi.util.LinkHelper;
 import org.ovirt.engine.api.restapi.util.ParametersHelper;
@@ -34,6 +40,10 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
     private static final String CREATION_STATUS_REL = "creation_status";
     public static final String FROM_CONSTRAINT_PARAMETER = "from";
     public static final String CASE_SENSITIVE_CONSTRAINT_PARAMETER = "case_sensitive";
+    public static final String STREAM_PARAMETER = "stream";
+    private static final int STREAM_PAGE_SIZE = 500;
+    private static final Pattern PAGE_CLAUSE = Pattern.compile("\\bpage\\s+\\d+\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SORT_BY_CLAUSE = Pattern.compile("\\bsortby\\b", Pattern.CASE_INSENSITIVE);
     private static final Logger log = LoggerFactory.getLogger(AbstractBackendCollectionResource.class);
 
     protected AbstractBackendCollectionResource(Class<R> modelType, Class<Q> entityType) {
@@ -64,6 +74,152 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
         return searchParams;
     }
 
+    /**
+     * Checks if the request asked for the collection to be written to the response while it is produced, using the
+     * {@code stream} parameter. Streamed collections don't include the {@code size} detail and their links can't be
+     * followed.
+     */
+    protected boolean isStreamingRequested() {
+        return ParametersHelper.getBooleanParameter(httpHeaders, uriInfo, STREAM_PARAMETER, true, false);
+    }
+
+    /**
+     * Streams the results of the search, running it one page at a time and mapping each page only when the previous
+     * one has already been written to the response. Searches that already select a page, or that use the {@code from}
+     * parameter, are executed only once.
+     *
+     * @param collection the empty collection object that will be returned to the client
+     * @param searchType the type of the search
+     * @param mapper the function that maps a page of entities to the corresponding model objects
+     * @return the given collection object
+     */
+    protected <C> C streamCollection(C collection, SearchType searchType, Function<List<Q>, List<R>> mapper) {
+        String constraint = QueryHelper.getConstraint(httpHeaders, uriInfo, "", modelType);
+        int from = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, FROM_CONSTRAINT_PARAMETER, -1, -1);
+        if (from != -1 || PAGE_CLAUSE.matcher(constraint).find()) {
+            return streamCollection(collection, getBackendCollection(searchType, constraint), mapper);
+        }
+        int max = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, MAX, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        return streamCollection(collection, new SearchPages(searchType, constraint, max, mapper, null));
+    }
+
+    /**
+     * Streams the results of a search over entities with a numeric key, sorted by that key in descending order by
+     * default, like the events. Each page is selected by the key of the last entity of the previous page rather than
+     * by its number, so entities added or removed while the collection is streamed don't make the pages overlap or
+     * leave gaps. Searches that already select a page, or that are sorted otherwise, are executed only once.
+     *
+     * @param collection the empty collection object that will be returned to the client
+     * @param searchType the type of the search
+     * @param mapper the function that maps a page of entities to the corresponding model objects
+     * @param key the function that returns the numeric key of an entity
+     * @return the given collection object
+     */
+    protected <C> C streamCollection(C collection,
+            SearchType searchType,
+            Function<List<Q>, List<R>> mapper,
+            ToLongFunction<Q> key) {
+        String constraint = QueryHelper.getConstraint(httpHeaders, uriInfo, "", modelType);
+        if (PAGE_CLAUSE.matcher(constraint).find() || SORT_BY_CLAUSE.matcher(constraint).find()) {
+            return streamCollection(collection, getBackendCollection(searchType, constraint), mapper);
+        }
+        int max = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, MAX, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        return streamCollection(collection, new SearchPages(searchType, constraint, max, mapper, key));
+    }
+
+    /**
+     * Streams the given entities, mapping them one page at a time, so that the model objects of the complete
+     * collection are never kept in memory at the same time.
+     */
+    protected <C> C streamCollection(C collection, List<Q> entities, Function<List<Q>, List<R>> mapper) {
+        return streamCollection(collection, new Supplier<List<R>>() {
+            private int next;
+
+            @Override
+            public List<R> get() {
+                if (next >= entities.size()) {
+                    return Collections.emptyList();
+                }
+                int from = next;
+                next = Math.min(entities.size(), next + STREAM_PAGE_SIZE);
+                return mapper.apply(entities.subList(from, next));
+            }
+        });
+    }
+
+    private <C> C streamCollection(C collection, Supplier<List<R>> pages) {
+        // The first page is retrieved right away, so that errors, like a wrong search constraint, are reported to the
+        // client before the response starts:
+        List<R> firstPage = pages.get();
+        getCurrent().setCollectionStream(new CollectionStream<>(collection, modelType, new Supplier<List<R>>() {
+            private boolean first = true;
+
+            @Override
+            public List<R> get() {
+                if (first) {
+                    first = false;
+                    return firstPage;
+                }
+                return pages.get();
+            }
+        }));
+        return collection;
+    }
+
+    /**
+     * Supplies the pages of results of a search. The pages are selected by the key of the last entity of the previous
+     * page when a key is given, otherwise by appending the {@code page} clause to the search constraint.
+     */
+    private class SearchPages implements Supplier<List<R>> {
+        private final SearchType searchType;
+        private final String constraint;
+        private final Function<List<Q>, List<R>> mapper;
+        private final ToLongFunction<Q> key;
+        private int remaining;
+        private int page;
+        private long lastKey;
+        private boolean exhausted;
+
+        public SearchPages(SearchType searchType,
+                String constraint,
+                int max,
+                Function<List<Q>, List<R>> mapper,
+                ToLongFunction<Q> key) {
+            this.searchType = searchType;
+            this.constraint = constraint;
+            this.remaining = max;
+            this.mapper = mapper;
+            this.key = key;
+        }
+
+        @Override
+        public List<R> get() {
+            if (exhausted || remaining <= 0) {
+                return Collections.emptyList();
+            }
+            SearchParameters searchParams;
+            if (key != null) {
+                searchParams = getSearchParameters(searchType, constraint);
+                searchParams.setSearchTo(lastKey);
+            } else {
+                page++;
+                searchParams = getSearchParameters(searchType, constraint + " page " + page);
+            }
+            searchParams.setMaxCount(STREAM_PAGE_SIZE);
+            List<Q> entities = getBackendCollection(entityType, QueryType.Search, searchParams);
+            if (entities.size() < STREAM_PAGE_SIZE) {
+                exhausted = true;
+            } else if (key != null) {
+                lastKey = key.applyAsLong(entities.get(entities.size() - 1));
+            }
+            if (entities.size() > remaining) {
+                entities = entities.subList(0, remaining);
+            }
+            remaining -= entities.size();
+            return mapper.apply(entities);
+        }
+    }
+
     protected List<Q> getBackendCollection(QueryType query, QueryParametersBase queryParams) {
         return getBackendCollection(entityType, query, queryParams);
     }
@@ -1,5 +1,6 @@
 package org.ovirt.engine.api.restapi.resource;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.ws.rs.core.Response;
@@ -30,15 +31,27 @@ public class BackendEventsResource
 
     @Override
     public Events list() {
+        if (isStreamingRequested()) {
+            if (isFiltered()) {
+                return streamCollection(new Events(), getBackendCollection(), this::mapEntities);
+            }
+            return streamCollection(new Events(), SearchType.AuditLog, this::mapEntities, AuditLog::getAuditLogId);
+        }
         return mapCollection(getBackendCollection());
     }
 
     private Events mapCollection(List<AuditLog> entities) {
         Events collection = new Events();
+        collection.getEvents().addAll(mapEntities(entities));
+        return collection;
+    }
+
+    private List<Event> mapEntities(List<AuditLog> entities) {
+        List<Event> events = new ArrayList<>(entities.size());
         for (AuditLog entity : entities) {
-            collection.getEvents().add(addLinks(map(entity)));
+            events.add(addLinks(map(entity)));
         }
-        return collection;
+        return events;
     }
 
     @Override
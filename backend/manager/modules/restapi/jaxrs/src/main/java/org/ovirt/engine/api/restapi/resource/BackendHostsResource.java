@@ -1,6 +1,8 @@
 package org.ovirt.engine.api.restapi.resource;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import javax.ws.rs.core.Response;
 
@@ -46,6 +48,9 @@ public class BackendHostsResource extends AbstractBackendCollectionResource<Host
     }
 
     private Hosts listGlusterOnly() {
+        if (isStreamingRequested()) {
+            return stream(this::mapGlusterOnlyEntities);
+        }
         if (isFiltered()) {
             return mapGlusterOnlyCollection(getBackendCollection(QueryType.GetAllHosts,
                     new QueryParametersBase()));
@@ -56,6 +61,9 @@ public class BackendHostsResource extends AbstractBackendCollectionResource<Host
     }
 
     private Hosts listAll() {
+        if (isStreamingRequested()) {
+            return stream(this::mapEntities);
+        }
         if (isFiltered()) {
             return mapCollection(getBackendCollection(QueryType.GetAllHosts,
                     new QueryParametersBase()));
@@ -65,6 +73,17 @@ public class BackendHostsResource extends AbstractBackendCollectionResource<Host
         }
     }
 
+    private Hosts stream(Function<List<VDS>, List<Host>> mapper) {
+        if (isFiltered()) {
+            return streamCollection(new Hosts(),
+                    getBackendCollection(QueryType.GetAllHosts, new QueryParametersBase()),
+                    mapper);
+        }
+        else {
+            return streamCollection(new Hosts(), SearchType.VDS, mapper);
+        }
+    }
+
     @Override
     public HostResource getHostResource(String id) {
         return inject(new BackendHostResource(id, this));
@@ -95,18 +114,30 @@ public class BackendHostsResource extends AbstractBackendCollectionResource<Host
 
     private Hosts mapCollection(List<VDS> entities) {
         Hosts collection = new Hosts();
+        collection.getHosts().addAll(mapEntities(entities));
+        return collection;
+    }
+
+    private List<Host> mapEntities(List<VDS> entities) {
+        List<Host> hosts = new ArrayList<>(entities.size());
         for (VDS entity : entities) {
-            collection.getHosts().add(addLinks(populate(map(entity), entity)));
+            hosts.add(addLinks(populate(map(entity), entity)));
         }
-        return collection;
+        return hosts;
     }
 
     private Hosts mapGlusterOnlyCollection(List<VDS> entities) {
         Hosts collection = new Hosts();
+        collection.getHosts().addAll(mapGlusterOnlyEntities(entities));
+        return collection;
+    }
+
+    private List<Host> mapGlusterOnlyEntities(List<VDS> entities) {
+        List<Host> hosts = new ArrayList<>(entities.size());
         for (VDS entity : entities) {
-            collection.getHosts().add(addLinks(populate(map(entity), entity), GLUSTERONLY_MODE_COLLECTIONS_TO_HIDE));
+            hosts.add(addLinks(populate(map(entity), entity), GLUSTERONLY_MODE_COLLECTIONS_TO_HIDE));
         }
-        return collection;
+        return hosts;
     }
 
     private Guid getClusterId(Host host) {
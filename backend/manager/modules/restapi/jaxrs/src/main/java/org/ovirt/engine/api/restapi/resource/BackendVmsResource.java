@@ -109,6 +109,9 @@ public class BackendVmsResource extends
 
     @Override
     public Vms list() {
+        if (isStreamingRequested() && DetailHelper.getDetails(httpHeaders, uriInfo).contains(DetailHelper.MAIN)) {
+            return stream();
+        }
         if (isFiltered()) {
             return mapCollection(getBackendCollection(QueryType.GetAllVms, new QueryParametersBase(), SearchType.VM), true);
         } else {
@@ -116,6 +119,16 @@ public class BackendVmsResource extends
         }
     }
 
+    private Vms stream() {
+        if (isFiltered()) {
+            return streamCollection(new Vms(),
+                    getBackendCollection(QueryType.GetAllVms, new QueryParametersBase(), SearchType.VM),
+                    this::mapEntities);
+        } else {
+            return streamCollection(new Vms(), SearchType.VM, this::mapEntities);
+        }
+    }
+
     @Override
     public VmResource getVmResource(String id) {
         return inject(new BackendVmResource(id, this));
@@ -598,33 +611,9 @@ public class BackendVmsResource extends
         boolean includeData = details.contains(DetailHelper.MAIN);
         boolean includeSize = details.contains("size");
 
-        List<Guid> vmIds = entities.stream().map(VM::getId).collect(Collectors.toList());
-        if (includeData) {
-            // Fill VmInit for entities - the search query no join the VmInit to Vm
-            IdsQueryParameters params = new IdsQueryParameters();
-            params.setId(vmIds);
-            QueryReturnValue queryReturnValue = runQuery(QueryType.GetVmsInit, params);
-            if (queryReturnValue.getSucceeded() && queryReturnValue.getReturnValue() != null) {
-                List<VmInit> vmInits = queryReturnValue.getReturnValue();
-                Map<Guid, VmInit> initMap = Entities.businessEntitiesById(vmInits);
-                for (org.ovirt.engine.core.common.businessentities.VM vm : entities) {
-                    vm.setVmInit(initMap.get(vm.getId()));
-                }
-            }
-        }
-
         Vms collection = new Vms();
         if (includeData) {
-            // optimization of DB access: retrieve GraphicsDevices for all VMs at once
-            Map<Guid, List<GraphicsDevice>> vmsGraphicsDevices =
-                    DisplayHelper.getGraphicsDevicesForMultipleEntities(this, vmIds);
-
-            for (org.ovirt.engine.core.common.businessentities.VM entity : entities) {
-                Vm vm = map(entity);
-                DisplayHelper.adjustDisplayData(this, vm, vmsGraphicsDevices, false);
-                removeRestrictedInfo(vm);
-                collection.getVms().add(addLinks(populate(vm, entity)));
-            }
+            collection.getVms().addAll(mapEntities(entities));
         }
         if (includeSize) {
             collection.setSize((long) entities.size());
@@ -632,6 +621,34 @@ public class BackendVmsResource extends
         return collection;
     }
 
+    private List<Vm> mapEntities(List<org.ovirt.engine.core.common.businessentities.VM> entities) {
+        List<Guid> vmIds = entities.stream().map(VM::getId).collect(Collectors.toList());
+        // Fill VmInit for entities - the search query no join the VmInit to Vm
+        IdsQueryParameters params = new IdsQueryParameters();
+        params.setId(vmIds);
+        QueryReturnValue queryReturnValue = runQuery(QueryType.GetVmsInit, params);
+        if (queryReturnValue.getSucceeded() && queryReturnValue.getReturnValue() != null) {
+            List<VmInit> vmInits = queryReturnValue.getReturnValue();
+            Map<Guid, VmInit> initMap = Entities.businessEntitiesById(vmInits);
+            for (org.ovirt.engine.core.common.businessentities.VM vm : entities) {
+                vm.setVmInit(initMap.get(vm.getId()));
+            }
+        }
+
+        // optimization of DB access: retrieve GraphicsDevices for all VMs at once
+        Map<Guid, List<GraphicsDevice>> vmsGraphicsDevices =
+                DisplayHelper.getGraphicsDevicesForMultipleEntities(this, vmIds);
+
+        List<Vm> vms = new ArrayList<>(entities.size());
+        for (org.ovirt.engine.core.common.businessentities.VM entity : entities) {
+            Vm vm = map(entity);
+            DisplayHelper.adjustDisplayData(this, vm, vmsGraphicsDevices, false);
+            removeRestrictedInfo(vm);
+            vms.add(addLinks(populate(vm, entity)));
+        }
+        return vms;
+    }
+
     protected boolean templated(Vm vm) {
         return vm.isSetTemplate() && (vm.getTemplate().isSetId() || vm.getTemplate().isSetName());
     }
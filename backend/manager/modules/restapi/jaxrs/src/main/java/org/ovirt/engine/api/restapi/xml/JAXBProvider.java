@@ -25,10 +25,12 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
@@ -41,11 +43,15 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.ValidationEventHandler;
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.ovirt.engine.api.model.Api;
 import org.ovirt.engine.api.model.ObjectFactory;
+import org.ovirt.engine.api.restapi.invocation.CollectionStream;
+import org.ovirt.engine.api.restapi.invocation.Current;
 import org.ovirt.engine.api.restapi.invocation.CurrentManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -89,6 +95,11 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
      */
     private XMLInputFactory parserFactory;
 
+    /**
+     * The factory used to create XML document writers for streamed collections.
+     */
+    private XMLOutputFactory writerFactory = XMLOutputFactory.newFactory();
+
     /**
      * The JAXB jaxbContext used to convert XML documents into the corresponding model objects.
      */
@@ -99,6 +110,14 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
      */
     private ValidationEventHandler jaxbHandler = new JAXBValidationEventHandler();
 
+    /*
+     * Marshallers and unmarshallers are expensive to create but can't be used by multiple threads simultaneously, so
+     * each thread processing requests keeps its own ones and reuses them.
+     */
+    private final ThreadLocal<Marshaller> marshallers = new ThreadLocal<>();
+    private final ThreadLocal<Marshaller> fragmentMarshallers = new ThreadLocal<>();
+    private final ThreadLocal<Unmarshaller> unmarshallers = new ThreadLocal<>();
+
     public JAXBProvider() {
         // In order to create the JAXB element that wraps the object we need to call the method of the object factory
         // that uses the correct element name, and in order to avoid doing this with every request we populate this
@@ -182,15 +201,15 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
      */
     private Object readFrom(XMLStreamReader reader) throws IOException {
         try {
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            unmarshaller.setEventHandler(jaxbHandler);
-            Object result = unmarshaller.unmarshal(reader);
+            Object result = getUnmarshaller().unmarshal(reader);
             if (result instanceof JAXBElement) {
                 result = ((JAXBElement) result).getValue();
             }
             return result;
         }
         catch (JAXBException exception) {
+            // The unmarshaller may be left in an inconsistent state, so it shouldn't be reused:
+            unmarshallers.remove();
             Throwable linked = exception.getLinkedException();
             if (linked != null) {
                 Throwable cause = linked;
@@ -207,30 +226,147 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
     public void writeTo(Object object, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
             MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
             throws IOException, WebApplicationException {
-        // Find the factory method used to create the JAXB element with the right tag:
-        Method factoryMethod = factoryMethods.get(type);
-        if (factoryMethod == null) {
-            throw new IOException("Can't find factory method for type \"" + type.getName() + "\".");
+        // Compress the document if the caller accepts it, there may be no current invocation when the provider is
+        // used outside of a request:
+        Current current = CurrentManager.get();
+        GZIPOutputStream gzipStream = null;
+        if (current != null && current.isCompressedOutput()) {
+            httpHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+            httpHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            gzipStream = new GZIPOutputStream(entityStream);
+            entityStream = gzipStream;
         }
 
-        // Invoke the method to create the JAXB element:
-        JAXBElement<Object> element;
-        try {
-            element = (JAXBElement<Object>) factoryMethod.invoke(objectFactory, object);
+        // Indent the document only if it is going to be read by humans:
+        boolean formatted = current != null && current.isFormattedOutput();
+
+        writeTo(object, type, formatted, entityStream);
+
+        // Write the rest of the compressed data, but leave the entity stream open, as it is owned by the container:
+        if (gzipStream != null) {
+            gzipStream.finish();
         }
-        catch (IllegalAccessException|InvocationTargetException exception) {
-            throw new IOException("Error invoking factory method for type \"" +  type.getName() + "\".", exception);
+    }
+
+    /**
+     * Writes the given object to the given stream, optionally indenting the document.
+     */
+    public void writeTo(Object object, Class<?> type, boolean formatted, OutputStream entityStream)
+            throws IOException {
+        // Collections that are produced while they are written need to be marshalled element by element:
+        CollectionStream<?> stream = CollectionStream.forCollection(object);
+        if (stream != null) {
+            writeTo(stream, type, entityStream);
+            return;
         }
 
+        // Create the JAXB element:
+        JAXBElement<Object> element = createElement(object, type);
+
         // Marshal the element:
         try {
-            Marshaller marshaller = jaxbContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            Marshaller marshaller = getMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
             marshaller.marshal(element, entityStream);
         }
         catch (JAXBException exception) {
+            marshallers.remove();
             throw new IOException("Can't marshall JAXB element of type \"" + type.getName() + "\".", exception);
         }
     }
+
+    /**
+     * Writes the collection element and then marshals each element produced by the stream as soon as it is available,
+     * so that the complete collection is never kept in memory.
+     */
+    private void writeTo(CollectionStream<?> stream, Class<?> type, OutputStream entityStream) throws IOException {
+        String collectionName = createElement(stream.getCollection(), type).getName().getLocalPart();
+        XMLStreamWriter writer = null;
+        try {
+            writer = writerFactory.createXMLStreamWriter(entityStream, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement(collectionName);
+            Marshaller marshaller = getFragmentMarshaller();
+            for (Object object : stream) {
+                marshaller.marshal(createElement(object, object.getClass()), writer);
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+        }
+        catch (XMLStreamException|JAXBException exception) {
+            fragmentMarshallers.remove();
+            throw new IOException("Can't marshall stream of JAXB elements of type \"" + type.getName() + "\".",
+                exception);
+        }
+        finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                }
+                catch (XMLStreamException exception) {
+                    log.warn("Can't close XML stream writer.", exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the marshaller of the current thread used to write complete documents, creating it if needed.
+     */
+    private Marshaller getMarshaller() throws JAXBException {
+        Marshaller marshaller = marshallers.get();
+        if (marshaller == null) {
+            marshaller = jaxbContext.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+            marshallers.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * Returns the marshaller of the current thread used to write the elements of streamed collections, creating it if
+     * needed.
+     */
+    private Marshaller getFragmentMarshaller() throws JAXBException {
+        Marshaller marshaller = fragmentMarshallers.get();
+        if (marshaller == null) {
+            marshaller = jaxbContext.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            fragmentMarshallers.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * Returns the unmarshaller of the current thread, creating it if needed.
+     */
+    private Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.get();
+        if (unmarshaller == null) {
+            unmarshaller = jaxbContext.createUnmarshaller();
+            unmarshaller.setEventHandler(jaxbHandler);
+            unmarshallers.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Creates the JAXB element that wraps the given object, using the factory method that gives it the right tag.
+     */
+    private JAXBElement<Object> createElement(Object object, Class<?> type) throws IOException {
+        // Find the factory method used to create the JAXB element with the right tag:
+        Method factoryMethod = factoryMethods.get(type);
+        if (factoryMethod == null) {
+            throw new IOException("Can't find factory method for type \"" + type.getName() + "\".");
+        }
+
+        // Invoke the method to create the JAXB element:
+        try {
+            return (JAXBElement<Object>) factoryMethod.invoke(objectFactory, object);
+        }
+        catch (IllegalAccessException|InvocationTargetException exception) {
+            throw new IOException("Error invoking factory method for type \"" +  type.getName() + "\".", exception);
+        }
+    }
 }
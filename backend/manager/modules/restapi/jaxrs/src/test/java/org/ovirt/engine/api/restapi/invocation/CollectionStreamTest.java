@@ -0,0 +1,80 @@
+/*
+Copyright (c) 2017 Red Hat, Inc.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package org.ovirt.engine.api.restapi.invocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.ovirt.engine.api.model.Vm;
+import org.ovirt.engine.api.model.Vms;
+
+public class CollectionStreamTest extends Assert {
+
+    @After
+    public void tearDown() {
+        CurrentManager.remove();
+    }
+
+    @Test
+    public void testPagesAreRequestedWhileIterating() {
+        LinkedList<List<Vm>> pages = new LinkedList<>();
+        pages.add(Arrays.asList(vm("1"), vm("2")));
+        pages.add(Collections.singletonList(vm("3")));
+        List<Integer> requested = new ArrayList<>();
+        CollectionStream<Vm> stream = new CollectionStream<>(new Vms(), Vm.class, () -> {
+            requested.add(pages.size());
+            return pages.isEmpty() ? Collections.emptyList() : pages.poll();
+        });
+
+        Iterator<Vm> iterator = stream.iterator();
+        assertEquals("1", iterator.next().getId());
+        assertEquals("2", iterator.next().getId());
+        assertEquals(1, requested.size());
+        assertEquals("3", iterator.next().getId());
+        assertFalse(iterator.hasNext());
+        assertEquals(3, requested.size());
+    }
+
+    @Test
+    public void testStreamIsFoundOnlyForItsCollection() {
+        Vms collection = new Vms();
+        Current current = new Current();
+        current.setCollectionStream(new CollectionStream<>(collection, Vm.class, Collections::emptyList));
+        CurrentManager.put(current);
+
+        assertNotNull(CollectionStream.forCollection(collection));
+        assertNull(CollectionStream.forCollection(new Vms()));
+    }
+
+    @Test
+    public void testElementName() {
+        assertEquals("vm", new CollectionStream<>(new Vms(), Vm.class, Collections::emptyList).getElementName());
+    }
+
+    private static Vm vm(String id) {
+        Vm vm = new Vm();
+        vm.setId(id);
+        return vm;
+    }
+}
@@ -931,6 +931,9 @@ public class SyntaxChecker implements ISyntaxChecker {
             if (syntax.getSearchFrom() > 0) {
                 inQuery = StringFormat.format("%1$s and  %2$s >  %3$s", inQuery, primeryKey, syntax.getSearchFrom());
             }
+            if (syntax.getSearchTo() > 0) {
+                inQuery = StringFormat.format("%1$s and  %2$s <  %3$s", inQuery, primeryKey, syntax.getSearchTo());
+            }
             retval =
                     StringFormat.format(Config.getValue(ConfigValues.DBSearchTemplate),
                             sortExpr.toString(),
@@ -18,6 +18,7 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
     private final int[] errorPos = new int[2];
     private int privateMaxCount;
     private long searchFrom = 0;
+    private long searchTo = 0;
     private boolean caseSensitive=true;
 
     public boolean isSearchUsingTags() {
@@ -43,6 +44,14 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
         searchFrom = value;
     }
 
+    public long getSearchTo() {
+        return searchTo;
+    }
+
+    public void setSearchTo(long value) {
+        searchTo = value;
+    }
+
     public boolean getvalid() {
         return valid;
     }
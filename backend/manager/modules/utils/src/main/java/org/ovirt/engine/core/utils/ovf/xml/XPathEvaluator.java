@@ -0,0 +1,89 @@
+package org.ovirt.engine.core.utils.ovf.xml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.w3c.dom.Node;
+
+/**
+ * Evaluates the XPath expressions of the OVF readers.
+ * <p>
+ * Most of the expressions are the (optionally prefixed) name of a child element, like {@code rasd:InstanceId}. Those
+ * are resolved by walking the child elements of the context node with the same semantics as XPath, the other
+ * expressions are evaluated by an XPath created from a factory kept per thread, as looking the factory up is much
+ * more expensive than the evaluation itself.
+ */
+final class XPathEvaluator {
+
+    private static final Pattern CHILD_ELEMENT = Pattern.compile("(?:([A-Za-z_][\\w.-]*):)?([A-Za-z_][\\w.-]*)");
+
+    private static final ThreadLocal<XPathFactory> factory = ThreadLocal.withInitial(XPathFactory::newInstance);
+
+    private XPathEvaluator() {
+    }
+
+    static Object evaluate(String expression, Object item, QName returnType, NamespaceContext namespaceContext) {
+        try {
+            XPath xPath = factory.get().newXPath();
+            if (namespaceContext != null) {
+                xPath.setNamespaceContext(namespaceContext);
+            }
+            return xPath.evaluate(expression, item, returnType);
+        } catch (XPathExpressionException e) {
+            throw new RuntimeException("Failed to evaluate xpath: " + expression, e);
+        }
+    }
+
+    /**
+     * Returns the child elements of the given node matched by the given expression, only the first one when
+     * {@code firstOnly} is set, or {@code null} if the expression isn't a child element name that can be resolved
+     * without XPath.
+     */
+    static List<Node> selectChildElements(Node node,
+            String expression,
+            NamespaceContext namespaceContext,
+            boolean firstOnly) {
+        Matcher matcher = CHILD_ELEMENT.matcher(expression);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        String namespaceUri = null;
+        String prefix = matcher.group(1);
+        if (prefix != null) {
+            namespaceUri = namespaceContext != null ? namespaceContext.getNamespaceURI(prefix) : null;
+            // unbound prefixes are reported by XPath
+            if (namespaceUri == null) {
+                return null;
+            }
+        }
+
+        String localName = matcher.group(2);
+        List<Node> elements = new ArrayList<>();
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            // the document wasn't parsed namespace aware
+            if (child.getLocalName() == null) {
+                return null;
+            }
+            if (localName.equals(child.getLocalName()) && Objects.equals(namespaceUri, child.getNamespaceURI())) {
+                elements.add(child);
+                if (firstOnly) {
+                    break;
+                }
+            }
+        }
+        return elements;
+    }
+}
@@ -4,10 +4,7 @@ import java.io.StringReader;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.ovirt.engine.core.uutils.xml.SecureDocumentBuilderFactory;
 import org.w3c.dom.Document;
@@ -17,8 +14,16 @@ import org.xml.sax.InputSource;
 
 public class XmlDocument {
 
+    /**
+     * Looking the factory up is more expensive than parsing most OVFs, and the factory isn't thread safe.
+     */
+    private static final ThreadLocal<DocumentBuilderFactory> documentBuilderFactory = ThreadLocal.withInitial(() -> {
+        DocumentBuilderFactory fact = SecureDocumentBuilderFactory.newDocumentBuilderFactory();
+        fact.setNamespaceAware(true);
+        return fact;
+    });
+
     private String outerXml;
-    public XmlNode[] childNodes;
 
     private Document doc;
 
@@ -31,65 +36,28 @@ public class XmlDocument {
 
     private void loadXml(String ovfstring) throws Exception {
         // load doc
-        DocumentBuilderFactory fact = SecureDocumentBuilderFactory.newDocumentBuilderFactory();
-        fact.setNamespaceAware(true);
-        DocumentBuilder builder = fact.newDocumentBuilder();
+        DocumentBuilder builder = documentBuilderFactory.get().newDocumentBuilder();
         doc = builder.parse(new InputSource(new StringReader(ovfstring)));
 
-        // initialize all the child nodes
-        NodeList list = doc.getElementsByTagName("*");
-        childNodes = new XmlNode[list.getLength()];
-        for (int i = 0; i < list.getLength(); i++) {
-            childNodes[i] = new XmlNode(list.item(i));
-        }
-
         outerXml = ovfstring;
     }
 
     public XmlNode selectSingleNode(String string) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        return selectSingleNode(string, null);
     }
 
     public XmlNode selectSingleNode(String string, XmlNamespaceManager _xmlns) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            xPath.setNamespaceContext(_xmlns);
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        Object o = XPathEvaluator.evaluate(string, doc, XPathConstants.NODE, _xmlns);
+        return o != null ? new XmlNode((Node) o) : null;
     }
 
     public XmlNodeList selectNodes(String string) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODESET);
-            return new XmlNodeList((NodeList) o);
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        return selectNodes(string, null);
     }
 
     public XmlNodeList selectNodes(String string, XmlNamespaceManager _xmlns) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            xPath.setNamespaceContext(_xmlns);
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODESET);
-            return new XmlNodeList((NodeList) o);
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        Object o = XPathEvaluator.evaluate(string, doc, XPathConstants.NODESET, _xmlns);
+        return new XmlNodeList((NodeList) o);
     }
 
     public String getOuterXml() {
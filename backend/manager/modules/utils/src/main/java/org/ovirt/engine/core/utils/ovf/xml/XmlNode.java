@@ -1,9 +1,8 @@
 package org.ovirt.engine.core.utils.ovf.xml;
 
-import javax.xml.xpath.XPath;
+import java.util.List;
+
 import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -22,37 +21,25 @@ public class XmlNode {
     }
 
     public XmlNode selectSingleNode(String string, XmlNamespaceManager _xmlns) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            xPath.setNamespaceContext(_xmlns);
-            Object o = xPath.evaluate(string, node, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
+        List<Node> children = XPathEvaluator.selectChildElements(node, string, _xmlns, true);
+        if (children != null) {
+            return children.isEmpty() ? null : new XmlNode(children.get(0));
         }
+        Object o = XPathEvaluator.evaluate(string, node, XPathConstants.NODE, _xmlns);
+        return o != null ? new XmlNode((Node) o) : null;
     }
 
     public XmlNode selectSingleNode(String string) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, node, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+        return selectSingleNode(string, null);
     }
 
     public XmlNodeList selectNodes(String string) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, node, XPathConstants.NODESET);
-            return new XmlNodeList((NodeList) o);
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
+        List<Node> children = XPathEvaluator.selectChildElements(node, string, null, false);
+        if (children != null) {
+            return new XmlNodeList(children);
         }
+        Object o = XPathEvaluator.evaluate(string, node, XPathConstants.NODESET, null);
+        return new XmlNodeList((NodeList) o);
     }
 
     public NodeList getChildNodes() {
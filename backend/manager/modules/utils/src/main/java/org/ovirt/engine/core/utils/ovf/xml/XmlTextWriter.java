@@ -10,13 +10,14 @@ import javax.xml.stream.XMLStreamWriter;
 
 public class XmlTextWriter {
 
+    private static final XMLOutputFactory factory = XMLOutputFactory.newInstance();
+
     private XMLStreamWriter writer;
     private StringWriter stream;
 
     public XmlTextWriter() {
         stream = new StringWriter();
         try {
-            XMLOutputFactory factory = XMLOutputFactory.newInstance();
             writer = factory.createXMLStreamWriter(stream);
             writer.writeStartDocument("UTF-8", "1.0");
         } catch (Exception e) {
@@ -0,0 +1,58 @@
+package org.ovirt.engine.core.utils.ovf.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class XmlNodeTest {
+
+    private static final String RASD_URI =
+            "http://schemas.dmtf.org/wbem/wscim/1/cim-schema/2/CIM_ResourceAllocationSettingData";
+
+    private XmlNamespaceManager xmlns;
+    private XmlNode content;
+
+    @Before
+    public void setUp() throws Exception {
+        XmlDocument document = new XmlDocument(
+                "<ovf:Envelope xmlns:ovf=\"http://schemas.dmtf.org/ovf/envelope/1/\" xmlns:rasd=\"" + RASD_URI + "\">"
+                        + "<Content><Name>vm</Name>"
+                        + "<Section><Item><rasd:Caption>disk</rasd:Caption><Caption>other</Caption></Item>"
+                        + "<Item><rasd:Caption>nic</rasd:Caption></Item></Section>"
+                        + "</Content></ovf:Envelope>");
+        xmlns = new XmlNamespaceManager();
+        xmlns.addNamespace("ovf", "http://schemas.dmtf.org/ovf/envelope/1/");
+        xmlns.addNamespace("rasd", RASD_URI);
+        content = document.selectSingleNode("//*/Content");
+    }
+
+    @Test
+    public void testSelectChildElement() {
+        assertEquals("vm", content.selectSingleNode("Name").innerText);
+        assertNull(content.selectSingleNode("Caption"));
+    }
+
+    @Test
+    public void testSelectChildElementByNamespace() {
+        XmlNode item = content.selectSingleNode("Section/Item");
+        assertEquals("disk", item.selectSingleNode("rasd:Caption", xmlns).innerText);
+        assertEquals("other", item.selectSingleNode("Caption", xmlns).innerText);
+        assertNull(item.selectSingleNode("ovf:Caption", xmlns));
+    }
+
+    @Test
+    public void testSelectChildElements() {
+        List<String> captions = new ArrayList<>();
+        for (XmlNode item : content.selectSingleNode("Section").selectNodes("Item")) {
+            captions.add(item.selectSingleNode("rasd:Caption", xmlns).innerText);
+        }
+        assertEquals(2, captions.size());
+        assertEquals("disk", captions.get(0));
+        assertEquals("nic", captions.get(1));
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.spi.BeanManager;
@@ -46,10 +47,10 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
-import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.ReflectionUtils;
 import org.ovirt.engine.core.utils.collections.MultiValueMapUtils;
+import org.ovirt.engine.core.vdsbroker.jsonrpc.ResponseCompletionTracker;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.FutureVDSCommand;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsCommandExecutor;
 import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
@@ -86,9 +87,6 @@ public class ResourceManager implements BackendService {
     @Inject
     private VmDynamicDao vmDynamicDao;
 
-    @Inject
-    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
-
     @Inject
     Instance<VdsCommandExecutor> commandExecutor;
 
@@ -113,6 +111,11 @@ public class ResourceManager implements BackendService {
         log.info("Finished initializing {}", getClass().getSimpleName());
     }
 
+    @PreDestroy
+    private void shutdown() {
+        ResponseCompletionTracker.shutdown();
+    }
+
     private void populateVdsAndVmsList() {
         final List<VmDynamic> vms = vmDynamicDao.getAll();
         for (VmDynamic vm : vms) {
@@ -253,7 +256,7 @@ public class ResourceManager implements BackendService {
         if (interfaces != null) {
             for (VmNetworkInterface ifc : interfaces) {
                 VmNetworkStatistics stats = ifc.getStatistics();
-                vmNetworkStatisticsDao.update(stats);
+                getVmManager(vm.getId()).update(stats);
             }
         }
     }
@@ -7,7 +7,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -33,6 +35,7 @@ import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
 import org.ovirt.engine.core.common.businessentities.VdsSpmStatus;
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.locks.LockingGroup;
@@ -70,12 +73,15 @@ import org.ovirt.engine.core.vdsbroker.irsbroker.IRSErrorException;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsProxy;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsProxyManager;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoring;
+import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStatisticsSink;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategy;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategyFactory;
 import org.ovirt.engine.core.vdsbroker.monitoring.RefresherFactory;
 import org.ovirt.engine.core.vdsbroker.monitoring.VmStatsRefresher;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.HostNetworkTopologyPersister;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.IVdsServer;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.StatisticsParser;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSInfoReturn;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSNetworkException;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSRecoveringException;
 import org.slf4j.Logger;
@@ -120,6 +126,9 @@ public class VdsManager {
     @Inject
     private VdsStatisticsDao vdsStatisticsDao;
 
+    @Inject
+    private MonitoringStatisticsSink statisticsSink;
+
     @Inject
     private VdsNumaNodeDao vdsNumaNodeDao;
 
@@ -151,6 +160,12 @@ public class VdsManager {
     private List<VmDynamic> lastVmsList = Collections.emptyList();
     private Map<Guid, V2VJobInfo> vmIdToV2VJob = new ConcurrentHashMap<>();
     private VmStatsRefresher vmsRefresher;
+    /**
+     * Set while a monitoring cycle waits for the statistics of the host or runs, cycles which are triggered
+     * meanwhile are skipped.
+     */
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private final StatisticsParser statisticsParser = new StatisticsParser();
     protected int refreshIteration;
     private int autoRestartUnknownVmsIteration;
 
@@ -252,6 +267,74 @@ public class VdsManager {
 
     @OnTimerMethodAnnotation("onTimer")
     public void onTimer() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        CompletableFuture<VDSInfoReturn> statsResponse;
+        try {
+            statsResponse = requestStatisticsIfNeeded();
+        } catch (RuntimeException e) {
+            // the next cycle must not be skipped because this one failed to start
+            refreshInProgress.set(false);
+            throw e;
+        }
+
+        if (statsResponse == null) {
+            try {
+                refresh(null);
+            } finally {
+                refreshInProgress.set(false);
+            }
+            return;
+        }
+
+        // the cycle continues when the host responds, without holding a thread meanwhile
+        statsResponse.whenCompleteAsync((response, t) -> {
+            try {
+                refresh(statsResponse);
+            } finally {
+                refreshInProgress.set(false);
+            }
+        }, this::executeRefresh);
+    }
+
+    private void executeRefresh(Runnable refresh) {
+        try {
+            ThreadPoolUtil.execute(refresh);
+        } catch (RejectedExecutionException e) {
+            // the refresh never runs, so it can't end the cycle
+            refreshInProgress.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the statistics request of the next monitoring cycle ahead, when that cycle is going to refresh the
+     * statistics of the host.
+     *
+     * @return the future response, or {@code null} if the next cycle doesn't refresh the statistics
+     */
+    private CompletableFuture<VDSInfoReturn> requestStatisticsIfNeeded() {
+        VDS vds = cachedVds;
+        if (vdsProxy == null || vds == null || !isMonitoringNeeded()) {
+            return null;
+        }
+
+        int nextIteration = refreshIteration == NUMBER_HOST_REFRESHES_BEFORE_SAVE ? 1 : refreshIteration + 1;
+        switch (vds.getStatus()) {
+        case PreparingForMaintenance:
+            return vdsProxy.getVdsStatsAsync();
+        case Up:
+        case Error:
+        case NonOperational:
+            return nextIteration == NUMBER_HOST_REFRESHES_BEFORE_SAVE ? vdsProxy.getVdsStatsAsync() : null;
+        default:
+            return null;
+        }
+    }
+
+    private void refresh(CompletableFuture<VDSInfoReturn> statsResponse) {
         if (lockManager.acquireLock(monitoringLock).getFirst()) {
             try {
                 setIsSetNonOperationalExecuted(false);
@@ -276,6 +359,7 @@ public class VdsManager {
                                             resourceManager,
                                             dbFacade,
                                             auditLogDirector);
+                            hostMonitoring.setStatsResponse(statsResponse);
                             hostMonitoring.refresh();
                             unrespondedAttempts.set(0);
                             setLastUpdate();
@@ -466,10 +550,19 @@ public class VdsManager {
      * Save statistics data to cache and DB.
      */
     public void updateStatisticsData(VdsStatistics statisticsData) {
+        statisticsSink.discardHostStatistics(statisticsData.getId());
         vdsStatisticsDao.update(statisticsData);
         cachedVds.setStatisticsData(statisticsData);
     }
 
+    /**
+     * Saves the statistics collected by the host monitoring, possibly deferred, see {@link MonitoringStatisticsSink}.
+     */
+    public void saveMonitoredStatistics(VdsStatistics statisticsData, List<VdsNetworkStatistics> interfaceStatistics) {
+        statisticsSink.saveHostStatistics(statisticsData, interfaceStatistics);
+        cachedVds.setStatisticsData(statisticsData);
+    }
+
     /**
      * Publish the current pending resource summary. This method also refreshes the committed
      * memory for the host to make the operation atomic.
@@ -1060,6 +1153,10 @@ public class VdsManager {
         initialized = value;
     }
 
+    public StatisticsParser getStatisticsParser() {
+        return statisticsParser;
+    }
+
     public IVdsServer getVdsProxy() {
         return vdsProxy;
     }
@@ -17,6 +17,7 @@ import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
 import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStatisticsSink;
 import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
 
 public class VmManager {
@@ -45,6 +46,10 @@ public class VmManager {
     private Double lastStatusEventTimestamp;
     private Guid lastStatusEventReporterId;
     private VmStatistics statistics;
+    /** The VM data that was analyzed in the last monitoring cycle and its hash code, used by the delta mode */
+    private Object lastAnalyzedData;
+    private int lastAnalyzedDataHash;
+    private int skippedMonitoringCycles;
 
     private boolean coldReboot;
 
@@ -58,6 +63,8 @@ public class VmManager {
     private VmStaticDao vmStaticDao;
     @Inject
     private ClusterDao clusterDao;
+    @Inject
+    private MonitoringStatisticsSink statisticsSink;
 
     VmManager(Guid vmId) {
         this.vmId = vmId;
@@ -104,11 +111,13 @@ public class VmManager {
     }
 
     public void update(VmStatistics statistics) {
+        statisticsSink.discardVmStatistics(statistics.getId());
         vmStatisticsDao.update(statistics);
         setStatistics(statistics);
     }
 
     public void update(VmNetworkStatistics networkStatistics) {
+        statisticsSink.discardVmInterfaceStatistics(networkStatistics.getId());
         vmNetworkStatisticsDao.update(networkStatistics);
     }
 
@@ -172,6 +181,40 @@ public class VmManager {
         return false;
     }
 
+    /**
+     * Check whether the VM data is identical to the data that was analyzed in the previous monitoring cycle and
+     * record the given data as the latest analyzed one otherwise. The hash codes of the data are compared first and
+     * the data itself only when they match. A VM is not considered as unchanged for more than the given number of
+     * subsequent monitoring cycles, so it is fully analyzed from time to time anyway.
+     *
+     * in general this should be called while holding the manager lock
+     *
+     * @param analyzedData - the VM data in the DB and as reported by VDSM, which is not modified afterwards
+     * @param maxSkippedCycles - the maximal number of subsequent cycles the VM can be considered as unchanged
+     * @return true if the data was not changed since the last analysis, false otherwise
+     */
+    public boolean isUnchangedSinceLastAnalysis(Object analyzedData, int maxSkippedCycles) {
+        int analyzedDataHash = analyzedData.hashCode();
+        if (lastAnalyzedData != null
+                && lastAnalyzedDataHash == analyzedDataHash
+                && skippedMonitoringCycles < maxSkippedCycles
+                && lastAnalyzedData.equals(analyzedData)) {
+            skippedMonitoringCycles++;
+            return true;
+        }
+        lastAnalyzedData = analyzedData;
+        lastAnalyzedDataHash = analyzedDataHash;
+        skippedMonitoringCycles = 0;
+        return false;
+    }
+
+    /**
+     * Forget the last analyzed data so the VM is fully analyzed in the next monitoring cycle
+     */
+    public void clearLastAnalyzedData() {
+        lastAnalyzedData = null;
+    }
+
     void clearLastStatusEventStampIfFromVds(Guid vdsId) {
         if (vdsId.equals(lastStatusEventReporterId)) {
             lastStatusEventReporterId = null;
@@ -120,6 +120,12 @@ public class LibvirtVmXmlBuilder {
     private boolean hypervEnabled;
     private XmlTextWriter writer;
     private Map<Guid, StorageQos> qosCache;
+    private Map<Guid, StorageType> storageTypesCache;
+    private Map<Guid, VnicProfile> vnicProfilesCache;
+    private Map<Guid, Network> networksCache;
+    private Map<Guid, NetworkFilter> networkFiltersCache;
+    private MemoizingSupplier<Network> displayNetworkSupplier;
+    private Map<String, String> vmCustomProperties;
     private String cdInterface;
     private int payloadIndex;
     private int cdRomIndex;
@@ -150,6 +156,14 @@ public class LibvirtVmXmlBuilder {
                 ChipsetType.fromMachineType(vm.getEmulatedMachine()));
         writer = new XmlTextWriter();
         qosCache = new HashMap<>();
+        storageTypesCache = new HashMap<>();
+        vnicProfilesCache = new HashMap<>();
+        networksCache = new HashMap<>();
+        networkFiltersCache = new HashMap<>();
+        displayNetworkSupplier = new MemoizingSupplier<>(() -> vmInfoBuildUtils.getDisplayNetwork(vm));
+        vmCustomProperties = VmPropertiesUtils.getInstance().getVMProperties(
+                vm.getCompatibilityVersion(),
+                vm.getStaticData());
     }
 
     public String build() {
@@ -559,9 +573,6 @@ public class LibvirtVmXmlBuilder {
 
     private void writeVmCustomMetadata() {
         writer.writeStartElement(OVIRT_VM_URI, "custom");
-        Map<String, String> vmCustomProperties = VmPropertiesUtils.getInstance().getVMProperties(
-                vm.getCompatibilityVersion(),
-                vm.getStaticData());
         vmCustomProperties.entrySet().forEach(
                 property -> writer.writeElement(OVIRT_VM_URI, property.getKey(), property.getValue()));
         writer.writeEndElement();
@@ -815,9 +826,27 @@ public class LibvirtVmXmlBuilder {
     private void writeInterfaces(List<VmDevice> devices) {
         Map<VmDeviceId, VmNetworkInterface> devIdToNic = vm.getInterfaces().stream()
                 .collect(Collectors.toMap(nic -> new VmDeviceId(nic.getId(), nic.getVmId()), nic -> nic));
+        loadVnicProfiles(devIdToNic.values());
         devices.forEach(dev -> writeInterface(dev, devIdToNic.get(dev.getId())));
     }
 
+    /**
+     * Loads the vNIC profiles of the given NICs and their networks once per profile and network, rather than once
+     * for each NIC and for each part of the NIC that needs them.
+     */
+    private void loadVnicProfiles(Collection<VmNetworkInterface> nics) {
+        nics.stream()
+                .map(VmNetworkInterface::getVnicProfileId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(vnicProfileDao::get)
+                .filter(Objects::nonNull)
+                .forEach(vnicProfile -> {
+                    vnicProfilesCache.put(vnicProfile.getId(), vnicProfile);
+                    networksCache.computeIfAbsent(vnicProfile.getNetworkId(), networkDao::get);
+                });
+    }
+
     private void writeDisks(List<VmDevice> devices) {
         Map<VmDeviceId, VmDevice> deviceIdToDevice = devices.stream()
                 .collect(Collectors.toMap(VmDevice::getId, dev -> dev));
@@ -1186,7 +1215,7 @@ public class LibvirtVmXmlBuilder {
         writer.writeAttributeString("passwd", "*****");
         writer.writeAttributeString("passwdValidTo", "1970-01-01T00:00:01");
 
-        Network displayNetwork = vmInfoBuildUtils.getDisplayNetwork(vm);
+        Network displayNetwork = displayNetworkSupplier.get();
         if (displayNetwork == null) {
             writer.writeAttributeString("listen", "0");
         }
@@ -1298,7 +1327,9 @@ public class LibvirtVmXmlBuilder {
         writer.writeStartElement("disk");
 
         StorageType storageDomainType = disk.getDiskStorageType() == DiskStorageType.IMAGE ?
-                storageDomainStaticDao.get(((DiskImage) disk).getStorageIds().get(0)).getStorageType() : null;
+                storageTypesCache.computeIfAbsent(((DiskImage) disk).getStorageIds().get(0),
+                        storageDomainId -> storageDomainStaticDao.get(storageDomainId).getStorageType())
+                : null;
 
         writeGeneralDiskAttributes(device, disk, dve, storageDomainType);
         writeDiskTarget(dve, index);
@@ -1666,11 +1697,8 @@ public class LibvirtVmXmlBuilder {
         //  </interface>
         writer.writeStartElement("interface");
 
-        Map<String, String> properties = VmPropertiesUtils.getInstance().getVMProperties(
-                vm.getCompatibilityVersion(),
-                vm.getStaticData());
-        VnicProfile vnicProfile = vnicProfileDao.get(nic.getVnicProfileId());
-        Network network = networkDao.get(vnicProfile.getNetworkId());
+        VnicProfile vnicProfile = vnicProfilesCache.get(nic.getVnicProfileId());
+        Network network = networksCache.get(vnicProfile.getNetworkId());
 
         switch (device.getDevice()) {
         case "bridge":
@@ -1690,7 +1718,7 @@ public class LibvirtVmXmlBuilder {
             writer.writeEndElement();
 
             String queues = vnicProfile.getCustomProperties().get("queues");
-            String driverName = getDriverNameForNetwork(nic.getNetworkName(), properties);
+            String driverName = getDriverNameForNetwork(nic.getNetworkName(), vmCustomProperties);
             if (queues != null || driverName != null) {
                 writer.writeStartElement("driver");
                 if (queues != null) {
@@ -1732,7 +1760,10 @@ public class LibvirtVmXmlBuilder {
         writer.writeAttributeString("address", nic.getMacAddress());
         writer.writeEndElement();
 
-        NetworkFilter networkFilter = vmInfoBuildUtils.fetchVnicProfileNetworkFilter(nic);
+        if (!networkFiltersCache.containsKey(vnicProfile.getId())) {
+            networkFiltersCache.put(vnicProfile.getId(), vmInfoBuildUtils.fetchVnicProfileNetworkFilter(vnicProfile));
+        }
+        NetworkFilter networkFilter = networkFiltersCache.get(vnicProfile.getId());
         if (networkFilter != null) {
             writer.writeStartElement("filterref");
             writer.writeAttributeString("filter", networkFilter.getName());
@@ -1744,16 +1775,16 @@ public class LibvirtVmXmlBuilder {
             });
             writer.writeEndElement();
         }
-        if (properties.containsKey("sndbuf")) {
+        if (vmCustomProperties.containsKey("sndbuf")) {
             writer.writeStartElement("tune");
             writer.writeStartElement("sndbuf");
-            writer.writeRaw(properties.get("sndbuf"));
+            writer.writeRaw(vmCustomProperties.get("sndbuf"));
             writer.writeEndElement();
             writer.writeEndElement();
         }
 
         Map<String, Object> profileData = new HashMap<>();
-        vmInfoBuildUtils.addProfileDataToNic(profileData, vm, device, nic);
+        vmInfoBuildUtils.addProfileDataToNic(profileData, vm, device, nic, vnicProfile, network);
 
         writer.writeStartElement("bandwidth");
         @SuppressWarnings("unchecked")
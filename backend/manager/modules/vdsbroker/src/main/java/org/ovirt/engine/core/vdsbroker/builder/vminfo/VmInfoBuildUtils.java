@@ -248,24 +248,40 @@ public class VmInfoBuildUtils {
             VmNic nic) {
         VnicProfile vnicProfile = null;
         Network network = null;
-        String networkName = "";
-        String vdsmName = "";
-        List<VnicProfileProperties> unsupportedFeatures = new ArrayList<>();
         if (nic.getVnicProfileId() != null) {
             vnicProfile = vnicProfileDao.get(nic.getVnicProfileId());
             if (vnicProfile != null) {
                 network = networkDao.get(vnicProfile.getNetworkId());
-                networkName = network.getName();
-                vdsmName = network.getVdsmName();
-                log.debug("VNIC '{}' is using profile '{}' on network '{}' with vdsmName '{}'",
-                        nic.getName(),
-                        vnicProfile,
-                        networkName,
-                        vdsmName);
-                addQosForDevice(struct, vnicProfile);
             }
         }
 
+        addProfileDataToNic(struct, vm, vmDevice, nic, vnicProfile, network);
+    }
+
+    /**
+     * Same as {@link #addProfileDataToNic(Map, VM, VmDevice, VmNic)}, for callers that already loaded the vNIC
+     * profile of the NIC and its network.
+     */
+    public void addProfileDataToNic(Map<String, Object> struct,
+            VM vm,
+            VmDevice vmDevice,
+            VmNic nic,
+            VnicProfile vnicProfile,
+            Network network) {
+        String networkName = "";
+        String vdsmName = "";
+        List<VnicProfileProperties> unsupportedFeatures = new ArrayList<>();
+        if (vnicProfile != null) {
+            networkName = network.getName();
+            vdsmName = network.getVdsmName();
+            log.debug("VNIC '{}' is using profile '{}' on network '{}' with vdsmName '{}'",
+                    nic.getName(),
+                    vnicProfile,
+                    networkName,
+                    vdsmName);
+            addQosForDevice(struct, vnicProfile);
+        }
+
         struct.put(VdsProperties.NETWORK, vdsmName);
 
         addPortMirroringToVmInterface(struct, vnicProfile, network);
@@ -361,11 +377,15 @@ public class VmInfoBuildUtils {
 
     protected NetworkFilter fetchVnicProfileNetworkFilter(VmNic vmNic) {
         if (vmNic.getVnicProfileId() != null) {
-            VnicProfile vnicProfile = vnicProfileDao.get(vmNic.getVnicProfileId());
-            if (vnicProfile != null) {
-                final Guid networkFilterId = vnicProfile.getNetworkFilterId();
-                return networkFilterId == null ? null : networkFilterDao.getNetworkFilterById(networkFilterId);
-            }
+            return fetchVnicProfileNetworkFilter(vnicProfileDao.get(vmNic.getVnicProfileId()));
+        }
+        return null;
+    }
+
+    protected NetworkFilter fetchVnicProfileNetworkFilter(VnicProfile vnicProfile) {
+        if (vnicProfile != null) {
+            final Guid networkFilterId = vnicProfile.getNetworkFilterId();
+            return networkFilterId == null ? null : networkFilterDao.getNetworkFilterById(networkFilterId);
         }
         return null;
     }
@@ -638,15 +658,7 @@ public class VmInfoBuildUtils {
                 break;
             }
         }
-        if (networkCluster != null) {
-            List<Network> allNetworks = networkDao.getAll();
-            for (Network tempNetwork : allNetworks) {
-                if (tempNetwork.getId().equals(networkCluster.getNetworkId())) {
-                    return tempNetwork;
-                }
-            }
-        }
-        return null;
+        return networkCluster != null ? networkDao.get(networkCluster.getNetworkId()) : null;
     }
 
     private String getTimeZoneForVm(VM vm) {
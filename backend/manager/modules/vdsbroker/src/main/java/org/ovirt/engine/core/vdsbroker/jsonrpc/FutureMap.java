@@ -74,6 +74,17 @@ public class FutureMap implements Map<String, Object> {
         }
     }
 
+    /**
+     * Wraps the <code>Future</code> of a request which was already sent, like one of a batch.
+     *
+     * @param client - Client object used to send the request.
+     * @param response - <code>Future</code> for the response of the request.
+     */
+    FutureMap(JsonRpcClient client, Future<JsonRpcResponse> response) {
+        this.response = response;
+        this.client = client;
+    }
+
     /**
      * During creation request is sent and <code>Future</code> for a response is held.
      *
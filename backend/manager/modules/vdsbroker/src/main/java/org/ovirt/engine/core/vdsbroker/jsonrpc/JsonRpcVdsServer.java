@@ -3,18 +3,23 @@ package org.ovirt.engine.core.vdsbroker.jsonrpc;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.apache.commons.httpclient.HttpClient;
+import org.codehaus.jackson.JsonNode;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.vdsbroker.HttpUtils;
+import org.ovirt.engine.core.vdsbroker.TransportRunTimeException;
 import org.ovirt.engine.core.vdsbroker.gluster.GlusterHookContentInfoReturn;
 import org.ovirt.engine.core.vdsbroker.gluster.GlusterHooksListReturn;
 import org.ovirt.engine.core.vdsbroker.gluster.GlusterHostsPubKeyReturn;
@@ -77,6 +82,7 @@ import org.ovirt.engine.core.vdsbroker.vdsbroker.VolumeInfoReturn;
 import org.ovirt.vdsm.jsonrpc.client.ClientConnectionException;
 import org.ovirt.vdsm.jsonrpc.client.JsonRpcClient;
 import org.ovirt.vdsm.jsonrpc.client.JsonRpcRequest;
+import org.ovirt.vdsm.jsonrpc.client.JsonRpcResponse;
 import org.ovirt.vdsm.jsonrpc.client.RequestBuilder;
 import org.ovirt.vdsm.jsonrpc.client.internal.ClientPolicy;
 import org.slf4j.Logger;
@@ -123,6 +129,33 @@ public class JsonRpcVdsServer implements IVdsServer {
         return this.httpClient;
     }
 
+    @Override
+    public <T> CompletableFuture<T> async(Function<IVdsServer, T> verb) {
+        return CompletableFuture.supplyAsync(() -> verb.apply(this), ThreadPoolUtil::execute);
+    }
+
+    /**
+     * Sends the request and returns a future of its response which doesn't hold any thread while waiting, see
+     * {@link ResponseCompletionTracker}. The response is converted on the engine thread pool.
+     */
+    private <T> CompletableFuture<T> callAsync(JsonRpcRequest request,
+            Function<Future<JsonRpcResponse>, T> responseConverter) {
+        Future<JsonRpcResponse> response;
+        try {
+            response = client.call(request);
+        } catch (ClientConnectionException e) {
+            return failed(new TransportRunTimeException("Connection issues during send request", e));
+        }
+        return ResponseCompletionTracker.track(response)
+                .thenApplyAsync(done -> responseConverter.apply(response), ThreadPoolUtil::execute);
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable t) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
+    }
+
     @SuppressWarnings("rawtypes")
     private String getVmId(Map map) {
         return (String) map.get(VdsProperties.vm_guid);
@@ -332,6 +365,13 @@ public class JsonRpcVdsServer implements IVdsServer {
         return new VDSInfoReturn(response);
     }
 
+    @Override
+    public CompletableFuture<VDSInfoReturn> getVdsStatsAsync() {
+        JsonRpcRequest request = new RequestBuilder("Host.getStats").build();
+        return callAsync(request,
+                response -> new VDSInfoReturn(new FutureMap(this.client, response).withResponseKey("info")));
+    }
+
     @Override
     public StatusOnlyReturn setMOMPolicyParameters(Map<String, Object> values) {
         JsonRpcRequest request =
@@ -379,6 +419,41 @@ public class JsonRpcVdsServer implements IVdsServer {
         return new VMInfoListReturn(response);
     }
 
+    @Override
+    public CompletableFuture<VMInfoListReturn> getAllVmStatsAsync() {
+        JsonRpcRequest request = new RequestBuilder("Host.getAllVmStats").build();
+        return callAsync(request,
+                response -> new VMInfoListReturn(new FutureMap(this.client, response).withResponseKey("statsList")
+                        .withResponseType(Object[].class)));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, VMInfoListReturn>> getVmStatsAsync(Collection<String> vmIds) {
+        Map<JsonNode, String> vmIdsByRequestId = new HashMap<>();
+        List<JsonRpcRequest> requests = new ArrayList<>(vmIds.size());
+        for (String vmId : vmIds) {
+            JsonRpcRequest request = new RequestBuilder("VM.getStats").withParameter("vmID", vmId).build();
+            vmIdsByRequestId.put(request.getId(), vmId);
+            requests.add(request);
+        }
+
+        Future<List<JsonRpcResponse>> responses;
+        try {
+            responses = client.batchCall(requests);
+        } catch (ClientConnectionException e) {
+            return failed(new TransportRunTimeException("Connection issues during send request", e));
+        }
+        return ResponseCompletionTracker.track(responses).thenApplyAsync(done -> {
+            Map<String, VMInfoListReturn> stats = new HashMap<>();
+            for (JsonRpcResponse response : done) {
+                Map<String, Object> map = new FutureMap(this.client, CompletableFuture.completedFuture(response))
+                        .withResponseKey("statsList");
+                stats.put(vmIdsByRequestId.get(response.getId()), new VMInfoListReturn(map));
+            }
+            return stats;
+        }, ThreadPoolUtil::execute);
+    }
+
     @Override
     public HostDevListReturn hostDevListByCaps() {
         JsonRpcRequest request = new RequestBuilder("Host.hostdevListByCaps").build();
@@ -0,0 +1,148 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Turns the <code>Future</code>s returned by the json-rpc client into <code>CompletableFuture</code>s.
+ *
+ * The client only provides blocking futures, so while there are pending futures a single daemon thread checks them
+ * every {@link #POLL_INTERVAL_MILLIS} milliseconds and completes the tracked ones which are done. The polling stops
+ * once no future is pending and the idle thread ends, the thread is stopped for good by {@link #shutdown()} when the
+ * engine goes down. The client completes its futures with an error response when the request times out, so every
+ * tracked future is eventually completed. The tracker thread only completes the futures, the dependent stages should
+ * run on another executor.
+ */
+public final class ResponseCompletionTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCompletionTracker.class);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private static final Map<Future<?>, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+    private static final ScheduledThreadPoolExecutor poller = createPoller();
+
+    // guarded by the class
+    private static ScheduledFuture<?> pollJob;
+    private static boolean shutdown;
+
+    private ResponseCompletionTracker() {
+    }
+
+    private static ScheduledThreadPoolExecutor createPoller() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "json-rpc-response-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setKeepAliveTime(IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * @return a future which is completed with the result of the given future when it is done
+     */
+    public static <T> CompletableFuture<T> track(Future<T> future) {
+        CompletableFuture<T> completable = new CompletableFuture<>();
+        if (future.isDone()) {
+            complete(future, completable);
+        } else {
+            pending.put(future, completable);
+            startPolling();
+        }
+        return completable;
+    }
+
+    /**
+     * Stops the tracker thread, the futures which are still pending are cancelled.
+     */
+    public static synchronized void shutdown() {
+        shutdown = true;
+        poller.shutdownNow();
+        pollJob = null;
+        pending.values().forEach(completable -> completable.cancel(false));
+        pending.clear();
+    }
+
+    /**
+     * Waits for the given future like {@link CompletableFuture#join()} does, but throws the runtime exception it was
+     * completed with as is, so the callers can handle it like the exceptions of the synchronous calls.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static synchronized void startPolling() {
+        if (shutdown) {
+            pending.values().forEach(completable -> completable.cancel(false));
+            pending.clear();
+        } else if (pollJob == null) {
+            pollJob = poller.scheduleWithFixedDelay(ResponseCompletionTracker::poll,
+                    POLL_INTERVAL_MILLIS,
+                    POLL_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static synchronized void stopPollingIfIdle() {
+        // a future tracked meanwhile starts the polling again
+        if (pending.isEmpty() && pollJob != null) {
+            pollJob.cancel(false);
+            pollJob = null;
+        }
+    }
+
+    private static void poll() {
+        try {
+            Iterator<Map.Entry<Future<?>, CompletableFuture<?>>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Future<?>, CompletableFuture<?>> entry = iterator.next();
+                if (entry.getKey().isDone()) {
+                    iterator.remove();
+                    complete(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            // an exception would cancel the further executions of the poller
+            log.error("Failed to complete json-rpc responses: {}", e.getMessage());
+            log.debug("Exception", e);
+        }
+        stopPollingIfIdle();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void complete(Future<T> future, CompletableFuture<?> completable) {
+        CompletableFuture<T> target = (CompletableFuture<T>) completable;
+        try {
+            target.complete(future.get());
+        } catch (ExecutionException e) {
+            target.completeExceptionally(e.getCause());
+        } catch (CancellationException e) {
+            target.cancel(false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            target.completeExceptionally(e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang.StringUtils;
@@ -34,15 +35,15 @@ import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.compat.TransactionScopeOption;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.utils.NetworkUtils;
-import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.GetStatsVDSCommand;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSInfoReturn;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VDSRecoveringException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +63,7 @@ public class HostMonitoring {
     private final ResourceManager resourceManager;
     private final DbFacade dbFacade;
     private final AuditLogDirector auditLogDirector;
+    private CompletableFuture<VDSInfoReturn> statsResponse;
     private static final Logger log = LoggerFactory.getLogger(HostMonitoring.class);
 
     public HostMonitoring(VdsManager vdsManager,
@@ -79,6 +81,14 @@ public class HostMonitoring {
         this.auditLogDirector = auditLogDirector;
     }
 
+    /**
+     * Sets the response of a statistics request which was sent before this monitoring cycle, it is used instead of
+     * requesting the statistics again if the statistics are refreshed in this cycle.
+     */
+    public void setStatsResponse(CompletableFuture<VDSInfoReturn> statsResponse) {
+        this.statsResponse = statsResponse;
+    }
+
     public void refresh() {
         try {
             refreshVdsRunTimeInfo();
@@ -160,23 +170,15 @@ public class HostMonitoring {
 
         if (saveVdsStatistics) {
             VdsStatistics stat = vds.getStatisticsData();
-            vdsManager.updateStatisticsData(stat);
-            checkVdsMemoryThreshold(stat);
-            checkVdsCpuThreshold(stat);
-            checkVdsNetworkThreshold(stat);
-            checkVdsSwapThreshold(stat);
-
             final List<VdsNetworkStatistics> statistics = new LinkedList<>();
             for (VdsNetworkInterface iface : vds.getInterfaces()) {
                 statistics.add(iface.getStatistics());
             }
-            if (!statistics.isEmpty()) {
-                TransactionSupport.executeInScope(TransactionScopeOption.Required,
-                        () -> {
-                            getDbFacade().getInterfaceDao().massUpdateStatisticsForVds(statistics);
-                            return null;
-                        });
-            }
+            vdsManager.saveMonitoredStatistics(stat, statistics);
+            checkVdsMemoryThreshold(stat);
+            checkVdsCpuThreshold(stat);
+            checkVdsNetworkThreshold(stat);
+            checkVdsSwapThreshold(stat);
             saveNumaStatisticsDataToDb();
         }
     }
@@ -382,7 +384,9 @@ public class HostMonitoring {
         // get statistics data, images checks and vm_count data (dynamic)
         fetchHostInterfaces();
         VDSReturnValue statsReturnValue = resourceManager.runVdsCommand(VDSCommandType.GetStats,
-                new VdsIdAndVdsVDSCommandParametersBase(vds));
+                statsResponse == null
+                        ? new VdsIdAndVdsVDSCommandParametersBase(vds)
+                        : new GetStatsVDSCommand.Params(vds, statsResponse));
         if (!statsReturnValue.getSucceeded()
                 && statsReturnValue.getExceptionObject() != null) {
             log.error("Failed getting vds stats, host='{}'({}): {}",
@@ -0,0 +1,245 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.BackendService;
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.compat.TransactionScopeOption;
+import org.ovirt.engine.core.dao.DiskImageDynamicDao;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
+import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the statistics collected by the host and VM monitoring.
+ * <p>
+ * By default every save goes straight to the database, like the monitoring always did. When
+ * {@link ConfigValues#MonitoringStatisticsWriteBehind} is set, the statistics are kept in memory instead, only the
+ * latest sample per host, VM, network interface and disk is kept, and all of them are written every
+ * {@link ConfigValues#MonitoringStatisticsFlushIntervalInSeconds} seconds through the batch update DAO methods.
+ * <p>
+ * Only statistics go through this class. The dynamic data, the statuses in particular, are read by the commands and
+ * are still written synchronously by the monitoring. Other code which writes or removes statistics directly has to
+ * {@code discard} the queued sample of the entity first, so the stale sample doesn't overwrite its update later.
+ * <p>
+ * The samples of a batch which fails to be written are queued again, unless a newer sample of the same entity was
+ * queued meanwhile, so they are retried by the next flush.
+ */
+@Singleton
+public class MonitoringStatisticsSink implements BackendService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitoringStatisticsSink.class);
+
+    @Inject
+    private SchedulerUtilQuartzImpl schedulerUtil;
+    @Inject
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Inject
+    private InterfaceDao interfaceDao;
+    @Inject
+    private VmStatisticsDao vmStatisticsDao;
+    @Inject
+    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
+    @Inject
+    private DiskImageDynamicDao diskImageDynamicDao;
+
+    private final Map<Guid, VdsStatistics> hostStatistics = new ConcurrentHashMap<>();
+    private final Map<Guid, VdsNetworkStatistics> hostInterfaceStatistics = new ConcurrentHashMap<>();
+    private final Map<Guid, VmStatistics> vmStatistics = new ConcurrentHashMap<>();
+    private final Map<Guid, VmNetworkStatistics> vmInterfaceStatistics = new ConcurrentHashMap<>();
+    private final Map<Pair<Guid, Guid>, Pair<Guid, DiskImageDynamic>> diskImageDynamics = new ConcurrentHashMap<>();
+
+    /**
+     * Taken while the queued statistics are written and while queued statistics are discarded, so a sample which
+     * was taken out of the queue is never written after the synchronous update which discarded it.
+     */
+    private final Lock flushLock = new ReentrantLock();
+
+    private volatile boolean writeBehind;
+
+    @PostConstruct
+    void init() {
+        writeBehind = Config.<Boolean> getValue(ConfigValues.MonitoringStatisticsWriteBehind);
+        if (writeBehind) {
+            int interval = Config.<Integer> getValue(ConfigValues.MonitoringStatisticsFlushIntervalInSeconds);
+            schedulerUtil.scheduleAFixedDelayJob(this,
+                    "flush",
+                    new Class[] {},
+                    new Object[] {},
+                    interval,
+                    interval,
+                    TimeUnit.SECONDS);
+            log.info("Monitoring statistics are written to the database every {} seconds", interval);
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (writeBehind) {
+            flush();
+        }
+    }
+
+    public void saveHostStatistics(VdsStatistics statistics, Collection<VdsNetworkStatistics> interfaceStatistics) {
+        if (!writeBehind) {
+            vdsStatisticsDao.update(statistics);
+            if (!interfaceStatistics.isEmpty()) {
+                TransactionSupport.executeInScope(TransactionScopeOption.Required,
+                        () -> {
+                            interfaceDao.massUpdateStatisticsForVds(interfaceStatistics);
+                            return null;
+                        });
+            }
+            return;
+        }
+
+        hostStatistics.put(statistics.getId(), statistics);
+        interfaceStatistics.forEach(stats -> hostInterfaceStatistics.put(stats.getId(), stats));
+    }
+
+    public void saveVmStatistics(Collection<VmStatistics> statistics) {
+        if (!writeBehind) {
+            vmStatisticsDao.updateAllInBatch(statistics);
+            return;
+        }
+
+        statistics.forEach(stats -> vmStatistics.put(stats.getId(), stats));
+    }
+
+    public void saveVmInterfaceStatistics(Collection<VmNetworkStatistics> statistics) {
+        if (!writeBehind) {
+            vmNetworkStatisticsDao.updateAllInBatch(statistics);
+            return;
+        }
+
+        statistics.forEach(stats -> vmInterfaceStatistics.put(stats.getId(), stats));
+    }
+
+    /**
+     * @param diskImageDynamics
+     *            pairs of VM id and the dynamic data of one of its disks
+     */
+    public void saveDiskImageDynamics(Collection<Pair<Guid, DiskImageDynamic>> diskImageDynamics) {
+        if (!writeBehind) {
+            diskImageDynamicDao.updateAllDiskImageDynamicWithDiskIdByVmId(diskImageDynamics);
+            return;
+        }
+
+        diskImageDynamics.forEach(pair ->
+                this.diskImageDynamics.put(new Pair<>(pair.getFirst(), pair.getSecond().getId()), pair));
+    }
+
+    public void discardHostStatistics(Guid hostId) {
+        discard(hostStatistics, hostId);
+    }
+
+    public void discardVmStatistics(Guid vmId) {
+        discard(vmStatistics, vmId);
+    }
+
+    public void discardVmInterfaceStatistics(Guid vmInterfaceId) {
+        discard(vmInterfaceStatistics, vmInterfaceId);
+    }
+
+    public void discardHostInterfaceStatistics(Guid hostInterfaceId) {
+        discard(hostInterfaceStatistics, hostInterfaceId);
+    }
+
+    /**
+     * Discards the queued dynamic data of the given disk, for all the VMs it is attached to.
+     */
+    public void discardDiskImageDynamics(Guid diskId) {
+        if (!writeBehind) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            diskImageDynamics.keySet().removeIf(key -> diskId.equals(key.getSecond()));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private <K, V> void discard(Map<K, V> queue, K key) {
+        if (!writeBehind) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            queue.remove(key);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @OnTimerMethodAnnotation("flush")
+    public void flush() {
+        flushLock.lock();
+        try {
+            write("host", hostStatistics, vdsStatisticsDao::updateAllInBatch);
+            write("host interface", hostInterfaceStatistics, interfaceDao::massUpdateStatisticsForVds);
+            write("VM", vmStatistics, vmStatisticsDao::updateAllInBatch);
+            write("VM interface", vmInterfaceStatistics, vmNetworkStatisticsDao::updateAllInBatch);
+            write("disk", diskImageDynamics, diskImageDynamicDao::updateAllDiskImageDynamicWithDiskIdByVmId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Takes the queued samples out one by one, so a sample which is queued meanwhile either gets written now or
+     * stays for the next flush. When the batch fails, its samples are put back for the next flush, unless a newer
+     * sample of the same entity was queued meanwhile.
+     */
+    private static <K, V> void write(String type, Map<K, V> queue, Consumer<Collection<V>> batchUpdate) {
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        Map<K, V> samples = new LinkedHashMap<>(queue.size());
+        for (K key : new ArrayList<>(queue.keySet())) {
+            V sample = queue.remove(key);
+            if (sample != null) {
+                samples.put(key, sample);
+            }
+        }
+
+        try {
+            batchUpdate.accept(new ArrayList<>(samples.values()));
+        } catch (RuntimeException e) {
+            log.error("Failed to save the statistics of {} {}(s), retrying on the next flush: {}",
+                    samples.size(), type, e.getMessage());
+            log.debug("Exception", e);
+            samples.forEach(queue::putIfAbsent);
+        }
+    }
+}
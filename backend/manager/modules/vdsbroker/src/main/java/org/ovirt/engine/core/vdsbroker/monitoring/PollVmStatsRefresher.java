@@ -1,6 +1,8 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -24,6 +26,11 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
     @Inject
     private SchedulerUtilQuartzImpl scheduler;
     private String vmsMonitoringJobId;
+    /**
+     * Set while a poll waits for the response of the host or processes it, polls which are triggered meanwhile are
+     * skipped like the timer would have skipped them if the poll blocked.
+     */
+    private final AtomicBoolean pollInProgress = new AtomicBoolean();
 
     public PollVmStatsRefresher(VdsManager vdsManager) {
         super(vdsManager);
@@ -31,20 +38,40 @@ public class PollVmStatsRefresher extends VmStatsRefresher {
 
     @OnTimerMethodAnnotation("poll")
     public void poll() {
-        if (isMonitoringNeeded(vdsManager.getStatus())) {
+        if (isMonitoringNeeded(vdsManager.getStatus()) && pollInProgress.compareAndSet(false, true)) {
             VmsListFetcher fetcher = new VmsStatisticsFetcher(vdsManager);
 
             long fetchTime = System.nanoTime();
-            if (fetcher.fetch()) {
-                getVmsMonitoring().perform(fetcher.getChangedVms(), fetchTime, vdsManager, true);
-                //we only want to monitor vm devices for vms that already exist in the db
-                Stream<VdsmVm> vdsmVmsToMonitor = fetcher.getChangedVms().stream()
-                        .filter(monitoredVm -> monitoredVm.getFirst() != null && monitoredVm.getSecond() != null)
-                        .map(Pair::getSecond);
-                processDevices(vdsmVmsToMonitor, fetchTime);
-            } else {
-                log.info("Failed to fetch vms info for host '{}' - skipping VMs monitoring.", vdsManager.getVdsName());
+            CompletableFuture<Boolean> fetch;
+            try {
+                fetch = fetcher.fetchAsync();
+            } catch (RuntimeException e) {
+                pollInProgress.set(false);
+                throw e;
             }
+            fetch.thenAccept(fetched -> onFetch(fetcher, fetched, fetchTime))
+                    .whenComplete((result, t) -> {
+                        pollInProgress.set(false);
+                        if (t != null) {
+                            log.error("Failed to monitor the VMs of host '{}': {}",
+                                    vdsManager.getVdsName(),
+                                    t.getMessage());
+                            log.debug("Exception", t);
+                        }
+                    });
+        }
+    }
+
+    private void onFetch(VmsListFetcher fetcher, boolean fetched, long fetchTime) {
+        if (fetched) {
+            getVmsMonitoring().perform(fetcher.getChangedVms(), fetchTime, vdsManager, true);
+            //we only want to monitor vm devices for vms that already exist in the db
+            Stream<VdsmVm> vdsmVmsToMonitor = fetcher.getChangedVms().stream()
+                    .filter(monitoredVm -> monitoredVm.getFirst() != null && monitoredVm.getSecond() != null)
+                    .map(Pair::getSecond);
+            processDevices(vdsmVmsToMonitor, fetchTime);
+        } else {
+            log.info("Failed to fetch vms info for host '{}' - skipping VMs monitoring.", vdsManager.getVdsName());
         }
     }
 
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -145,6 +146,33 @@ public class VdsmVm {
                 && Objects.equals(interfaceStatistics, other.interfaceStatistics);
     }
 
+    /**
+     * Returns the data that was reported by VDSM for the VM. It is used by the delta monitoring mode in order to
+     * detect VMs that were reported with the same data as in the previous monitoring cycle, so the dynamic data,
+     * which the analysis modifies, is copied.
+     *
+     * @param includeStatistics Whether or not the statistics reported for the VM should be part of the data
+     */
+    public List<Object> getAnalyzedData(boolean includeStatistics) {
+        VmDynamic vmDynamicCopy = new VmDynamic(vmDynamic);
+        if (!includeStatistics) {
+            return Arrays.asList(vmDynamicCopy, vmGuestAgentInterfaces, lunsMap);
+        }
+        return Arrays.asList(
+                vmDynamicCopy,
+                vmGuestAgentInterfaces,
+                vmStatistics,
+                lunsMap,
+                interfaceStatistics,
+                diskStatistics,
+                vmJobs,
+                vmBalloonInfo != null ? vmBalloonInfo.isBalloonDeviceEnabled() : null,
+                vmBalloonInfo != null ? vmBalloonInfo.getCurrentMemory() : null,
+                vmBalloonInfo != null ? vmBalloonInfo.getBalloonLastMemory() : null,
+                vmBalloonInfo != null ? vmBalloonInfo.getBalloonTargetMemory() : null
+        );
+    }
+
     public Double getTimestamp() {
         return timestamp;
     }
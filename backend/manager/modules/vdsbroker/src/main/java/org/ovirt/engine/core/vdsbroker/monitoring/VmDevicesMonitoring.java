@@ -1,7 +1,6 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -13,6 +12,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -43,6 +45,7 @@ import org.ovirt.engine.core.compat.TransactionScopeOption;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.DumpXmlsVDSCommand;
@@ -165,6 +168,12 @@ public class VmDevicesMonitoring {
             vmsToSaveHash = addToOptionalList(vmsToSaveHash, vmId);
         }
 
+        private void addDeviceChanges(Change change) {
+            change.getDevicesToAdd().forEach(this::addDeviceToAdd);
+            change.getDevicesToUpdate().forEach(this::addDeviceToUpdate);
+            change.getDeviceIdsToRemove().forEach(this::addDeviceIdToRemove);
+        }
+
         /**
          * Add the VM to the list of VMs to be checked for device updates, if device information hash passed in
          * <code>vdsmHash</code> parameter is more recent (in terms of <code>fetchTime</code>) and differs from
@@ -208,7 +217,78 @@ public class VmDevicesMonitoring {
             }
 
             lockTouchedVm(vmId);
-            processVmDevices(this, vmInfo);
+            processVmDevices(this, vmInfo, getVmDeviceDao().getVmDeviceByVmId(vmId));
+        }
+
+        /**
+         * Process FullList VDSM command results of several VMs at once. The DB devices of all the VMs are loaded in a
+         * single call and the VMs are then compared to them in parallel, each one into its own change that is merged
+         * into this one afterwards. The comparisons that the thread pool didn't start yet are run by the calling
+         * thread, which is a thread of the pool itself, so it never waits for tasks that are queued behind it.
+         *
+         * @param vmInfos FullList VDSM command results
+         */
+        private void processFullLists(Map<String, Object>[] vmInfos) {
+            List<Map<String, Object>> vmInfosToProcess = new ArrayList<>(vmInfos.length);
+            for (Map<String, Object> vmInfo : vmInfos) {
+                Guid vmId = getVmId(vmInfo);
+                if (vmId == null) {
+                    log.error("Received NULL VM or VM id when processing VM devices, abort.");
+                    continue;
+                }
+
+                lockTouchedVm(vmId);
+                vmInfosToProcess.add(vmInfo);
+            }
+
+            if (vmInfosToProcess.isEmpty()) {
+                return;
+            }
+
+            Map<Guid, List<VmDevice>> dbDevices = getVmDeviceDao().getVmDevicesByVmIds(vmInfosToProcess.stream()
+                    .map(VmDevicesMonitoring::getVmId)
+                    .collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.groupingBy(VmDevice::getVmId));
+
+            if (vmInfosToProcess.size() == 1) {
+                Map<String, Object> vmInfo = vmInfosToProcess.get(0);
+                processVmDevices(this, vmInfo, dbDevices.getOrDefault(getVmId(vmInfo), Collections.emptyList()));
+                return;
+            }
+
+            List<FutureTask<Change>> tasks = vmInfosToProcess.stream()
+                    .map(vmInfo -> new FutureTask<>(() -> {
+                        Change vmChange = new Change(vdsId, fetchTime);
+                        processVmDevices(vmChange,
+                                vmInfo,
+                                dbDevices.getOrDefault(getVmId(vmInfo), Collections.emptyList()));
+                        return vmChange;
+                    }))
+                    .collect(Collectors.toList());
+            try {
+                for (FutureTask<Change> task : tasks.subList(1, tasks.size())) {
+                    ThreadPoolUtil.execute(task);
+                }
+            } catch (RejectedExecutionException e) {
+                log.debug("Processing the devices of the rest of the VMs in the monitoring thread");
+            }
+            // a task that was already started by the pool is not run again
+            tasks.forEach(FutureTask::run);
+            for (FutureTask<Change> task : tasks) {
+                addDeviceChanges(getProcessedChange(task));
+            }
+        }
+
+        private Change getProcessedChange(FutureTask<Change> task) {
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
         }
 
         public void updateDevice(VmDevice device) {
@@ -232,7 +312,7 @@ public class VmDevicesMonitoring {
             try {
                 Map<String, Object>[] vmInfos = getVmInfo(vdsId, getVmsToProcess());
                 if (vmInfos != null) {
-                    Arrays.stream(vmInfos).forEach(this::processFullList);
+                    processFullLists(vmInfos);
                 }
                 getDevicesToProcess().forEach(device -> processDevice(this, device));
                 saveDevicesToDb(this);
@@ -470,12 +550,15 @@ public class VmDevicesMonitoring {
 
     /**
      * Actually process the VM device update and store individual device additions/updates/removals
-     * in the <code>change</code>.
+     * in the <code>change</code>. Devices that are already up to date in the DB are not updated.
+     * <p>
+     * This method doesn't access the DB, so it may run concurrently for different VMs.
+     *
+     * @param dbDevices all the devices of the VM present in the DB
      */
-    private void processVmDevices(Change change, Map<String, Object> vmInfo) {
+    private void processVmDevices(Change change, Map<String, Object> vmInfo, List<VmDevice> dbDevices) {
         Guid vmId = getVmId(vmInfo);
         Set<Guid> processedDeviceIds = new HashSet<>();
-        List<VmDevice> dbDevices = getVmDeviceDao().getVmDeviceByVmId(vmId);
         Map<VmDeviceId, VmDevice> dbDeviceMap = Entities.businessEntitiesById(dbDevices);
 
         for (Object o: (Object[]) vmInfo.get(VdsProperties.Devices)) {
@@ -500,12 +583,21 @@ public class VmDevicesMonitoring {
                     processedDeviceIds.add(newDevice.getDeviceId());
                 }
             } else {
-                dbDevice.setPlugged(Boolean.TRUE);
-                dbDevice.setAddress(vdsmDevice.get(VdsProperties.Address).toString());
-                dbDevice.setAlias(StringUtils.defaultString((String) vdsmDevice.get(VdsProperties.Alias)));
-                dbDevice.setLogicalName(logicalName);
-                dbDevice.setHostDevice(StringUtils.defaultString((String) vdsmDevice.get(VdsProperties.HostDev)));
-                change.addDeviceToUpdate(dbDevice);
+                String address = vdsmDevice.get(VdsProperties.Address).toString();
+                String alias = StringUtils.defaultString((String) vdsmDevice.get(VdsProperties.Alias));
+                String hostDevice = StringUtils.defaultString((String) vdsmDevice.get(VdsProperties.HostDev));
+                if (!dbDevice.isPlugged()
+                        || !Objects.equals(dbDevice.getAddress(), address)
+                        || !alias.equals(StringUtils.defaultString(dbDevice.getAlias()))
+                        || !Objects.equals(dbDevice.getLogicalName(), logicalName)
+                        || !hostDevice.equals(StringUtils.defaultString(dbDevice.getHostDevice()))) {
+                    dbDevice.setPlugged(Boolean.TRUE);
+                    dbDevice.setAddress(address);
+                    dbDevice.setAlias(alias);
+                    dbDevice.setLogicalName(logicalName);
+                    dbDevice.setHostDevice(hostDevice);
+                    change.addDeviceToUpdate(dbDevice);
+                }
                 processedDeviceIds.add(deviceId);
             }
         }
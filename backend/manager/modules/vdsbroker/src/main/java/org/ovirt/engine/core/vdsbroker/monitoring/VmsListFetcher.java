@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -18,8 +19,12 @@ import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.GetVmStatsVDSCommand;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.IVdsServer;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VMInfoListReturn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +38,7 @@ public class VmsListFetcher {
     protected List<Pair<VmDynamic, VdsmVm>> changedVms;
     protected Map<Guid, VdsmVm> vdsmVms;
     private Map<Guid, VmDynamic> dbVms;
+    private List<Pair<VmDynamic, Guid>> vmsToFetchStats;
 
     // dependencies
     private DbFacade dbFacade;
@@ -65,6 +71,21 @@ public class VmsListFetcher {
         }
     }
 
+    /**
+     * Like {@link #fetch()}, but waits for the response of the host without holding a thread. The fetched VMs are
+     * processed on the engine thread pool.
+     */
+    public CompletableFuture<Boolean> fetchAsync() {
+        return prefetch().handleAsync((response, t) -> fetch(), ThreadPoolUtil::execute);
+    }
+
+    /**
+     * Sends the request which {@link #poll()} processes, so {@link #fetchAsync()} can wait for it before polling.
+     */
+    protected CompletableFuture<?> prefetch() {
+        return CompletableFuture.completedFuture(null);
+    }
+
     protected VDSReturnValue poll() {
         return getResourceManager().runVdsCommand(
                 VDSCommandType.List,
@@ -75,7 +96,9 @@ public class VmsListFetcher {
         dbVms = getVmDynamicDao().getAllRunningForVds(vdsManager.getVdsId()).stream()
                 .collect(Collectors.toMap(VmDynamic::getId, Function.identity()));
         changedVms = new ArrayList<>();
+        vmsToFetchStats = new ArrayList<>();
         filterVms();
+        fetchChangedVmsStats();
         gatherNonRunningVms(dbVms);
         saveLastVmsList(vdsmVms);
     }
@@ -105,10 +128,34 @@ public class VmsListFetcher {
 
     protected void gatherChangedVms(VmDynamic dbVm, VdsmVm vdsmVm) {
         if (statusChanged(dbVm, vdsmVm.getVmDynamic())) {
-            VDSReturnValue vmStats =
-                    getResourceManager().runVdsCommand(
-                            VDSCommandType.GetVmStats,
-                            new GetVmStatsVDSCommandParameters(vdsManager.getVdsId(), vdsmVm.getVmDynamic().getId()));
+            vmsToFetchStats.add(new Pair<>(dbVm, vdsmVm.getVmDynamic().getId()));
+        }
+    }
+
+    /**
+     * Gets the statistics of the VMs which changed their status, all of them in a single batch request when the
+     * host proxy is available.
+     */
+    private void fetchChangedVmsStats() {
+        if (vmsToFetchStats.isEmpty()) {
+            return;
+        }
+
+        IVdsServer vdsProxy = vdsManager.getVdsProxy();
+        CompletableFuture<Map<String, VMInfoListReturn>> batch = vdsProxy == null ? null
+                : vdsProxy.getVmStatsAsync(vmsToFetchStats.stream()
+                        .map(vm -> vm.getSecond().toString())
+                        .collect(Collectors.toList()));
+
+        for (Pair<VmDynamic, Guid> vm : vmsToFetchStats) {
+            VmDynamic dbVm = vm.getFirst();
+            Guid vmId = vm.getSecond();
+            GetVmStatsVDSCommandParameters parameters = batch == null
+                    ? new GetVmStatsVDSCommandParameters(vdsManager.getVdsId(), vmId)
+                    : new GetVmStatsVDSCommand.Params(vdsManager.getVdsId(),
+                            vmId,
+                            batch.thenApply(stats -> stats.get(vmId.toString())));
+            VDSReturnValue vmStats = getResourceManager().runVdsCommand(VDSCommandType.GetVmStats, parameters);
             if (vmStats.getSucceeded()) {
                 changedVms.add(new Pair<>(dbVm, (VdsmVm) vmStats.getReturnValue()));
             } else {
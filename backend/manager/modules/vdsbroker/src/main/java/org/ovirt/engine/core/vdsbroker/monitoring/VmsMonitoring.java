@@ -1,10 +1,13 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -14,17 +17,16 @@ import javax.inject.Singleton;
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.TransactionScopeOption;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
-import org.ovirt.engine.core.dao.DiskImageDynamicDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmGuestAgentInterfaceDao;
-import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
-import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
@@ -50,16 +52,12 @@ public class VmsMonitoring {
     private LunDisksMonitoring lunDisksMonitoring;
     @Inject
     private VmJobsMonitoring vmJobsMonitoring;
-
     @Inject
-    private DiskImageDynamicDao diskImageDynamicDao;
+    private MonitoringStatisticsSink statisticsSink;
+
     @Inject
     private VmDynamicDao vmDynamicDao;
     @Inject
-    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
-    @Inject
-    private VmStatisticsDao vmStatisticsDao;
-    @Inject
     private VmGuestAgentInterfaceDao vmGuestAgentInterfaceDao;
     @Inject
     private VmNetworkInterfaceDao vmNetworkInterfaceDao;
@@ -90,16 +88,19 @@ public class VmsMonitoring {
         }
 
         List<VmAnalyzer> vmAnalyzers = Collections.emptyList();
+        MonitoringCycle cycle = new MonitoringCycle(updateStatistics);
         try {
-            vmAnalyzers = analyzeVms(monitoredVms, fetchTime, vdsManager, updateStatistics);
+            vmAnalyzers = analyzeVms(monitoredVms, fetchTime, vdsManager, cycle);
             // It is important to add the unmanaged VMs before flushing the dynamic data into the database
             addUnmanagedVms(vmAnalyzers, vdsManager.getVdsId());
-            flush(vmAnalyzers);
+            flush(vmAnalyzers, cycle);
             postFlush(vmAnalyzers, vdsManager);
             vdsManager.vmsMonitoringInitFinished();
         } catch (RuntimeException ex) {
             log.error("Failed during vms monitoring on host {} error is: {}", vdsManager.getVdsName(), ex);
             log.error("Exception:", ex);
+            // make sure the VMs are not skipped by the delta mode in the next cycle
+            vmAnalyzers.forEach(vmAnalyzer -> getVmManager(vmAnalyzer.getVmId()).clearLastAnalyzedData());
         } finally {
             unlockVms(vmAnalyzers);
         }
@@ -125,19 +126,21 @@ public class VmsMonitoring {
             List<Pair<VmDynamic, VdsmVm>> monitoredVms,
             long fetchTime,
             VdsManager vdsManager,
-            boolean updateStatistics) {
-        VmAnalyzerFactory vmAnalyzerFactory = getVmAnalyzerFactory(vdsManager, updateStatistics);
+            MonitoringCycle cycle) {
+        VmAnalyzerFactory vmAnalyzerFactory = getVmAnalyzerFactory(vdsManager, cycle.updateStatistics);
         List<VmAnalyzer> vmAnalyzers = new ArrayList<>(monitoredVms.size());
         monitoredVms.forEach(vm -> {
             // TODO filter out migratingTo VMs if no action is taken on them
-            if (shouldAnalyzeVm(vm, fetchTime, vdsManager.getVdsId())) {
+            if (shouldAnalyzeVm(vm, fetchTime, vdsManager.getVdsId(), cycle)) {
                 try {
+                    cycle.rememberDbVm(vm.getFirst());
                     VmAnalyzer vmAnalyzer = vmAnalyzerFactory.getVmAnalyzer(vm);
                     vmAnalyzer.analyze();
                     vmAnalyzers.add(vmAnalyzer);
                 } catch (RuntimeException ex) {
                     Guid vmId = getVmId(vm.getFirst(), vm.getSecond());
                     VmManager vmManager = getVmManager(vmId);
+                    vmManager.clearLastAnalyzedData();
                     vmManager.unlock();
 
                     log.error("Failed during monitoring vm: {} , error is: {}", vmId, ex);
@@ -160,7 +163,7 @@ public class VmsMonitoring {
                 vdsDynamicDao);
     }
 
-    private boolean shouldAnalyzeVm(Pair<VmDynamic, VdsmVm> pair, long fetchTime, Guid vdsId) {
+    private boolean shouldAnalyzeVm(Pair<VmDynamic, VdsmVm> pair, long fetchTime, Guid vdsId, MonitoringCycle cycle) {
         Guid vmId = getVmId(pair.getFirst(), pair.getSecond());
         VmManager vmManager = getVmManager(vmId);
 
@@ -184,9 +187,36 @@ public class VmsMonitoring {
             return false;
         }
 
+        if (cycle.deltaMode && isVmDataUnchanged(pair, vmManager, cycle)) {
+            log.debug("skipping VM '{}' from this monitoring cycle" +
+                    " - the VM data has not changed since the previous cycle", vmId);
+            vmManager.unlock();
+            return false;
+        }
+
         return true;
     }
 
+    /**
+     * A VM is considered as unchanged when both its data in the DB and the data reported by VDSM are identical to
+     * the ones that were analyzed in the previous monitoring cycle. VMs that are not reported by VDSM or not
+     * known to the DB are always analyzed.
+     */
+    private boolean isVmDataUnchanged(Pair<VmDynamic, VdsmVm> pair, VmManager vmManager, MonitoringCycle cycle) {
+        VmDynamic dbVm = pair.getFirst();
+        VdsmVm vdsmVm = pair.getSecond();
+        if (dbVm == null || vdsmVm == null) {
+            vmManager.clearLastAnalyzedData();
+            return false;
+        }
+        // the DB data is copied since the analysis modifies it
+        List<Object> analyzedData = Arrays.asList(
+                new VmDynamic(dbVm),
+                vdsmVm.getAnalyzedData(cycle.updateStatistics),
+                cycle.updateStatistics);
+        return vmManager.isUnchangedSinceLastAnalysis(analyzedData, cycle.maxSkippedCycles);
+    }
+
     private void postFlush(List<VmAnalyzer> vmAnalyzers, VdsManager vdsManager) {
         Collection<Guid> movedToDownVms = new ArrayList<>();
         List<Guid> succeededToRunVms = new ArrayList<>();
@@ -280,8 +310,8 @@ public class VmsMonitoring {
                 vmIdsWithGuestAgentDownAndBalloonInfalted);
     }
 
-    private void flush(List<VmAnalyzer> vmAnalyzers) {
-        saveVmDynamic(vmAnalyzers);
+    private void flush(List<VmAnalyzer> vmAnalyzers, MonitoringCycle cycle) {
+        saveVmDynamic(vmAnalyzers, cycle);
         saveVmStatistics(vmAnalyzers);
         saveVmInterfaceStatistics(vmAnalyzers);
         saveVmDiskImageStatistics(vmAnalyzers);
@@ -289,21 +319,22 @@ public class VmsMonitoring {
     }
 
     private void saveVmDiskImageStatistics(List<VmAnalyzer> vmAnalyzers) {
-        diskImageDynamicDao.updateAllDiskImageDynamicWithDiskIdByVmId(vmAnalyzers.stream()
+        statisticsSink.saveDiskImageDynamics(vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmDiskImageDynamicToSave)
                 .flatMap(Collection::stream)
                 .collect(Collectors.toList()));
     }
 
-    private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers) {
+    private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers, MonitoringCycle cycle) {
         vmDynamicDao.updateAllInBatch(vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmDynamicToSave)
                 .filter(Objects::nonNull)
+                .filter(cycle::isDbVmChanged)
                 .collect(Collectors.toList()));
     }
 
     private void saveVmInterfaceStatistics(List<VmAnalyzer> vmAnalyzers) {
-        vmNetworkStatisticsDao.updateAllInBatch(vmAnalyzers.stream()
+        statisticsSink.saveVmInterfaceStatistics(vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmNetworkStatistics)
                 .flatMap(List::stream)
                 .collect(Collectors.toList()));
@@ -314,7 +345,7 @@ public class VmsMonitoring {
                 .map(VmAnalyzer::getVmStatisticsToSave)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        vmStatisticsDao.updateAllInBatch(statistics);
+        statisticsSink.saveVmStatistics(statistics);
         statistics.forEach(stats -> getVmManager(stats.getId()).setStatistics(stats));
     }
 
@@ -364,4 +395,33 @@ public class VmsMonitoring {
         return resourceManager.getVmManager(vmId);
     }
 
+    /**
+     * The settings and state of a single monitoring cycle. In delta mode it keeps a copy of the DB data of each
+     * analyzed VM, so only VM dynamic data that was changed by the analysis is written back to the DB.
+     */
+    private static class MonitoringCycle {
+
+        private final boolean updateStatistics;
+        private final boolean deltaMode;
+        private final int maxSkippedCycles;
+        private final Map<Guid, VmDynamic> dbVmsBeforeAnalysis;
+
+        private MonitoringCycle(boolean updateStatistics) {
+            this.updateStatistics = updateStatistics;
+            this.deltaMode = Config.<Boolean> getValue(ConfigValues.VmMonitoringDeltaMode);
+            this.maxSkippedCycles = deltaMode ? Config.<Integer> getValue(ConfigValues.VmMonitoringDeltaMaxSkippedCycles) : 0;
+            this.dbVmsBeforeAnalysis = deltaMode ? new HashMap<>() : Collections.emptyMap();
+        }
+
+        private void rememberDbVm(VmDynamic dbVm) {
+            if (deltaMode && dbVm != null) {
+                dbVmsBeforeAnalysis.put(dbVm.getId(), new VmDynamic(dbVm));
+            }
+        }
+
+        private boolean isDbVmChanged(VmDynamic vmDynamicToSave) {
+            return !deltaMode || !vmDynamicToSave.equals(dbVmsBeforeAnalysis.get(vmDynamicToSave.getId()));
+        }
+    }
+
 }
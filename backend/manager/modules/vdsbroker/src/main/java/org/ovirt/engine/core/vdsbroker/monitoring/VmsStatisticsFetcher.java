@@ -2,6 +2,7 @@ package org.ovirt.engine.core.vdsbroker.monitoring;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.utils.Pair;
@@ -10,6 +11,9 @@ import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.GetAllVmStatsVDSCommand;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.IVdsServer;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VMInfoListReturn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,16 +23,29 @@ public class VmsStatisticsFetcher extends VmsListFetcher {
     private static final Map<Guid, Integer> vdsIdToNumOfVms = new HashMap<>();
 
     private StringBuilder logBuilder;
+    private CompletableFuture<VMInfoListReturn> response;
 
     public VmsStatisticsFetcher(VdsManager vdsManager) {
         super(vdsManager);
     }
 
+    @Override
+    protected CompletableFuture<?> prefetch() {
+        IVdsServer vdsProxy = vdsManager.getVdsProxy();
+        if (vdsProxy == null) {
+            return super.prefetch();
+        }
+        response = vdsProxy.getAllVmStatsAsync();
+        return response;
+    }
+
     @Override
     protected VDSReturnValue poll() {
         return getResourceManager().runVdsCommand(
                 VDSCommandType.GetAllVmStats,
-                new VdsIdVDSCommandParametersBase(vdsManager.getVdsId()));
+                response == null
+                        ? new VdsIdVDSCommandParametersBase(vdsManager.getVdsId())
+                        : new GetAllVmStatsVDSCommand.Params(vdsManager.getVdsId(), response));
     }
 
     @Override
@@ -2,12 +2,14 @@ package org.ovirt.engine.core.vdsbroker.vdsbroker;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.log.Logged;
 import org.ovirt.engine.core.utils.log.Logged.LogLevel;
+import org.ovirt.engine.core.vdsbroker.jsonrpc.ResponseCompletionTracker;
 import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
 
 @Logged(executionLevel = LogLevel.DEBUG)
@@ -19,7 +21,9 @@ public class GetAllVmStatsVDSCommand<P extends VdsIdVDSCommandParametersBase> ex
 
     @Override
     protected void executeVdsBrokerCommand() {
-        vmListReturn = getBroker().getAllVmStats();
+        vmListReturn = getParameters() instanceof Params
+                ? ResponseCompletionTracker.join(((Params) getParameters()).getResponse())
+                : getBroker().getAllVmStats();
         proceedProxyReturnValue();
         Map<Guid, VdsmVm> returnVMs = Arrays.stream(vmListReturn.infoList)
                 .map(this::createVdsmVm)
@@ -31,4 +35,22 @@ public class GetAllVmStatsVDSCommand<P extends VdsIdVDSCommandParametersBase> ex
     protected boolean getIsPrintReturnValue() {
         return false;
     }
+
+    /**
+     * Parameters for processing the response of a request which was already sent through
+     * {@link IVdsServer#getAllVmStatsAsync()}.
+     */
+    public static class Params extends VdsIdVDSCommandParametersBase {
+
+        private final CompletableFuture<VMInfoListReturn> response;
+
+        public Params(Guid vdsId, CompletableFuture<VMInfoListReturn> response) {
+            super(vdsId);
+            this.response = response;
+        }
+
+        public CompletableFuture<VMInfoListReturn> getResponse() {
+            return response;
+        }
+    }
 }
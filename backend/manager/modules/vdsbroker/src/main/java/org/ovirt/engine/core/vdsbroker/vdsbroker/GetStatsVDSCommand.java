@@ -1,11 +1,22 @@
 package org.ovirt.engine.core.vdsbroker.vdsbroker;
 
+import java.util.concurrent.CompletableFuture;
+
+import javax.inject.Inject;
+
+import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
 import org.ovirt.engine.core.utils.log.Logged;
 import org.ovirt.engine.core.utils.log.Logged.LogLevel;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.ovirt.engine.core.vdsbroker.jsonrpc.ResponseCompletionTracker;
 
 @Logged(executionLevel = LogLevel.DEBUG)
 public class GetStatsVDSCommand<P extends VdsIdAndVdsVDSCommandParametersBase> extends InfoVdsBrokerCommand<P> {
+    @Inject
+    private ResourceManager resourceManager;
+
     public GetStatsVDSCommand(P parameters) {
         super(parameters, parameters.getVds());
     }
@@ -17,10 +28,33 @@ public class GetStatsVDSCommand<P extends VdsIdAndVdsVDSCommandParametersBase> e
 
     @Override
     protected void executeVdsBrokerCommand() {
-        infoReturn = getBroker().getVdsStats();
+        infoReturn = getParameters() instanceof Params
+                ? ResponseCompletionTracker.join(((Params) getParameters()).getResponse())
+                : getBroker().getVdsStats();
         proceedProxyReturnValue();
 
-        VdsBrokerObjectsBuilder.updateVDSStatisticsData(getVds(), infoReturn.info);
+        VdsManager vdsManager = resourceManager.getVdsManager(getVds().getId());
+        VdsBrokerObjectsBuilder.updateVDSStatisticsData(getVds(),
+                infoReturn.info,
+                vdsManager != null ? vdsManager.getStatisticsParser() : new StatisticsParser());
         VdsBrokerObjectsBuilder.checkTimeDrift(getVds(), infoReturn.info);
     }
+
+    /**
+     * Parameters for processing the response of a request which was already sent through
+     * {@link IVdsServer#getVdsStatsAsync()}.
+     */
+    public static class Params extends VdsIdAndVdsVDSCommandParametersBase {
+
+        private final CompletableFuture<VDSInfoReturn> response;
+
+        public Params(VDS vds, CompletableFuture<VDSInfoReturn> response) {
+            super(vds);
+            this.response = response;
+        }
+
+        public CompletableFuture<VDSInfoReturn> getResponse() {
+            return response;
+        }
+    }
 }
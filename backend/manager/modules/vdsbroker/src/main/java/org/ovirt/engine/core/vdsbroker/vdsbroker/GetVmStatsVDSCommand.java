@@ -1,8 +1,12 @@
 package org.ovirt.engine.core.vdsbroker.vdsbroker;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.ovirt.engine.core.common.vdscommands.GetVmStatsVDSCommandParameters;
+import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.log.Logged;
 import org.ovirt.engine.core.utils.log.Logged.LogLevel;
+import org.ovirt.engine.core.vdsbroker.jsonrpc.ResponseCompletionTracker;
 
 @Logged(executionLevel = LogLevel.DEBUG)
 public class GetVmStatsVDSCommand<P extends GetVmStatsVDSCommandParameters> extends VmStatsVdsBrokerCommand<P> {
@@ -13,8 +17,28 @@ public class GetVmStatsVDSCommand<P extends GetVmStatsVDSCommandParameters> exte
 
     @Override
     protected void executeVdsBrokerCommand() {
-        vmListReturn = getBroker().getVmStats(getParameters().getVmId().toString());
+        vmListReturn = getParameters() instanceof Params
+                ? ResponseCompletionTracker.join(((Params) getParameters()).getResponse())
+                : getBroker().getVmStats(getParameters().getVmId().toString());
         proceedProxyReturnValue();
         setReturnValue(createVdsmVm(vmListReturn.infoList[0]));
     }
+
+    /**
+     * Parameters for processing the response of a request which was already sent, usually in a batch through
+     * {@link IVdsServer#getVmStatsAsync(java.util.Collection)}.
+     */
+    public static class Params extends GetVmStatsVDSCommandParameters {
+
+        private final CompletableFuture<VMInfoListReturn> response;
+
+        public Params(Guid vdsId, Guid vmId, CompletableFuture<VMInfoListReturn> response) {
+            super(vdsId, vmId);
+            this.response = response;
+        }
+
+        public CompletableFuture<VMInfoListReturn> getResponse() {
+            return response;
+        }
+    }
 }
@@ -13,10 +13,12 @@ import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface
 import org.ovirt.engine.core.common.vdscommands.UserOverriddenNicValues;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStatisticsSink;
 
 public class HostNetworkInterfacesPersisterImpl implements HostNetworkInterfacesPersister {
 
     private final InterfaceDao interfaceDao;
+    private final MonitoringStatisticsSink statisticsSink;
     private final List<VdsNetworkInterface> reportedNics;
     private final Map<String, VdsNetworkInterface> reportedNicsByNames;
     private final List<VdsNetworkInterface> dbNics;
@@ -24,10 +26,12 @@ public class HostNetworkInterfacesPersisterImpl implements HostNetworkInterfaces
     private final Map<String, UserOverriddenNicValues> userOverriddenNicValuesByNicName;
 
     public HostNetworkInterfacesPersisterImpl(InterfaceDao interfaceDao,
+            MonitoringStatisticsSink statisticsSink,
             List<VdsNetworkInterface> reportedNics,
             List<VdsNetworkInterface> dbNics,
             Map<String, UserOverriddenNicValues> userOverriddenNicValuesByNicName) {
         this.interfaceDao = interfaceDao;
+        this.statisticsSink = statisticsSink;
         this.reportedNics = reportedNics;
         this.reportedNicsByNames = Entities.entitiesByName(reportedNics);
         this.dbNics = dbNics;
@@ -44,6 +48,7 @@ public class HostNetworkInterfacesPersisterImpl implements HostNetworkInterfaces
     private void removeUnreportedInterfaces() {
         for (VdsNetworkInterface dbNic : dbNics) {
             if (nicShouldBeRemoved(dbNic.getName())) {
+                statisticsSink.discardHostInterfaceStatistics(dbNic.getId());
                 interfaceDao.removeInterfaceFromVds(dbNic.getId());
                 interfaceDao.removeStatisticsForVds(dbNic.getId());
             }
@@ -37,6 +37,7 @@ import org.ovirt.engine.core.dao.network.NetworkDao;
 import org.ovirt.engine.core.utils.NetworkUtils;
 import org.ovirt.engine.core.vdsbroker.NetworkImplementationDetailsUtils;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStatisticsSink;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.predicates.DisplayInterfaceEqualityPredicate;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.predicates.IsNetworkOnInterfacePredicate;
 
@@ -52,6 +53,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
     private final NetworkAttachmentDao networkAttachmentDao;
     private final NetworkImplementationDetailsUtils networkImplementationDetailsUtils;
     private final VdsDynamicDao vdsDynamicDao;
+    private final MonitoringStatisticsSink statisticsSink;
 
     @Inject
     HostNetworkTopologyPersisterImpl(VmDynamicDao vmDynamicDao,
@@ -62,7 +64,8 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
                                      NetworkImplementationDetailsUtils networkImplementationDetailsUtils,
                                      ManagementNetworkUtil managementNetworkUtil,
                                      AuditLogDirector auditLogDirector,
-                                     VdsDynamicDao vdsDynamicDao) {
+                                     VdsDynamicDao vdsDynamicDao,
+                                     MonitoringStatisticsSink statisticsSink) {
         Validate.notNull(networkDao, "networkAttachmentDao can not be null");
         Validate.notNull(networkDao, "networkDao can not be null");
         Validate.notNull(interfaceDao, "interfaceDao can not be null");
@@ -72,6 +75,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
         Validate.notNull(managementNetworkUtil, "managementNetworkUtil can not be null");
         Validate.notNull(auditLogDirector, "auditLogDirector can not be null");
         Validate.notNull(vdsDynamicDao, "vdsDynamicDao can not be null");
+        Validate.notNull(statisticsSink, "statisticsSink can not be null");
 
         this.vmDynamicDao = vmDynamicDao;
         this.interfaceDao = interfaceDao;
@@ -82,6 +86,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
         this.networkImplementationDetailsUtils = networkImplementationDetailsUtils;
         this.auditLogDirector = auditLogDirector;
         this.vdsDynamicDao = vdsDynamicDao;
+        this.statisticsSink = statisticsSink;
     }
 
     @Override
@@ -283,6 +288,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
 
         final HostNetworkInterfacesPersister networkInterfacesPersister = new HostNetworkInterfacesPersisterImpl(
                 interfaceDao,
+                statisticsSink,
                 host.getInterfaces(),
                 dbNics,
                 userConfiguredData.getUserOverriddenNicValuesByNicName());
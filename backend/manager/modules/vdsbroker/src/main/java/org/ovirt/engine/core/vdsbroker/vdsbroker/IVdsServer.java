@@ -1,11 +1,14 @@
 package org.ovirt.engine.core.vdsbroker.vdsbroker;
 
 import java.security.cert.Certificate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.ovirt.engine.core.compat.Guid;
@@ -42,6 +45,13 @@ public interface IVdsServer {
 
     HttpClient getHttpClient();
 
+    /**
+     * Runs any of the verbs of this interface without blocking the caller, the returned future is completed with the
+     * return value of the verb. The verbs which have an {@code Async} variant should rather be called through it, it
+     * doesn't hold a thread while the host responds.
+     */
+    <T> CompletableFuture<T> async(Function<IVdsServer, T> verb);
+
     OneVmReturn create(Map createInfo);
 
     StatusOnlyReturn createVolumeContainer(String jobId, Map<String, Object> createVolumeInfo);
@@ -82,6 +92,8 @@ public interface IVdsServer {
 
     VDSInfoReturn getVdsStats();
 
+    CompletableFuture<VDSInfoReturn> getVdsStatsAsync();
+
     StatusOnlyReturn setMOMPolicyParameters(Map<String, Object> key_value_store);
 
     StatusOnlyReturn setHaMaintenanceMode(String mode, boolean enabled);
@@ -103,6 +115,15 @@ public interface IVdsServer {
 
     VMInfoListReturn getAllVmStats();
 
+    CompletableFuture<VMInfoListReturn> getAllVmStatsAsync();
+
+    /**
+     * Gets the statistics of the given VMs in a single batch request.
+     *
+     * @return future of the statistics of each of the VMs by its id
+     */
+    CompletableFuture<Map<String, VMInfoListReturn>> getVmStatsAsync(Collection<String> vmIds);
+
     HostDevListReturn hostDevListByCaps();
 
     StatusOnlyReturn migrate(Map<String, Object> migrationInfo);
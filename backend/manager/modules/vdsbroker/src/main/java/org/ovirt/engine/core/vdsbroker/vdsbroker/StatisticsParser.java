@@ -0,0 +1,351 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.InterfaceStatus;
+import org.ovirt.engine.core.common.businessentities.network.NetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.NetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
+import org.ovirt.engine.core.common.utils.NetworkCommonUtils;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.SerializationFactory;
+import org.ovirt.engine.core.vdsbroker.NetworkStatisticsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts the statistics reported by VDSM for a host and its VMs into the statistics entities.
+ * <p>
+ * Every reported structure is read in a single pass over its entries, instead of looking up each expected property
+ * on its own, and the numbers are converted without splitting strings or going through their string representation.
+ * The host interfaces are updated through scratch objects which are kept by the parser and reused on every cycle,
+ * so each host should have its own parser, see {@code VdsManager#getStatisticsParser()}.
+ */
+public class StatisticsParser {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsParser.class);
+    private static final double NANO_SECONDS = 1000000000;
+
+    private final Map<String, VdsNetworkInterface> nicsByName = new HashMap<>();
+    private final VdsNetworkInterface reportedNic = new VdsNetworkInterface();
+    private final NetworkStatisticsBuilder networkStatisticsBuilder = new NetworkStatisticsBuilder();
+
+    public static VmStatistics parseVmStatistics(Map<String, Object> struct) {
+        VmStatistics statistics = new VmStatistics();
+        updateVmStatistics(statistics, struct);
+        return statistics;
+    }
+
+    public static void updateVmStatistics(VmStatistics vm, Map<String, Object> struct) {
+        Double elapsedTime = null;
+        Double cpuSys = null;
+        Double cpuUser = null;
+        Integer usageMemPercent = null;
+        int migrationProgress = 0;
+
+        for (Map.Entry<String, Object> entry : struct.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+            case VdsProperties.vm_guid:
+                vm.setId(new Guid((String) value));
+                break;
+            case VdsProperties.elapsed_time:
+                elapsedTime = toDouble(value);
+                break;
+            case VdsProperties.VM_DISKS_USAGE:
+                if (value != null) {
+                    vm.setDisksUsage(SerializationFactory.getSerializer()
+                            .serializeUnformattedJson(new ArrayList<>(Arrays.asList((Object[]) value))));
+                }
+                break;
+            case VdsProperties.cpu_sys:
+                cpuSys = toDouble(value);
+                break;
+            case VdsProperties.cpu_user:
+                cpuUser = toDouble(value);
+                break;
+            case VdsProperties.vm_usage_mem_percent:
+                usageMemPercent = toInteger(entry.getKey(), value);
+                break;
+            case VdsProperties.vm_guest_mem_stats:
+                updateGuestMemoryStatistics(vm, (Map<String, Object>) value);
+                break;
+            case VdsProperties.vm_migration_progress_percent:
+                Integer progress = toInteger(entry.getKey(), value);
+                migrationProgress = progress != null ? progress : 0;
+                break;
+            default:
+                break;
+            }
+        }
+
+        vm.setElapsedTime(elapsedTime);
+        vm.setCpuSys(cpuSys);
+        vm.setCpuUser(cpuUser);
+        vm.setUsageMemPercent(usageMemPercent);
+        vm.setMigrationProgressPercent(migrationProgress);
+    }
+
+    private static void updateGuestMemoryStatistics(VmStatistics vm, Map<String, Object> memoryStats) {
+        for (Map.Entry<String, Object> entry : memoryStats.entrySet()) {
+            switch (entry.getKey()) {
+            case VdsProperties.vm_guest_mem_buffered:
+                vm.setGuestMemoryBuffered(toRequiredLong(entry.getValue()));
+                break;
+            case VdsProperties.vm_guest_mem_cached:
+                vm.setGuestMemoryCached(toRequiredLong(entry.getValue()));
+                break;
+            case VdsProperties.vm_guest_mem_free:
+                vm.setGuestMemoryFree(toRequiredLong(entry.getValue()));
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the statistics of the network interfaces of the VM, or {@code null} if the VM reported none
+     */
+    public static List<VmNetworkInterface> parseVmInterfaceStatistics(Map<String, Object> struct) {
+        Map<String, Object> network = (Map<String, Object>) struct.get(VdsProperties.VM_NETWORK);
+        if (network == null) {
+            return struct.containsKey(VdsProperties.VM_NETWORK) ? Collections.emptyList() : null;
+        }
+
+        List<VmNetworkInterface> interfaces = new ArrayList<>(network.size());
+        for (Object nic : network.values()) {
+            VmNetworkInterface stats = new VmNetworkInterface();
+            updateInterfaceStatistics(stats, (Map<String, Object>) nic);
+            interfaces.add(stats);
+        }
+        return interfaces;
+    }
+
+    public static List<DiskImageDynamic> parseVmDiskStatistics(Map<String, Object> struct) {
+        Map<String, Object> disks = (Map<String, Object>) struct.get(VdsProperties.vm_disks);
+        if (disks == null) {
+            return Collections.emptyList();
+        }
+
+        List<DiskImageDynamic> disksData = new ArrayList<>(disks.size());
+        for (Object disk : disks.values()) {
+            DiskImageDynamic diskData = parseDiskStatistics((Map<String, Object>) disk);
+            if (diskData != null) {
+                disksData.add(diskData);
+            }
+        }
+        return disksData;
+    }
+
+    private static DiskImageDynamic parseDiskStatistics(Map<String, Object> disk) {
+        Object imageGroupId = disk.get(VdsProperties.image_group_id);
+        if (!(imageGroupId instanceof String) || ((String) imageGroupId).isEmpty()) {
+            return null;
+        }
+
+        DiskImageDynamic diskData = new DiskImageDynamic();
+        diskData.setId(new Guid((String) imageGroupId));
+        Integer readRate = null;
+        Integer writeRate = null;
+        for (Map.Entry<String, Object> entry : disk.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+            case VdsProperties.vm_disk_read_rate:
+                readRate = toInteger(entry.getKey(), value);
+                break;
+            case VdsProperties.vm_disk_write_rate:
+                writeRate = toInteger(entry.getKey(), value);
+                break;
+            case VdsProperties.disk_true_size:
+                Long size = toLong(entry.getKey(), value);
+                diskData.setActualSize(size != null ? size : 0);
+                break;
+            case VdsProperties.vm_disk_read_latency:
+                diskData.setReadLatency(toDouble(value, 0) / NANO_SECONDS);
+                break;
+            case VdsProperties.vm_disk_write_latency:
+                diskData.setWriteLatency(toDouble(value, 0) / NANO_SECONDS);
+                break;
+            case VdsProperties.vm_disk_flush_latency:
+                diskData.setFlushLatency(toDouble(value, 0) / NANO_SECONDS);
+                break;
+            default:
+                break;
+            }
+        }
+        diskData.setReadRate(readRate);
+        diskData.setWriteRate(writeRate);
+        return diskData;
+    }
+
+    /**
+     * Updates the statistics of the known network interfaces of the host with the reported ones.
+     *
+     * @return the highest usage of a physical interface of the host, in percent
+     */
+    public synchronized int updateHostInterfaceStatistics(VDS vds, Map<String, Object> interfaces) {
+        nicsByName.clear();
+        for (VdsNetworkInterface nic : vds.getInterfaces()) {
+            nicsByName.put(nic.getName(), nic);
+        }
+
+        int networkUsage = 0;
+        try {
+            for (Map.Entry<String, Object> entry : interfaces.entrySet()) {
+                VdsNetworkInterface existingNic = nicsByName.get(entry.getKey());
+                if (existingNic == null) {
+                    continue;
+                }
+
+                existingNic.setVdsId(vds.getId());
+                Map<String, Object> reported = (Map<String, Object>) entry.getValue();
+                updateInterfaceStatistics(reportedNic, reported);
+                networkStatisticsBuilder.updateExistingInterfaceStatistics(existingNic, reportedNic);
+                existingNic.getStatistics().setStatus(toInterfaceStatus(reported.get(VdsProperties.iface_status)));
+
+                if (!NetworkCommonUtils.isVlan(existingNic) && !existingNic.isPartOfBond()) {
+                    Double usage = computeInterfaceUsage(existingNic.getStatistics());
+                    if (usage != null) {
+                        networkUsage = (int) Math.max(networkUsage, usage);
+                    }
+                }
+            }
+        } finally {
+            nicsByName.clear();
+        }
+        return networkUsage;
+    }
+
+    /**
+     * Sets all the statistics of the interface, the ones which weren't reported are cleared, so the scratch
+     * interface never carries values of a previously parsed one.
+     */
+    private static void updateInterfaceStatistics(NetworkInterface<?> iface, Map<String, Object> reported) {
+        Double receiveDropRate = null;
+        Long receivedBytes = null;
+        Double transmitDropRate = null;
+        Long transmittedBytes = null;
+        Double sampleTime = null;
+        Integer speed = null;
+
+        for (Map.Entry<String, Object> entry : reported.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+            case VdsProperties.rx_dropped:
+                receiveDropRate = toDouble(value, 0);
+                break;
+            case VdsProperties.rx_total:
+                receivedBytes = toLong(entry.getKey(), value);
+                break;
+            case VdsProperties.tx_dropped:
+                transmitDropRate = toDouble(value, 0);
+                break;
+            case VdsProperties.tx_total:
+                transmittedBytes = toLong(entry.getKey(), value);
+                break;
+            case VdsProperties.sample_time:
+                sampleTime = toDouble(value);
+                break;
+            case VdsProperties.INTERFACE_SPEED:
+                speed = toInteger(entry.getKey(), value);
+                break;
+            case VdsProperties.VM_INTERFACE_NAME:
+                iface.setName(value instanceof String ? (String) value : null);
+                break;
+            case VdsProperties.MAC_ADDR:
+                iface.setMacAddress(value instanceof String ? (String) value : null);
+                break;
+            default:
+                break;
+            }
+        }
+
+        NetworkStatistics stats = iface.getStatistics();
+        stats.setReceiveDropRate(receiveDropRate != null ? receiveDropRate : Double.valueOf(0.0));
+        stats.setReceivedBytes(receivedBytes);
+        stats.setTransmitDropRate(transmitDropRate != null ? transmitDropRate : Double.valueOf(0.0));
+        stats.setTransmittedBytes(transmittedBytes);
+        stats.setSampleTime(sampleTime);
+        iface.setSpeed(speed);
+    }
+
+    private static Double computeInterfaceUsage(NetworkStatistics stats) {
+        Double receiveRate = stats.getReceiveRate();
+        Double transmitRate = stats.getTransmitRate();
+
+        if (receiveRate == null) {
+            return transmitRate;
+        } else if (transmitRate == null) {
+            return receiveRate;
+        } else {
+            return Math.max(receiveRate, transmitRate);
+        }
+    }
+
+    private static InterfaceStatus toInterfaceStatus(Object value) {
+        if (!(value instanceof String) || ((String) value).isEmpty()) {
+            return InterfaceStatus.NONE;
+        }
+        return ((String) value).trim().equalsIgnoreCase("up") ? InterfaceStatus.UP : InterfaceStatus.DOWN;
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        } else if (value instanceof String) {
+            return Double.parseDouble((String) value);
+        }
+        return null;
+    }
+
+    private static double toDouble(Object value, double defaultValue) {
+        Double d = toDouble(value);
+        return d != null ? d : defaultValue;
+    }
+
+    private static Integer toInteger(String name, Object value) {
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        Long longValue = toLong(name, value);
+        return longValue != null ? Integer.valueOf(longValue.intValue()) : null;
+    }
+
+    /**
+     * Numbers reported as strings may be decimal, only their integer part is taken.
+     */
+    private static Long toLong(String name, Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return ((Number) value).longValue();
+        }
+        if (!(value instanceof String) || ((String) value).isEmpty()) {
+            return null;
+        }
+
+        String stringValue = (String) value;
+        int point = stringValue.indexOf('.');
+        try {
+            return Long.parseLong(point < 0 ? stringValue : stringValue.substring(0, point));
+        } catch (NumberFormatException e) {
+            log.error("Failed to parse '{}' value '{}' to a number: {}", name, stringValue, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Long toRequiredLong(Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            return ((Number) value).longValue();
+        }
+        return Long.parseLong(value.toString());
+    }
+}
@@ -73,12 +73,9 @@ import org.ovirt.engine.core.common.businessentities.network.Bond;
 import org.ovirt.engine.core.common.businessentities.network.BondMode;
 import org.ovirt.engine.core.common.businessentities.network.DnsResolverConfiguration;
 import org.ovirt.engine.core.common.businessentities.network.HostNetworkQos;
-import org.ovirt.engine.core.common.businessentities.network.InterfaceStatus;
 import org.ovirt.engine.core.common.businessentities.network.Ipv4BootProtocol;
 import org.ovirt.engine.core.common.businessentities.network.Ipv6BootProtocol;
 import org.ovirt.engine.core.common.businessentities.network.NameServer;
-import org.ovirt.engine.core.common.businessentities.network.NetworkInterface;
-import org.ovirt.engine.core.common.businessentities.network.NetworkStatistics;
 import org.ovirt.engine.core.common.businessentities.network.Nic;
 import org.ovirt.engine.core.common.businessentities.network.VdsInterfaceType;
 import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
@@ -98,7 +95,6 @@ import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.network.SwitchType;
 import org.ovirt.engine.core.common.utils.EnumUtils;
-import org.ovirt.engine.core.common.utils.NetworkCommonUtils;
 import org.ovirt.engine.core.common.utils.SizeConverter;
 import org.ovirt.engine.core.common.utils.VmDeviceCommonUtils;
 import org.ovirt.engine.core.common.utils.VmDeviceType;
@@ -112,10 +108,8 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.NetworkUtils;
 import org.ovirt.engine.core.utils.NumaUtils;
-import org.ovirt.engine.core.utils.SerializationFactory;
 import org.ovirt.engine.core.utils.network.predicate.InterfaceByAddressPredicate;
 import org.ovirt.engine.core.utils.network.predicate.IpAddressPredicate;
-import org.ovirt.engine.core.vdsbroker.NetworkStatisticsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -129,7 +123,6 @@ public class VdsBrokerObjectsBuilder {
     private static final Logger log = LoggerFactory.getLogger(VdsBrokerObjectsBuilder.class);
 
     private static final int VNC_START_PORT = 5900;
-    private static final double NANO_SECONDS = 1000000000;
     private static final AuditLogDirector auditLogDirector = Injector.get(AuditLogDirector.class);
 
     private static final Comparator<VdsNumaNode> numaNodeComparator = Comparator.comparing(VdsNumaNode::getIndex);
@@ -421,9 +414,7 @@ public class VdsBrokerObjectsBuilder {
     }
 
     public static VmStatistics buildVMStatisticsData(Map<String, Object> struct) {
-        VmStatistics vmStatistics = new VmStatistics();
-        updateVMStatisticsData(vmStatistics, struct);
-        return vmStatistics;
+        return StatisticsParser.parseVmStatistics(struct);
     }
 
     public static Map<String, LUNs> buildVmLunDisksData(Map<String, Object> struct) {
@@ -781,63 +772,11 @@ public class VdsBrokerObjectsBuilder {
     }
 
     public static List<VmNetworkInterface> buildInterfaceStatisticsData(Map<String, Object> struct) {
-        // ------------- vm network statistics -----------------------
-        if (!struct.containsKey(VdsProperties.VM_NETWORK)) {
-            return null;
-        }
-
-        Map networkStruct = (Map) struct.get(VdsProperties.VM_NETWORK);
-        List<VmNetworkInterface> interfaceStatistics = new ArrayList<>();
-        for (Object tempNic : networkStruct.values()) {
-            Map nic = (Map) tempNic;
-            VmNetworkInterface stats = new VmNetworkInterface();
-
-            if (nic.containsKey(VdsProperties.VM_INTERFACE_NAME)) {
-                stats.setName((String) ((nic.get(VdsProperties.VM_INTERFACE_NAME) instanceof String) ? nic
-                        .get(VdsProperties.VM_INTERFACE_NAME) : null));
-            }
-            extractInterfaceStatistics(nic, stats);
-            stats.setMacAddress((String) ((nic.get(VdsProperties.MAC_ADDR) instanceof String) ? nic
-                    .get(VdsProperties.MAC_ADDR) : null));
-            interfaceStatistics.add(stats);
-        }
-        return interfaceStatistics;
+        return StatisticsParser.parseVmInterfaceStatistics(struct);
     }
 
     public static void updateVMStatisticsData(VmStatistics vm, Map<String, Object> struct) {
-        if (struct.containsKey(VdsProperties.vm_guid)) {
-            vm.setId(new Guid((String) struct.get(VdsProperties.vm_guid)));
-        }
-
-        vm.setElapsedTime(assignDoubleValue(struct, VdsProperties.elapsed_time));
-
-        if (struct.containsKey(VdsProperties.VM_DISKS_USAGE)) {
-            initDisksUsage(struct, vm);
-        }
-
-        // ------------- vm cpu statistics -----------------------
-        vm.setCpuSys(assignDoubleValue(struct, VdsProperties.cpu_sys));
-        vm.setCpuUser(assignDoubleValue(struct, VdsProperties.cpu_user));
-
-        // ------------- vm memory statistics -----------------------
-        vm.setUsageMemPercent(assignIntValue(struct, VdsProperties.vm_usage_mem_percent));
-
-        if (struct.containsKey(VdsProperties.vm_guest_mem_stats)) {
-            Map<String, Object> sub = (Map<String, Object>)struct.get(VdsProperties.vm_guest_mem_stats);
-            if (sub.containsKey(VdsProperties.vm_guest_mem_buffered)) {
-                vm.setGuestMemoryBuffered(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_buffered).toString()));
-            }
-            if (sub.containsKey(VdsProperties.vm_guest_mem_cached)) {
-                vm.setGuestMemoryCached(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_cached).toString()));
-            }
-            if (sub.containsKey(VdsProperties.vm_guest_mem_free)) {
-                vm.setGuestMemoryFree(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_free).toString()));
-            }
-        }
-
-        // ------------- vm migration statistics -----------------------
-        Integer migrationProgress = assignIntValue(struct, VdsProperties.vm_migration_progress_percent);
-        vm.setMigrationProgressPercent(migrationProgress != null ? migrationProgress : 0);
+        StatisticsParser.updateVmStatistics(vm, struct);
     }
 
     public static VmBalloonInfo buildVmBalloonInfo(Map<String, Object> struct) {
@@ -1018,14 +957,6 @@ public class VdsBrokerObjectsBuilder {
         }
     }
 
-    private static void initDisksUsage(Map<String, Object> vmStruct, VmStatistics vm) {
-        Object[] vmDisksUsage = (Object[]) vmStruct.get(VdsProperties.VM_DISKS_USAGE);
-        if (vmDisksUsage != null) {
-            ArrayList<Object> disksUsageList = new ArrayList<>(Arrays.asList(vmDisksUsage));
-            vm.setDisksUsage(SerializationFactory.getSerializer().serializeUnformattedJson(disksUsageList));
-        }
-    }
-
     private static void updatePackagesVersions(VDS vds, Map<String, Object> struct) {
 
         vds.setVersionName(assignStringValue(struct, VdsProperties.version_name));
@@ -1179,37 +1110,21 @@ public class VdsBrokerObjectsBuilder {
     }
 
     public static void updateVDSStatisticsData(VDS vds, Map<String, Object> struct) {
+        updateVDSStatisticsData(vds, struct, new StatisticsParser());
+    }
+
+    /**
+     * @param statisticsParser
+     *            the statistics parser of the host, whose scratch objects are reused to update its interfaces
+     */
+    public static void updateVDSStatisticsData(VDS vds, Map<String, Object> struct, StatisticsParser statisticsParser) {
         // ------------- vds memory usage ---------------------------
         vds.setUsageMemPercent(assignIntValue(struct, VdsProperties.mem_usage));
 
         // ------------- vds network statistics ---------------------
         Map<String, Object> interfaces = (Map<String, Object>) struct.get(VdsProperties.NETWORK);
         if (interfaces != null) {
-            int networkUsage = 0;
-            Map<String, VdsNetworkInterface> nicsByName = Entities.entitiesByName(vds.getInterfaces());
-            NetworkStatisticsBuilder statsBuilder = new NetworkStatisticsBuilder();
-            for (Entry<String, Object> entry : interfaces.entrySet()) {
-                if (nicsByName.containsKey(entry.getKey())) {
-                    VdsNetworkInterface existingIface = nicsByName.get(entry.getKey());
-                    existingIface.setVdsId(vds.getId());
-
-                    Map<String, Object> dict = (Map<String, Object>) entry.getValue();
-                    VdsNetworkInterface reportedIface = new VdsNetworkInterface();
-                    extractInterfaceStatistics(dict, reportedIface);
-
-                    statsBuilder.updateExistingInterfaceStatistics(existingIface, reportedIface);
-                    existingIface.getStatistics()
-                            .setStatus(assignInterfaceStatusValue(dict, VdsProperties.iface_status));
-
-                    if (!NetworkCommonUtils.isVlan(existingIface) && !existingIface.isPartOfBond()) {
-                        Double ifaceUsage = computeInterfaceUsage(existingIface);
-                        if (ifaceUsage != null) {
-                            networkUsage = (int) Math.max(networkUsage, ifaceUsage);
-                        }
-                    }
-                }
-            }
-            vds.setUsageNetworkPercent(networkUsage);
+            vds.setUsageNetworkPercent(statisticsParser.updateHostInterfaceStatistics(vds, interfaces));
         }
 
         // ----------- vds cpu statistics info ---------------------
@@ -1323,30 +1238,6 @@ public class VdsBrokerObjectsBuilder {
         updateV2VJobs(vds, struct);
     }
 
-    private static void extractInterfaceStatistics(Map<String, Object> dict, NetworkInterface<?> iface) {
-        NetworkStatistics stats = iface.getStatistics();
-        stats.setReceiveDropRate(assignDoubleValueWithNullProtection(dict, VdsProperties.rx_dropped));
-        stats.setReceivedBytes(assignLongValue(dict, VdsProperties.rx_total));
-        stats.setTransmitDropRate(assignDoubleValueWithNullProtection(dict, VdsProperties.tx_dropped));
-        stats.setTransmittedBytes(assignLongValue(dict, VdsProperties.tx_total));
-        stats.setSampleTime(assignDoubleValue(dict, VdsProperties.sample_time));
-
-        iface.setSpeed(assignIntValue(dict, VdsProperties.INTERFACE_SPEED));
-    }
-
-    private static Double computeInterfaceUsage(VdsNetworkInterface iface) {
-        Double receiveRate = iface.getStatistics().getReceiveRate();
-        Double transmitRate = iface.getStatistics().getTransmitRate();
-
-        if (receiveRate == null) {
-            return transmitRate;
-        } else if (transmitRate == null) {
-            return receiveRate;
-        } else {
-            return Math.max(receiveRate, transmitRate);
-        }
-    }
-
     public static void updateNumaStatisticsData(VDS vds, Map<String, Object> struct) {
         List<VdsNumaNode> vdsNumaNodes = new ArrayList<>();
         if (vds.getNumaNodeList() != null && !vds.getNumaNodeList().isEmpty()) {
@@ -1497,21 +1388,6 @@ public class VdsBrokerObjectsBuilder {
         }
     }
 
-    private static InterfaceStatus assignInterfaceStatusValue(Map<String, Object> input, String name) {
-        InterfaceStatus ifaceStatus = InterfaceStatus.NONE;
-        if (input.containsKey(name)) {
-            String stringValue = (String) ((input.get(name) instanceof String) ? input.get(name) : null);
-            if (!StringUtils.isEmpty(stringValue)) {
-                if (stringValue.toLowerCase().trim().equals("up")) {
-                    ifaceStatus = InterfaceStatus.UP;
-                } else {
-                    ifaceStatus = InterfaceStatus.DOWN;
-                }
-            }
-        }
-        return ifaceStatus;
-    }
-
     private static Double assignDoubleValue(Map<String, Object> input, String name) {
         Object value = input.get(name);
         if (value instanceof Double) {
@@ -1522,17 +1398,6 @@ public class VdsBrokerObjectsBuilder {
         return null;
     }
 
-    /**
-     * Do the same logic as assignDoubleValue does, but instead, in case of null we return 0.
-     * @param input - the Input xml
-     * @param name - The name of the field we want to cast it to double.
-     * @return - the double value.
-     */
-    private static Double assignDoubleValueWithNullProtection(Map<String, Object> input, String name) {
-        Double doubleValue = assignDoubleValue(input, name);
-        return doubleValue == null ? Double.valueOf(0.0) : doubleValue;
-    }
-
     private static Integer assignIntValue(Map input, String name) {
         if (input.containsKey(name)) {
             if (input.get(name) instanceof Integer) {
@@ -1634,42 +1499,7 @@ public class VdsBrokerObjectsBuilder {
     }
 
     public static List<DiskImageDynamic> buildVmDiskStatistics(Map<String, Object> vmStruct) {
-        Map<String, Object> disks = (Map<String, Object>) vmStruct.get(VdsProperties.vm_disks);
-        if (disks == null) {
-            return Collections.emptyList();
-        }
-
-        List<DiskImageDynamic> disksData = new ArrayList<>();
-        for (Object diskAsObj : disks.values()) {
-            Map<String, Object> disk = (Map<String, Object>) diskAsObj;
-            DiskImageDynamic diskData = new DiskImageDynamic();
-            String imageGroupIdString = assignStringValue(disk, VdsProperties.image_group_id);
-            if (!StringUtils.isEmpty(imageGroupIdString)) {
-                Guid imageGroupIdGuid = new Guid(imageGroupIdString);
-                diskData.setId(imageGroupIdGuid);
-                diskData.setReadRate(assignIntValue(disk, VdsProperties.vm_disk_read_rate));
-                diskData.setWriteRate(assignIntValue(disk, VdsProperties.vm_disk_write_rate));
-
-                if (disk.containsKey(VdsProperties.disk_true_size)) {
-                    Long size = assignLongValue(disk, VdsProperties.disk_true_size);
-                    diskData.setActualSize(size != null ? size : 0);
-                }
-                if (disk.containsKey(VdsProperties.vm_disk_read_latency)) {
-                    diskData.setReadLatency(assignDoubleValueWithNullProtection(disk,
-                            VdsProperties.vm_disk_read_latency) / NANO_SECONDS);
-                }
-                if (disk.containsKey(VdsProperties.vm_disk_write_latency)) {
-                    diskData.setWriteLatency(assignDoubleValueWithNullProtection(disk,
-                            VdsProperties.vm_disk_write_latency) / NANO_SECONDS);
-                }
-                if (disk.containsKey(VdsProperties.vm_disk_flush_latency)) {
-                    diskData.setFlushLatency(assignDoubleValueWithNullProtection(disk,
-                            VdsProperties.vm_disk_flush_latency) / NANO_SECONDS);
-                }
-                disksData.add(diskData);
-            }
-        }
-        return disksData;
+        return StatisticsParser.parseVmDiskStatistics(vmStruct);
     }
 
     private static void initAppsList(Map<String, Object> vmStruct, VmDynamic vm) {
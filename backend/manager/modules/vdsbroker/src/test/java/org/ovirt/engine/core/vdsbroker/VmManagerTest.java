@@ -0,0 +1,50 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.ovirt.engine.core.compat.Guid;
+
+public class VmManagerTest {
+
+    private static final int MAX_SKIPPED_CYCLES = 2;
+
+    private final VmManager vmManager = new VmManager(Guid.newGuid());
+
+    @Test
+    public void firstAnalysisIsNeverSkipped() {
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+    }
+
+    @Test
+    public void unchangedDataIsSkippedUpToTheLimit() {
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+        assertTrue(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+        assertTrue(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+        assertTrue(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+    }
+
+    @Test
+    public void changedDataIsAnalyzed() {
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("2", MAX_SKIPPED_CYCLES));
+        assertTrue(vmManager.isUnchangedSinceLastAnalysis("2", MAX_SKIPPED_CYCLES));
+    }
+
+    @Test
+    public void clearedDataIsAnalyzed() {
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+        vmManager.clearLastAnalyzedData();
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("1", MAX_SKIPPED_CYCLES));
+    }
+
+    @Test
+    public void changedDataWithSameHashCodeIsAnalyzed() {
+        // the hash codes of both strings are the same
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("Aa", MAX_SKIPPED_CYCLES));
+        assertFalse(vmManager.isUnchangedSinceLastAnalysis("BB", MAX_SKIPPED_CYCLES));
+        assertTrue(vmManager.isUnchangedSinceLastAnalysis("BB", MAX_SKIPPED_CYCLES));
+    }
+}
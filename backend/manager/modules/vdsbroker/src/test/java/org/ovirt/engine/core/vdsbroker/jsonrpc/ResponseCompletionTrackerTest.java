@@ -0,0 +1,49 @@
+package org.ovirt.engine.core.vdsbroker.jsonrpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.ovirt.engine.core.vdsbroker.TransportRunTimeException;
+
+public class ResponseCompletionTrackerTest {
+
+    @Test
+    public void completesWhenTheTrackedFutureIsDone() throws Exception {
+        FutureTask<String> response = new FutureTask<>(() -> "done");
+        CompletableFuture<String> tracked = ResponseCompletionTracker.track(response);
+        assertFalse(tracked.isDone());
+
+        response.run();
+
+        assertEquals("done", tracked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void completesFuturesTrackedAfterThePollingStopped() throws Exception {
+        FutureTask<String> first = new FutureTask<>(() -> "first");
+        CompletableFuture<String> firstTracked = ResponseCompletionTracker.track(first);
+        first.run();
+        assertEquals("first", firstTracked.get(5, TimeUnit.SECONDS));
+
+        FutureTask<String> second = new FutureTask<>(() -> "second");
+        CompletableFuture<String> secondTracked = ResponseCompletionTracker.track(second);
+        second.run();
+
+        assertEquals("second", secondTracked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = TransportRunTimeException.class)
+    public void joinThrowsTheFailureAsIs() {
+        FutureTask<String> response = new FutureTask<>(() -> {
+            throw new TransportRunTimeException("Connection issues", null);
+        });
+        response.run();
+
+        ResponseCompletionTracker.join(ResponseCompletionTracker.track(response));
+    }
+}
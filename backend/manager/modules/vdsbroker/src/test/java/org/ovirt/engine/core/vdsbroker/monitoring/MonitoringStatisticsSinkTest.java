@@ -0,0 +1,148 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.ovirt.engine.core.utils.MockConfigRule.mockConfig;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.DiskImageDynamicDao;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.MockConfigRule;
+import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MonitoringStatisticsSinkTest {
+
+    @Rule
+    public MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.MonitoringStatisticsWriteBehind, true),
+            mockConfig(ConfigValues.MonitoringStatisticsFlushIntervalInSeconds, 15));
+
+    @Mock
+    private SchedulerUtilQuartzImpl schedulerUtil;
+    @Mock
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Mock
+    private InterfaceDao interfaceDao;
+    @Mock
+    private VmStatisticsDao vmStatisticsDao;
+    @Mock
+    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
+    @Mock
+    private DiskImageDynamicDao diskImageDynamicDao;
+
+    @Captor
+    private ArgumentCaptor<Collection<VmStatistics>> vmStatisticsCaptor;
+
+    @InjectMocks
+    private MonitoringStatisticsSink sink;
+
+    @Test
+    public void statisticsAreCoalescedUntilFlushed() {
+        sink.init();
+        Guid vmId = Guid.newGuid();
+        VmStatistics first = vmStatistics(vmId, 10);
+        VmStatistics second = vmStatistics(vmId, 20);
+
+        sink.saveVmStatistics(Collections.singletonList(first));
+        sink.saveVmStatistics(Collections.singletonList(second));
+        verifyZeroInteractions(vmStatisticsDao);
+
+        sink.flush();
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertThat(vmStatisticsCaptor.getValue()).containsExactly(second);
+    }
+
+    @Test
+    public void discardedStatisticsAreNotFlushed() {
+        sink.init();
+        VdsStatistics statistics = new VdsStatistics();
+        statistics.setId(Guid.newGuid());
+
+        sink.saveHostStatistics(statistics, Collections.emptyList());
+        sink.discardHostStatistics(statistics.getId());
+        sink.flush();
+
+        verify(vdsStatisticsDao, never()).updateAllInBatch(anyCollection());
+    }
+
+    @Test
+    public void statisticsOfFailedBatchAreRetried() {
+        sink.init();
+        Guid vmId = Guid.newGuid();
+        Guid otherVmId = Guid.newGuid();
+        VmStatistics failed = vmStatistics(vmId, 10);
+        VmStatistics failedOther = vmStatistics(otherVmId, 10);
+        VmStatistics newer = vmStatistics(vmId, 20);
+        doAnswer(invocation -> {
+            sink.saveVmStatistics(Collections.singletonList(newer));
+            throw new RuntimeException("failed");
+        }).doNothing().when(vmStatisticsDao).updateAllInBatch(anyCollection());
+
+        sink.saveVmStatistics(Arrays.asList(failed, failedOther));
+        sink.flush();
+        sink.flush();
+
+        verify(vmStatisticsDao, times(2)).updateAllInBatch(vmStatisticsCaptor.capture());
+        // the sample queued during the failed flush is newer than the failed one
+        assertThat(vmStatisticsCaptor.getValue()).containsExactlyInAnyOrder(newer, failedOther);
+    }
+
+    @Test
+    public void discardedDiskImageDynamicsAreNotFlushed() {
+        sink.init();
+        DiskImageDynamic diskImageDynamic = new DiskImageDynamic();
+        diskImageDynamic.setId(Guid.newGuid());
+
+        sink.saveDiskImageDynamics(Collections.singletonList(new Pair<>(Guid.newGuid(), diskImageDynamic)));
+        sink.discardDiskImageDynamics(diskImageDynamic.getId());
+        sink.flush();
+
+        verifyZeroInteractions(diskImageDynamicDao);
+    }
+
+    @Test
+    public void statisticsAreWrittenThroughWhenDisabled() {
+        mcr.mockConfigValue(ConfigValues.MonitoringStatisticsWriteBehind, false);
+        sink.init();
+        VmStatistics statistics = vmStatistics(Guid.newGuid(), 10);
+
+        sink.saveVmStatistics(Collections.singletonList(statistics));
+
+        verify(vmStatisticsDao).updateAllInBatch(vmStatisticsCaptor.capture());
+        assertThat(vmStatisticsCaptor.getValue()).containsExactly(statistics);
+        verifyZeroInteractions(schedulerUtil);
+    }
+
+    private static VmStatistics vmStatistics(Guid vmId, int cpuUser) {
+        VmStatistics statistics = new VmStatistics();
+        statistics.setId(vmId);
+        statistics.setCpuUser((double) cpuUser);
+        return statistics;
+    }
+}
@@ -15,9 +15,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.transaction.TransactionManager;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -40,6 +43,7 @@ import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.di.InjectorRule;
 import org.ovirt.engine.core.utils.MockConfigRule;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.DumpXmlsVDSCommand;
@@ -69,6 +73,7 @@ public class VmDevicesMonitoringTest {
 
     private static final Guid VDS_ID = new Guid("b7dfe5e6-5667-4e40-8ecb-6d97c8df504d");
     private static final Guid VM_ID = new Guid("7cfc3666-5185-4438-8381-646de77ca9a7");
+    private static final Guid VM_ID_2 = new Guid("2e6a1e7c-4b0f-4b48-9a37-58f6e5a4d2c1");
     private static final Guid VIDEO_DEVICE_ID = new Guid("5987c100-a653-4a6e-87ae-fe1f808225ed");
     private static final Guid CDROM_DEVICE_ID = new Guid("dbf244e9-b91c-4304-a96e-f6868b362443");
     private static final String VIDEO_DEVICE_ADDRESS = "address1";
@@ -77,6 +82,9 @@ public class VmDevicesMonitoringTest {
     private static final String INITIAL_HASH = "123";
     private static final String NEW_HASH = "012";
 
+    private ExecutorService previousExecutor;
+    private ExecutorService executor;
+
     @Before
     public void init() {
         List<Pair<Guid, String>> initialHashes = new ArrayList<>();
@@ -86,6 +94,15 @@ public class VmDevicesMonitoringTest {
         doReturn(vdsManager).when(resourceManager).getVdsManager(any(Guid.class));
 
         injectorRule.bind(TransactionManager.class, transactionManager);
+        previousExecutor = ThreadPoolUtil.getExecutorService();
+        executor = Executors.newFixedThreadPool(2);
+        ThreadPoolUtil.setExecutorService(executor);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadPoolUtil.setExecutorService(previousExecutor);
+        executor.shutdownNow();
     }
 
     private static Map<String, Object> getDeviceInfo(Guid id, String deviceType, String device, String address) {
@@ -125,6 +142,7 @@ public class VmDevicesMonitoringTest {
 
     private void initDevices(VmDevice... devices) {
         doReturn(Arrays.asList(devices)).when(vmDeviceDao).getVmDeviceByVmId(VM_ID);
+        doReturn(Arrays.asList(devices)).when(vmDeviceDao).getVmDevicesByVmIds(Collections.singletonList(VM_ID));
         for (VmDevice device : devices) {
             doReturn(Collections.singletonList(device)).when(vmDeviceDao)
                     .getVmDevicesByDeviceId(device.getDeviceId(), device.getVmId());
@@ -139,8 +157,12 @@ public class VmDevicesMonitoringTest {
     }
 
     private void initDumpXmls(Map<String, Object>... deviceInfos) {
+        initDumpXmls(new Map[] { getDumpXmls(VM_ID, deviceInfos) });
+    }
+
+    private void initDumpXmls(Map<String, Object>[] vmInfos) {
         VDSReturnValue returnValue = new VDSReturnValue();
-        returnValue.setReturnValue(new Map[] { getDumpXmls(VM_ID, deviceInfos) });
+        returnValue.setReturnValue(vmInfos);
         returnValue.setSucceeded(true);
         doReturn(returnValue).when(resourceManager).runVdsCommand(eq(VDSCommandType.DumpXmls),
                 any(DumpXmlsVDSCommand.Params.class));
@@ -231,6 +253,60 @@ public class VmDevicesMonitoringTest {
         assertEquals(NEW_HASH, hashInfo.getSecond());
     }
 
+    @Test
+    public void testUpdateVms() {
+        VmDevice video = getVmDevice(VIDEO_DEVICE_ID, VM_ID, VmDeviceGeneralType.VIDEO, "cirrus", true);
+        VmDevice cdrom = getVmDevice(CDROM_DEVICE_ID, VM_ID_2, VmDeviceGeneralType.DISK, "cdrom", true);
+        doReturn(Arrays.asList(video, cdrom)).when(vmDeviceDao).getVmDevicesByVmIds(Arrays.asList(VM_ID, VM_ID_2));
+        initDumpXmls(new Map[] {
+                getDumpXmls(VM_ID, getDeviceInfo(VIDEO_DEVICE_ID, "video", "cirrus", VIDEO_DEVICE_ADDRESS)),
+                getDumpXmls(VM_ID_2, getDeviceInfo(CDROM_DEVICE_ID, "disk", "cdrom", CDROM_DEVICE_ADDRESS))
+        });
+
+        vmDevicesMonitoring.initDevicesStatuses(1L);
+
+        VmDevicesMonitoring.Change change = vmDevicesMonitoring.createChange(VDS_ID, 2L);
+        change.updateVm(VM_ID, NEW_HASH);
+        change.updateVm(VM_ID_2, NEW_HASH);
+        change.flush();
+
+        verify(resourceManager, times(1)).runVdsCommand(eq(VDSCommandType.DumpXmls), any());
+        verify(vmDeviceDao, never()).getVmDeviceByVmId(any());
+
+        ArgumentCaptor<Collection<VmDevice>> updateCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(vmDeviceDao, times(1)).updateAllInBatch(updateCaptor.capture());
+        assertEquals(2, updateCaptor.getValue().size());
+        assertEquals(VIDEO_DEVICE_ADDRESS, video.getAddress());
+        assertEquals(CDROM_DEVICE_ADDRESS, cdrom.getAddress());
+
+        verify(vmDeviceDao, never()).removeAll(any());
+        verify(vmDeviceDao, never()).saveAll(any());
+
+        ArgumentCaptor<List> updateHashesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(vmDynamicDao, times(1)).updateDevicesHashes(updateHashesCaptor.capture());
+        assertEquals(2, updateHashesCaptor.getValue().size());
+    }
+
+    @Test
+    public void testUpdateVmWithoutDeviceChanges() {
+        VmDevice video = getVmDevice(VIDEO_DEVICE_ID, VM_ID, VmDeviceGeneralType.VIDEO, "cirrus", true);
+        video.setAddress(VIDEO_DEVICE_ADDRESS);
+        video.setAlias("cirrus0");
+        initDevices(video);
+        initDumpXmls(getDeviceInfo(VIDEO_DEVICE_ID, "video", "cirrus", VIDEO_DEVICE_ADDRESS));
+
+        vmDevicesMonitoring.initDevicesStatuses(1L);
+
+        VmDevicesMonitoring.Change change = vmDevicesMonitoring.createChange(VDS_ID, 2L);
+        change.updateVm(VM_ID, NEW_HASH);
+        change.flush();
+
+        verify(vmDeviceDao, never()).updateAllInBatch(any());
+        verify(vmDeviceDao, never()).removeAll(any());
+        verify(vmDeviceDao, never()).saveAll(any());
+        verify(vmDynamicDao, times(1)).updateDevicesHashes(any());
+    }
+
     @Test
     public void testUpdateVmFromFullList() {
         initDevices();
@@ -0,0 +1,97 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.InterfaceStatus;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.compat.Guid;
+
+public class StatisticsParserTest {
+
+    @Test
+    public void vmStatisticsAreParsed() {
+        Map<String, Object> struct = new HashMap<>();
+        struct.put(VdsProperties.elapsed_time, "120.75");
+        struct.put(VdsProperties.cpu_sys, "0.50");
+        struct.put(VdsProperties.vm_usage_mem_percent, "37");
+        Map<String, Object> memoryStats = new HashMap<>();
+        memoryStats.put(VdsProperties.vm_guest_mem_free, "2347624");
+        struct.put(VdsProperties.vm_guest_mem_stats, memoryStats);
+
+        VmStatistics statistics = StatisticsParser.parseVmStatistics(struct);
+
+        assertEquals(120.75, statistics.getElapsedTime(), 0);
+        assertEquals(0.5, statistics.getCpuSys(), 0);
+        assertEquals(37, statistics.getUsageMemPercent().intValue());
+        assertEquals(2347624L, statistics.getGuestMemoryFree().longValue());
+        assertNull(statistics.getCpuUser());
+    }
+
+    @Test
+    public void missingVmNetworkIsNotReported() {
+        assertNull(StatisticsParser.parseVmInterfaceStatistics(new HashMap<>()));
+    }
+
+    @Test
+    public void reportedVmInterfacesAreParsed() {
+        Map<String, Object> network = new HashMap<>();
+        network.put("vnet0", nicStats("vnet0", "up"));
+        Map<String, Object> struct = new HashMap<>();
+        struct.put(VdsProperties.VM_NETWORK, network);
+
+        List<VmNetworkInterface> interfaces = StatisticsParser.parseVmInterfaceStatistics(struct);
+
+        assertEquals(1, interfaces.size());
+        assertEquals("vnet0", interfaces.get(0).getName());
+        assertEquals(1000, interfaces.get(0).getSpeed().intValue());
+    }
+
+    @Test
+    public void hostInterfacesAreUpdatedWithoutSharingValues() {
+        VDS vds = new VDS();
+        vds.setId(Guid.newGuid());
+        vds.getInterfaces().add(hostNic("eth0"));
+        vds.getInterfaces().add(hostNic("eth1"));
+        Map<String, Object> interfaces = new HashMap<>();
+        interfaces.put("eth0", nicStats("eth0", "up"));
+        Map<String, Object> unreported = new HashMap<>();
+        unreported.put(VdsProperties.iface_status, "down");
+        interfaces.put("eth1", unreported);
+
+        new StatisticsParser().updateHostInterfaceStatistics(vds, interfaces);
+
+        VdsNetworkInterface eth0 = vds.getInterfaces().get(0);
+        VdsNetworkInterface eth1 = vds.getInterfaces().get(1);
+        assertEquals(InterfaceStatus.UP, eth0.getStatistics().getStatus());
+        assertEquals(0L, eth0.getStatistics().getReceivedBytes().longValue());
+        assertEquals(InterfaceStatus.DOWN, eth1.getStatistics().getStatus());
+        assertNull(eth1.getStatistics().getReceivedBytes());
+        assertEquals(vds.getId(), eth1.getVdsId());
+    }
+
+    private static VdsNetworkInterface hostNic(String name) {
+        VdsNetworkInterface nic = new VdsNetworkInterface();
+        nic.setName(name);
+        return nic;
+    }
+
+    private static Map<String, Object> nicStats(String name, String status) {
+        Map<String, Object> nic = new HashMap<>();
+        nic.put(VdsProperties.VM_INTERFACE_NAME, name);
+        nic.put(VdsProperties.INTERFACE_SPEED, "1000");
+        nic.put(VdsProperties.iface_status, status);
+        nic.put(VdsProperties.rx_total, "483921604");
+        nic.put(VdsProperties.tx_total, "12893054");
+        nic.put(VdsProperties.sample_time, "4349153.52");
+        return nic;
+    }
+}
@@ -672,6 +672,22 @@ select fn_db_add_config_value('PredefinedVMProperties', 'sap_agent=^(true|false)
 ------------------------------------------------------------------------------------
 -- Using host identifier as header when using ovirt-vdsmfake (drive by rhev-scale team)
 select fn_db_add_config_value('UseHostNameIdentifier', 'false', 'general');
+-- Skip the analysis of VMs that were reported with the same data as in the previous monitoring cycle
+select fn_db_add_config_value('VmMonitoringDeltaMode', 'false', 'general');
+select fn_db_add_config_value('VmMonitoringDeltaMaxSkippedCycles', '10', 'general');
+-- Evaluate the scheduling policy units of large clusters concurrently
+select fn_db_add_config_value('SchedulerParallelHostEvaluation', 'false', 'general');
+select fn_db_add_config_value('SchedulerParallelHostEvaluationThreads', '4', 'general');
+select fn_db_add_config_value('SchedulerParallelHostEvaluationMinHosts', '50', 'general');
+-- Coalesce the monitoring statistics in memory and write them periodically
+select fn_db_add_config_value('MonitoringStatisticsWriteBehind', 'false', 'general');
+select fn_db_add_config_value('MonitoringStatisticsFlushIntervalInSeconds', '15', 'general');
+-- Bound the search queries cache
+select fn_db_add_config_value('SearchQueryCacheSize', '1000', 'general');
+-- Write the audit log in the background, in batches
+select fn_db_add_config_value('AuditLogAsyncWrite', 'false', 'general');
+select fn_db_add_config_value('AuditLogAsyncWriteQueueSize', '10000', 'general');
+select fn_db_add_config_value('AuditLogAsyncWriteBatchSize', '500', 'general');
 
 
 